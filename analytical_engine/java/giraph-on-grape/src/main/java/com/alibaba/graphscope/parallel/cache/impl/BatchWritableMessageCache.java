@@ -25,6 +25,9 @@ import com.alibaba.graphscope.utils.Gid2Data;
 import com.alibaba.graphscope.utils.Gid2DataFixed;
 import com.alibaba.graphscope.utils.Gid2DataResizable;
 
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+import org.apache.giraph.combiner.MessageCombiner;
 import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.io.WritableComparable;
@@ -51,6 +54,15 @@ public class BatchWritableMessageCache<I extends WritableComparable, M extends W
 
     private Gid2Data[] cache;
 
+    /**
+     * Combiner for outgoing messages, null if not set.
+     */
+    private MessageCombiner<? super I, M> combiner;
+    /**
+     * For each dst fragment, gid to the index of its combined message in the cache.
+     */
+    private Long2IntOpenHashMap[] gid2Index;
+
     public BatchWritableMessageCache(
             int fragNum,
             int fragId,
@@ -73,10 +85,31 @@ public class BatchWritableMessageCache<I extends WritableComparable, M extends W
                 cache[i] = Gid2Data.newFixed(cacheSize);
             }
         }
+
+        if (conf.useOutgoingMessageCombiner()) {
+            combiner = conf.createOutgoingMessageCombiner();
+            gid2Index = new Long2IntOpenHashMap[fragNum];
+            for (int i = 0; i < fragNum; ++i) {
+                gid2Index[i] = new Long2IntOpenHashMap();
+                gid2Index[i].defaultReturnValue(-1);
+            }
+            logger.info("Combining out messages with " + combiner.getClass().getName());
+        }
     }
 
     @Override
     public void sendMessage(int dstFragId, GS_VID_T gid, M message) {
+        if (Objects.nonNull(combiner)) {
+            int index = gid2Index[dstFragId].get((long) (Long) gid);
+            if (index >= 0) {
+                combiner.combine(null, getCachedMessage(dstFragId, index), message);
+                return;
+            }
+            // The message object may be reused by caller, combine it into a message we own.
+            M combined = combiner.createInitialMessage();
+            combiner.combine(null, combined, message);
+            message = combined;
+        }
         if (!cache[dstFragId].add((Long) gid, message)) {
             if (dstFragId == fragId) {
                 throw new IllegalStateException("message to self can not be failed");
@@ -96,9 +129,23 @@ public class BatchWritableMessageCache<I extends WritableComparable, M extends W
             //            cache[dstFragId].clear();
             // If we clear the original gid2dataFixed, it seems to affect the message sent.
             cache[dstFragId] = Gid2Data.newFixed(cacheSize);
+            if (Objects.nonNull(combiner)) {
+                gid2Index[dstFragId].clear();
+            }
             // resend
             cache[dstFragId].add((Long) gid, message);
         }
+        if (Objects.nonNull(combiner)) {
+            gid2Index[dstFragId].put((long) (Long) gid, cache[dstFragId].size() - 1);
+        }
+    }
+
+    private M getCachedMessage(int dstFragId, int index) {
+        if (dstFragId == fragId) {
+            return (M) ((Gid2DataResizable) cache[dstFragId]).getData().get(index);
+        } else {
+            return (M) ((Gid2DataFixed) cache[dstFragId]).getMsgOnVertex()[index];
+        }
     }
 
     @Override
@@ -134,6 +181,9 @@ public class BatchWritableMessageCache<I extends WritableComparable, M extends W
     public void clear() {
         for (int i = 0; i < cache.length; ++i) {
             cache[i].clear();
+            if (Objects.nonNull(combiner)) {
+                gid2Index[i].clear();
+            }
         }
     }
 
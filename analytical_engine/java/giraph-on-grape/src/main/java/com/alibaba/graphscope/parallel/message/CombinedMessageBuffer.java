@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.alibaba.graphscope.parallel.message;
+
+import com.alibaba.graphscope.parallel.message.primitives.DoubleCombinedMessageBuffer;
+import com.alibaba.graphscope.parallel.message.primitives.LongCombinedMessageBuffer;
+
+import org.apache.giraph.combiner.MessageCombiner;
+import org.apache.hadoop.io.DoubleWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+
+import java.util.BitSet;
+
+/**
+ * Holds at most one message per index(lid), messages to the same index are combined with a giraph
+ * {@link MessageCombiner} as they arrive. The combiner is always called with a null vertex id,
+ * since only lids are available here.
+ *
+ * @param <M> message type
+ */
+public abstract class CombinedMessageBuffer<M extends Writable> {
+
+    protected final MessageCombiner<?, M> combiner;
+    private final int capacity;
+    private final BitSet occupied;
+    private int size;
+
+    protected CombinedMessageBuffer(int capacity, MessageCombiner<?, M> combiner) {
+        this.capacity = capacity;
+        this.combiner = combiner;
+        this.occupied = new BitSet(capacity);
+        this.size = 0;
+    }
+
+    /**
+     * Create a buffer for the message class, DoubleWritable and LongWritable messages are kept in
+     * primitive arrays.
+     */
+    public static <M extends Writable> CombinedMessageBuffer<M> create(
+            int capacity, MessageCombiner<?, M> combiner, Class<? extends M> messageClass) {
+        if (messageClass.equals(DoubleWritable.class)) {
+            return (CombinedMessageBuffer<M>)
+                    new DoubleCombinedMessageBuffer(
+                            capacity, (MessageCombiner<?, DoubleWritable>) combiner);
+        } else if (messageClass.equals(LongWritable.class)) {
+            return (CombinedMessageBuffer<M>)
+                    new LongCombinedMessageBuffer(
+                            capacity, (MessageCombiner<?, LongWritable>) combiner);
+        } else {
+            return new WritableCombinedMessageBuffer<>(capacity, combiner);
+        }
+    }
+
+    /**
+     * Combine the message into the slot of index. The message is not retained, so it can be reused
+     * by the caller.
+     */
+    public void combine(int index, M message) {
+        if (index < 0 || index >= capacity) {
+            throw new IndexOutOfBoundsException("index: " + index + " capacity " + capacity);
+        }
+        boolean exists = occupied.get(index);
+        combineInto(index, exists, message);
+        if (!exists) {
+            occupied.set(index);
+            size += 1;
+        }
+    }
+
+    /**
+     * @param exists false if the slot holds no message, in which case the slot should start from
+     *     the initial message of the combiner.
+     */
+    protected abstract void combineInto(int index, boolean exists, M message);
+
+    /**
+     * Get the combined message of index. The returned object may be reused by following calls.
+     */
+    public abstract M get(int index);
+
+    public boolean has(int index) {
+        return index >= 0 && index < capacity && occupied.get(index);
+    }
+
+    /**
+     * @return the first index which holds a message at or after from, -1 if none.
+     */
+    public int nextIndex(int from) {
+        return occupied.nextSetBit(from);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        occupied.clear();
+        size = 0;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.alibaba.graphscope.parallel.message;
+
+import com.alibaba.graphscope.ds.Vertex;
+import com.alibaba.graphscope.fragment.IFragment;
+import com.alibaba.graphscope.serialization.FFIByteVectorInputStream;
+import com.alibaba.graphscope.stdcxx.FFIByteVector;
+import com.alibaba.graphscope.utils.FFITypeFactoryhelper;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+
+import org.apache.giraph.combiner.MessageCombiner;
+import org.apache.giraph.conf.ImmutableClassesGiraphConfiguration;
+import org.apache.giraph.utils.ReflectionUtils;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableComparable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Message store used when a message combiner is set. Messages are indexed by lid and combined on
+ * arrival, so each inner vertex holds at most one message, and no message object is created per
+ * received message.
+ */
+public class CombinedMessageStore<
+                OID_T extends WritableComparable, MSG_T extends Writable, GS_VID_T>
+        implements MessageStore<OID_T, MSG_T, GS_VID_T> {
+
+    private static Logger logger = LoggerFactory.getLogger(CombinedMessageStore.class);
+
+    private IFragment<?, GS_VID_T, ?, ?> fragment;
+    private ImmutableClassesGiraphConfiguration<OID_T, ?, ?> conf;
+    private Vertex<GS_VID_T> vertex;
+    /**
+     * lid 2 combined message
+     */
+    private CombinedMessageBuffer<MSG_T> messages;
+    /**
+     * Reused for deserializing received messages.
+     */
+    private MSG_T receivedMessage;
+
+    private SingleMessageIterable iterable;
+    private int vid_t;
+
+    public CombinedMessageStore(
+            IFragment<?, GS_VID_T, ?, ?> fragment,
+            ImmutableClassesGiraphConfiguration<OID_T, ?, ?> conf,
+            MessageCombiner<? super OID_T, MSG_T> combiner) {
+        this.fragment = fragment;
+        this.conf = conf;
+        vertex = (Vertex<GS_VID_T>) FFITypeFactoryhelper.newVertex(conf.getGrapeVidClass());
+        Class<? extends MSG_T> messageClass =
+                (Class<? extends MSG_T>) conf.getIncomingMessageValueClass();
+        messages =
+                CombinedMessageBuffer.create(
+                        (int) fragment.getInnerVerticesNum(), combiner, messageClass);
+        receivedMessage = ReflectionUtils.newInstance(messageClass);
+        iterable = new SingleMessageIterable();
+        if (conf.getGrapeVidClass().equals(Long.class)) {
+            vid_t = 0;
+        } else if (conf.getGrapeVidClass().equals(Integer.class)) {
+            vid_t = 1;
+        } else {
+            throw new IllegalStateException("Grape vid should be long or integer");
+        }
+        logger.info(
+                "Using combined message store with {} of message {}",
+                messages.getClass().getSimpleName(),
+                messageClass.getSimpleName());
+    }
+
+    @Override
+    public void addLidMessage(GS_VID_T lid, MSG_T writable) {
+        messages.combine(((Number) lid).intValue(), writable);
+    }
+
+    @Override
+    public void addGidMessages(Iterator<GS_VID_T> gids, Iterator<MSG_T> writables) {
+        while (gids.hasNext() && writables.hasNext()) {
+            addGidMessage(gids.next(), writables.next());
+        }
+    }
+
+    @Override
+    public void addGidMessage(GS_VID_T gid, MSG_T writable) {
+        if (!fragment.innerVertexGid2Vertex(gid, vertex)) {
+            throw new IllegalStateException("gid to vertex convertion failed: " + gid);
+        }
+        addLidMessage(vertex.GetValue(), writable);
+    }
+
+    @Override
+    public void swap(MessageStore<OID_T, MSG_T, GS_VID_T> other) {
+        if (other instanceof CombinedMessageStore) {
+            CombinedMessageStore<OID_T, MSG_T, GS_VID_T> otherStore =
+                    (CombinedMessageStore<OID_T, MSG_T, GS_VID_T>) other;
+            if (!this.fragment.equals(otherStore.fragment)) {
+                logger.error("fragment not the same");
+                return;
+            }
+            CombinedMessageBuffer<MSG_T> tmp = this.messages;
+            this.messages = otherStore.messages;
+            otherStore.messages = tmp;
+        } else {
+            logger.error("Can not swap with a non-CombinedMessageStore obj");
+        }
+    }
+
+    @Override
+    public void clearAll() {
+        messages.clear();
+    }
+
+    @Override
+    public boolean anyMessageReceived() {
+        return messages.size() > 0;
+    }
+
+    @Override
+    public boolean messageAvailable(GS_VID_T lid) {
+        return messages.has(((Number) lid).intValue());
+    }
+
+    @Override
+    public boolean messageAvailable(Long lid) {
+        return messages.has(lid.intValue());
+    }
+
+    @Override
+    public Iterable<MSG_T> getMessages(GS_VID_T lid) {
+        return getMessages(((Number) lid).intValue());
+    }
+
+    @Override
+    public Iterable<MSG_T> getMessages(Long lid) {
+        return getMessages(lid.intValue());
+    }
+
+    /**
+     * The returned iterable is reused by the next call.
+     */
+    private Iterable<MSG_T> getMessages(int lid) {
+        MSG_T message = messages.get(lid);
+        if (message == null) {
+            return () -> Collections.emptyIterator();
+        }
+        iterable.message = message;
+        return iterable;
+    }
+
+    @Override
+    public void digest(FFIByteVector vector) {
+        FFIByteVectorInputStream inputStream = new FFIByteVectorInputStream(vector);
+        int size = (int) vector.size();
+        if (size <= 0) {
+            return;
+        }
+        logger.debug("CombinedMessageStore digest FFIVector size {}", size);
+        try {
+            long expectSize = inputStream.readLong();
+            if (expectSize != inputStream.longAvailable()) {
+                throw new IllegalStateException(
+                        "Expect bytes "
+                                + expectSize
+                                + " available: "
+                                + inputStream.longAvailable());
+            }
+            while (inputStream.longAvailable() > 0) {
+                GS_VID_T gid = readGid(inputStream);
+                receivedMessage.readFields(inputStream);
+                addGidMessage(gid, receivedMessage);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (inputStream.longAvailable() != 0) {
+            throw new IllegalStateException(
+                    "still " + inputStream.longAvailable() + " remains in stream");
+        }
+    }
+
+    @Override
+    public void digestByteBuffer(ByteBuf buf, boolean fromSelf) {
+        ByteBufInputStream inputStream = new ByteBufInputStream(buf);
+        if (fromSelf) {
+            buf.skipBytes(5);
+        }
+        logger.debug(
+                "CombinedMessageStore digest bytebuf size {} direct {}",
+                buf.readableBytes(),
+                buf.isDirect());
+        try {
+            while (buf.readableBytes() > 8) {
+                GS_VID_T gid = readGid(inputStream);
+                receivedMessage.readFields(inputStream);
+                addGidMessage(gid, receivedMessage);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (buf.readableBytes() != 0) {
+            throw new IllegalStateException("readable bytes no subtracted by 16");
+        }
+    }
+
+    private GS_VID_T readGid(DataInput input) throws IOException {
+        switch (vid_t) {
+            case 0:
+                return (GS_VID_T) (Long) input.readLong();
+            case 1:
+                return (GS_VID_T) (Integer) input.readInt();
+            default:
+                throw new IllegalStateException("Unknown flag " + vid_t);
+        }
+    }
+
+    private class SingleMessageIterable implements Iterable<MSG_T> {
+        private MSG_T message;
+
+        @Override
+        public Iterator<MSG_T> iterator() {
+            return new Iterator<MSG_T>() {
+                private boolean consumed = false;
+
+                @Override
+                public boolean hasNext() {
+                    return !consumed;
+                }
+
+                @Override
+                public MSG_T next() {
+                    if (consumed) {
+                        throw new NoSuchElementException();
+                    }
+                    consumed = true;
+                    return message;
+                }
+            };
+        }
+    }
+}
@@ -40,6 +40,11 @@ public class DefaultMessageStoreFactory<I extends WritableComparable, M extends
      */
     @Override
     public MessageStore<I, M, GS_VID_T> newStore(MessageClasses<I, M> messageClasses) {
+        if (messageClasses.useMessageCombiner()) {
+            logger.info("Using combined Message store");
+            return new CombinedMessageStore<I, M, GS_VID_T>(
+                    fragment, conf, messageClasses.createMessageCombiner(conf));
+        }
         logger.info("Using default Message store");
         return new DefaultMessageStore<I, M, GS_VID_T>(fragment, conf);
     }
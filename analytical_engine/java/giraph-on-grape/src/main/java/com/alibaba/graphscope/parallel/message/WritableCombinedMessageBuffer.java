@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.alibaba.graphscope.parallel.message;
+
+import org.apache.giraph.combiner.MessageCombiner;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.Writable;
+
+import java.io.IOException;
+
+/**
+ * Combined message buffer for arbitrary writable messages. Each slot owns one message object, which
+ * is reset to the initial message and reused across supersteps.
+ */
+public class WritableCombinedMessageBuffer<M extends Writable> extends CombinedMessageBuffer<M> {
+
+    private final Writable[] slots;
+    private final DataOutputBuffer initialMessageBytes;
+    private final DataInputBuffer inputBuffer;
+
+    public WritableCombinedMessageBuffer(int capacity, MessageCombiner<?, M> combiner) {
+        super(capacity, combiner);
+        this.slots = new Writable[capacity];
+        this.initialMessageBytes = new DataOutputBuffer();
+        this.inputBuffer = new DataInputBuffer();
+        try {
+            combiner.createInitialMessage().write(initialMessageBytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("serialize initial message failed", e);
+        }
+    }
+
+    @Override
+    protected void combineInto(int index, boolean exists, M message) {
+        M slot = (M) slots[index];
+        if (slot == null) {
+            slot = combiner.createInitialMessage();
+            slots[index] = slot;
+        } else if (!exists) {
+            resetToInitial(slot);
+        }
+        combiner.combine(null, slot, message);
+    }
+
+    private void resetToInitial(M slot) {
+        inputBuffer.reset(initialMessageBytes.getData(), initialMessageBytes.getLength());
+        try {
+            slot.readFields(inputBuffer);
+        } catch (IOException e) {
+            throw new IllegalStateException("reset message failed", e);
+        }
+    }
+
+    @Override
+    public M get(int index) {
+        return has(index) ? (M) slots[index] : null;
+    }
+}
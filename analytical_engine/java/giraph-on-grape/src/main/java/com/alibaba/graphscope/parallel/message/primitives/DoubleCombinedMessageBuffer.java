@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 Alibaba Group Holding Limited.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *   	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.alibaba.graphscope.parallel.message.primitives;
+
+import com.alibaba.graphscope.parallel.message.CombinedMessageBuffer;
+
+import org.apache.giraph.combiner.MessageCombiner;
+import org.apache.hadoop.io.DoubleWritable;
+
+/**
+ * Combined message buffer which keeps DoubleWritable messages in a double array.
+ */
+public class DoubleCombinedMessageBuffer extends CombinedMessageBuffer<DoubleWritable> {
+
+    private final double[] values;
+    private final double initialValue;
+    private final DoubleWritable accumulator;
+    private final DoubleWritable result;
+
+    public DoubleCombinedMessageBuffer(int capacity, MessageCombiner<?, DoubleWritable> combiner) {
+        super(capacity, combiner);
+        this.values = new double[capacity];
+        this.initialValue = combiner.createInitialMessage().get();
+        this.accumulator = new DoubleWritable();
+        this.result = new DoubleWritable();
+    }
+
+    @Override
+    protected void combineInto(int index, boolean exists, DoubleWritable message) {
+        accumulator.set(exists ? values[index] : initialValue);
+        combiner.combine(null, accumulator, message);
+        values[index] = accumulator.get();
+    }
+
+    @Override
+    public DoubleWritable get(int index) {
+        if (!has(index)) {
+            return null;
+        }
+        result.set(values[index]);
+        return result;
+    }
+}
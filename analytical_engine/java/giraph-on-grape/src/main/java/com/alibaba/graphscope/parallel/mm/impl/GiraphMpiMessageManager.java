@@ -27,6 +27,7 @@ import com.alibaba.graphscope.fragment.adaptor.ArrowProjectedAdaptor;
 import com.alibaba.graphscope.graph.VertexIdManager;
 import com.alibaba.graphscope.graph.impl.VertexImpl;
 import com.alibaba.graphscope.parallel.DefaultMessageManager;
+import com.alibaba.graphscope.parallel.message.CombinedMessageBuffer;
 import com.alibaba.graphscope.serialization.FFIByteVectorOutputStream;
 import com.alibaba.graphscope.stdcxx.FFIByteVector;
 import com.alibaba.graphscope.stdcxx.FFIByteVectorFactory;
@@ -64,6 +65,11 @@ public class GiraphMpiMessageManager<
     private long nbrUnitInitAddress;
     private ArrowProjectedFragment<GS_OID_T, GS_VID_T, ?, ?> projectedFragment;
     private VertexIdManager<GS_VID_T, OID_T> idManager;
+    /**
+     * Out messages combined by the lid of dst vertex, both inner and outer vertices. Null if no
+     * combiner is set.
+     */
+    private CombinedMessageBuffer<OUT_MSG_T> outMessageBuffer;
 
     public GiraphMpiMessageManager(
             IFragment fragment,
@@ -89,6 +95,17 @@ public class GiraphMpiMessageManager<
         offsetBeginPtrFirstAddr = this.projectedFragment.getOEOffsetsBeginPtr();
         nbrUnitEleSize = nbrUnit.elementSize();
         nbrUnitInitAddress = nbrUnit.getAddress();
+
+        if (configuration.useOutgoingMessageCombiner()) {
+            outMessageBuffer =
+                    CombinedMessageBuffer.create(
+                            (int) (fragment.getInnerVerticesNum() + fragment.getOuterVerticesNum()),
+                            configuration.createOutgoingMessageCombiner(),
+                            (Class<? extends OUT_MSG_T>)
+                                    configuration.getOutgoingMessageValueClass());
+            logger.info(
+                    "Combining out messages with {}", outMessageBuffer.getClass().getSimpleName());
+        }
     }
 
     /**
@@ -133,6 +150,15 @@ public class GiraphMpiMessageManager<
     }
 
     private void sendMessage(com.alibaba.graphscope.ds.Vertex<GS_VID_T> vertex, OUT_MSG_T msg) {
+        if (outMessageBuffer != null) {
+            // serialized in finishMessageSending
+            outMessageBuffer.combine((int) idParser.getOffset((Long) vertex.GetValue()), msg);
+            return;
+        }
+        writeMessage(vertex, msg);
+    }
+
+    private void writeMessage(com.alibaba.graphscope.ds.Vertex<GS_VID_T> vertex, OUT_MSG_T msg) {
         int dstfragId = fragment.getFragId(vertex);
         if (cacheOut[dstfragId].bytesWriten() >= THRESHOLD && dstfragId != fragId) {
             cacheOut[dstfragId].writeLong(
@@ -192,6 +218,19 @@ public class GiraphMpiMessageManager<
      */
     @Override
     public void finishMessageSending() {
+        if (outMessageBuffer != null) {
+            logger.info(
+                    "Frag [{}] combined out messages to {} vertices",
+                    fragId,
+                    outMessageBuffer.size());
+            for (int lid = outMessageBuffer.nextIndex(0);
+                    lid >= 0;
+                    lid = outMessageBuffer.nextIndex(lid + 1)) {
+                grapeVertex.SetValue((GS_VID_T) (Long) (long) lid);
+                writeMessage(grapeVertex, outMessageBuffer.get(lid));
+            }
+            outMessageBuffer.clear();
+        }
         for (int i = 0; i < fragNum; ++i) {
             long bytesWriten = cacheOut[i].bytesWriten();
             cacheOut[i].finishSetting();
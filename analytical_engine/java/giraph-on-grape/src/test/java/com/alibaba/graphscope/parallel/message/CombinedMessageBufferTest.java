@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.parallel.message;
+
+import org.apache.giraph.combiner.DoubleSumMessageCombiner;
+import org.apache.giraph.combiner.MessageCombiner;
+import org.apache.hadoop.io.DoubleWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CombinedMessageBufferTest {
+
+    @Test
+    public void testPrimitiveBuffer() {
+        CombinedMessageBuffer<DoubleWritable> buffer =
+                CombinedMessageBuffer.create(
+                        4, new DoubleSumMessageCombiner(), DoubleWritable.class);
+        DoubleWritable msg = new DoubleWritable();
+        for (int i = 0; i < 10; ++i) {
+            msg.set(1.0);
+            // message object is reused by sender
+            buffer.combine(i % 2, msg);
+        }
+        Assert.assertEquals(2, buffer.size());
+        Assert.assertEquals(5.0, buffer.get(0).get(), 1e-9);
+        Assert.assertEquals(5.0, buffer.get(1).get(), 1e-9);
+        Assert.assertFalse(buffer.has(2));
+        Assert.assertNull(buffer.get(3));
+        Assert.assertEquals(1, buffer.nextIndex(1));
+        Assert.assertEquals(-1, buffer.nextIndex(2));
+
+        buffer.clear();
+        Assert.assertEquals(0, buffer.size());
+        msg.set(3.0);
+        buffer.combine(0, msg);
+        Assert.assertEquals(3.0, buffer.get(0).get(), 1e-9);
+    }
+
+    @Test
+    public void testLongMinBuffer() {
+        MessageCombiner<LongWritable, LongWritable> minCombiner =
+                new MessageCombiner<LongWritable, LongWritable>() {
+                    @Override
+                    public void combine(
+                            LongWritable vertexIndex,
+                            LongWritable originalMessage,
+                            LongWritable messageToCombine) {
+                        if (messageToCombine.get() < originalMessage.get()) {
+                            originalMessage.set(messageToCombine.get());
+                        }
+                    }
+
+                    @Override
+                    public LongWritable createInitialMessage() {
+                        return new LongWritable(Long.MAX_VALUE);
+                    }
+                };
+        CombinedMessageBuffer<LongWritable> buffer =
+                CombinedMessageBuffer.create(2, minCombiner, LongWritable.class);
+        buffer.combine(1, new LongWritable(7));
+        buffer.combine(1, new LongWritable(3));
+        buffer.combine(1, new LongWritable(5));
+        Assert.assertEquals(3L, buffer.get(1).get());
+    }
+
+    @Test
+    public void testWritableBuffer() {
+        MessageCombiner<LongWritable, IntWritable> sumCombiner =
+                new MessageCombiner<LongWritable, IntWritable>() {
+                    @Override
+                    public void combine(
+                            LongWritable vertexIndex,
+                            IntWritable originalMessage,
+                            IntWritable messageToCombine) {
+                        originalMessage.set(originalMessage.get() + messageToCombine.get());
+                    }
+
+                    @Override
+                    public IntWritable createInitialMessage() {
+                        return new IntWritable(0);
+                    }
+                };
+        CombinedMessageBuffer<IntWritable> buffer =
+                CombinedMessageBuffer.create(3, sumCombiner, IntWritable.class);
+        Assert.assertTrue(buffer instanceof WritableCombinedMessageBuffer);
+        buffer.combine(2, new IntWritable(1));
+        buffer.combine(2, new IntWritable(2));
+        Assert.assertEquals(3, buffer.get(2).get());
+
+        // slots are reset to the initial message after clear
+        buffer.clear();
+        buffer.combine(2, new IntWritable(4));
+        Assert.assertEquals(4, buffer.get(2).get());
+    }
+}
@@ -27,6 +27,11 @@ for libfile in "$LIB_DIR"/*; do
     JAVA_CLASSPATH=$JAVA_CLASSPATH":$libfile"
 done
 
-java -cp $JAVA_CLASSPATH com.alibaba.maxgraph.benchmark.InteractiveBenchmark $CONF_DIR
+MAIN_CLASS=com.alibaba.maxgraph.benchmark.InteractiveBenchmark
+if [ "$1" = "open_loop" ]; then
+    MAIN_CLASS=com.alibaba.maxgraph.benchmark.OpenLoopBenchmark
+fi
+
+java -cp $JAVA_CLASSPATH $MAIN_CLASS $CONF_DIR
 
 cd $CURR_DIR
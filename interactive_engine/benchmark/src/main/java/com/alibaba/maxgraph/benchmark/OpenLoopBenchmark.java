@@ -0,0 +1,276 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.benchmark;
+
+import com.alibaba.maxgraph.common.Configuration;
+import com.alibaba.maxgraph.common.LdbcQuery;
+import com.alibaba.maxgraph.io.MaxGraphIORegistry;
+import com.alibaba.maxgraph.utils.LatencyRecorder;
+import com.alibaba.maxgraph.utils.PropertyUtil;
+import com.alibaba.maxgraph.utils.QueryUtil;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.tinkerpop.gremlin.driver.Client;
+import org.apache.tinkerpop.gremlin.driver.Cluster;
+import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
+import org.apache.tinkerpop.gremlin.driver.ser.GryoMessageSerializerV1d0;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop driver: queries are issued on a schedule fixed in advance (a target arrival rate, or
+ * the timestamps of a recorded query log) whether or not earlier queries have returned. Latency is
+ * measured from the scheduled start time, so queueing delay on the client side is not hidden
+ * (no coordinated omission).
+ *
+ * <p>A replay log has one query per line: {@code <offset_ms>|<query_name>|<gremlin query>}.
+ */
+public class OpenLoopBenchmark {
+
+    static class Arrival {
+        long offsetNano;
+        String queryName;
+        Callable<Integer> query;
+
+        Arrival(long offsetNano, String queryName, Callable<Integer> query) {
+            this.offsetNano = offsetNano;
+            this.queryName = queryName;
+            this.query = query;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.out.println("Error, Usage: <interactive-benchmark.properties>");
+            return;
+        }
+
+        Properties properties = PropertyUtil.getProperties(args[0], false);
+        Configuration configuration = new Configuration(properties);
+
+        String gremlinServerEndpoint =
+                configuration.getString(Configuration.GREMLIN_SERVER_ENDPOINT);
+        String username = configuration.getString(Configuration.GREMLIN_USERNAME, "");
+        String password = configuration.getString(Configuration.GREMLIN_PASSWORD, "");
+        double targetQps = configuration.getDouble(Configuration.TARGET_QPS, 10.0);
+        String distribution =
+                configuration.getString(Configuration.ARRIVAL_DISTRIBUTION, "uniform");
+        int warmupSeconds = configuration.getInt(Configuration.WARMUP_SECONDS, 10);
+        int durationSeconds = configuration.getInt(Configuration.DURATION_SECONDS, 60);
+        int maxInflight = configuration.getInt(Configuration.MAX_INFLIGHT, 1024);
+        String replayLog = configuration.getString(Configuration.REPLAY_LOG, "");
+        double replaySpeed = configuration.getDouble(Configuration.REPLAY_SPEED, 1.0);
+        String reportOutput = configuration.getString(Configuration.REPORT_OUTPUT, "");
+        String reportFormat = configuration.getString(Configuration.REPORT_FORMAT, "json");
+
+        Client client = connect(gremlinServerEndpoint, username, password);
+        Iterator<Arrival> arrivals;
+        if (StringUtils.isNotEmpty(replayLog)) {
+            arrivals = replayArrivals(client, replayLog, replaySpeed);
+        } else {
+            List<LdbcQuery> ldbcQueryList = QueryUtil.initQueryList(configuration);
+            if (ldbcQueryList.isEmpty()) {
+                throw new IllegalArgumentException("no query enabled");
+            }
+            long endNano = TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+            arrivals =
+                    generatedArrivals(
+                            client,
+                            ldbcQueryList,
+                            targetQps,
+                            distribution.equalsIgnoreCase("poisson"),
+                            endNano);
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        long warmupNano = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        ExecutorService workers = Executors.newCachedThreadPool();
+        Semaphore inflight = new Semaphore(maxInflight);
+        AtomicLong lastCompleteNano = new AtomicLong(0L);
+        long dispatchLagNano = 0L;
+
+        System.out.println("Begin open-loop test, warm up " + warmupSeconds + "s ...");
+        long startNano = System.nanoTime();
+        while (arrivals.hasNext()) {
+            Arrival arrival = arrivals.next();
+            long scheduledNano = startNano + arrival.offsetNano;
+            long waitNano;
+            while ((waitNano = scheduledNano - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNano);
+            }
+            // Waiting for a permit delays the query, which is counted in its latency
+            inflight.acquire();
+            boolean measured = arrival.offsetNano >= warmupNano;
+            if (measured) {
+                dispatchLagNano = Math.max(dispatchLagNano, System.nanoTime() - scheduledNano);
+            }
+            workers.execute(
+                    () -> {
+                        try {
+                            arrival.query.call();
+                            long completeNano = System.nanoTime();
+                            if (measured) {
+                                recorder.record(arrival.queryName, completeNano - scheduledNano);
+                                lastCompleteNano.accumulateAndGet(completeNano, Math::max);
+                            }
+                        } catch (Exception e) {
+                            if (measured) {
+                                recorder.recordError(arrival.queryName);
+                            }
+                            System.err.println(
+                                    "Timeout or failed: QueryName[" + arrival.queryName + "]");
+                        } finally {
+                            inflight.release();
+                        }
+                    });
+        }
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        client.close();
+
+        long measuredNano = Math.max(1L, lastCompleteNano.get() - startNano - warmupNano);
+        long completed = recorder.getCount(LatencyRecorder.ALL_QUERIES);
+        Map<String, String> summary = new LinkedHashMap<>();
+        summary.put("mode", StringUtils.isNotEmpty(replayLog) ? "replay" : distribution);
+        summary.put(
+                "target_qps", StringUtils.isNotEmpty(replayLog) ? "" : String.valueOf(targetQps));
+        summary.put(
+                "achieved_qps", String.format(Locale.ROOT, "%.2f", completed * 1e9 / measuredNano));
+        summary.put("warmup_seconds", String.valueOf(warmupSeconds));
+        summary.put("max_dispatch_lag_ms", String.valueOf(dispatchLagNano / 1_000_000));
+
+        summary.forEach((k, v) -> System.out.println(k + ": " + v));
+        System.out.print(recorder.toTable());
+        if (StringUtils.isNotEmpty(reportOutput)) {
+            String report =
+                    reportFormat.equalsIgnoreCase("csv")
+                            ? recorder.toCsv()
+                            : recorder.toJson(summary);
+            try (Writer writer =
+                    new OutputStreamWriter(
+                            new FileOutputStream(reportOutput), StandardCharsets.UTF_8)) {
+                writer.write(report);
+            }
+            System.out.println("report written to " + reportOutput);
+        }
+        System.exit(0);
+    }
+
+    /** Round-robin over the enabled queries, at a fixed or exponentially distributed interval. */
+    static Iterator<Arrival> generatedArrivals(
+            Client client,
+            List<LdbcQuery> ldbcQueryList,
+            double targetQps,
+            boolean poisson,
+            long endNano) {
+        if (targetQps <= 0) {
+            throw new IllegalArgumentException("invalid target qps [" + targetQps + "]");
+        }
+        double intervalNano = 1e9 / targetQps;
+        Random random = new Random(0L);
+        return new Iterator<Arrival>() {
+            int index = 0;
+            double offsetNano = 0.0;
+
+            @Override
+            public boolean hasNext() {
+                return offsetNano < endNano;
+            }
+
+            @Override
+            public Arrival next() {
+                LdbcQuery ldbcQuery = ldbcQueryList.get(index % ldbcQueryList.size());
+                HashMap<String, String> parameter =
+                        ldbcQuery.getSingleParameter(index / ldbcQueryList.size());
+                Arrival arrival =
+                        new Arrival(
+                                (long) offsetNano,
+                                ldbcQuery.getQueryName(),
+                                () -> ldbcQuery.executeGremlinQuery(client, parameter));
+                index++;
+                offsetNano +=
+                        poisson
+                                ? -Math.log(1.0 - random.nextDouble()) * intervalNano
+                                : intervalNano;
+                return arrival;
+            }
+        };
+    }
+
+    static Iterator<Arrival> replayArrivals(Client client, String replayLog, double speed)
+            throws Exception {
+        List<Arrival> arrivals = new ArrayList<>();
+        try (BufferedReader reader =
+                new BufferedReader(
+                        new InputStreamReader(
+                                new FileInputStream(replayLog), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] items = line.split("\\|", 3);
+                if (items.length != 3) {
+                    throw new IllegalArgumentException("invalid replay log line [" + line + "]");
+                }
+                long offsetNano = (long) (Long.parseLong(items[0].trim()) * 1_000_000L / speed);
+                String gremlinQuery = items[2];
+                arrivals.add(
+                        new Arrival(
+                                offsetNano,
+                                items[1].trim(),
+                                () -> client.submit(gremlinQuery).all().get().size()));
+            }
+        }
+        arrivals.sort(Comparator.comparingLong(a -> a.offsetNano));
+        return arrivals.iterator();
+    }
+
+    private static Client connect(String endpoint, String username, String password) {
+        String[] address = endpoint.split(":");
+        Cluster.Builder cluster =
+                Cluster.build()
+                        .addContactPoint(address[0])
+                        .port(Integer.parseInt(address[1]))
+                        .serializer(initializeSerialize());
+        if (StringUtils.isNotEmpty(username) && StringUtils.isNotEmpty(password)) {
+            cluster.credentials(username, password);
+        }
+        Client client = cluster.create().connect();
+        System.out.println("Connect success.");
+        return client;
+    }
+
+    private static MessageSerializer initializeSerialize() {
+        GryoMapper.Builder kryo = GryoMapper.build().addRegistry(MaxGraphIORegistry.getInstance());
+        return new GryoMessageSerializerV1d0(kryo);
+    }
+}
@@ -40,6 +40,17 @@ public class Configuration {
     public static final String PRINT_QUERY_NAME = "printQueryNames";
     public static final String PRINT_QUERY_RESULT = "printQueryResults";
 
+    // open-loop benchmark
+    public static final String TARGET_QPS = "open.loop.target.qps";
+    public static final String ARRIVAL_DISTRIBUTION = "open.loop.arrival.distribution";
+    public static final String WARMUP_SECONDS = "open.loop.warmup.seconds";
+    public static final String DURATION_SECONDS = "open.loop.duration.seconds";
+    public static final String MAX_INFLIGHT = "open.loop.max.inflight";
+    public static final String REPLAY_LOG = "open.loop.replay.log";
+    public static final String REPLAY_SPEED = "open.loop.replay.speed";
+    public static final String REPORT_OUTPUT = "report.output";
+    public static final String REPORT_FORMAT = "report.format";
+
     public Optional<String> getOption(String key) {
         String value = settings.get(key);
         if (value == null) {
@@ -67,6 +78,11 @@ public class Configuration {
         return optional.map(Integer::parseInt).orElse(defaultValue);
     }
 
+    public double getDouble(String key, double defaultValue) {
+        Optional<String> optional = getOption(key);
+        return optional.map(Double::parseDouble).orElse(defaultValue);
+    }
+
     public boolean getBoolean(String key, boolean defaultValue) {
         Optional<String> optional = getOption(key);
         return optional.map(Boolean::parseBoolean).orElse(defaultValue);
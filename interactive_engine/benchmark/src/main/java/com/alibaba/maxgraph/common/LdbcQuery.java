@@ -50,6 +50,24 @@ public class LdbcQuery {
         return parameters.get(index % parameters.size());
     }
 
+    public String getQueryName() {
+        return queryName;
+    }
+
+    /**
+     * Run the query with the given parameter without printing anything, used by the open-loop
+     * benchmark. Returns the result count, and throws if the query failed.
+     */
+    public int executeGremlinQuery(Client client, HashMap<String, String> singleParameter)
+            throws Exception {
+        String gremlinQuery = generateGremlinQuery(singleParameter, queryPattern);
+        return countResult(client.submit(gremlinQuery));
+    }
+
+    static int countResult(ResultSet resultSet) throws Exception {
+        return resultSet.all().get().size();
+    }
+
     public void processGremlinQuery(
             Client client,
             HashMap<String, String> singleParameter,
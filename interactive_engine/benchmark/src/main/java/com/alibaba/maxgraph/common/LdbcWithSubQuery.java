@@ -73,5 +73,17 @@ public abstract class LdbcWithSubQuery extends LdbcQuery {
         }
     }
 
+    @Override
+    public int executeGremlinQuery(Client client, HashMap<String, String> singleParameter)
+            throws Exception {
+        String gremlinQuery = generateGremlinQuery(singleParameter, queryPattern);
+        int resultCount = 0;
+        for (Result result : client.submit(gremlinQuery)) {
+            String subQuery = buildSubQuery(result, singleParameter);
+            resultCount += countResult(client.submit(subQuery));
+        }
+        return resultCount;
+    }
+
     abstract String buildSubQuery(Result result, HashMap<String, String> singleParameter);
 }
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.utils;
+
+import com.alibaba.maxgraph.sdkcommon.util.JSON;
+import com.alibaba.maxgraph.sdkcommon.util.LatencyHistogram;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms per query name. Values are kept in the log-linear buckets of {@link
+ * LatencyHistogram}, so memory stays constant however long the benchmark runs.
+ */
+public class LatencyRecorder {
+    public static final String ALL_QUERIES = "ALL";
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final String[] COLUMNS = {
+        "query", "count", "errors", "mean_ms", "p50_ms", "p90_ms", "p99_ms", "p999_ms", "max_ms"
+    };
+
+    private Map<String, QueryStats> stats = new ConcurrentSkipListMap<>();
+
+    public void record(String queryName, long latencyNano) {
+        stats(queryName).histogram.record(latencyNano);
+        stats(ALL_QUERIES).histogram.record(latencyNano);
+    }
+
+    public void recordError(String queryName) {
+        stats(queryName).errors.incrementAndGet();
+        stats(ALL_QUERIES).errors.incrementAndGet();
+    }
+
+    public long getCount(String queryName) {
+        QueryStats queryStats = stats.get(queryName);
+        return queryStats == null ? 0L : queryStats.histogram.getCount();
+    }
+
+    public long getErrors(String queryName) {
+        QueryStats queryStats = stats.get(queryName);
+        return queryStats == null ? 0L : queryStats.errors.get();
+    }
+
+    /** Returns the latency in nanoseconds at the given percentile, 0 if nothing recorded. */
+    public long getValueAtPercentile(String queryName, double percentile) {
+        QueryStats queryStats = stats.get(queryName);
+        return queryStats == null ? 0L : queryStats.histogram.getValueAtPercentile(percentile);
+    }
+
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+        for (List<String> row : rows()) {
+            sb.append(String.join(",", row)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** Render as a JSON object, the summary entries are written as top level string fields. */
+    public String toJson(Map<String, String> summary) {
+        Map<String, Object> json = new LinkedHashMap<>(summary);
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (List<String> row : rows()) {
+            Map<String, Object> query = new LinkedHashMap<>();
+            query.put(COLUMNS[0], row.get(0));
+            for (int i = 1; i < COLUMNS.length; i++) {
+                query.put(COLUMNS[i], new BigDecimal(row.get(i)));
+            }
+            queries.add(query);
+        }
+        json.put("queries", queries);
+        return JSON.toJson(json) + "\n";
+    }
+
+    public String toTable() {
+        StringBuilder sb = new StringBuilder();
+        String format = "%-32s%10s%8s%10s%10s%10s%10s%10s%10s%n";
+        sb.append(String.format(format, (Object[]) COLUMNS));
+        for (List<String> row : rows()) {
+            sb.append(String.format(format, row.toArray()));
+        }
+        return sb.toString();
+    }
+
+    private List<List<String>> rows() {
+        List<List<String>> rows = new ArrayList<>();
+        stats.forEach(
+                (name, queryStats) -> {
+                    if (!name.equals(ALL_QUERIES)) {
+                        rows.add(row(name, queryStats));
+                    }
+                });
+        QueryStats all = stats.get(ALL_QUERIES);
+        if (all != null) {
+            rows.add(row(ALL_QUERIES, all));
+        }
+        return rows;
+    }
+
+    private static List<String> row(String name, QueryStats queryStats) {
+        LatencyHistogram histogram = queryStats.histogram;
+        List<String> row = new ArrayList<>();
+        long count = histogram.getCount();
+        row.add(name);
+        row.add(String.valueOf(count));
+        row.add(String.valueOf(queryStats.errors.get()));
+        row.add(toMs(count == 0 ? 0L : histogram.getTotalNano() / count));
+        for (double percentile : PERCENTILES) {
+            row.add(toMs(histogram.getValueAtPercentile(percentile)));
+        }
+        row.add(toMs(histogram.getMaxNano()));
+        return row;
+    }
+
+    private static String toMs(long nano) {
+        return String.format(Locale.ROOT, "%.3f", nano / 1_000_000.0);
+    }
+
+    private QueryStats stats(String queryName) {
+        return stats.computeIfAbsent(queryName, k -> new QueryStats());
+    }
+
+    private static class QueryStats {
+        private LatencyHistogram histogram = new LatencyHistogram();
+        private AtomicLong errors = new AtomicLong(0L);
+    }
+}
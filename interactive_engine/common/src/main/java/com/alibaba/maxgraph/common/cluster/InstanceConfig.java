@@ -274,12 +274,26 @@ public class InstanceConfig extends MaxGraphConfiguration {
     public static final String GREMLIN_SERVER_VERTEX_CACHE_ENABLE =
             "gremlin.server.vertex.cache.enable";
 
+    public static final String GREMLIN_SERVER_VERTEX_CACHE_MAX_BYTES =
+            "gremlin.server.vertex.cache.max.bytes";
+
     // compiler related config
 
     public static final String QUERY_LAMBDA_FLAG_ENABLE = "query.lambda.flag.enable";
 
     public static final String QUERY_VINEYARD_SCHEMA_PATH = "query.vineyard.schema.path";
 
+    public static final String QUERY_STATISTICS_REFRESH_INTERVAL_SEC =
+            "query.statistics.refresh.interval.sec";
+
+    public static final String QUERY_STATISTICS_SAMPLE_SIZE = "query.statistics.sample.size";
+
+    public static final String QUERY_STATISTICS_CHANGE_RATIO = "query.statistics.change.ratio";
+
+    public static final String QUERY_STATISTICS_TIMEOUT_MS = "query.statistics.timeout.ms";
+
+    public static final String QUERY_STATISTICS_PERSIST_PATH = "query.statistics.persist.path";
+
     public static final String TIMELY_QUERY_CACHE_ENABLE = "timely.query.cache.enable";
 
     public static final String TIMELY_DAG_CHAIN_OPTIMIZE = "timely.dag.chain.optimize";
@@ -771,6 +785,10 @@ public class InstanceConfig extends MaxGraphConfiguration {
         return getBoolean(GREMLIN_SERVER_VERTEX_CACHE_ENABLE, true);
     }
 
+    public long getGremlinVertexCacheMaxBytes() {
+        return getLong(GREMLIN_SERVER_VERTEX_CACHE_MAX_BYTES, 64L * 1024 * 1024);
+    }
+
     public boolean getChainOptimize() {
         return getBoolean(TIMELY_DAG_CHAIN_OPTIMIZE, false);
     }
@@ -1019,4 +1037,30 @@ public class InstanceConfig extends MaxGraphConfiguration {
     public String getVineyardSchemaPath() {
         return getString(QUERY_VINEYARD_SCHEMA_PATH, null);
     }
+
+    /**
+     * Interval of sampling statistics for the cost model, 0 means no sampling. Every refresh runs
+     * sample queries for each relation and vertex property whose label count changed, on the same
+     * executors as user queries, so it is off by default.
+     */
+    public long getStatisticsRefreshIntervalSec() {
+        return getLong(QUERY_STATISTICS_REFRESH_INTERVAL_SEC, 0L);
+    }
+
+    public int getStatisticsSampleSize() {
+        return getInt(QUERY_STATISTICS_SAMPLE_SIZE, 1000);
+    }
+
+    /** A relation is sampled again once the count of its labels changes more than this ratio */
+    public double getStatisticsChangeRatio() {
+        return getDouble(QUERY_STATISTICS_CHANGE_RATIO, 0.1);
+    }
+
+    public long getStatisticsTimeoutMs() {
+        return getLong(QUERY_STATISTICS_TIMEOUT_MS, 60000L);
+    }
+
+    public String getStatisticsPersistPath() {
+        return getString(QUERY_STATISTICS_PERSIST_PATH, null);
+    }
 }
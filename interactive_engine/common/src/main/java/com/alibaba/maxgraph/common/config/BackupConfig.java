@@ -28,6 +28,15 @@ public class BackupConfig {
     public static final Config<Integer> BACKUP_AUTO_SUBMIT_INTERVAL_HOURS =
             Config.intConfig("backup.auto.submit.interval.hours", 24);
 
+    /** Number of partitions of a store that are backed up at the same time */
     public static final Config<Integer> STORE_BACKUP_THREAD_COUNT =
             Config.intConfig("store.backup.thread.count", 1);
+
+    /** Average IO rate of creating backups on a store in MB/s, 0 means no limit */
+    public static final Config<Integer> STORE_BACKUP_RATE_LIMIT_MB_PER_SECOND =
+            Config.intConfig("store.backup.rate.limit.mb.per.second", 0);
+
+    /** Number of partitions of a store that are verified or restored at the same time */
+    public static final Config<Integer> STORE_RESTORE_THREAD_COUNT =
+            Config.intConfig("store.restore.thread.count", 4);
 }
@@ -60,6 +60,10 @@ public class CommonConfig {
     public static final Config<Long> METRIC_UPDATE_INTERVAL_MS =
             Config.longConfig("metric.update.interval.ms", 5000L);
 
+    /** Port of the Prometheus metrics endpoint of the role, 0 for any free port, -1 disables it */
+    public static final Config<Integer> METRIC_HTTP_PORT =
+            Config.intConfig("metric.http.port", -1);
+
     /**
      * Get the engine type
      *
@@ -72,6 +76,15 @@ public class CommonConfig {
     public static final Config<String> DISCOVERY_MODE =
             Config.stringConfig("discovery.mode", "file"); // others: zookeeper
 
+    /** Initial and minimum size of the edge id range a frontend allocates from the coordinator */
     public static final Config<Integer> ID_ALLOCATE_SIZE =
             Config.intConfig("id.allocate.size", 1000000);
+
+    /** Maximum size of the edge id range a frontend allocates from the coordinator */
+    public static final Config<Integer> ID_ALLOCATE_MAX_SIZE =
+            Config.intConfig("id.allocate.max.size", 64000000);
+
+    /** The size of edge id ranges adapts so that a range lasts about this long */
+    public static final Config<Long> ID_ALLOCATE_TARGET_INTERVAL_MS =
+            Config.longConfig("id.allocate.target.interval.ms", 10000L);
 }
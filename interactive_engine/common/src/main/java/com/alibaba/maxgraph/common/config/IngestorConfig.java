@@ -23,6 +23,19 @@ public class IngestorConfig {
     public static final Config<Integer> INGESTOR_SENDER_OPERATION_MAX_COUNT =
             Config.intConfig("ingestor.sender.operation.max.count", 8192);
 
+    public static final Config<Integer> INGESTOR_SENDER_WINDOW_SIZE =
+            Config.intConfig("ingestor.sender.window.size", 1);
+
+    public static final Config<String> INGESTOR_SENDER_COMPRESSION =
+            Config.stringConfig("ingestor.sender.compression", "none"); // others: lz4, zstd
+
     public static final Config<Long> INGESTOR_CHECK_PROCESSOR_INTERVAL_MS =
             Config.longConfig("ingestor.check.processor.interval.ms", 3000L);
+
+    /**
+     * Max number of WAL appends that one IngestProcessor keeps in flight. The default value 1 keeps
+     * the synchronous append path, larger values enable group commit.
+     */
+    public static final Config<Integer> INGESTOR_WAL_GROUP_COMMIT_WINDOW =
+            Config.intConfig("ingestor.wal.group.commit.window", 1);
 }
@@ -26,6 +26,29 @@ public class StoreConfig {
     public static final Config<Long> STORE_QUEUE_WAIT_MS =
             Config.longConfig("store.queue.wait.ms", 3000L);
 
+    public static final Config<Boolean> STORE_WRITE_PIPELINE_ENABLE =
+            Config.boolConfig("store.write.pipeline.enable", false);
+
+    public static final Config<Integer> STORE_WRITE_PIPELINE_DEPTH =
+            Config.intConfig("store.write.pipeline.depth", 16);
+
+    public static final Config<Long> STORE_WRITE_RETRY_BACKOFF_INIT_MS =
+            Config.longConfig("store.write.retry.backoff.init.ms", 100L);
+
+    public static final Config<Long> STORE_WRITE_RETRY_BACKOFF_MAX_MS =
+            Config.longConfig("store.write.retry.backoff.max.ms", 10000L);
+
+    public static final Config<Integer> STORE_WRITE_UNHEALTHY_FAILURE_COUNT =
+            Config.intConfig("store.write.unhealthy.failure.count", 10);
+
+    /**
+     * Retries of one write to a partition before the partition is isolated. An isolated partition
+     * is reported and retried at the max backoff until a write succeeds, its writes are never
+     * skipped.
+     */
+    public static final Config<Integer> STORE_WRITE_MAX_RETRIES =
+            Config.intConfig("store.write.max.retries", 30);
+
     public static final Config<Long> STORE_COMMIT_INTERVAL_MS =
             Config.longConfig("store.commit.interval.ms", 1000L);
 
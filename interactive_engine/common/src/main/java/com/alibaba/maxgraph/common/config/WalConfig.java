@@ -0,0 +1,29 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.common.config;
+
+public class WalConfig {
+    public static final Config<String> WAL_TYPE =
+            Config.stringConfig("wal.type", "kafka"); // others: file
+
+    public static final Config<String> FILE_WAL_DIR = Config.stringConfig("file.wal.dir", "./wal");
+
+    public static final Config<Long> FILE_WAL_SEGMENT_BYTES =
+            Config.longConfig("file.wal.segment.bytes", 64L * 1024 * 1024);
+
+    public static final Config<Boolean> FILE_WAL_FSYNC = Config.boolConfig("file.wal.fsync", true);
+
+    public static final Config<String> WAL_COMPRESSION =
+            Config.stringConfig("wal.compression", "none"); // others: lz4, zstd
+}
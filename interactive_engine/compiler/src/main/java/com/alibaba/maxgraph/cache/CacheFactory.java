@@ -15,16 +15,17 @@
  */
 package com.alibaba.maxgraph.cache;
 
-import com.alibaba.maxgraph.sdkcommon.graph.ElementId;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
-import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class CacheFactory {
+    public static final long DEFAULT_VERTEX_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+
     private static CacheFactory cacheFactory = new CacheFactory();
 
     private Cache<String, List<Object>> queryCache =
@@ -32,11 +33,9 @@ public class CacheFactory {
                     .expireAfterAccess(10, TimeUnit.SECONDS)
                     .maximumSize(100)
                     .build();
-    private Cache<ElementId, Vertex> vertexCache =
-            CacheBuilder.newBuilder()
-                    .expireAfterAccess(30, TimeUnit.SECONDS)
-                    .maximumSize(100000)
-                    .build();
+    private volatile VertexCache vertexCache = new VertexCache(DEFAULT_VERTEX_CACHE_MAX_BYTES);
+
+    private boolean vertexCacheMetricsRegistered = false;
 
     private CacheFactory() {}
 
@@ -44,10 +43,25 @@ public class CacheFactory {
         return queryCache;
     }
 
-    public Cache<ElementId, Vertex> getVertexCache() {
+    public VertexCache getVertexCache() {
         return vertexCache;
     }
 
+    /**
+     * Bound the vertex cache by the given bytes and expose its metrics in the gremlin server metric
+     * registry. The cache is replaced with an empty one only if the bound changes.
+     */
+    public synchronized void initVertexCache(long maxBytes) {
+        if (vertexCache.getMaxBytes() != maxBytes) {
+            vertexCache = new VertexCache(maxBytes);
+            vertexCacheMetricsRegistered = false;
+        }
+        if (!vertexCacheMetricsRegistered) {
+            vertexCache.registerMetrics(MetricManager.INSTANCE.getRegistry());
+            vertexCacheMetricsRegistered = true;
+        }
+    }
+
     public static CacheFactory getCacheFactory() {
         return cacheFactory;
     }
@@ -0,0 +1,188 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.cache;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import com.alibaba.maxgraph.sdkcommon.graph.ElementId;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vertex detail cache of the gremlin frontend. Every entry is tagged with the snapshot it was read
+ * at and is only served to queries running at exactly that snapshot, so a query never observes a
+ * vertex older or newer than the rest of its result. An entry read at an older snapshot is dropped
+ * when it is looked up at a newer one, the others age out by access time or size. The cache is
+ * bounded by the estimated serialized size of the cached vertices instead of by the number of
+ * entries.
+ */
+public class VertexCache {
+    /** Estimated bytes of a cached vertex besides its properties, such as id, label and wrappers */
+    public static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private static final long EXPIRE_AFTER_ACCESS_SEC = 30;
+
+    private final Cache<ElementId, CachedVertex> cache;
+    private final long maxBytes;
+    private final AtomicLong latestSnapshotId = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong weightBytes = new AtomicLong(0);
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong staleCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    public VertexCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.cache =
+                CacheBuilder.newBuilder()
+                        .expireAfterAccess(EXPIRE_AFTER_ACCESS_SEC, TimeUnit.SECONDS)
+                        .maximumWeight(maxBytes)
+                        .<ElementId, CachedVertex>weigher((id, entry) -> entry.weight)
+                        .removalListener(
+                                notification -> {
+                                    weightBytes.addAndGet(-notification.getValue().weight);
+                                    if (notification.wasEvicted()) {
+                                        evictionCount.incrementAndGet();
+                                    }
+                                })
+                        .build();
+    }
+
+    /**
+     * Get the cached vertex of the given id read at the given snapshot, or null if there's none.
+     * An entry read at an older snapshot is invalidated on the way.
+     */
+    public Vertex get(ElementId id, long snapshotId) {
+        CachedVertex entry = cache.getIfPresent(id);
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        if (entry.snapshotId != snapshotId) {
+            if (entry.snapshotId < snapshotId) {
+                cache.asMap().remove(id, entry);
+            }
+            staleCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.vertex;
+    }
+
+    /**
+     * Cache the vertex read at the given snapshot. The vertex is ignored if the cache has already
+     * moved past that snapshot, or if it alone would take up a noticeable part of the cache.
+     *
+     * @param propertyBytes serialized size of the vertex properties
+     */
+    public void put(ElementId id, Vertex vertex, long snapshotId, int propertyBytes) {
+        if (snapshotId < latestSnapshotId.get()) {
+            return;
+        }
+        long weight = (long) ENTRY_OVERHEAD_BYTES + propertyBytes;
+        if (weight > maxBytes / 16) {
+            return;
+        }
+        CachedVertex entry = new CachedVertex(vertex, snapshotId, (int) weight);
+        weightBytes.addAndGet(entry.weight);
+        cache.put(id, entry);
+    }
+
+    public void invalidate(ElementId id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Tell the cache that queries are now running at the given snapshot, vertices read at older
+     * snapshots are not cached any more. Entries already cached are not scanned here, as this runs
+     * on the query thread, they are dropped lazily by {@link #get(ElementId, long)}.
+     */
+    public void advanceSnapshot(long snapshotId) {
+        long current;
+        do {
+            current = latestSnapshotId.get();
+            if (snapshotId <= current) {
+                return;
+            }
+        } while (!latestSnapshotId.compareAndSet(current, snapshotId));
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getLatestSnapshotId() {
+        return latestSnapshotId.get();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public long getWeightBytes() {
+        return weightBytes.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getStaleCount() {
+        return staleCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /** Register gauges of the cache to the registry, replacing the ones of a previous cache */
+    public void registerMetrics(MetricRegistry registry) {
+        registerGauge(registry, "size", this::size);
+        registerGauge(registry, "bytes", this::getWeightBytes);
+        registerGauge(registry, "hit", this::getHitCount);
+        registerGauge(registry, "miss", this::getMissCount);
+        registerGauge(registry, "stale", this::getStaleCount);
+        registerGauge(registry, "eviction", this::getEvictionCount);
+    }
+
+    private static void registerGauge(MetricRegistry registry, String metric, Gauge<Long> gauge) {
+        String metricName = name(VertexCache.class, metric);
+        registry.remove(metricName);
+        registry.register(metricName, gauge);
+    }
+
+    private static class CachedVertex {
+        private final Vertex vertex;
+        private final long snapshotId;
+        private final int weight;
+
+        private CachedVertex(Vertex vertex, long snapshotId, int weight) {
+            this.vertex = vertex;
+            this.snapshotId = snapshotId;
+            this.weight = weight;
+        }
+    }
+}
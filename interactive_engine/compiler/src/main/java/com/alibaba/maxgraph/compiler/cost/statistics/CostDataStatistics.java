@@ -22,6 +22,7 @@ import com.alibaba.maxgraph.compiler.api.schema.SchemaFetcher;
 import com.alibaba.maxgraph.compiler.tree.EdgeOtherVertexTreeNode;
 import com.alibaba.maxgraph.compiler.tree.EdgeTreeNode;
 import com.alibaba.maxgraph.compiler.tree.EdgeVertexTreeNode;
+import com.alibaba.maxgraph.compiler.tree.HasTreeNode;
 import com.alibaba.maxgraph.compiler.tree.NodeType;
 import com.alibaba.maxgraph.compiler.tree.TreeNode;
 import com.alibaba.maxgraph.compiler.tree.VertexTreeNode;
@@ -30,12 +31,17 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 public class CostDataStatistics {
@@ -50,6 +56,7 @@ public class CostDataStatistics {
 
     private Map<String, Double> vertexCountList = Maps.newConcurrentMap();
     private Map<String, Double> edgeCountList = Maps.newConcurrentMap();
+    private volatile GraphStatistics graphStatistics = GraphStatistics.empty();
     private SchemaFetcher schemaFetcher = null;
     private AtomicBoolean initFlag = new AtomicBoolean(false);
 
@@ -121,6 +128,14 @@ public class CostDataStatistics {
         this.edgeCountList.put(edgeLabel, count);
     }
 
+    public void updateGraphStatistics(GraphStatistics graphStatistics) {
+        this.graphStatistics = graphStatistics;
+    }
+
+    public GraphStatistics getGraphStatistics() {
+        return graphStatistics;
+    }
+
     private double getVertexCount(String label) {
         return this.vertexCountList.getOrDefault(label, INIT_VERTEX_COUNT);
     }
@@ -129,6 +144,40 @@ public class CostDataStatistics {
         return this.edgeCountList.getOrDefault(label, INIT_EDGE_COUNT);
     }
 
+    /**
+     * Get the average out degree of the given relation, the sampled degree is used if there is
+     * one, otherwise the edges of the relation are assumed to spread evenly over source vertices
+     *
+     * @param relationEdgeCount The estimated edge count of the relation
+     */
+    private double getOutDegree(
+            String sourceLabel, String edgeLabel, String targetLabel, double relationEdgeCount) {
+        DegreeStatistics degreeStatistics =
+                graphStatistics.getOutDegree(sourceLabel, edgeLabel, targetLabel);
+        if (null != degreeStatistics && degreeStatistics.getSampleCount() > 0) {
+            return degreeStatistics.getAverage();
+        }
+        return relationEdgeCount
+                / this.vertexCountList.getOrDefault(sourceLabel, INIT_VERTEX_COUNT);
+    }
+
+    /**
+     * Get the average in degree of the given relation, the sampled degree is used if there is one,
+     * otherwise the edges of the relation are assumed to spread evenly over target vertices
+     *
+     * @param relationEdgeCount The estimated edge count of the relation
+     */
+    private double getInDegree(
+            String sourceLabel, String edgeLabel, String targetLabel, double relationEdgeCount) {
+        DegreeStatistics degreeStatistics =
+                graphStatistics.getInDegree(sourceLabel, edgeLabel, targetLabel);
+        if (null != degreeStatistics && degreeStatistics.getSampleCount() > 0) {
+            return degreeStatistics.getAverage();
+        }
+        return relationEdgeCount
+                / this.vertexCountList.getOrDefault(targetLabel, INIT_VERTEX_COUNT);
+    }
+
     /**
      * Compute out scale ratio with start vertex label list and edge list
      *
@@ -209,39 +258,36 @@ public class CostDataStatistics {
                                                                                     .getLabel())))
                                     .forEach(
                                             vv -> {
+                                                String sourceLabel = vv.getSource().getLabel();
+                                                String targetLabel = vv.getTarget().getLabel();
+                                                double edgeCount =
+                                                        this.edgeCountList.getOrDefault(
+                                                                v.getLabel(), INIT_EDGE_COUNT);
                                                 if (outDirection) {
-                                                    Double edgeCount =
-                                                            this.edgeCountList.getOrDefault(
-                                                                    v.getLabel(), INIT_EDGE_COUNT);
-                                                    Double sourceVertexCount =
-                                                            this.vertexCountList.getOrDefault(
-                                                                    vv.getSource().getLabel(),
-                                                                    INIT_VERTEX_COUNT);
-                                                    Double currSourceVertexCount =
-                                                            vertexCountList.getOrDefault(
-                                                                    vv.getSource().getLabel(),
-                                                                    INIT_VERTEX_COUNT);
+                                                    double outDegree =
+                                                            getOutDegree(
+                                                                    sourceLabel,
+                                                                    v.getLabel(),
+                                                                    targetLabel,
+                                                                    edgeCount * avgRelationRatio);
                                                     nodeStatistics.addVertexCount(
-                                                            vv.getTarget().getLabel(),
-                                                            (edgeCount
-                                                                            * avgRelationRatio
-                                                                            / sourceVertexCount)
-                                                                    * currSourceVertexCount);
+                                                            targetLabel,
+                                                            outDegree
+                                                                    * vertexCountList.getOrDefault(
+                                                                            sourceLabel,
+                                                                            INIT_VERTEX_COUNT));
                                                 } else {
+                                                    double inDegree =
+                                                            getInDegree(
+                                                                    sourceLabel,
+                                                                    v.getLabel(),
+                                                                    targetLabel,
+                                                                    edgeCount * avgRelationRatio);
                                                     nodeStatistics.addVertexCount(
-                                                            vv.getSource().getLabel(),
-                                                            (this.edgeCountList.getOrDefault(
-                                                                                    v.getLabel(),
-                                                                                    INIT_EDGE_COUNT)
-                                                                            * avgRelationRatio
-                                                                            / this.vertexCountList
-                                                                                    .getOrDefault(
-                                                                                            vv.getTarget()
-                                                                                                    .getLabel(),
-                                                                                            INIT_VERTEX_COUNT))
+                                                            sourceLabel,
+                                                            inDegree
                                                                     * vertexCountList.getOrDefault(
-                                                                            vv.getTarget()
-                                                                                    .getLabel(),
+                                                                            targetLabel,
                                                                             INIT_VERTEX_COUNT));
                                                 }
                                             });
@@ -276,13 +322,14 @@ public class CostDataStatistics {
                                                         v.getSource().getLabel(),
                                                         INIT_VERTEX_COUNT);
                                         double currEdgeCount =
-                                                (this.edgeCountList.getOrDefault(
-                                                                        edge.getLabel(),
-                                                                        INIT_EDGE_COUNT)
-                                                                * avgRelationRatio
-                                                                / this.vertexCountList.getOrDefault(
-                                                                        v.getSource().getLabel(),
-                                                                        INIT_VERTEX_COUNT))
+                                                getOutDegree(
+                                                                v.getSource().getLabel(),
+                                                                edge.getLabel(),
+                                                                v.getTarget().getLabel(),
+                                                                this.edgeCountList.getOrDefault(
+                                                                                edge.getLabel(),
+                                                                                INIT_EDGE_COUNT)
+                                                                        * avgRelationRatio)
                                                         * sourceVertexCount;
                                         nodeStatistics.addEdgeCount(edgeLabel, currEdgeCount);
                                     });
@@ -320,13 +367,14 @@ public class CostDataStatistics {
                                                         v.getTarget().getLabel(),
                                                         INIT_VERTEX_COUNT);
                                         double currEdgeCount =
-                                                (this.edgeCountList.getOrDefault(
-                                                                        edge.getLabel(),
-                                                                        INIT_EDGE_COUNT)
-                                                                * avgRelationRatio
-                                                                / this.vertexCountList.getOrDefault(
-                                                                        v.getTarget().getLabel(),
-                                                                        INIT_VERTEX_COUNT))
+                                                getInDegree(
+                                                                v.getSource().getLabel(),
+                                                                edge.getLabel(),
+                                                                v.getTarget().getLabel(),
+                                                                this.edgeCountList.getOrDefault(
+                                                                                edge.getLabel(),
+                                                                                INIT_EDGE_COUNT)
+                                                                        * avgRelationRatio)
                                                         * sourceVertexCount;
                                         nodeStatistics.addEdgeCount(edgeLabel, currEdgeCount);
                                     });
@@ -541,7 +589,8 @@ public class CostDataStatistics {
                 if (NodeType.MAP == nodeType) {
                     nodeStatistics.addElementCount(inputStatistics.totalCount());
                 } else if (NodeType.FILTER == nodeType) {
-                    nodeStatistics.merge(inputStatistics, FILTER_RATIO);
+                    nodeStatistics.merge(
+                            inputStatistics, getFilterRatio(treeNode, inputStatistics));
                 } else if (NodeType.FLATMAP == nodeType) {
                     nodeStatistics.addElementCount(inputStatistics.totalCount() * FLATMAP_RATIO);
                 } else if (NodeType.AGGREGATE == nodeType) {
@@ -555,12 +604,68 @@ public class CostDataStatistics {
         return nodeStatistics;
     }
 
+    /**
+     * Compute the ratio of input kept by a filter node, equal, not equal and within predicates on
+     * vertex properties use the sampled NDV of the property, others use the default ratio
+     *
+     * @param treeNode The given filter node
+     * @param inputStatistics The given input statistics
+     * @return The result ratio
+     */
+    private double getFilterRatio(TreeNode treeNode, NodeStatistics inputStatistics) {
+        if (!(treeNode instanceof HasTreeNode)) {
+            return FILTER_RATIO;
+        }
+        Map<String, Double> inputVertexCountList =
+                new NodeStatistics(inputStatistics).getVertexCountList();
+        List<HasContainer> hasContainerList = ((HasTreeNode) treeNode).getHasContainerList();
+        double totalCount = 0;
+        double filterCount = 0;
+        boolean sampledFlag = false;
+        for (Map.Entry<String, Double> entry : inputVertexCountList.entrySet()) {
+            double ratio = 1.0;
+            for (HasContainer hasContainer : hasContainerList) {
+                Double selectivity = getPredicateSelectivity(entry.getKey(), hasContainer);
+                sampledFlag |= null != selectivity;
+                ratio *= null == selectivity ? FILTER_RATIO : selectivity;
+            }
+            totalCount += entry.getValue();
+            filterCount += entry.getValue() * ratio;
+        }
+        if (!sampledFlag || totalCount <= 0) {
+            return FILTER_RATIO;
+        }
+        return filterCount / totalCount;
+    }
+
+    private Double getPredicateSelectivity(String vertexLabel, HasContainer hasContainer) {
+        PropertyStatistics propertyStatistics =
+                graphStatistics.getProperty(vertexLabel, hasContainer.getKey());
+        if (null == propertyStatistics) {
+            return null;
+        }
+        double equalSelectivity =
+                propertyStatistics.getEqualSelectivity(getVertexCount(vertexLabel));
+        BiPredicate<?, ?> biPredicate = hasContainer.getBiPredicate();
+        if (biPredicate == Compare.eq) {
+            return equalSelectivity;
+        } else if (biPredicate == Compare.neq) {
+            return Math.max(1.0 - propertyStatistics.getNullFraction() - equalSelectivity, 0.0);
+        } else if (biPredicate == Contains.within
+                && hasContainer.getValue() instanceof Collection) {
+            int valueCount = ((Collection<?>) hasContainer.getValue()).size();
+            return Math.min(1.0, equalSelectivity * valueCount);
+        }
+        return null;
+    }
+
     public String formatJson() {
         JSONObject jsonObject = new JSONObject();
         JSONObject vertexObject = JSONObject.parseObject(JSONObject.toJSONString(vertexCountList));
         JSONObject edgeObject = JSONObject.parseObject(JSONObject.toJSONString(edgeCountList));
         jsonObject.put("vertex", vertexObject);
         jsonObject.put("edge", edgeObject);
+        jsonObject.put("statistics", graphStatistics.toJson());
 
         return jsonObject.toJSONString();
     }
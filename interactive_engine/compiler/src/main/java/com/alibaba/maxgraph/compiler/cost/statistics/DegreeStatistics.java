@@ -0,0 +1,138 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.compiler.cost.statistics;
+
+import com.alibaba.fastjson.JSONObject;
+import com.google.common.base.MoreObjects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Sampled degree distribution of one (source label, edge label, target label) relation. */
+public class DegreeStatistics {
+    private final long sampleCount;
+    private final double average;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+
+    public DegreeStatistics(
+            long sampleCount, double average, long p50, long p90, long p99, long max) {
+        this.sampleCount = sampleCount;
+        this.average = average;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    /**
+     * Build degree statistics from sampled vertices
+     *
+     * @param degreeList The degrees of the sampled vertices which have at least one edge
+     * @param sampleCount The number of sampled vertices, vertices missing from degreeList have
+     *     degree 0
+     * @return The result degree statistics
+     */
+    public static DegreeStatistics fromDegreeList(List<Long> degreeList, long sampleCount) {
+        List<Long> sortedDegreeList = new ArrayList<>(degreeList);
+        Collections.sort(sortedDegreeList);
+        long totalCount = Math.max(sampleCount, sortedDegreeList.size());
+        if (totalCount == 0) {
+            return new DegreeStatistics(0, 0, 0, 0, 0, 0);
+        }
+        long zeroCount = totalCount - sortedDegreeList.size();
+        long degreeSum = 0;
+        for (long degree : sortedDegreeList) {
+            degreeSum += degree;
+        }
+        long max =
+                sortedDegreeList.isEmpty() ? 0 : sortedDegreeList.get(sortedDegreeList.size() - 1);
+        return new DegreeStatistics(
+                totalCount,
+                degreeSum * 1.0 / totalCount,
+                percentile(sortedDegreeList, zeroCount, totalCount, 0.5),
+                percentile(sortedDegreeList, zeroCount, totalCount, 0.9),
+                percentile(sortedDegreeList, zeroCount, totalCount, 0.99),
+                max);
+    }
+
+    private static long percentile(
+            List<Long> sortedDegreeList, long zeroCount, long totalCount, double quantile) {
+        long rank = Math.max((long) Math.ceil(quantile * totalCount) - 1, 0);
+        if (rank < zeroCount) {
+            return 0;
+        }
+        return sortedDegreeList.get((int) (rank - zeroCount));
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("sampleCount", sampleCount);
+        jsonObject.put("average", average);
+        jsonObject.put("p50", p50);
+        jsonObject.put("p90", p90);
+        jsonObject.put("p99", p99);
+        jsonObject.put("max", max);
+        return jsonObject;
+    }
+
+    public static DegreeStatistics fromJson(JSONObject jsonObject) {
+        return new DegreeStatistics(
+                jsonObject.getLongValue("sampleCount"),
+                jsonObject.getDoubleValue("average"),
+                jsonObject.getLongValue("p50"),
+                jsonObject.getLongValue("p90"),
+                jsonObject.getLongValue("p99"),
+                jsonObject.getLongValue("max"));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("sampleCount", sampleCount)
+                .add("average", average)
+                .add("p50", p50)
+                .add("p90", p90)
+                .add("p99", p99)
+                .add("max", max)
+                .toString();
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.compiler.cost.statistics;
+
+import com.alibaba.fastjson.JSONObject;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Maps;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Statistics sampled from the store at a snapshot: the per label counts the samples are based on,
+ * the out/in degree of every (source label, edge label, target label) relation and the value
+ * statistics of vertex properties. Instances are never modified after they are built.
+ */
+public class GraphStatistics {
+    private static final GraphStatistics EMPTY =
+            new GraphStatistics(
+                    -1L,
+                    Collections.emptyMap(),
+                    Collections.emptyMap(),
+                    Collections.emptyMap(),
+                    Collections.emptyMap(),
+                    Collections.emptyMap());
+
+    private final long snapshotId;
+    private final Map<String, Double> vertexCountList;
+    private final Map<String, Double> edgeCountList;
+    private final Map<String, DegreeStatistics> outDegreeList;
+    private final Map<String, DegreeStatistics> inDegreeList;
+    private final Map<String, PropertyStatistics> propertyList;
+
+    public GraphStatistics(
+            long snapshotId,
+            Map<String, Double> vertexCountList,
+            Map<String, Double> edgeCountList,
+            Map<String, DegreeStatistics> outDegreeList,
+            Map<String, DegreeStatistics> inDegreeList,
+            Map<String, PropertyStatistics> propertyList) {
+        this.snapshotId = snapshotId;
+        this.vertexCountList = Collections.unmodifiableMap(Maps.newHashMap(vertexCountList));
+        this.edgeCountList = Collections.unmodifiableMap(Maps.newHashMap(edgeCountList));
+        this.outDegreeList = Collections.unmodifiableMap(Maps.newHashMap(outDegreeList));
+        this.inDegreeList = Collections.unmodifiableMap(Maps.newHashMap(inDegreeList));
+        this.propertyList = Collections.unmodifiableMap(Maps.newHashMap(propertyList));
+    }
+
+    public static GraphStatistics empty() {
+        return EMPTY;
+    }
+
+    public static String relationKey(String sourceLabel, String edgeLabel, String targetLabel) {
+        return sourceLabel + "-[" + edgeLabel + "]->" + targetLabel;
+    }
+
+    public static String propertyKey(String vertexLabel, String propName) {
+        return vertexLabel + "." + propName;
+    }
+
+    public long getSnapshotId() {
+        return snapshotId;
+    }
+
+    /** @return The vertex count of each label at the time its statistics were sampled */
+    public Map<String, Double> getVertexCountList() {
+        return vertexCountList;
+    }
+
+    /** @return The edge count of each label at the time its statistics were sampled */
+    public Map<String, Double> getEdgeCountList() {
+        return edgeCountList;
+    }
+
+    public Map<String, DegreeStatistics> getOutDegreeList() {
+        return outDegreeList;
+    }
+
+    public Map<String, DegreeStatistics> getInDegreeList() {
+        return inDegreeList;
+    }
+
+    public Map<String, PropertyStatistics> getPropertyList() {
+        return propertyList;
+    }
+
+    public DegreeStatistics getOutDegree(String sourceLabel, String edgeLabel, String targetLabel) {
+        return outDegreeList.get(relationKey(sourceLabel, edgeLabel, targetLabel));
+    }
+
+    public DegreeStatistics getInDegree(String sourceLabel, String edgeLabel, String targetLabel) {
+        return inDegreeList.get(relationKey(sourceLabel, edgeLabel, targetLabel));
+    }
+
+    public PropertyStatistics getProperty(String vertexLabel, String propName) {
+        return propertyList.get(propertyKey(vertexLabel, propName));
+    }
+
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("snapshotId", snapshotId);
+        jsonObject.put("vertex", new JSONObject(Maps.newHashMap(vertexCountList)));
+        jsonObject.put("edge", new JSONObject(Maps.newHashMap(edgeCountList)));
+        jsonObject.put("outDegree", toJson(outDegreeList, DegreeStatistics::toJson));
+        jsonObject.put("inDegree", toJson(inDegreeList, DegreeStatistics::toJson));
+        jsonObject.put("property", toJson(propertyList, PropertyStatistics::toJson));
+        return jsonObject;
+    }
+
+    private static <T> JSONObject toJson(Map<String, T> valueList, Function<T, Object> toJson) {
+        JSONObject jsonObject = new JSONObject();
+        valueList.forEach((k, v) -> jsonObject.put(k, toJson.apply(v)));
+        return jsonObject;
+    }
+
+    public static GraphStatistics fromJson(String json) {
+        JSONObject jsonObject = JSONObject.parseObject(json);
+        return new GraphStatistics(
+                jsonObject.getLongValue("snapshotId"),
+                fromJson(jsonObject.getJSONObject("vertex"), o -> ((Number) o).doubleValue()),
+                fromJson(jsonObject.getJSONObject("edge"), o -> ((Number) o).doubleValue()),
+                fromJson(
+                        jsonObject.getJSONObject("outDegree"),
+                        o -> DegreeStatistics.fromJson((JSONObject) o)),
+                fromJson(
+                        jsonObject.getJSONObject("inDegree"),
+                        o -> DegreeStatistics.fromJson((JSONObject) o)),
+                fromJson(
+                        jsonObject.getJSONObject("property"),
+                        o -> PropertyStatistics.fromJson((JSONObject) o)));
+    }
+
+    private static <T> Map<String, T> fromJson(
+            JSONObject jsonObject, Function<Object, T> fromJson) {
+        Map<String, T> valueList = Maps.newHashMap();
+        if (null != jsonObject) {
+            jsonObject.forEach((k, v) -> valueList.put(k, fromJson.apply(v)));
+        }
+        return valueList;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("snapshotId", snapshotId)
+                .add("outDegreeList", outDegreeList)
+                .add("inDegreeList", inDegreeList)
+                .add("propertyList", propertyList)
+                .toString();
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.compiler.cost.statistics;
+
+import com.alibaba.fastjson.JSONArray;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+/**
+ * K-minimum-values sketch of the distinct values of a property. The sketch keeps the k smallest
+ * hashes it has seen, so it has a fixed size and two sketches can be merged.
+ */
+public class NdvSketch {
+    public static final int DEFAULT_SKETCH_SIZE = 256;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    // hashes are truncated to 53 bits so that they can be mapped to [0, 1) exactly
+    private static final double HASH_RANGE = (double) (1L << 53);
+
+    private final int sketchSize;
+    private final TreeSet<Long> minHashList = new TreeSet<>();
+
+    public NdvSketch() {
+        this(DEFAULT_SKETCH_SIZE);
+    }
+
+    public NdvSketch(int sketchSize) {
+        if (sketchSize < 2) {
+            throw new IllegalArgumentException("invalid sketch size " + sketchSize);
+        }
+        this.sketchSize = sketchSize;
+    }
+
+    public void add(Object value) {
+        long hash =
+                HASH_FUNCTION.hashString(String.valueOf(value), StandardCharsets.UTF_8).asLong()
+                        >>> 11;
+        addHash(hash);
+    }
+
+    private void addHash(long hash) {
+        if (minHashList.size() < sketchSize) {
+            minHashList.add(hash);
+        } else if (hash < minHashList.last() && minHashList.add(hash)) {
+            minHashList.pollLast();
+        }
+    }
+
+    public NdvSketch merge(NdvSketch other) {
+        other.minHashList.forEach(this::addHash);
+        return this;
+    }
+
+    /** @return The estimated number of distinct values added to this sketch */
+    public double estimate() {
+        if (minHashList.size() < sketchSize) {
+            return minHashList.size();
+        }
+        return (sketchSize - 1) / ((minHashList.last() + 1) / HASH_RANGE);
+    }
+
+    public int getSketchSize() {
+        return sketchSize;
+    }
+
+    public JSONArray toJson() {
+        return new JSONArray(new ArrayList<>(minHashList));
+    }
+
+    public static NdvSketch fromJson(JSONArray jsonArray, int sketchSize) {
+        NdvSketch sketch = new NdvSketch(sketchSize);
+        for (int i = 0; i < jsonArray.size(); i++) {
+            sketch.addHash(jsonArray.getLongValue(i));
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.compiler.cost.statistics;
+
+import com.alibaba.fastjson.JSONObject;
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+
+/** Sampled value statistics of one vertex property. */
+public class PropertyStatistics {
+    // if almost every sampled value is distinct, the property is treated as unique and its NDV
+    // grows with the row count, otherwise the sampled NDV is taken as the NDV of all rows
+    private static final double UNIQUE_RATIO = 0.9;
+
+    private final long sampleCount;
+    private final long nullCount;
+    private final NdvSketch sketch;
+
+    public PropertyStatistics(long sampleCount, long nullCount, NdvSketch sketch) {
+        this.sampleCount = sampleCount;
+        this.nullCount = nullCount;
+        this.sketch = sketch;
+    }
+
+    /**
+     * Build property statistics from sampled vertices
+     *
+     * @param valueList The property values of the sampled vertices which have the property
+     * @param sampleCount The number of sampled vertices
+     * @return The result property statistics
+     */
+    public static PropertyStatistics fromValueList(List<Object> valueList, long sampleCount) {
+        NdvSketch sketch = new NdvSketch();
+        valueList.forEach(sketch::add);
+        long totalCount = Math.max(sampleCount, valueList.size());
+        return new PropertyStatistics(totalCount, totalCount - valueList.size(), sketch);
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public long getNullCount() {
+        return nullCount;
+    }
+
+    public double getNullFraction() {
+        return sampleCount == 0 ? 0 : nullCount * 1.0 / sampleCount;
+    }
+
+    /**
+     * Estimate the number of distinct values of the property
+     *
+     * @param rowCount The number of vertices with the property's label
+     * @return The estimated NDV
+     */
+    public double getNdv(double rowCount) {
+        long nonNullCount = sampleCount - nullCount;
+        double sampleNdv = sketch.estimate();
+        if (nonNullCount <= 0 || sampleNdv <= 0) {
+            return 0;
+        }
+        if (sampleNdv >= nonNullCount * UNIQUE_RATIO) {
+            double nonNullRowCount = rowCount * (1 - getNullFraction());
+            return sampleNdv * Math.max(1.0, nonNullRowCount / nonNullCount);
+        }
+        return sampleNdv;
+    }
+
+    /**
+     * Estimate the fraction of vertices matching an equal predicate on the property
+     *
+     * @param rowCount The number of vertices with the property's label
+     * @return The estimated selectivity
+     */
+    public double getEqualSelectivity(double rowCount) {
+        double minSelectivity = 1.0 / Math.max(rowCount, 1.0);
+        double ndv = getNdv(rowCount);
+        if (ndv <= 0) {
+            return minSelectivity;
+        }
+        return Math.max((1 - getNullFraction()) / ndv, minSelectivity);
+    }
+
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("sampleCount", sampleCount);
+        jsonObject.put("nullCount", nullCount);
+        jsonObject.put("sketchSize", sketch.getSketchSize());
+        jsonObject.put("sketch", sketch.toJson());
+        return jsonObject;
+    }
+
+    public static PropertyStatistics fromJson(JSONObject jsonObject) {
+        return new PropertyStatistics(
+                jsonObject.getLongValue("sampleCount"),
+                jsonObject.getLongValue("nullCount"),
+                NdvSketch.fromJson(
+                        jsonObject.getJSONArray("sketch"), jsonObject.getIntValue("sketchSize")));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("sampleCount", sampleCount)
+                .add("nullCount", nullCount)
+                .add("sampleNdv", sketch.estimate())
+                .toString();
+    }
+}
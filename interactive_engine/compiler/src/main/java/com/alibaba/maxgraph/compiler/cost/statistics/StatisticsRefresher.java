@@ -0,0 +1,318 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.compiler.cost.statistics;
+
+import com.alibaba.maxgraph.compiler.api.schema.EdgeRelation;
+import com.alibaba.maxgraph.compiler.api.schema.GraphEdge;
+import com.alibaba.maxgraph.compiler.api.schema.GraphElement;
+import com.alibaba.maxgraph.compiler.api.schema.GraphProperty;
+import com.alibaba.maxgraph.compiler.api.schema.GraphSchema;
+import com.alibaba.maxgraph.compiler.api.schema.GraphVertex;
+import com.alibaba.maxgraph.compiler.api.schema.SchemaFetcher;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples the store and publishes the result to {@link CostDataStatistics}.
+ *
+ * <p>A refresh only happens after the snapshot has advanced, and only the relations and
+ * properties whose labels changed their count by more than the change ratio since they were last
+ * sampled are sampled again, the others are carried over from the previous statistics. A failed
+ * sample query also carries over the previous statistics of its relation or property.
+ */
+public class StatisticsRefresher implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsRefresher.class);
+
+    private final SchemaFetcher schemaFetcher;
+    private final StatisticsSampler sampler;
+    private final int sampleSize;
+    private final double changeRatio;
+    private final String persistPath;
+
+    private ScheduledExecutorService scheduler;
+
+    public StatisticsRefresher(
+            SchemaFetcher schemaFetcher,
+            StatisticsSampler sampler,
+            int sampleSize,
+            double changeRatio,
+            String persistPath) {
+        this.schemaFetcher = schemaFetcher;
+        this.sampler = sampler;
+        this.sampleSize = sampleSize;
+        this.changeRatio = changeRatio;
+        this.persistPath = persistPath;
+    }
+
+    public synchronized void start(long intervalSec) {
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("statistics-refresher")
+                                .setDaemon(true)
+                                .build());
+        this.scheduler.execute(this::load);
+        this.scheduler.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        refresh();
+                    } catch (Exception e) {
+                        logger.warn("refresh statistics failed", e);
+                    }
+                },
+                intervalSec,
+                intervalSec,
+                TimeUnit.SECONDS);
+        logger.info("statistics refresher started, interval [" + intervalSec + "] sec");
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    /** Load the persisted statistics so that they are available before the first refresh */
+    public void load() {
+        if (StringUtils.isEmpty(persistPath) || !Files.exists(Paths.get(persistPath))) {
+            return;
+        }
+        try {
+            String json =
+                    new String(Files.readAllBytes(Paths.get(persistPath)), StandardCharsets.UTF_8);
+            GraphStatistics graphStatistics = GraphStatistics.fromJson(json);
+            publish(
+                    graphStatistics,
+                    graphStatistics.getVertexCountList(),
+                    graphStatistics.getEdgeCountList());
+            logger.info("load statistics of snapshot " + graphStatistics.getSnapshotId());
+        } catch (Exception e) {
+            logger.warn("load statistics from " + persistPath + " failed", e);
+        }
+    }
+
+    /**
+     * Sample the store again if the snapshot has advanced since the last refresh
+     *
+     * @return true if the statistics are refreshed
+     */
+    public synchronized boolean refresh() throws IOException {
+        Pair<GraphSchema, Long> schemaSnapshotPair = schemaFetcher.getSchemaSnapshotPair();
+        GraphSchema schema = schemaSnapshotPair.getLeft();
+        long snapshotId = schemaSnapshotPair.getRight();
+        GraphStatistics prevStatistics = CostDataStatistics.getInstance().getGraphStatistics();
+        if (snapshotId == prevStatistics.getSnapshotId()) {
+            return false;
+        }
+
+        Map<String, Double> vertexCountList = sampler.estimateVertexCount();
+        Map<String, Double> edgeCountList = sampler.estimateEdgeCount();
+        Map<String, Double> prevVertexCountList = prevStatistics.getVertexCountList();
+        Map<String, Double> prevEdgeCountList = prevStatistics.getEdgeCountList();
+
+        int sampledCount = 0;
+        // a failed sample keeps the previous statistics, and the count of its labels is not
+        // advanced, so that it is sampled again in the next refresh
+        Set<String> failedVertexLabels = Sets.newHashSet();
+        Set<String> failedEdgeLabels = Sets.newHashSet();
+        Map<String, DegreeStatistics> outDegreeList = Maps.newHashMap();
+        Map<String, DegreeStatistics> inDegreeList = Maps.newHashMap();
+        for (GraphEdge edge : schema.getEdgeList()) {
+            for (EdgeRelation relation : edge.getRelationList()) {
+                String sourceLabel = relation.getSource().getLabel();
+                String targetLabel = relation.getTarget().getLabel();
+                String key = GraphStatistics.relationKey(sourceLabel, edge.getLabel(), targetLabel);
+                DegreeStatistics prevOutDegree = prevStatistics.getOutDegreeList().get(key);
+                DegreeStatistics prevInDegree = prevStatistics.getInDegreeList().get(key);
+                boolean changed =
+                        prevOutDegree == null
+                                || prevInDegree == null
+                                || isChanged(prevEdgeCountList, edge.getLabel(), edgeCountList)
+                                || isChanged(prevVertexCountList, sourceLabel, vertexCountList)
+                                || isChanged(prevVertexCountList, targetLabel, vertexCountList);
+                if (changed) {
+                    try {
+                        DegreeStatistics outDegree =
+                                DegreeStatistics.fromDegreeList(
+                                        sampler.sampleOutDegree(
+                                                sourceLabel,
+                                                edge.getLabel(),
+                                                targetLabel,
+                                                sampleSize),
+                                        sampledRowCount(vertexCountList, sourceLabel));
+                        DegreeStatistics inDegree =
+                                DegreeStatistics.fromDegreeList(
+                                        sampler.sampleInDegree(
+                                                sourceLabel,
+                                                edge.getLabel(),
+                                                targetLabel,
+                                                sampleSize),
+                                        sampledRowCount(vertexCountList, targetLabel));
+                        outDegreeList.put(key, outDegree);
+                        inDegreeList.put(key, inDegree);
+                        sampledCount++;
+                        continue;
+                    } catch (Exception e) {
+                        logger.warn("sample degree of relation " + key + " failed", e);
+                        failedEdgeLabels.add(edge.getLabel());
+                        failedVertexLabels.add(sourceLabel);
+                        failedVertexLabels.add(targetLabel);
+                    }
+                }
+                if (prevOutDegree != null && prevInDegree != null) {
+                    outDegreeList.put(key, prevOutDegree);
+                    inDegreeList.put(key, prevInDegree);
+                }
+            }
+        }
+
+        Map<String, PropertyStatistics> propertyList = Maps.newHashMap();
+        for (GraphVertex vertex : schema.getVertexList()) {
+            String label = vertex.getLabel();
+            boolean changed = isChanged(prevVertexCountList, label, vertexCountList);
+            for (GraphProperty property : vertex.getPropertyList()) {
+                String key = GraphStatistics.propertyKey(label, property.getName());
+                PropertyStatistics prevProperty = prevStatistics.getPropertyList().get(key);
+                if (changed || prevProperty == null) {
+                    try {
+                        propertyList.put(
+                                key,
+                                PropertyStatistics.fromValueList(
+                                        sampler.sampleProperty(
+                                                label, property.getName(), sampleSize),
+                                        sampledRowCount(vertexCountList, label)));
+                        sampledCount++;
+                        continue;
+                    } catch (Exception e) {
+                        logger.warn("sample property " + key + " failed", e);
+                        failedVertexLabels.add(label);
+                    }
+                }
+                if (prevProperty != null) {
+                    propertyList.put(key, prevProperty);
+                }
+            }
+        }
+
+        // labels whose count has not changed much keep the count their statistics were sampled at,
+        // so that a slow drift is still detected across several refreshes
+        Map<String, Double> sampledVertexCountList =
+                sampledCountList(
+                        schema.getVertexList(),
+                        prevVertexCountList,
+                        vertexCountList,
+                        failedVertexLabels);
+        Map<String, Double> sampledEdgeCountList =
+                sampledCountList(
+                        schema.getEdgeList(), prevEdgeCountList, edgeCountList, failedEdgeLabels);
+
+        GraphStatistics graphStatistics =
+                new GraphStatistics(
+                        snapshotId,
+                        sampledVertexCountList,
+                        sampledEdgeCountList,
+                        outDegreeList,
+                        inDegreeList,
+                        propertyList);
+        publish(graphStatistics, vertexCountList, edgeCountList);
+        persist(graphStatistics);
+        logger.info(
+                "refresh statistics of snapshot "
+                        + snapshotId
+                        + ", sampled "
+                        + sampledCount
+                        + " relations and properties");
+        return true;
+    }
+
+    private void publish(
+            GraphStatistics graphStatistics,
+            Map<String, Double> vertexCountList,
+            Map<String, Double> edgeCountList) {
+        CostDataStatistics statistics = CostDataStatistics.getInstance();
+        vertexCountList.forEach(statistics::addVertexCount);
+        edgeCountList.forEach(statistics::addEdgeCount);
+        statistics.updateGraphStatistics(graphStatistics);
+    }
+
+    private void persist(GraphStatistics graphStatistics) throws IOException {
+        if (StringUtils.isEmpty(persistPath)) {
+            return;
+        }
+        Path path = Paths.get(persistPath);
+        Path tmpPath = Paths.get(persistPath + ".tmp");
+        Files.write(
+                tmpPath, graphStatistics.toJson().toJSONString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Map<String, Double> sampledCountList(
+            List<? extends GraphElement> elementList,
+            Map<String, Double> prevCountList,
+            Map<String, Double> countList,
+            Set<String> failedLabels) {
+        Map<String, Double> sampledCountList = Maps.newHashMap();
+        for (GraphElement element : elementList) {
+            String label = element.getLabel();
+            if (failedLabels.contains(label) || !isChanged(prevCountList, label, countList)) {
+                Double prevCount = prevCountList.get(label);
+                if (prevCount != null) {
+                    sampledCountList.put(label, prevCount);
+                }
+            } else {
+                sampledCountList.put(label, countList.getOrDefault(label, 0.0));
+            }
+        }
+        return sampledCountList;
+    }
+
+    private long sampledRowCount(Map<String, Double> countList, String label) {
+        return Math.min(sampleSize, (long) Math.ceil(countList.getOrDefault(label, 0.0)));
+    }
+
+    private boolean isChanged(
+            Map<String, Double> prevCountList, String label, Map<String, Double> countList) {
+        return isChanged(prevCountList, label, countList.getOrDefault(label, 0.0));
+    }
+
+    private boolean isChanged(Map<String, Double> prevCountList, String label, double count) {
+        Double prevCount = prevCountList.get(label);
+        if (null == prevCount) {
+            return true;
+        }
+        return Math.abs(count - prevCount) > changeRatio * Math.max(prevCount, 1.0);
+    }
+}
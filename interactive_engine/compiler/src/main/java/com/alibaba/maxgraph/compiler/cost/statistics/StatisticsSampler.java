@@ -0,0 +1,49 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.compiler.cost.statistics;
+
+import java.util.List;
+import java.util.Map;
+
+/** Run the sampling queries used to build {@link GraphStatistics} against the store. */
+public interface StatisticsSampler {
+    /** @return The estimated vertex count of each vertex label */
+    Map<String, Double> estimateVertexCount();
+
+    /** @return The estimated edge count of each edge label */
+    Map<String, Double> estimateEdgeCount();
+
+    /**
+     * Sample source vertices and count their out edges to the given target label
+     *
+     * @return The out degree of every sampled source vertex which has at least one such edge
+     */
+    List<Long> sampleOutDegree(
+            String sourceLabel, String edgeLabel, String targetLabel, int sampleSize);
+
+    /**
+     * Sample target vertices and count their in edges from the given source label
+     *
+     * @return The in degree of every sampled target vertex which has at least one such edge
+     */
+    List<Long> sampleInDegree(
+            String sourceLabel, String edgeLabel, String targetLabel, int sampleSize);
+
+    /**
+     * Sample vertices of the given label and read the given property
+     *
+     * @return The property value of every sampled vertex which has the property
+     */
+    List<Object> sampleProperty(String vertexLabel, String propName, int sampleSize);
+}
@@ -20,6 +20,7 @@
  */
 package com.alibaba.maxgraph.server;
 
+import com.alibaba.maxgraph.cache.CacheFactory;
 import com.alibaba.maxgraph.common.cluster.InstanceConfig;
 import com.alibaba.maxgraph.compiler.exception.RetryGremlinException;
 import com.codahale.metrics.Timer;
@@ -73,6 +74,10 @@ public abstract class AbstractMixedOpProcessor extends StandardOpProcessor {
 
     protected AbstractMixedOpProcessor(InstanceConfig instanceConfig) {
         this.vertexCacheFlag = instanceConfig.gremlinVertexCacheEnable();
+        if (this.vertexCacheFlag) {
+            CacheFactory.getCacheFactory()
+                    .initVertexCache(instanceConfig.getGremlinVertexCacheMaxBytes());
+        }
         this.fetchPropFlag = instanceConfig.timelyFetchPropFlag();
         this.resultIterationBatchSize = instanceConfig.getTimelyResultIterationBatchSize();
         this.globalPullGraphFlag = instanceConfig.getGlobalPullGraphFlag();
@@ -25,6 +25,7 @@ package com.alibaba.maxgraph.server;
 
 import static com.codahale.metrics.MetricRegistry.name;
 
+import com.alibaba.maxgraph.cache.CacheFactory;
 import com.alibaba.maxgraph.common.cluster.InstanceConfig;
 import com.alibaba.maxgraph.compiler.step.MaxGraphIoStep;
 import com.alibaba.maxgraph.sdkcommon.graph.DfsRequest;
@@ -125,6 +126,10 @@ public abstract class AbstractMixedTraversalOpProcessor extends AbstractOpProces
     public AbstractMixedTraversalOpProcessor(InstanceConfig instanceConfig) {
         super(false);
         this.vertexCacheFlag = instanceConfig.gremlinVertexCacheEnable();
+        if (this.vertexCacheFlag) {
+            CacheFactory.getCacheFactory()
+                    .initVertexCache(instanceConfig.getGremlinVertexCacheMaxBytes());
+        }
         this.resultIterationBatchSize = instanceConfig.getTimelyResultIterationBatchSize();
     }
 
@@ -19,12 +19,16 @@ import com.google.common.collect.Maps;
 
 import org.apache.tinkerpop.gremlin.server.OpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.OpLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 
 public class MaxGraphOpLoader {
+    private static final Logger logger = LoggerFactory.getLogger(MaxGraphOpLoader.class);
+
     private static Map<String, OpProcessor> processors = Maps.newHashMap();
 
     public static Optional<OpProcessor> getProcessor(String name) {
@@ -42,4 +46,16 @@ public class MaxGraphOpLoader {
     public static void addOpProcessor(String name, OpProcessor opProcessor) {
         processors.put(name, opProcessor);
     }
+
+    /** Gremlin server only closes the processors of {@link OpLoader} when it stops */
+    public static void closeProcessors() {
+        processors.forEach(
+                (name, opProcessor) -> {
+                    try {
+                        opProcessor.close();
+                    } catch (Exception e) {
+                        logger.warn("close op processor " + name + " failed", e);
+                    }
+                });
+    }
 }
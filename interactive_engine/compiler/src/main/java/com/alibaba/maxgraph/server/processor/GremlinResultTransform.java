@@ -14,6 +14,7 @@
 package com.alibaba.maxgraph.server.processor;
 
 import com.alibaba.maxgraph.cache.CacheFactory;
+import com.alibaba.maxgraph.cache.VertexCache;
 import com.alibaba.maxgraph.compiler.api.schema.GraphSchema;
 import com.alibaba.maxgraph.compiler.tree.value.ValueType;
 import com.alibaba.maxgraph.result.EdgeResult;
@@ -34,7 +35,6 @@ import com.alibaba.maxgraph.server.query.RpcProcessorType;
 import com.alibaba.maxgraph.structure.MxVertex;
 import com.alibaba.maxgraph.structure.Vertex;
 import com.alibaba.maxgraph.structure.graph.TinkerMaxGraph;
-import com.google.common.cache.Cache;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -61,24 +61,32 @@ public class GremlinResultTransform {
     private final TinkerMaxGraph graph;
     private final boolean vertexCacheFlag;
     private final ValueType resultValueType;
-    private Cache<ElementId, org.apache.tinkerpop.gremlin.structure.Vertex> vertexCache;
+    private final long snapshotId;
+    private VertexCache vertexCache;
 
     public GremlinResultTransform(
             RemoteRpcConnector remoteRpcConnector,
             RemoteRpcProcessor remoteRpcProcessor,
             TinkerMaxGraph graph,
             ValueType resultValueType,
-            boolean vertexCacheFlag) {
+            boolean vertexCacheFlag,
+            long snapshotId) {
         this.remoteRpcConnector = remoteRpcConnector;
         this.remoteRpcProcessor = remoteRpcProcessor;
         this.graph = graph;
         this.resultValueType = resultValueType;
         this.vertexCacheFlag = vertexCacheFlag;
+        this.snapshotId = snapshotId;
         if (this.vertexCacheFlag) {
             vertexCache = CacheFactory.getCacheFactory().getVertexCache();
+            vertexCache.advanceSnapshot(snapshotId);
         }
     }
 
+    private org.apache.tinkerpop.gremlin.structure.Vertex getCachedVertex(ElementId elementId) {
+        return vertexCacheFlag ? vertexCache.get(elementId, snapshotId) : null;
+    }
+
     private Object getPropertyValue(QueryResult queryResult) {
         if (queryResult instanceof PropertyValueResult) {
             return PropertyValueResult.class.cast(queryResult).getValue();
@@ -194,7 +202,7 @@ public class GremlinResultTransform {
             VertexResult vertexResult = (VertexResult) queryResult;
             CompositeId compositeId = CompositeId.class.cast(vertexResult.id());
             org.apache.tinkerpop.gremlin.structure.Vertex cachedVertex =
-                    vertexCache.getIfPresent(compositeId);
+                    getCachedVertex(compositeId);
             if (null == cachedVertex) {
                 List<Object> resultList = Lists.newArrayList();
                 Map<ElementId, Integer> elementIdIntegerMap = Maps.newHashMap();
@@ -246,7 +254,7 @@ public class GremlinResultTransform {
                                 vertexResult.id,
                                 schema.getElement(vertexResult.label).getLabelId());
                 org.apache.tinkerpop.gremlin.structure.Vertex cachedVertex =
-                        vertexCache.getIfPresent(compositeId);
+                        getCachedVertex(compositeId);
                 if (null != cachedVertex) {
                     resultVertexIdList.add(compositeId);
                     idToVertexList.put(compositeId, cachedVertex);
@@ -361,6 +369,7 @@ public class GremlinResultTransform {
                     batchSize,
                     resultList,
                     vertexCacheFlag,
+                    snapshotId,
                     existPropMap);
         } else {
             remoteRpcConnector.queryVertices(
@@ -371,6 +380,7 @@ public class GremlinResultTransform {
                     batchSize,
                     resultList,
                     vertexCacheFlag,
+                    snapshotId,
                     rpcProcessorType,
                     existPropMap);
         }
@@ -386,9 +396,7 @@ public class GremlinResultTransform {
                                         Maps.newHashMap(),
                                         this.graph.getBaseGraph()),
                                 this.graph);
-                if (vertexCacheFlag) {
-                    vertexCache.put(elementId, vertex);
-                }
+                // not returned by the store, the vertex without properties is not cached
                 if (null != resultList) {
                     resultList.add(vertex);
                 }
@@ -26,6 +26,8 @@ import com.alibaba.maxgraph.compiler.api.schema.SchemaFetcher;
 import com.alibaba.maxgraph.compiler.cost.CostModelManager;
 import com.alibaba.maxgraph.compiler.cost.CostPath;
 import com.alibaba.maxgraph.compiler.cost.statistics.CostDataStatistics;
+import com.alibaba.maxgraph.compiler.cost.statistics.StatisticsRefresher;
+import com.alibaba.maxgraph.compiler.cost.statistics.StatisticsSampler;
 import com.alibaba.maxgraph.compiler.dfs.DfsTraversal;
 import com.alibaba.maxgraph.compiler.exception.RetryGremlinException;
 import com.alibaba.maxgraph.compiler.executor.ExecuteConfig;
@@ -105,6 +107,7 @@ public class MixedOpProcessor extends AbstractMixedOpProcessor {
 
     private ExecuteConfig executeConfig = new ExecuteConfig();
     private boolean lambdaEnableFlag;
+    private StatisticsRefresher statisticsRefresher;
 
     public MixedOpProcessor(
             TinkerMaxGraph graph,
@@ -137,6 +140,26 @@ public class MixedOpProcessor extends AbstractMixedOpProcessor {
 
         this.graphName = instanceConfig.getGraphName();
         this.serverId = instanceConfig.getInt("node.idx", -1);
+
+        long statisticsIntervalSec = instanceConfig.getStatisticsRefreshIntervalSec();
+        if (statisticsIntervalSec > 0) {
+            this.statisticsRefresher =
+                    new StatisticsRefresher(
+                            schemaFetcher,
+                            new StoreStatisticsSampler(instanceConfig.getStatisticsTimeoutMs()),
+                            instanceConfig.getStatisticsSampleSize(),
+                            instanceConfig.getStatisticsChangeRatio(),
+                            instanceConfig.getStatisticsPersistPath());
+            this.statisticsRefresher.start(statisticsIntervalSec);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (this.statisticsRefresher != null) {
+            this.statisticsRefresher.close();
+            this.statisticsRefresher = null;
+        }
     }
 
     @Override
@@ -267,11 +290,11 @@ public class MixedOpProcessor extends AbstractMixedOpProcessor {
                 throw new UnsupportedOperationException();
             } else if (traversal instanceof ShowProcessListQuery) {
                 TimelyResultProcessor nettyResultProcessor =
-                        newNettyResultProcessor(queryId, script, context, graph, schema);
+                        newNettyResultProcessor(queryId, script, context, graph, snapshotSchema);
                 timelyExecutor.showProcessList(nettyResultProcessor);
             } else if (traversal instanceof CancelDataflow) {
                 NettyResultProcessor nettyResultProcessor =
-                        newNettyResultProcessor(queryId, script, context, graph, schema);
+                        newNettyResultProcessor(queryId, script, context, graph, snapshotSchema);
                 timelyExecutor.cancelDataflow(
                         nettyResultProcessor, ((CancelDataflow) traversal).queryId);
             } else if (traversal instanceof RecordManager) {
@@ -338,65 +361,158 @@ public class MixedOpProcessor extends AbstractMixedOpProcessor {
 
     private Object processEstimateManager(EstimateRequest request, long timeout)
             throws RetryGremlinException {
-        Stopwatch timer = Stopwatch.createStarted();
-
         CostDataStatistics statistics = CostDataStatistics.getInstance();
-        TinkerMaxGraph emptyGraph = new TinkerMaxGraph(null, null, null);
-        MaxGraphTraversalSource g = (MaxGraphTraversalSource) emptyGraph.traversal();
+        estimateVertexCount(timeout).forEach(statistics::addVertexCount);
+        estimateEdgeCount(timeout).forEach(statistics::addEdgeCount);
 
+        return "Estimate vertex/edge count success";
+    }
+
+    private Map<String, Double> estimateVertexCount(long timeout) throws RetryGremlinException {
+        MaxGraphTraversalSource g = newInternalTraversalSource();
         GraphSchema graphSchema = schemaFetcher.getSchemaSnapshotPair().getLeft();
         Map<String, Double> vertexCountList = Maps.newHashMap();
         for (GraphElement vertex : graphSchema.getVertexList()) {
-            String queryId = String.valueOf(ThreadLocalRandom.current().nextLong());
-            GraphTraversal vertexQuery = g.estimateVCount(vertex.getLabel());
-            RemoteRpcProcessor remoteRpcProcessor = new DefaultVertexRpcProcessor();
-            MemoryResultProcessor resultProcessor =
-                    new MemoryResultProcessor(
-                            executeConfig.getBatchQuerySize(), resultIterationBatchSize, queryId);
-            processQueryTraversal(
-                    vertexQuery.toString(),
-                    vertexQuery,
-                    timeout,
-                    queryId,
-                    timer,
-                    this.httpRpcConnector,
-                    remoteRpcProcessor,
-                    resultProcessor);
-            double countValue =
-                    Double.parseDouble(resultProcessor.getResultList().get(0).toString());
+            List<Object> resultList =
+                    executeInternalQuery(g.estimateVCount(vertex.getLabel()), timeout);
+            double countValue = Double.parseDouble(resultList.get(0).toString());
             vertexCountList.put(vertex.getLabel(), countValue);
         }
+        return vertexCountList;
+    }
 
+    private Map<String, Double> estimateEdgeCount(long timeout) throws RetryGremlinException {
+        MaxGraphTraversalSource g = newInternalTraversalSource();
+        GraphSchema graphSchema = schemaFetcher.getSchemaSnapshotPair().getLeft();
         Map<String, Double> edgeCountList = Maps.newHashMap();
         for (GraphElement edge : graphSchema.getEdgeList()) {
-            GraphTraversal edgeQuery = g.estimateECount(edge.getLabel());
-            String queryId = String.valueOf(ThreadLocalRandom.current().nextLong());
-            RemoteRpcProcessor remoteRpcProcessor = new DefaultVertexRpcProcessor();
-            MemoryResultProcessor resultProcessor =
-                    new MemoryResultProcessor(
-                            executeConfig.getBatchQuerySize(), resultIterationBatchSize, queryId);
-            processQueryTraversal(
-                    edgeQuery.toString(),
-                    edgeQuery,
-                    timeout,
-                    queryId,
-                    timer,
-                    this.httpRpcConnector,
-                    remoteRpcProcessor,
-                    resultProcessor);
-            double countValue =
-                    Double.parseDouble(resultProcessor.getResultList().get(0).toString());
+            List<Object> resultList =
+                    executeInternalQuery(g.estimateECount(edge.getLabel()), timeout);
+            double countValue = Double.parseDouble(resultList.get(0).toString());
             edgeCountList.put(edge.getLabel(), countValue);
         }
+        return edgeCountList;
+    }
+
+    private MaxGraphTraversalSource newInternalTraversalSource() {
+        TinkerMaxGraph emptyGraph = new TinkerMaxGraph(null, null, null);
+        return (MaxGraphTraversalSource) emptyGraph.traversal();
+    }
+
+    private List<Object> executeInternalQuery(GraphTraversal traversal, long timeout)
+            throws RetryGremlinException {
+        Stopwatch timer = Stopwatch.createStarted();
+        String queryId = String.valueOf(ThreadLocalRandom.current().nextLong());
+        RemoteRpcProcessor remoteRpcProcessor = new DefaultVertexRpcProcessor();
+        MemoryResultProcessor resultProcessor =
+                new MemoryResultProcessor(
+                        executeConfig.getBatchQuerySize(), resultIterationBatchSize, queryId);
+        processQueryTraversal(
+                traversal.toString(),
+                traversal,
+                timeout,
+                queryId,
+                timer,
+                this.httpRpcConnector,
+                remoteRpcProcessor,
+                resultProcessor);
+        return resultProcessor.getResultList();
+    }
+
+    /** Sample the store with internal queries to build statistics for the cost model */
+    private class StoreStatisticsSampler implements StatisticsSampler {
+        private static final String SAMPLE_TAG = "sample";
+
+        private final long timeout;
 
-        for (Map.Entry<String, Double> entry : vertexCountList.entrySet()) {
-            statistics.addVertexCount(entry.getKey(), entry.getValue());
+        StoreStatisticsSampler(long timeout) {
+            this.timeout = timeout;
         }
-        for (Map.Entry<String, Double> entry : edgeCountList.entrySet()) {
-            statistics.addEdgeCount(entry.getKey(), entry.getValue());
+
+        @Override
+        public Map<String, Double> estimateVertexCount() {
+            try {
+                return MixedOpProcessor.this.estimateVertexCount(timeout);
+            } catch (RetryGremlinException e) {
+                throw new RuntimeException(e);
+            }
         }
 
-        return "Estimate vertex/edge count success";
+        @Override
+        public Map<String, Double> estimateEdgeCount() {
+            try {
+                return MixedOpProcessor.this.estimateEdgeCount(timeout);
+            } catch (RetryGremlinException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public List<Long> sampleOutDegree(
+                String sourceLabel, String edgeLabel, String targetLabel, int sampleSize) {
+            GraphTraversal traversal =
+                    newInternalTraversalSource()
+                            .V()
+                            .hasLabel(sourceLabel)
+                            .sample(sampleSize)
+                            .as(SAMPLE_TAG)
+                            .outE(edgeLabel)
+                            .inV()
+                            .hasLabel(targetLabel)
+                            .select(SAMPLE_TAG)
+                            .groupCount();
+            return toDegreeList(query(traversal));
+        }
+
+        @Override
+        public List<Long> sampleInDegree(
+                String sourceLabel, String edgeLabel, String targetLabel, int sampleSize) {
+            GraphTraversal traversal =
+                    newInternalTraversalSource()
+                            .V()
+                            .hasLabel(targetLabel)
+                            .sample(sampleSize)
+                            .as(SAMPLE_TAG)
+                            .inE(edgeLabel)
+                            .outV()
+                            .hasLabel(sourceLabel)
+                            .select(SAMPLE_TAG)
+                            .groupCount();
+            return toDegreeList(query(traversal));
+        }
+
+        @Override
+        public List<Object> sampleProperty(String vertexLabel, String propName, int sampleSize) {
+            GraphTraversal traversal =
+                    newInternalTraversalSource()
+                            .V()
+                            .hasLabel(vertexLabel)
+                            .sample(sampleSize)
+                            .values(propName);
+            return query(traversal);
+        }
+
+        private List<Object> query(GraphTraversal traversal) {
+            try {
+                return executeInternalQuery(traversal, timeout);
+            } catch (RetryGremlinException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private List<Long> toDegreeList(List<Object> resultList) {
+            List<Long> degreeList = Lists.newArrayList();
+            for (Object result : resultList) {
+                if (result instanceof Map) {
+                    for (Object degree : ((Map<?, ?>) result).values()) {
+                        degreeList.add(((Number) degree).longValue());
+                    }
+                } else if (result instanceof Map.Entry) {
+                    degreeList.add(((Number) ((Map.Entry<?, ?>) result).getValue()).longValue());
+                }
+            }
+            return degreeList;
+        }
     }
 
     private Long processQueryTraversal(
@@ -446,7 +562,8 @@ public class MixedOpProcessor extends AbstractMixedOpProcessor {
                         remoteRpcProcessor,
                         this.graph,
                         queryFlowManager.getResultValueType(),
-                        vertexCacheFlag));
+                        vertexCacheFlag,
+                        snapshotSchema.getRight()));
         nettyResultProcessor.setLabelIndexNameList(
                 queryFlowManager.getTreeNodeLabelManager().getUserIndexLabelList());
         nettyResultProcessor.setSchema(schema);
@@ -507,7 +624,11 @@ public class MixedOpProcessor extends AbstractMixedOpProcessor {
     }
 
     private NettyResultProcessor newNettyResultProcessor(
-            String queryId, String script, Context context, Graph graph, GraphSchema schema) {
+            String queryId,
+            String script,
+            Context context,
+            Graph graph,
+            Pair<GraphSchema, Long> snapshotSchema) {
         NettyVertexRpcProcessor nettyVertexRpcProcessor =
                 new NettyVertexRpcProcessor(context, resultIterationBatchSize, false);
         GremlinResultTransform gremlinResultTransform =
@@ -516,7 +637,8 @@ public class MixedOpProcessor extends AbstractMixedOpProcessor {
                         nettyVertexRpcProcessor,
                         this.graph,
                         new ListValueType(new ValueValueType(Message.VariantType.VT_STRING)),
-                        vertexCacheFlag);
+                        vertexCacheFlag,
+                        snapshotSchema.getRight());
         NettyResultProcessor nettyResultProcessor =
                 new NettyResultProcessor(
                         queryId,
@@ -525,7 +647,7 @@ public class MixedOpProcessor extends AbstractMixedOpProcessor {
                         executeConfig.getBatchQuerySize(),
                         resultIterationBatchSize,
                         false);
-        nettyResultProcessor.setSchema(schema);
+        nettyResultProcessor.setSchema(snapshotSchema.getLeft());
         nettyResultProcessor.setResultTransform(gremlinResultTransform);
         return nettyResultProcessor;
     }
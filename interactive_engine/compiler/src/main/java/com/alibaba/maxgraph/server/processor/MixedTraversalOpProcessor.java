@@ -260,7 +260,8 @@ public class MixedTraversalOpProcessor extends AbstractMixedTraversalOpProcessor
                                 nettyVertexRpcProcessor,
                                 this.graph,
                                 queryFlowManager.getResultValueType(),
-                                vertexCacheFlag);
+                                vertexCacheFlag,
+                                snapshotSchema.getRight());
                 NettyResultProcessor nettyResultProcessor =
                         new NettyResultProcessor(
                                 queryId,
@@ -111,6 +111,7 @@ public class RemoteRpcConnector implements Cloneable {
             int batchSize,
             List<Object> resultList,
             boolean vertexCacheFlag,
+            long snapshotId,
             RpcProcessorType rpcProcessorType,
             Map<CompositeId, Map<String, Object>> existPropMap) {
         List<RpcAddress> remoteAddressList = addressFetcher.getAddressList();
@@ -160,6 +161,7 @@ public class RemoteRpcConnector implements Cloneable {
                                 latch,
                                 vertexCountList,
                                 vertexCacheFlag,
+                                snapshotId,
                                 existPropMap);
                 gremlinServiceStub.getVertexs(reqBuilder.build(), vertexStreamObserver);
             } catch (ExecutionException e) {
@@ -192,6 +194,7 @@ public class RemoteRpcConnector implements Cloneable {
             int batchSize,
             List<Object> resultList,
             boolean vertexCacheFlag,
+            long snapshotId,
             Map<CompositeId, Map<String, Object>> existPropMap) {
         queryVertices(
                 classified,
@@ -201,6 +204,7 @@ public class RemoteRpcConnector implements Cloneable {
                 batchSize,
                 resultList,
                 vertexCacheFlag,
+                snapshotId,
                 this.rpcProcessorType,
                 existPropMap);
     }
@@ -14,6 +14,7 @@
 package com.alibaba.maxgraph.server.query;
 
 import com.alibaba.maxgraph.cache.CacheFactory;
+import com.alibaba.maxgraph.cache.VertexCache;
 import com.alibaba.maxgraph.compiler.api.schema.GraphElement;
 import com.alibaba.maxgraph.compiler.api.schema.GraphSchema;
 import com.alibaba.maxgraph.proto.GremlinQuery;
@@ -23,7 +24,6 @@ import com.alibaba.maxgraph.sdkcommon.graph.ElementId;
 import com.alibaba.maxgraph.structure.MxVertex;
 import com.alibaba.maxgraph.structure.Vertex;
 import com.alibaba.maxgraph.structure.graph.TinkerMaxGraph;
-import com.google.common.cache.Cache;
 import com.google.common.collect.Maps;
 
 import io.grpc.stub.StreamObserver;
@@ -45,7 +45,8 @@ public class VertexStreamObserver implements StreamObserver<GremlinQuery.VertexR
     private CountDownLatch latch;
     private Map<ElementId, Integer> vertexCountList;
     private boolean vertexCacheFlag;
-    private Cache<ElementId, org.apache.tinkerpop.gremlin.structure.Vertex> vertexCache;
+    private long snapshotId;
+    private VertexCache vertexCache;
 
     public VertexStreamObserver(
             RemoteRpcProcessor resultProcessor,
@@ -55,6 +56,7 @@ public class VertexStreamObserver implements StreamObserver<GremlinQuery.VertexR
             CountDownLatch latch,
             Map<ElementId, Integer> vertexCountList,
             boolean vertexCacheFlag,
+            long snapshotId,
             Map<CompositeId, Map<String, Object>> existPropMap) {
         this.resultProcessor = resultProcessor;
         this.schema = schema;
@@ -63,6 +65,7 @@ public class VertexStreamObserver implements StreamObserver<GremlinQuery.VertexR
         this.latch = latch;
         this.vertexCountList = vertexCountList;
         this.vertexCacheFlag = vertexCacheFlag;
+        this.snapshotId = snapshotId;
         if (this.vertexCacheFlag) {
             vertexCache = CacheFactory.getCacheFactory().getVertexCache();
         }
@@ -97,7 +100,7 @@ public class VertexStreamObserver implements StreamObserver<GremlinQuery.VertexR
                         new Vertex(rId, type.getLabel(), properties, this.graph.getBaseGraph()),
                         this.graph);
         if (vertexCacheFlag) {
-            vertexCache.put(rId, vertex);
+            vertexCache.put(rId, vertex, snapshotId, vertexResponse.getPros().size());
         }
         int count = vertexCountList.remove(rId);
         if (count > 1) {
@@ -129,9 +132,7 @@ public class VertexStreamObserver implements StreamObserver<GremlinQuery.VertexR
                                         Maps.newHashMap(),
                                         this.graph.getBaseGraph()),
                                 this.graph);
-                if (vertexCacheFlag) {
-                    vertexCache.put(elementId, vertex);
-                }
+                // not returned by the store, the vertex without properties is not cached
                 for (int i = 0; i < entry.getValue(); i++) {
                     resultProcessor.process(vertex);
                 }
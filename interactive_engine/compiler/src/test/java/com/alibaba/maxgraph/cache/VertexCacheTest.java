@@ -0,0 +1,95 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.cache;
+
+import com.alibaba.maxgraph.sdkcommon.graph.CompositeId;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyVertex;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VertexCacheTest {
+    private static final Vertex VERTEX = EmptyVertex.instance();
+
+    @Test
+    public void testGetOnlyAtSameSnapshot() {
+        VertexCache vertexCache = new VertexCache(1024 * 1024);
+        CompositeId id = new CompositeId(1L, 1);
+        vertexCache.advanceSnapshot(10);
+        vertexCache.put(id, VERTEX, 10, 32);
+
+        Assert.assertSame(VERTEX, vertexCache.get(id, 10));
+        // a query on an older snapshot must not see the newer vertex, and keeps it cached
+        Assert.assertNull(vertexCache.get(id, 9));
+        Assert.assertSame(VERTEX, vertexCache.get(id, 10));
+        // a query on a newer snapshot drops the stale vertex
+        Assert.assertNull(vertexCache.get(id, 11));
+        Assert.assertEquals(0, vertexCache.size());
+
+        Assert.assertEquals(2, vertexCache.getHitCount());
+        Assert.assertEquals(2, vertexCache.getStaleCount());
+        Assert.assertEquals(0, vertexCache.getMissCount());
+        Assert.assertNull(vertexCache.get(id, 11));
+        Assert.assertEquals(1, vertexCache.getMissCount());
+    }
+
+    @Test
+    public void testAdvanceSnapshotDropsOlderEntriesLazily() {
+        VertexCache vertexCache = new VertexCache(1024 * 1024);
+        vertexCache.advanceSnapshot(10);
+        vertexCache.put(new CompositeId(1L, 1), VERTEX, 10, 32);
+        vertexCache.put(new CompositeId(2L, 1), VERTEX, 10, 32);
+        vertexCache.advanceSnapshot(11);
+        vertexCache.put(new CompositeId(3L, 1), VERTEX, 11, 32);
+        Assert.assertEquals(3, vertexCache.size());
+
+        // an older entry is dropped once it is looked up at the newer snapshot
+        Assert.assertNull(vertexCache.get(new CompositeId(1L, 1), 11));
+        Assert.assertEquals(2, vertexCache.size());
+        Assert.assertEquals(
+                2 * (VertexCache.ENTRY_OVERHEAD_BYTES + 32), vertexCache.getWeightBytes());
+
+        // snapshots never move backwards and late results of older snapshots are not cached
+        vertexCache.advanceSnapshot(10);
+        Assert.assertEquals(11, vertexCache.getLatestSnapshotId());
+        vertexCache.put(new CompositeId(4L, 1), VERTEX, 10, 32);
+        Assert.assertNull(vertexCache.get(new CompositeId(4L, 1), 10));
+        Assert.assertSame(VERTEX, vertexCache.get(new CompositeId(3L, 1), 11));
+    }
+
+    @Test
+    public void testWeighBySerializedSize() {
+        int maxBytes = 64 * 1024;
+        VertexCache vertexCache = new VertexCache(maxBytes);
+        vertexCache.advanceSnapshot(1);
+        // a vertex taking too much of the cache is never cached
+        vertexCache.put(new CompositeId(0L, 1), VERTEX, 1, maxBytes / 8);
+        Assert.assertEquals(0, vertexCache.size());
+
+        for (long i = 1; i <= 1000; i++) {
+            vertexCache.put(new CompositeId(i, 1), VERTEX, 1, 1024);
+        }
+        vertexCache.get(new CompositeId(1000L, 1), 1);
+        Assert.assertTrue(vertexCache.getWeightBytes() <= maxBytes);
+        Assert.assertTrue(vertexCache.size() < 1000);
+        Assert.assertTrue(vertexCache.getEvictionCount() > 0);
+        Assert.assertEquals(1000 - vertexCache.size(), vertexCache.getEvictionCount());
+
+        vertexCache.invalidate(new CompositeId(1000L, 1));
+        Assert.assertNull(vertexCache.get(new CompositeId(1000L, 1), 1));
+    }
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.compiler.cost;
+
+import com.alibaba.maxgraph.compiler.api.schema.DataType;
+import com.alibaba.maxgraph.compiler.api.schema.GraphEdge;
+import com.alibaba.maxgraph.compiler.api.schema.GraphSchema;
+import com.alibaba.maxgraph.compiler.api.schema.GraphVertex;
+import com.alibaba.maxgraph.compiler.api.schema.SchemaFetcher;
+import com.alibaba.maxgraph.compiler.cost.statistics.CostDataStatistics;
+import com.alibaba.maxgraph.compiler.cost.statistics.DegreeStatistics;
+import com.alibaba.maxgraph.compiler.cost.statistics.GraphStatistics;
+import com.alibaba.maxgraph.compiler.cost.statistics.NodeStatistics;
+import com.alibaba.maxgraph.compiler.cost.statistics.PropertyStatistics;
+import com.alibaba.maxgraph.compiler.cost.statistics.StatisticsRefresher;
+import com.alibaba.maxgraph.compiler.cost.statistics.StatisticsSampler;
+import com.alibaba.maxgraph.compiler.schema.DefaultEdgeRelation;
+import com.alibaba.maxgraph.compiler.schema.DefaultGraphEdge;
+import com.alibaba.maxgraph.compiler.schema.DefaultGraphProperty;
+import com.alibaba.maxgraph.compiler.schema.DefaultGraphSchema;
+import com.alibaba.maxgraph.compiler.schema.DefaultGraphVertex;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class StatisticsRefresherTest {
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private GraphSchema schema;
+    private long snapshotId = 1;
+    private Map<String, Double> vertexCountList = Maps.newHashMap();
+    private Map<String, Double> edgeCountList = Maps.newHashMap();
+    private int degreeSampleCount = 0;
+    private int propertySampleCount = 0;
+    private String failedPropertyLabel = null;
+
+    public StatisticsRefresherTest() {
+        DefaultGraphProperty nameProp = new DefaultGraphProperty(1, "name", DataType.STRING);
+        DefaultGraphVertex user =
+                new DefaultGraphVertex(
+                        11, "user", Lists.newArrayList(nameProp), Lists.newArrayList(nameProp));
+        DefaultGraphVertex item =
+                new DefaultGraphVertex(
+                        12, "item", Lists.newArrayList(nameProp), Lists.newArrayList(nameProp));
+        Map<String, GraphVertex> vertexList = Maps.newHashMap();
+        vertexList.put(user.getLabel(), user);
+        vertexList.put(item.getLabel(), item);
+
+        DefaultGraphEdge buy =
+                new DefaultGraphEdge(
+                        13,
+                        "buy",
+                        Lists.newArrayList(),
+                        Lists.newArrayList(new DefaultEdgeRelation(user, item)));
+        Map<String, GraphEdge> edgeList = Maps.newHashMap();
+        edgeList.put(buy.getLabel(), buy);
+
+        Map<String, Integer> propNameToIdList = Maps.newHashMap();
+        propNameToIdList.put("name", 1);
+        schema = new DefaultGraphSchema(vertexList, edgeList, propNameToIdList);
+        CostDataStatistics.initialize(new TestSchemaFetcher());
+
+        vertexCountList.put("user", 1000.0);
+        vertexCountList.put("item", 100.0);
+        edgeCountList.put("buy", 5000.0);
+    }
+
+    @After
+    public void tearDown() {
+        CostDataStatistics.getInstance().updateGraphStatistics(GraphStatistics.empty());
+    }
+
+    private StatisticsRefresher newRefresher(String persistPath) {
+        return new StatisticsRefresher(
+                new TestSchemaFetcher(), new TestSampler(), 100, 0.1, persistPath);
+    }
+
+    @Test
+    public void testRefreshIncrementally() throws Exception {
+        StatisticsRefresher refresher = newRefresher(null);
+        Assert.assertTrue(refresher.refresh());
+        Assert.assertEquals(2, degreeSampleCount);
+        Assert.assertEquals(2, propertySampleCount);
+
+        // snapshot not advanced
+        Assert.assertFalse(refresher.refresh());
+        Assert.assertEquals(2, degreeSampleCount);
+
+        // counts changed less than the change ratio, nothing is sampled again
+        snapshotId = 2;
+        vertexCountList.put("user", 1050.0);
+        Assert.assertTrue(refresher.refresh());
+        Assert.assertEquals(2, degreeSampleCount);
+        Assert.assertEquals(2, propertySampleCount);
+
+        // edge count changed, only the relation is sampled again
+        snapshotId = 3;
+        edgeCountList.put("buy", 6000.0);
+        Assert.assertTrue(refresher.refresh());
+        Assert.assertEquals(4, degreeSampleCount);
+        Assert.assertEquals(2, propertySampleCount);
+
+        GraphStatistics graphStatistics = CostDataStatistics.getInstance().getGraphStatistics();
+        Assert.assertEquals(3, graphStatistics.getSnapshotId());
+        Assert.assertEquals((Double) 1000.0, graphStatistics.getVertexCountList().get("user"));
+        Assert.assertEquals((Double) 6000.0, graphStatistics.getEdgeCountList().get("buy"));
+    }
+
+    @Test
+    public void testRefreshWithFailedSample() throws Exception {
+        StatisticsRefresher refresher = newRefresher(null);
+        Assert.assertTrue(refresher.refresh());
+        PropertyStatistics userName =
+                CostDataStatistics.getInstance().getGraphStatistics().getProperty("user", "name");
+
+        // the failed property keeps the previous statistics, the others are still refreshed
+        snapshotId = 2;
+        vertexCountList.put("user", 1500.0);
+        failedPropertyLabel = "user";
+        Assert.assertTrue(refresher.refresh());
+        Assert.assertEquals(4, degreeSampleCount);
+        Assert.assertEquals(2, propertySampleCount);
+        GraphStatistics graphStatistics = CostDataStatistics.getInstance().getGraphStatistics();
+        Assert.assertSame(userName, graphStatistics.getProperty("user", "name"));
+        Assert.assertEquals((Double) 1000.0, graphStatistics.getVertexCountList().get("user"));
+
+        // and is sampled again in the next refresh
+        snapshotId = 3;
+        failedPropertyLabel = null;
+        Assert.assertTrue(refresher.refresh());
+        Assert.assertEquals(3, propertySampleCount);
+        graphStatistics = CostDataStatistics.getInstance().getGraphStatistics();
+        Assert.assertNotSame(userName, graphStatistics.getProperty("user", "name"));
+        Assert.assertEquals((Double) 1500.0, graphStatistics.getVertexCountList().get("user"));
+    }
+
+    @Test
+    public void testSampledDegreeRatio() throws Exception {
+        CostDataStatistics statistics = CostDataStatistics.getInstance();
+        NodeStatistics startStatistics = new NodeStatistics(schema);
+        startStatistics.addVertexCount("user", 10);
+
+        statistics.addVertexCount("user", 1000.0);
+        statistics.addEdgeCount("buy", 5000.0);
+        NodeStatistics outRatio = statistics.getOutRatio(startStatistics, Sets.newHashSet("buy"));
+        Assert.assertEquals((Double) 50.0, outRatio.getVertexCountList().get("item"));
+
+        newRefresher(null).refresh();
+        DegreeStatistics outDegree =
+                statistics.getGraphStatistics().getOutDegree("user", "buy", "item");
+        Assert.assertEquals(100, outDegree.getSampleCount());
+        Assert.assertEquals(2.0, outDegree.getAverage(), 1e-6);
+        Assert.assertEquals(4, outDegree.getP90());
+        outRatio = statistics.getOutRatio(startStatistics, Sets.newHashSet("buy"));
+        Assert.assertEquals((Double) 20.0, outRatio.getVertexCountList().get("item"));
+        Assert.assertEquals(
+                0.1,
+                statistics
+                        .getGraphStatistics()
+                        .getProperty("item", "name")
+                        .getEqualSelectivity(100.0),
+                1e-6);
+    }
+
+    @Test
+    public void testPersistStatistics() throws Exception {
+        String persistPath = temporaryFolder.newFile("statistics.json").getAbsolutePath();
+        Assert.assertTrue(newRefresher(persistPath).refresh());
+
+        CostDataStatistics.getInstance().updateGraphStatistics(GraphStatistics.empty());
+        newRefresher(persistPath).load();
+        GraphStatistics graphStatistics = CostDataStatistics.getInstance().getGraphStatistics();
+        Assert.assertEquals(1, graphStatistics.getSnapshotId());
+        Assert.assertEquals(
+                2.0, graphStatistics.getOutDegree("user", "buy", "item").getAverage(), 1e-6);
+
+        // the loaded statistics are up to date with the snapshot
+        Assert.assertFalse(newRefresher(persistPath).refresh());
+        Assert.assertEquals(2, degreeSampleCount);
+    }
+
+    private class TestSchemaFetcher implements SchemaFetcher {
+        @Override
+        public Pair<GraphSchema, Long> getSchemaSnapshotPair() {
+            return Pair.of(schema, snapshotId);
+        }
+
+        @Override
+        public int getPartitionNum() {
+            return 1;
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+    }
+
+    private class TestSampler implements StatisticsSampler {
+        @Override
+        public Map<String, Double> estimateVertexCount() {
+            return Maps.newHashMap(vertexCountList);
+        }
+
+        @Override
+        public Map<String, Double> estimateEdgeCount() {
+            return Maps.newHashMap(edgeCountList);
+        }
+
+        @Override
+        public List<Long> sampleOutDegree(
+                String sourceLabel, String edgeLabel, String targetLabel, int sampleSize) {
+            degreeSampleCount++;
+            // half of the sampled users have no edge
+            return Collections.nCopies(sampleSize / 2, 4L);
+        }
+
+        @Override
+        public List<Long> sampleInDegree(
+                String sourceLabel, String edgeLabel, String targetLabel, int sampleSize) {
+            degreeSampleCount++;
+            return Collections.nCopies(sampleSize, 50L);
+        }
+
+        @Override
+        public List<Object> sampleProperty(String vertexLabel, String propName, int sampleSize) {
+            if (vertexLabel.equals(failedPropertyLabel)) {
+                throw new RuntimeException("sample property timeout");
+            }
+            propertySampleCount++;
+            List<Object> valueList = Lists.newArrayList();
+            for (int i = 0; i < sampleSize; i++) {
+                valueList.add(vertexLabel + "_" + (i % 10));
+            }
+            return valueList;
+        }
+    }
+}
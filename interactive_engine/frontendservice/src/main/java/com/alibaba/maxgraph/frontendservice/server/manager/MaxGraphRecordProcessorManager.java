@@ -30,7 +30,6 @@ import com.alibaba.maxgraph.structure.manager.record.DelEdgeManager;
 import com.alibaba.maxgraph.structure.manager.record.DelVertexManager;
 import com.alibaba.maxgraph.structure.manager.record.UpdateEdgeManager;
 import com.alibaba.maxgraph.structure.manager.record.UpdateVertexManager;
-import com.google.common.cache.Cache;
 import com.google.common.collect.Sets;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -45,7 +44,6 @@ public class MaxGraphRecordProcessorManager implements RecordProcessorManager {
     private TinkerMaxGraph graph;
     private Frontend frontend;
     private Graph tinkerGraph;
-    private Cache<ElementId, Vertex> vertexCache = CacheFactory.getCacheFactory().getVertexCache();
 
     public MaxGraphRecordProcessorManager(TinkerMaxGraph graph, Frontend frontend) {
         this.graph = graph;
@@ -62,12 +60,14 @@ public class MaxGraphRecordProcessorManager implements RecordProcessorManager {
                                         addVertexManager.getPropertyList()),
                         this.graph);
         Vertex vertex = DetachedFactory.detach(mxVertex, true);
-        vertexCache.put((ElementId) vertex.id(), vertex);
+        // the written vertex is only visible since a later snapshot, let queries read it again
+        CacheFactory.getCacheFactory().getVertexCache().invalidate((ElementId) vertex.id());
         return vertex;
     }
 
     public void deleteVertex(DelVertexManager delVertexManager) {
         this.graph.getBaseGraph().deleteVertex(delVertexManager.getVertexId());
+        CacheFactory.getCacheFactory().getVertexCache().invalidate(delVertexManager.getVertexId());
     }
 
     public Vertex updateVertex(UpdateVertexManager updateVertexManager) {
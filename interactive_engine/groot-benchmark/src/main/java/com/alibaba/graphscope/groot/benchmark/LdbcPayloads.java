@@ -0,0 +1,115 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.benchmark;
+
+import com.alibaba.graphscope.groot.operation.EdgeId;
+import com.alibaba.graphscope.groot.operation.LabelId;
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.VertexId;
+import com.alibaba.graphscope.groot.operation.dml.OverwriteEdgeOperation;
+import com.alibaba.graphscope.groot.operation.dml.OverwriteVertexOperation;
+import com.alibaba.graphscope.groot.schema.EdgeKind;
+import com.alibaba.graphscope.groot.schema.PropertyValue;
+import com.alibaba.maxgraph.common.util.PkHashUtils;
+import com.alibaba.maxgraph.compiler.api.schema.DataType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/** Write payloads shaped like the person vertices and knows edges of LDBC SNB. */
+public class LdbcPayloads {
+    public static final int PERSON_LABEL_ID = 1;
+    public static final int KNOWS_LABEL_ID = 11;
+
+    private static final String[] FIRST_NAMES = {"Mahinda", "Carmen", "Chen", "Hossein", "Jan"};
+    private static final String[] LAST_NAMES = {
+        "Perera", "Lepland", "Wang", "Forouhar", "Zakrzewski"
+    };
+    private static final String[] BROWSERS = {"Firefox", "Chrome", "Internet Explorer", "Safari"};
+
+    private static final EdgeKind KNOWS =
+            EdgeKind.newBuilder()
+                    .setEdgeLabelId(new LabelId(KNOWS_LABEL_ID))
+                    .setSrcVertexLabelId(new LabelId(PERSON_LABEL_ID))
+                    .setDstVertexLabelId(new LabelId(PERSON_LABEL_ID))
+                    .build();
+
+    /** Property ids follow the order of the LDBC person columns, the first one is the pk. */
+    public static Map<Integer, PropertyValue> personProperties(long personId, Random random) {
+        Map<Integer, PropertyValue> properties = new HashMap<>();
+        properties.put(0, new PropertyValue(DataType.LONG, personId));
+        properties.put(1, new PropertyValue(DataType.STRING, pick(FIRST_NAMES, random)));
+        properties.put(2, new PropertyValue(DataType.STRING, pick(LAST_NAMES, random)));
+        String gender = random.nextBoolean() ? "male" : "female";
+        properties.put(3, new PropertyValue(DataType.STRING, gender));
+        properties.put(4, new PropertyValue(DataType.LONG, 315504000000L + random.nextInt()));
+        properties.put(5, new PropertyValue(DataType.LONG, 1262304000000L + random.nextInt()));
+        properties.put(6, new PropertyValue(DataType.STRING, randomIp(random)));
+        properties.put(7, new PropertyValue(DataType.STRING, pick(BROWSERS, random)));
+        return properties;
+    }
+
+    public static List<byte[]> personPk(long personId) {
+        return Collections.singletonList(new PropertyValue(DataType.LONG, personId).getValBytes());
+    }
+
+    public static long personVertexId(long personId) {
+        return PkHashUtils.hash(PERSON_LABEL_ID, personPk(personId));
+    }
+
+    /**
+     * A batch of persons, each with its knows edges written in both directions as the frontend
+     * does.
+     */
+    public static OperationBatch personKnowsBatch(int personCount, int knowsPerPerson, long seed) {
+        Random random = new Random(seed);
+        OperationBatch.Builder builder = OperationBatch.newBuilder();
+        for (int i = 0; i < personCount; i++) {
+            long personId = 933L + i * 1024L;
+            VertexId vertexId = new VertexId(personVertexId(personId));
+            builder.addOperation(
+                    new OverwriteVertexOperation(
+                            vertexId,
+                            new LabelId(PERSON_LABEL_ID),
+                            personProperties(personId, random)));
+            for (int j = 0; j < knowsPerPerson; j++) {
+                VertexId friendId = new VertexId(personVertexId(random.nextInt(1 << 20)));
+                EdgeId edgeId = new EdgeId(vertexId, friendId, (long) i * knowsPerPerson + j);
+                Map<Integer, PropertyValue> properties = new HashMap<>();
+                properties.put(
+                        0, new PropertyValue(DataType.LONG, 1262304000000L + random.nextInt()));
+                builder.addOperation(new OverwriteEdgeOperation(edgeId, KNOWS, properties, true));
+                builder.addOperation(new OverwriteEdgeOperation(edgeId, KNOWS, properties, false));
+            }
+        }
+        return builder.build();
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String randomIp(Random random) {
+        return random.nextInt(256)
+                + "."
+                + random.nextInt(256)
+                + "."
+                + random.nextInt(256)
+                + "."
+                + random.nextInt(256);
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.benchmark;
+
+import com.alibaba.graphscope.groot.operation.CompressionType;
+import com.alibaba.graphscope.groot.wal.LogEntry;
+import com.alibaba.graphscope.groot.wal.kafka.LogEntrySerializer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LogEntryBenchmark {
+
+    @Param({"none", "lz4", "zstd"})
+    private String compression;
+
+    private LogEntry logEntry;
+    private LogEntrySerializer serializer;
+    private byte[] entryBytes;
+
+    @Setup
+    public void setup() {
+        CompressionType compressionType = CompressionType.fromName(compression);
+        this.logEntry = new LogEntry(10L, LdbcPayloads.personKnowsBatch(256, 4, 0L));
+        this.serializer = new LogEntrySerializer(compressionType);
+        this.entryBytes = this.logEntry.toBytes(compressionType);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize("graph_store", logEntry);
+    }
+
+    @Benchmark
+    public LogEntry deserialize() throws Exception {
+        return LogEntry.parseBytes(entryBytes);
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.benchmark;
+
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.maxgraph.proto.groot.OperationBatchPb;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OperationBatchBenchmark {
+
+    @Param({"100", "1000"})
+    private int personCount;
+
+    private OperationBatch batch;
+    private byte[] batchBytes;
+
+    @Setup
+    public void setup() {
+        this.batch = LdbcPayloads.personKnowsBatch(personCount, 4, 0L);
+        this.batchBytes = this.batch.toProto().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] toProto() {
+        return batch.toProto().toByteArray();
+    }
+
+    @Benchmark
+    public OperationBatch parseProto() throws Exception {
+        return OperationBatch.parseProto(OperationBatchPb.parseFrom(batchBytes));
+    }
+
+    @Benchmark
+    public OperationBatch build() {
+        return LdbcPayloads.personKnowsBatch(personCount, 4, 0L);
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.benchmark;
+
+import com.alibaba.maxgraph.common.util.PkHashUtils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PkHashBenchmark {
+
+    private List<byte[]> personPk;
+
+    @Setup
+    public void setup() {
+        this.personPk = LdbcPayloads.personPk(32985348834013L);
+    }
+
+    @Benchmark
+    public long hash() {
+        return PkHashUtils.hash(LdbcPayloads.PERSON_LABEL_ID, personPk);
+    }
+}
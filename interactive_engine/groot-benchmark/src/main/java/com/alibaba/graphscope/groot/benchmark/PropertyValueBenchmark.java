@@ -0,0 +1,57 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.benchmark;
+
+import com.alibaba.graphscope.groot.schema.PropertyValue;
+import com.alibaba.maxgraph.compiler.api.schema.DataType;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PropertyValueBenchmark {
+
+    private Random random;
+
+    @Setup
+    public void setup() {
+        this.random = new Random(0L);
+    }
+
+    /** Values sent as strings by the SDK and parsed by the frontend */
+    @Benchmark
+    public PropertyValue fromStringLong() {
+        return new PropertyValue(DataType.LONG, "32985348834013");
+    }
+
+    @Benchmark
+    public PropertyValue fromString() {
+        return new PropertyValue(DataType.STRING, "Internet Explorer");
+    }
+
+    @Benchmark
+    public PropertyValue fromLong() {
+        return new PropertyValue(DataType.LONG, 32985348834013L);
+    }
+
+    @Benchmark
+    public Map<Integer, PropertyValue> personProperties() {
+        return LdbcPayloads.personProperties(32985348834013L, random);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.benchmark;
+
+import com.alibaba.graphscope.groot.meta.DefaultMetaService;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
+import com.alibaba.graphscope.groot.operation.StoreDataBatch;
+import com.alibaba.graphscope.groot.store.SnapshotSortQueue;
+import com.alibaba.maxgraph.common.config.CommonConfig;
+import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.StoreConfig;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/** Offer one batch to every queue and poll them back in snapshot order. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SnapshotSortQueueBenchmark {
+    private static final int QUEUE_COUNT = 4;
+
+    private SnapshotSortQueue queue;
+    private OperationBlob operationBlob;
+    private long snapshotId;
+
+    @Setup
+    public void setup() {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(
+                                CommonConfig.INGESTOR_QUEUE_COUNT.getKey(),
+                                String.valueOf(QUEUE_COUNT))
+                        .put(StoreConfig.STORE_QUEUE_WAIT_MS.getKey(), "1")
+                        .build();
+        this.queue = new SnapshotSortQueue(configs, new DefaultMetaService(configs));
+        this.operationBlob = LdbcPayloads.personKnowsBatch(1, 0, 0L).getOperationBlob(0);
+        this.snapshotId = 0L;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUEUE_COUNT)
+    public void offerAndPoll(Blackhole blackhole) throws InterruptedException {
+        this.snapshotId++;
+        for (int queueId = 0; queueId < QUEUE_COUNT; queueId++) {
+            StoreDataBatch batch =
+                    StoreDataBatch.newBuilder()
+                            .queueId(queueId)
+                            .snapshotId(snapshotId)
+                            .offset(snapshotId)
+                            .addOperation(0, operationBlob)
+                            .build();
+            queue.offerQueue(queueId, batch);
+        }
+        for (int i = 0; i < QUEUE_COUNT; i++) {
+            blackhole.consume(queue.poll());
+        }
+    }
+}
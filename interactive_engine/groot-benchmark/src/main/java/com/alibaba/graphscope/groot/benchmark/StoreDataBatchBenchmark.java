@@ -0,0 +1,62 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.benchmark;
+
+import com.alibaba.graphscope.groot.ingestor.BatchSender;
+import com.alibaba.graphscope.groot.meta.DefaultMetaService;
+import com.alibaba.graphscope.groot.meta.MetaService;
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.StoreDataBatch;
+import com.alibaba.maxgraph.common.config.CommonConfig;
+import com.alibaba.maxgraph.common.config.Configs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting an ingested batch into per store {@link StoreDataBatch} with {@link
+ * BatchSender#splitByStore}, as the ingestor does before putting them into the send buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoreDataBatchBenchmark {
+    private static final int STORE_COUNT = 4;
+
+    @Param({"16", "256"})
+    private int partitionCount;
+
+    private MetaService metaService;
+    private OperationBatch operationBatch;
+
+    @Setup
+    public void setup() {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.PARTITION_COUNT.getKey(), String.valueOf(partitionCount))
+                        .put(CommonConfig.STORE_NODE_COUNT.getKey(), String.valueOf(STORE_COUNT))
+                        .build();
+        this.metaService = new DefaultMetaService(configs);
+        this.metaService.start();
+        this.operationBatch = LdbcPayloads.personKnowsBatch(256, 4, 0L);
+    }
+
+    @Benchmark
+    public Map<Integer, StoreDataBatch> splitByStore() {
+        return BatchSender.splitByStore(
+                metaService, STORE_COUNT, "bench", 1, 10L, 100L, operationBatch);
+    }
+}
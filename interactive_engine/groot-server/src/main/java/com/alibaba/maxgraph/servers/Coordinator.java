@@ -26,7 +26,7 @@ import com.alibaba.graphscope.groot.rpc.RoleClients;
 import com.alibaba.graphscope.groot.rpc.RpcServer;
 import com.alibaba.graphscope.groot.schema.ddl.DdlExecutors;
 import com.alibaba.graphscope.groot.wal.LogService;
-import com.alibaba.graphscope.groot.wal.kafka.KafkaLogService;
+import com.alibaba.graphscope.groot.wal.LogServiceFactory;
 import com.alibaba.maxgraph.common.RoleType;
 import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
@@ -78,7 +78,7 @@ public class Coordinator extends NodeBase {
                         this.channelManager, RoleType.INGESTOR, IngestorSnapshotClient::new);
         WriteSnapshotIdNotifier writeSnapshotIdNotifier =
                 new IngestorWriteSnapshotIdNotifier(configs, ingestorSnapshotClients);
-        LogService logService = new KafkaLogService(configs);
+        LogService logService = LogServiceFactory.makeLogService(configs);
         this.snapshotManager =
                 new SnapshotManager(configs, metaStore, logService, writeSnapshotIdNotifier);
         DdlExecutors ddlExecutors = new DdlExecutors();
@@ -107,7 +107,7 @@ public class Coordinator extends NodeBase {
         SnapshotCommitService snapshotCommitService =
                 new SnapshotCommitService(this.snapshotManager);
         SchemaService schemaService = new SchemaService(this.schemaManager);
-        this.idAllocator = new IdAllocator(metaStore);
+        this.idAllocator = new IdAllocator(configs, metaStore);
         IdAllocateService idAllocateService = new IdAllocateService(this.idAllocator);
         RoleClients<StoreBackupClient> storeBackupClients =
                 new RoleClients<>(this.channelManager, RoleType.STORE, StoreBackupClient::new);
@@ -41,6 +41,7 @@ import com.alibaba.graphscope.groot.metrics.MetricsAggregator;
 import com.alibaba.graphscope.groot.metrics.MetricsCollectClient;
 import com.alibaba.graphscope.groot.metrics.MetricsCollectService;
 import com.alibaba.graphscope.groot.metrics.MetricsCollector;
+import com.alibaba.graphscope.groot.metrics.MetricsHttpServer;
 import com.alibaba.graphscope.groot.rpc.ChannelManager;
 import com.alibaba.graphscope.groot.rpc.MaxGraphNameResolverFactory;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
@@ -66,6 +67,7 @@ public class Frontend extends NodeBase {
     private ChannelManager channelManager;
     private MetaService metaService;
     private RpcServer rpcServer;
+    private MetricsHttpServer metricsHttpServer;
     private ClientService clientService;
     private AbstractService graphService;
 
@@ -84,6 +86,7 @@ public class Frontend extends NodeBase {
         SnapshotCache snapshotCache = new SnapshotCache();
         this.metaService = new DefaultMetaService(configs);
         MetricsCollector metricsCollector = new MetricsCollector(configs);
+        this.metricsHttpServer = new MetricsHttpServer(configs, metricsCollector);
         RoleClients<IngestorWriteClient> ingestorWriteClients =
                 new RoleClients<>(this.channelManager, RoleType.INGESTOR, IngestorWriteClient::new);
         FrontendSnapshotService frontendSnapshotService =
@@ -124,6 +127,7 @@ public class Frontend extends NodeBase {
         EdgeIdGenerator edgeIdGenerator = new DefaultEdgeIdGenerator(configs, this.channelManager);
         GraphWriter graphWriter =
                 new GraphWriter(
+                        configs,
                         snapshotCache,
                         edgeIdGenerator,
                         this.metaService,
@@ -166,6 +170,7 @@ public class Frontend extends NodeBase {
         this.metaService.start();
         try {
             this.rpcServer.start();
+            this.metricsHttpServer.start();
         } catch (IOException e) {
             throw new MaxGraphException(e);
         }
@@ -177,6 +182,7 @@ public class Frontend extends NodeBase {
     @Override
     public void close() throws IOException {
         this.rpcServer.stop();
+        this.metricsHttpServer.stop();
         this.metaService.stop();
         this.channelManager.stop();
         this.discovery.stop();
@@ -26,14 +26,17 @@ import com.alibaba.graphscope.groot.meta.DefaultMetaService;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.metrics.MetricsCollectService;
 import com.alibaba.graphscope.groot.metrics.MetricsCollector;
+import com.alibaba.graphscope.groot.metrics.MetricsHttpServer;
+import com.alibaba.graphscope.groot.operation.CompressionType;
 import com.alibaba.graphscope.groot.rpc.ChannelManager;
 import com.alibaba.graphscope.groot.rpc.MaxGraphNameResolverFactory;
 import com.alibaba.graphscope.groot.rpc.RpcServer;
 import com.alibaba.graphscope.groot.wal.LogService;
-import com.alibaba.graphscope.groot.wal.kafka.KafkaLogService;
+import com.alibaba.graphscope.groot.wal.LogServiceFactory;
 import com.alibaba.maxgraph.common.RoleType;
 import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.IngestorConfig;
 import com.alibaba.maxgraph.common.util.CuratorUtils;
 import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
 
@@ -52,6 +55,7 @@ public class Ingestor extends NodeBase {
 
     private IngestService ingestService;
     private RpcServer rpcServer;
+    private MetricsHttpServer metricsHttpServer;
 
     public Ingestor(Configs configs) {
         super(configs);
@@ -66,12 +70,18 @@ public class Ingestor extends NodeBase {
         NameResolver.Factory nameResolverFactory = new MaxGraphNameResolverFactory(this.discovery);
         this.channelManager = new ChannelManager(configs, nameResolverFactory);
         this.metaService = new DefaultMetaService(configs);
-        LogService logService = new KafkaLogService(configs);
+        LogService logService = LogServiceFactory.makeLogService(configs);
         IngestProgressFetcher ingestProgressClients =
                 new RemoteIngestProgressFetcher(this.channelManager);
+        CompressionType sendCompression =
+                CompressionType.fromName(IngestorConfig.INGESTOR_SENDER_COMPRESSION.get(configs));
         StoreWriter storeWriteClients =
-                new StoreWriteClients(this.channelManager, RoleType.STORE, StoreWriteClient::new);
+                new StoreWriteClients(
+                        this.channelManager,
+                        RoleType.STORE,
+                        channel -> new StoreWriteClient(channel, sendCompression));
         MetricsCollector metricsCollector = new MetricsCollector(configs);
+        this.metricsHttpServer = new MetricsHttpServer(configs, metricsCollector);
         this.ingestService =
                 new IngestService(
                         configs,
@@ -102,6 +112,7 @@ public class Ingestor extends NodeBase {
         this.metaService.start();
         try {
             this.rpcServer.start();
+            this.metricsHttpServer.start();
         } catch (IOException e) {
             throw new MaxGraphException(e);
         }
@@ -113,6 +124,7 @@ public class Ingestor extends NodeBase {
     @Override
     public void close() throws IOException {
         this.rpcServer.stop();
+        this.metricsHttpServer.stop();
         this.ingestService.stop();
         this.metaService.stop();
         this.channelManager.stop();
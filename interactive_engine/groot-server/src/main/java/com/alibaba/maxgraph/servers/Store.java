@@ -18,6 +18,7 @@ import com.alibaba.graphscope.groot.meta.DefaultMetaService;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.metrics.MetricsCollectService;
 import com.alibaba.graphscope.groot.metrics.MetricsCollector;
+import com.alibaba.graphscope.groot.metrics.MetricsHttpServer;
 import com.alibaba.graphscope.groot.rpc.ChannelManager;
 import com.alibaba.graphscope.groot.rpc.MaxGraphNameResolverFactory;
 import com.alibaba.graphscope.groot.rpc.RpcServer;
@@ -39,6 +40,7 @@ public class Store extends NodeBase {
     private WriterAgent writerAgent;
     private BackupAgent backupAgent;
     private RpcServer rpcServer;
+    private MetricsHttpServer metricsHttpServer;
     private AbstractService executorService;
 
     public Store(Configs configs) {
@@ -52,6 +54,7 @@ public class Store extends NodeBase {
         this.channelManager = new ChannelManager(configs, nameResolverFactory);
         this.metaService = new DefaultMetaService(configs);
         MetricsCollector metricsCollector = new MetricsCollector(configs);
+        this.metricsHttpServer = new MetricsHttpServer(configs, metricsCollector);
         this.storeService = new StoreService(configs, this.metaService, metricsCollector);
         SnapshotCommitter snapshotCommitter = new DefaultSnapshotCommitter(this.channelManager);
         MetricsCollectService metricsCollectService = new MetricsCollectService(metricsCollector);
@@ -63,7 +66,7 @@ public class Store extends NodeBase {
                         snapshotCommitter,
                         metricsCollector);
         StoreWriteService storeWriteService = new StoreWriteService(this.writerAgent);
-        this.backupAgent = new BackupAgent(configs, this.storeService);
+        this.backupAgent = new BackupAgent(configs, this.storeService, metricsCollector);
         StoreBackupService storeBackupService = new StoreBackupService(this.backupAgent);
         StoreSchemaService storeSchemaService = new StoreSchemaService(this.storeService);
         StoreIngestService storeIngestService = new StoreIngestService(this.storeService);
@@ -100,6 +103,7 @@ public class Store extends NodeBase {
         this.backupAgent.start();
         try {
             this.rpcServer.start();
+            this.metricsHttpServer.start();
         } catch (IOException e) {
             throw new MaxGraphException(e);
         }
@@ -112,6 +116,7 @@ public class Store extends NodeBase {
     public void close() throws IOException {
         this.executorService.stop();
         this.rpcServer.stop();
+        this.metricsHttpServer.stop();
         this.backupAgent.stop();
         this.writerAgent.stop();
         this.storeService.stop();
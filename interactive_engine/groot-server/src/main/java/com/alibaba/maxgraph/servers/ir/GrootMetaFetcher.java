@@ -44,6 +44,18 @@ public class GrootMetaFetcher extends IrMetaFetcher {
         }
     }
 
+    // the schema version only changes on ddl, the meta is rebuilt only then
+    @Override
+    protected long getIrMetaVersion() {
+        Pair<GraphSchema, Long> pair = this.schemaFetcher.getSchemaSnapshotPair();
+        GraphSchema schema;
+        if (pair != null && (schema = pair.getLeft()) != null) {
+            return schema.getVersion();
+        } else {
+            return -1L;
+        }
+    }
+
     private String parseSchema(GraphSchema graphSchema) {
         List<GraphVertex> vertices = graphSchema.getVertexList();
         List<GraphEdge> edges = graphSchema.getEdgeList();
@@ -20,6 +20,7 @@ import com.alibaba.maxgraph.common.config.GremlinConfig;
 import com.alibaba.maxgraph.common.rpc.RpcAddressFetcher;
 import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
 import com.alibaba.maxgraph.compiler.api.schema.SchemaFetcher;
+import com.alibaba.maxgraph.server.MaxGraphOpLoader;
 import com.alibaba.maxgraph.server.MaxGraphWsAndHttpSocketChannelizer;
 import com.alibaba.maxgraph.server.ProcessorLoader;
 import com.alibaba.maxgraph.servers.AbstractService;
@@ -146,6 +147,7 @@ public class ReadOnlyGraphServer implements AbstractService {
             this.server.stop();
             this.server = null;
         }
+        MaxGraphOpLoader.closeProcessors();
     }
 
     private void loadSettings() {
@@ -0,0 +1,217 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.tests.common.wal.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alibaba.graphscope.groot.operation.CompressionType;
+import com.alibaba.graphscope.groot.operation.LabelId;
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
+import com.alibaba.graphscope.groot.operation.VertexId;
+import com.alibaba.graphscope.groot.operation.dml.OverwriteVertexOperation;
+import com.alibaba.graphscope.groot.schema.PropertyValue;
+import com.alibaba.graphscope.groot.wal.LogEntry;
+import com.alibaba.graphscope.groot.wal.LogReader;
+import com.alibaba.graphscope.groot.wal.LogService;
+import com.alibaba.graphscope.groot.wal.LogWriter;
+import com.alibaba.graphscope.groot.wal.ReadLogEntry;
+import com.alibaba.graphscope.groot.wal.file.FileLogService;
+import com.alibaba.maxgraph.common.config.CommonConfig;
+import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.WalConfig;
+import com.alibaba.maxgraph.compiler.api.schema.DataType;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+public class FileWalTest {
+
+    @TempDir Path tempDir;
+
+    private Configs makeConfigs(long segmentBytes) {
+        return makeConfigs(segmentBytes, "none");
+    }
+
+    private Configs makeConfigs(long segmentBytes, String compression) {
+        return Configs.newBuilder()
+                .put(WalConfig.FILE_WAL_DIR.getKey(), tempDir.resolve("wal").toString())
+                .put(WalConfig.FILE_WAL_SEGMENT_BYTES.getKey(), String.valueOf(segmentBytes))
+                .put(WalConfig.WAL_COMPRESSION.getKey(), compression)
+                .put(CommonConfig.INGESTOR_QUEUE_COUNT.getKey(), "1")
+                .build();
+    }
+
+    private LogEntry makeLogEntry(long snapshotId) {
+        return new LogEntry(
+                snapshotId,
+                OperationBatch.newBuilder()
+                        .addOperationBlob(OperationBlob.MARKER_OPERATION_BLOB)
+                        .build());
+    }
+
+    @Test
+    void testDoubleInit() {
+        LogService logService = new FileLogService(makeConfigs(1024L));
+        logService.init();
+        assertTrue(logService.initialized());
+        assertThrows(Exception.class, () -> logService.init());
+        logService.destroy();
+        assertFalse(logService.initialized());
+        assertThrows(Exception.class, () -> logService.destroy());
+    }
+
+    @Test
+    void testLogService() throws IOException {
+        LogService logService = new FileLogService(makeConfigs(1024L * 1024));
+        logService.init();
+        int queueId = 0;
+        long snapshotId = 1L;
+        LogWriter writer = logService.createWriter(queueId);
+        LogEntry logEntry = makeLogEntry(snapshotId);
+        assertEquals(writer.append(logEntry), 0);
+
+        LogReader reader = logService.createReader(queueId, 0);
+        ReadLogEntry readLogEntry = reader.readNext();
+        reader.close();
+
+        assertAll(
+                () -> assertEquals(readLogEntry.getOffset(), 0),
+                () -> assertEquals(readLogEntry.getLogEntry().getSnapshotId(), snapshotId));
+
+        OperationBatch operationBatch = readLogEntry.getLogEntry().getOperationBatch();
+        assertEquals(operationBatch.getOperationCount(), 1);
+        assertEquals(operationBatch.getOperationBlob(0), OperationBlob.MARKER_OPERATION_BLOB);
+
+        assertEquals(writer.append(logEntry), 1);
+        assertEquals(writer.append(logEntry), 2);
+        assertEquals(writer.append(logEntry), 3);
+
+        LogReader readerTail = logService.createReader(queueId, 4);
+        assertNull(readerTail.readNext());
+        readerTail.close();
+
+        assertThrows(IllegalArgumentException.class, () -> logService.createReader(queueId, 5));
+        writer.close();
+        logService.destroy();
+    }
+
+    @Test
+    void testSegmentRollAndRecycle() throws IOException {
+        // Every entry rolls a new segment
+        LogService logService = new FileLogService(makeConfigs(1L));
+        logService.init();
+        int queueId = 0;
+        LogWriter writer = logService.createWriter(queueId);
+        for (long i = 0; i < 5; i++) {
+            assertEquals(writer.append(makeLogEntry(i)), i);
+        }
+
+        LogReader reader = logService.createReader(queueId, 1);
+        for (long i = 1; i < 5; i++) {
+            ReadLogEntry readLogEntry = reader.readNext();
+            assertEquals(readLogEntry.getOffset(), i);
+            assertEquals(readLogEntry.getLogEntry().getSnapshotId(), i);
+        }
+        assertNull(reader.readNext());
+        reader.close();
+
+        logService.deleteBeforeOffset(queueId, 2);
+        assertThrows(IllegalArgumentException.class, () -> logService.createReader(queueId, 1));
+        LogReader readerAfterDelete = logService.createReader(queueId, 2);
+        assertEquals(readerAfterDelete.readNext().getOffset(), 2);
+        readerAfterDelete.close();
+        writer.close();
+        logService.destroy();
+    }
+
+    @Test
+    void testRecoverTornTail() throws IOException {
+        LogService logService = new FileLogService(makeConfigs(1024L * 1024));
+        logService.init();
+        int queueId = 0;
+        LogWriter writer = logService.createWriter(queueId);
+        assertEquals(writer.append(makeLogEntry(1L)), 0);
+        assertEquals(writer.append(makeLogEntry(1L)), 1);
+        writer.close();
+
+        // Simulate a crash in the middle of appending the third entry
+        File segmentFile = tempDir.resolve("wal").resolve("queue_0").toFile().listFiles()[0];
+        try (RandomAccessFile raf = new RandomAccessFile(segmentFile, "rw")) {
+            raf.seek(raf.length());
+            raf.writeInt(100);
+            raf.writeInt(0);
+        }
+
+        LogWriter recoveredWriter = logService.createWriter(queueId);
+        assertEquals(recoveredWriter.append(makeLogEntry(2L)), 2);
+        recoveredWriter.close();
+
+        LogReader reader = logService.createReader(queueId, 0);
+        assertEquals(reader.readNext().getOffset(), 0);
+        assertEquals(reader.readNext().getOffset(), 1);
+        ReadLogEntry last = reader.readNext();
+        assertEquals(last.getOffset(), 2);
+        assertEquals(last.getLogEntry().getSnapshotId(), 2L);
+        assertNull(reader.readNext());
+        reader.close();
+        logService.destroy();
+    }
+
+    @Test
+    void testCompression() throws IOException {
+        OperationBatch.Builder batchBuilder = OperationBatch.newBuilder();
+        for (long i = 0; i < 100; i++) {
+            Map<Integer, PropertyValue> properties = new HashMap<>();
+            properties.put(1, new PropertyValue(DataType.STRING, "repeated property value"));
+            batchBuilder.addOperationBlob(
+                    new OverwriteVertexOperation(new VertexId(i), new LabelId(0), properties)
+                            .toBlob());
+        }
+        LogEntry bigEntry = new LogEntry(1L, batchBuilder.build());
+        for (CompressionType compression : CompressionType.values()) {
+            byte[] raw = bigEntry.toProto().toByteArray();
+            byte[] encoded = bigEntry.toBytes(compression);
+            if (compression != CompressionType.NONE) {
+                assertTrue(encoded.length < raw.length);
+            }
+            assertEquals(bigEntry, LogEntry.parseBytes(encoded));
+        }
+
+        // Entries written before and after enabling compression are both readable
+        LogService plainService = new FileLogService(makeConfigs(1024L * 1024));
+        plainService.init();
+        LogWriter plainWriter = plainService.createWriter(0);
+        assertEquals(plainWriter.append(makeLogEntry(1L)), 0);
+        plainWriter.close();
+        LogService compressedService = new FileLogService(makeConfigs(1024L * 1024, "zstd"));
+        LogWriter compressedWriter = compressedService.createWriter(0);
+        assertEquals(compressedWriter.append(bigEntry), 1);
+        compressedWriter.close();
+
+        LogReader reader = compressedService.createReader(0, 0);
+        assertEquals(reader.readNext().getLogEntry(), makeLogEntry(1L));
+        assertEquals(reader.readNext().getLogEntry(), bigEntry);
+        assertNull(reader.readNext());
+        reader.close();
+        compressedService.destroy();
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.tests.coordinator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.alibaba.graphscope.groot.coordinator.IdAllocator;
+import com.alibaba.graphscope.groot.meta.MetaStore;
+import com.alibaba.maxgraph.common.config.CommonConfig;
+import com.alibaba.maxgraph.common.config.Configs;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class IdAllocatorTest {
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdAllocator newIdAllocator(MetaStore metaStore) throws IOException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.ID_ALLOCATE_SIZE.getKey(), "10")
+                        .put(CommonConfig.ID_ALLOCATE_MAX_SIZE.getKey(), "1000")
+                        .build();
+        when(metaStore.exists(IdAllocator.ID_ALLOCATE_INFO_PATH)).thenReturn(true);
+        when(metaStore.read(IdAllocator.ID_ALLOCATE_INFO_PATH))
+                .thenReturn(objectMapper.writeValueAsBytes(100L));
+        IdAllocator idAllocator = new IdAllocator(configs, metaStore);
+        idAllocator.start();
+        return idAllocator;
+    }
+
+    @Test
+    void testAllocate() throws IOException {
+        MetaStore metaStore = mock(MetaStore.class);
+        IdAllocator idAllocator = newIdAllocator(metaStore);
+        // Recovery skips the range that could be in use before the restart
+        assertEquals(1100L, idAllocator.allocate(10));
+        verify(metaStore)
+                .write(IdAllocator.ID_ALLOCATE_INFO_PATH, objectMapper.writeValueAsBytes(1110L));
+        assertEquals(1110L, idAllocator.allocate(500));
+        verify(metaStore)
+                .write(IdAllocator.ID_ALLOCATE_INFO_PATH, objectMapper.writeValueAsBytes(1610L));
+        assertThrows(IllegalArgumentException.class, () -> idAllocator.allocate(0));
+    }
+
+    @Test
+    void testAllocateFailed() throws IOException {
+        MetaStore metaStore = mock(MetaStore.class);
+        IdAllocator idAllocator = newIdAllocator(metaStore);
+        doThrow(new IOException("write failed"))
+                .when(metaStore)
+                .write(eq(IdAllocator.ID_ALLOCATE_INFO_PATH), any());
+        assertThrows(IOException.class, () -> idAllocator.allocate(10));
+        doNothing().when(metaStore).write(eq(IdAllocator.ID_ALLOCATE_INFO_PATH), any());
+        // The failed range is not persisted, so it can be handed out again
+        assertEquals(1100L, idAllocator.allocate(10));
+    }
+
+    @Test
+    void testConcurrentAllocate() throws Exception {
+        MetaStore metaStore = mock(MetaStore.class);
+        IdAllocator idAllocator = newIdAllocator(metaStore);
+        int threadCount = 8;
+        int allocateTimes = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<List<long[]>>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            int allocateSize = i + 1;
+            futures.add(
+                    executor.submit(
+                            () -> {
+                                List<long[]> ranges = new ArrayList<>();
+                                for (int j = 0; j < allocateTimes; j++) {
+                                    long startId = idAllocator.allocate(allocateSize);
+                                    ranges.add(new long[] {startId, startId + allocateSize});
+                                }
+                                return ranges;
+                            }));
+        }
+        List<long[]> ranges = new ArrayList<>();
+        for (Future<List<long[]>> future : futures) {
+            ranges.addAll(future.get());
+        }
+        executor.shutdown();
+
+        Collections.sort(ranges, (r1, r2) -> Long.compare(r1[0], r2[0]));
+        long expectedStart = 1100L;
+        for (long[] range : ranges) {
+            assertEquals(expectedStart, range[0]);
+            expectedStart = range[1];
+        }
+        // Each persist covers at least one request
+        verify(metaStore, atMost(threadCount * allocateTimes))
+                .write(eq(IdAllocator.ID_ALLOCATE_INFO_PATH), any());
+        verify(metaStore)
+                .write(
+                        IdAllocator.ID_ALLOCATE_INFO_PATH,
+                        objectMapper.writeValueAsBytes(expectedStart));
+    }
+}
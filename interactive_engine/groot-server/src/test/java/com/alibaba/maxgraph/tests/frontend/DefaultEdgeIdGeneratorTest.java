@@ -0,0 +1,107 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.tests.frontend;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.alibaba.graphscope.groot.frontend.write.DefaultEdgeIdGenerator;
+import com.alibaba.graphscope.groot.frontend.write.IdAllocateClient;
+import com.alibaba.graphscope.groot.rpc.ChannelManager;
+import com.alibaba.maxgraph.common.config.CommonConfig;
+import com.alibaba.maxgraph.common.config.Configs;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DefaultEdgeIdGeneratorTest {
+
+    private AtomicLong tailId = new AtomicLong(0L);
+
+    private DefaultEdgeIdGenerator newEdgeIdGenerator(IdAllocateClient client) {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.ID_ALLOCATE_SIZE.getKey(), "100")
+                        .put(CommonConfig.ID_ALLOCATE_MAX_SIZE.getKey(), "1000")
+                        .put(CommonConfig.ID_ALLOCATE_TARGET_INTERVAL_MS.getKey(), "10000")
+                        .build();
+        when(client.allocateId(anyInt()))
+                .thenAnswer(
+                        invocation -> {
+                            int allocateSize = invocation.getArgument(0);
+                            return tailId.getAndAdd(allocateSize);
+                        });
+        DefaultEdgeIdGenerator edgeIdGenerator =
+                spy(new DefaultEdgeIdGenerator(configs, mock(ChannelManager.class)));
+        doReturn(client).when(edgeIdGenerator).getClient(0);
+        return edgeIdGenerator;
+    }
+
+    @Test
+    void testPrefetch() {
+        IdAllocateClient client = mock(IdAllocateClient.class);
+        DefaultEdgeIdGenerator edgeIdGenerator = newEdgeIdGenerator(client);
+        for (long i = 0; i < 50; i++) {
+            assertEquals(i, edgeIdGenerator.getNextId());
+        }
+        verify(client, times(1)).allocateId(100);
+
+        // Half of the first range is used, the next range is allocated in the background
+        assertEquals(50L, edgeIdGenerator.getNextId());
+        ArgumentCaptor<Integer> sizeCaptor = ArgumentCaptor.forClass(Integer.class);
+        verify(client, timeout(5000L).times(2)).allocateId(sizeCaptor.capture());
+        // Ids are used much faster than the target interval, so the range grows to the max
+        assertEquals(1000, (int) sizeCaptor.getAllValues().get(1));
+
+        for (long i = 51; i < 1100; i++) {
+            assertEquals(i, edgeIdGenerator.getNextId());
+        }
+    }
+
+    @Test
+    void testConcurrentGetNextId() throws Exception {
+        IdAllocateClient client = mock(IdAllocateClient.class);
+        DefaultEdgeIdGenerator edgeIdGenerator = newEdgeIdGenerator(client);
+        int threadCount = 8;
+        int idCount = 10000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(
+                    executor.submit(
+                            () -> {
+                                for (int j = 0; j < idCount; j++) {
+                                    long id = edgeIdGenerator.getNextId();
+                                    assertTrue(id < tailId.get());
+                                    assertTrue(ids.add(id));
+                                }
+                            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(threadCount * idCount, ids.size());
+    }
+}
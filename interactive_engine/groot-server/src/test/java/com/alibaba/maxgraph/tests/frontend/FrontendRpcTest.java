@@ -17,24 +17,34 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.SnapshotCache;
 import com.alibaba.graphscope.groot.SnapshotWithSchema;
 import com.alibaba.graphscope.groot.coordinator.BackupInfo;
 import com.alibaba.graphscope.groot.frontend.*;
 import com.alibaba.graphscope.groot.frontend.FrontendSnapshotService;
+import com.alibaba.graphscope.groot.frontend.write.GraphWriter;
+import com.alibaba.graphscope.groot.ingestor.IngestCallback;
+import com.alibaba.graphscope.groot.ingestor.IngestService;
+import com.alibaba.graphscope.groot.ingestor.IngestorWriteService;
 import com.alibaba.graphscope.groot.operation.BatchId;
 import com.alibaba.graphscope.groot.operation.OperationBatch;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
 import com.alibaba.graphscope.groot.schema.GraphDef;
 import com.alibaba.graphscope.groot.schema.request.DdlRequestBatch;
+import com.alibaba.graphscope.proto.write.BatchWriteRequest;
+import com.alibaba.graphscope.proto.write.BatchWriteResponse;
 import com.alibaba.maxgraph.proto.groot.*;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -81,6 +91,114 @@ public class FrontendRpcTest {
                                 .build());
     }
 
+    @Test
+    void testIngestorWriteStream() {
+        IngestService ingestService = mock(IngestService.class);
+        List<IngestCallback> ingestCallbacks = new ArrayList<>();
+        List<String> ingested = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            ingested.add(invocation.getArgument(0));
+                            ingestCallbacks.add(invocation.getArgument(3));
+                            return null;
+                        })
+                .when(ingestService)
+                .ingestBatch(any(), anyInt(), any(), any());
+        IngestorWriteService ingestorWriteService = new IngestorWriteService(ingestService);
+        IngestorWriteGrpc.IngestorWriteStub stub = mock(IngestorWriteGrpc.IngestorWriteStub.class);
+        when(stub.writeIngestorStream(any()))
+                .thenAnswer(
+                        invocation ->
+                                ingestorWriteService.writeIngestorStream(
+                                        invocation.getArgument(0)));
+        IngestorWriteClient client = new IngestorWriteClient(stub);
+        IngestorWriteClient.WriteStream writeStream = client.openWriteStream();
+
+        List<Long> completed = new ArrayList<>();
+        List<Throwable> failed = new ArrayList<>();
+        CompletionCallback<Long> callback =
+                new CompletionCallback<Long>() {
+                    @Override
+                    public void onCompleted(Long res) {
+                        completed.add(res);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        failed.add(t);
+                    }
+                };
+        for (int i = 0; i < 5; i++) {
+            writeStream.write("req_" + i, i % 2, OperationBatch.newBuilder().build(), callback);
+        }
+        // every batch is ingested before any of them completes
+        assertEquals(Arrays.asList("req_0", "req_1", "req_2", "req_3", "req_4"), ingested);
+
+        ingestCallbacks.get(1).onSuccess(11L);
+        assertEquals(0, completed.size());
+        ingestCallbacks.get(0).onSuccess(10L);
+        ingestCallbacks.get(2).onSuccess(12L);
+        assertEquals(Arrays.asList(10L, 11L, 12L), completed);
+
+        // batches after a failed one fail too, even if they are ingested
+        ingestCallbacks.get(4).onSuccess(14L);
+        ingestCallbacks.get(3).onFailure(new IllegalStateException("ingest failed"));
+        assertEquals(Arrays.asList(10L, 11L, 12L), completed);
+        assertEquals(2, failed.size());
+        writeStream.write("req_5", 0, OperationBatch.newBuilder().build(), callback);
+        assertEquals(3, failed.size());
+        assertEquals(5, ingested.size());
+    }
+
+    @Test
+    void testBatchWriteStreamAcksInOrder() {
+        GraphWriter graphWriter = mock(GraphWriter.class);
+        GraphWriter.SessionStream sessionStream = mock(GraphWriter.SessionStream.class);
+        when(graphWriter.openSessionStream()).thenReturn(sessionStream);
+        List<CompletionCallback<Long>> callbacks = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            callbacks.add(invocation.getArgument(3));
+                            return null;
+                        })
+                .when(sessionStream)
+                .writeBatch(any(), any(), any(), any());
+        ClientWriteService clientWriteService =
+                new ClientWriteService(mock(WriteSessionGenerator.class), graphWriter);
+        ServerCallStreamObserver<BatchWriteResponse> responseObserver =
+                mock(ServerCallStreamObserver.class);
+        StreamObserver<BatchWriteRequest> requestObserver =
+                clientWriteService.batchWriteStream(responseObserver);
+        for (long seq = 0L; seq < 3L; seq++) {
+            requestObserver.onNext(
+                    BatchWriteRequest.newBuilder()
+                            .setClientId("client")
+                            .setRequestSeq(seq)
+                            .build());
+        }
+        requestObserver.onCompleted();
+        // all requests are written before any of them completes
+        assertEquals(3, callbacks.size());
+
+        callbacks.get(2).onCompleted(12L);
+        callbacks.get(1).onCompleted(11L);
+        verify(responseObserver, never()).onNext(any());
+        callbacks.get(0).onCompleted(10L);
+
+        InOrder inOrder = inOrder(responseObserver);
+        for (long seq = 0L; seq < 3L; seq++) {
+            inOrder.verify(responseObserver)
+                    .onNext(
+                            BatchWriteResponse.newBuilder()
+                                    .setRequestSeq(seq)
+                                    .setSnapshotId(10L + seq)
+                                    .build());
+        }
+        inOrder.verify(responseObserver).onCompleted();
+        verify(responseObserver, times(3)).request(1);
+        verify(sessionStream).close();
+    }
+
     @Test
     void testSchemaClient() {
         SchemaGrpc.SchemaBlockingStub stub = mock(SchemaGrpc.SchemaBlockingStub.class);
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.tests.frontend;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.alibaba.graphscope.groot.CompletionCallback;
+import com.alibaba.graphscope.groot.SnapshotCache;
+import com.alibaba.graphscope.groot.frontend.IngestorWriteClient;
+import com.alibaba.graphscope.groot.frontend.write.EdgeIdGenerator;
+import com.alibaba.graphscope.groot.frontend.write.GraphWriter;
+import com.alibaba.graphscope.groot.meta.MetaService;
+import com.alibaba.graphscope.groot.metrics.MetricsCollector;
+import com.alibaba.graphscope.groot.operation.LabelId;
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
+import com.alibaba.graphscope.groot.operation.VertexId;
+import com.alibaba.graphscope.groot.operation.dml.OverwriteVertexOperation;
+import com.alibaba.graphscope.groot.rpc.RoleClients;
+import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.FrontendConfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GraphWriterTest {
+
+    private OperationBatch makeBatch(long... vertexIds) {
+        OperationBatch.Builder builder = OperationBatch.newBuilder();
+        for (long vertexId : vertexIds) {
+            builder.addOperation(
+                    new OverwriteVertexOperation(
+                            new VertexId(vertexId), new LabelId(0), Collections.emptyMap()));
+        }
+        return builder.build();
+    }
+
+    private List<Long> partitionKeys(OperationBatch batch) {
+        List<Long> keys = new ArrayList<>();
+        for (OperationBlob blob : batch) {
+            keys.add(blob.getPartitionKey());
+        }
+        return keys;
+    }
+
+    @Test
+    void testSplitByPartition() {
+        // 3 queues, queue 0 is reserved for the coordinator: partition p goes to queue p % 2 + 1
+        OperationBatch batch = makeBatch(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        Map<Integer, OperationBatch> queueToBatch = GraphWriter.splitByPartition(batch, 3, 4);
+
+        assertEquals(2, queueToBatch.size());
+        assertEquals(Arrays.asList(0L, 2L, 4L, 6L), partitionKeys(queueToBatch.get(1)));
+        assertEquals(Arrays.asList(1L, 3L, 5L, 7L), partitionKeys(queueToBatch.get(2)));
+
+        // Operations of a single partition stay in one queue and keep their order
+        queueToBatch = GraphWriter.splitByPartition(makeBatch(4L, 0L, 8L), 3, 4);
+        assertEquals(Collections.singleton(1), queueToBatch.keySet());
+        assertEquals(Arrays.asList(4L, 0L, 8L), partitionKeys(queueToBatch.get(1)));
+
+        assertThrows(IllegalStateException.class, () -> GraphWriter.splitByPartition(batch, 1, 4));
+    }
+
+    private GraphWriter makeGraphWriter(Map<Integer, Long> queueSnapshotIds) {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(FrontendConfig.WRITE_QUEUE_ROUTING.getKey(), "partition")
+                        .build();
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getIngestorIdForQueue(anyInt())).thenReturn(0);
+        IngestorWriteClient mockClient = mock(IngestorWriteClient.class);
+        doAnswer(
+                        invocation -> {
+                            int queueId = invocation.getArgument(1);
+                            CompletionCallback<Long> callback = invocation.getArgument(3);
+                            Long snapshotId = queueSnapshotIds.get(queueId);
+                            if (snapshotId == null) {
+                                callback.onError(new RuntimeException("queue write failed"));
+                            } else {
+                                callback.onCompleted(snapshotId);
+                            }
+                            return null;
+                        })
+                .when(mockClient)
+                .writeIngestorAsync(any(), anyInt(), any(), any());
+        RoleClients<IngestorWriteClient> mockClients = mock(RoleClients.class);
+        when(mockClients.getClient(anyInt())).thenReturn(mockClient);
+        return new GraphWriter(
+                configs,
+                mock(SnapshotCache.class),
+                mock(EdgeIdGenerator.class),
+                mockMetaService,
+                mockClients,
+                new MetricsCollector(configs));
+    }
+
+    @Test
+    void testWriteQueuesReturnsMaxSnapshotId() {
+        Map<Integer, Long> queueSnapshotIds = new HashMap<>();
+        queueSnapshotIds.put(1, 12L);
+        queueSnapshotIds.put(2, 15L);
+        queueSnapshotIds.put(3, 11L);
+        GraphWriter graphWriter = makeGraphWriter(queueSnapshotIds);
+        Map<Integer, OperationBatch> queueToBatch = new HashMap<>();
+        queueToBatch.put(1, makeBatch(1L));
+        queueToBatch.put(2, makeBatch(2L));
+        queueToBatch.put(3, makeBatch(3L));
+
+        CompletionCallback<Long> callback = mock(CompletionCallback.class);
+        graphWriter.writeQueues("test_req", queueToBatch, callback);
+        verify(callback).onCompleted(15L);
+        verify(callback, never()).onError(any());
+    }
+
+    @Test
+    void testWriteQueuesWithFailedQueue() {
+        // Queue 2 has no snapshot id, its write fails
+        Map<Integer, Long> queueSnapshotIds = new HashMap<>();
+        queueSnapshotIds.put(1, 12L);
+        queueSnapshotIds.put(3, 11L);
+        GraphWriter graphWriter = makeGraphWriter(queueSnapshotIds);
+        Map<Integer, OperationBatch> queueToBatch = new HashMap<>();
+        queueToBatch.put(1, makeBatch(1L));
+        queueToBatch.put(2, makeBatch(2L));
+        queueToBatch.put(3, makeBatch(3L));
+
+        CompletionCallback<Long> callback = mock(CompletionCallback.class);
+        graphWriter.writeQueues("test_req", queueToBatch, callback);
+        verify(callback, times(1)).onError(any());
+        verify(callback, never()).onCompleted(any());
+    }
+}
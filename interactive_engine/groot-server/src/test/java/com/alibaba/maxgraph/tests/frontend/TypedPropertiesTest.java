@@ -0,0 +1,164 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.tests.frontend;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.alibaba.graphscope.groot.frontend.write.GraphWriter;
+import com.alibaba.graphscope.groot.frontend.write.WriteRequest;
+import com.alibaba.graphscope.groot.schema.PropertyValue;
+import com.alibaba.graphscope.proto.write.DataRecordPb;
+import com.alibaba.graphscope.proto.write.VertexRecordKeyPb;
+import com.alibaba.graphscope.proto.write.WriteRequestPb;
+import com.alibaba.graphscope.proto.write.WriteTypePb;
+import com.alibaba.maxgraph.compiler.api.schema.DataType;
+import com.alibaba.maxgraph.compiler.api.schema.GraphElement;
+import com.alibaba.maxgraph.compiler.api.schema.GraphProperty;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TypedPropertiesTest {
+
+    private GraphElement makeVertexDef() {
+        GraphProperty idProperty = mock(GraphProperty.class);
+        when(idProperty.getId()).thenReturn(1);
+        when(idProperty.getDataType()).thenReturn(DataType.LONG);
+        GraphProperty nameProperty = mock(GraphProperty.class);
+        when(nameProperty.getId()).thenReturn(2);
+        when(nameProperty.getDataType()).thenReturn(DataType.STRING);
+        GraphProperty scoresProperty = mock(GraphProperty.class);
+        when(scoresProperty.getId()).thenReturn(3);
+        when(scoresProperty.getDataType()).thenReturn(DataType.LONG_LIST);
+        GraphProperty tagsProperty = mock(GraphProperty.class);
+        when(tagsProperty.getId()).thenReturn(4);
+        when(tagsProperty.getDataType()).thenReturn(DataType.STRING_LIST);
+        GraphElement vertexDef = mock(GraphElement.class);
+        when(vertexDef.getLabel()).thenReturn("person");
+        when(vertexDef.getProperty("id")).thenReturn(idProperty);
+        when(vertexDef.getProperty("name")).thenReturn(nameProperty);
+        when(vertexDef.getProperty("scores")).thenReturn(scoresProperty);
+        when(vertexDef.getProperty("tags")).thenReturn(tagsProperty);
+        return vertexDef;
+    }
+
+    @Test
+    void testTypedProperties() {
+        PropertyValue id = new PropertyValue(DataType.LONG, 12345L);
+        WriteRequestPb writeRequestPb =
+                WriteRequestPb.newBuilder()
+                        .setWriteType(WriteTypePb.INSERT)
+                        .setDataRecord(
+                                DataRecordPb.newBuilder()
+                                        .setVertexRecordKey(
+                                                VertexRecordKeyPb.newBuilder().setLabel("person"))
+                                        .putTypedProperties("id", id.toTypedProto())
+                                        .putProperties("name", "alice"))
+                        .build();
+        WriteRequest writeRequest = WriteRequest.parseProto(writeRequestPb);
+        Map<Integer, PropertyValue> propertyVals =
+                GraphWriter.parseRawProperties(
+                        makeVertexDef(), writeRequest.getDataRecord().getProperties());
+        assertEquals(id, propertyVals.get(1));
+        assertEquals(new PropertyValue(DataType.STRING, "alice"), propertyVals.get(2));
+    }
+
+    @Test
+    void testInvalidTypedProperties() {
+        GraphElement vertexDef = makeVertexDef();
+        Map<String, Object> wrongType =
+                Collections.singletonMap("id", new PropertyValue(DataType.INT, 1));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> GraphWriter.parseRawProperties(vertexDef, wrongType));
+        Map<String, Object> wrongLength =
+                Collections.singletonMap("id", new PropertyValue(DataType.LONG, new byte[3]));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> GraphWriter.parseRawProperties(vertexDef, wrongLength));
+    }
+
+    @Test
+    void testVariableLengthTypedProperties() {
+        GraphElement vertexDef = makeVertexDef();
+        Map<String, Object> valid = new HashMap<>();
+        valid.put("name", new PropertyValue(DataType.STRING, "alice".getBytes(StandardCharsets.UTF_8)));
+        valid.put("scores", new PropertyValue(DataType.LONG_LIST, Arrays.asList(1L, 2L)));
+        valid.put("tags", new PropertyValue(DataType.STRING_LIST, Arrays.asList("a", "", "bc")));
+        assertEquals(3, GraphWriter.parseRawProperties(vertexDef, valid).size());
+
+        // invalid UTF-8
+        assertInvalid(vertexDef, "name", DataType.STRING, new byte[] {(byte) 0xff, 'a'});
+        // no element count
+        assertInvalid(vertexDef, "scores", DataType.LONG_LIST, new byte[2]);
+        // 2 elements but only one of them is sent
+        assertInvalid(
+                vertexDef,
+                "scores",
+                DataType.LONG_LIST,
+                ByteBuffer.allocate(12).putInt(2).putLong(1L).array());
+        assertInvalid(
+                vertexDef, "scores", DataType.LONG_LIST, ByteBuffer.allocate(4).putInt(-1).array());
+        // offsets beyond the data
+        assertInvalid(
+                vertexDef,
+                "tags",
+                DataType.STRING_LIST,
+                ByteBuffer.allocate(10)
+                        .putInt(1)
+                        .putInt(3)
+                        .put((byte) 'a')
+                        .put((byte) 'b')
+                        .array());
+        // offsets going backwards
+        assertInvalid(
+                vertexDef,
+                "tags",
+                DataType.STRING_LIST,
+                ByteBuffer.allocate(14).putInt(2).putInt(2).putInt(1).putShort((short) 0).array());
+        // data after the last string
+        assertInvalid(
+                vertexDef,
+                "tags",
+                DataType.STRING_LIST,
+                ByteBuffer.allocate(10)
+                        .putInt(1)
+                        .putInt(1)
+                        .put((byte) 'a')
+                        .put((byte) 'b')
+                        .array());
+        // element count larger than the offsets sent
+        assertInvalid(
+                vertexDef,
+                "tags",
+                DataType.STRING_LIST,
+                ByteBuffer.allocate(8).putInt(Integer.MAX_VALUE).putInt(0).array());
+    }
+
+    private void assertInvalid(
+            GraphElement vertexDef, String name, DataType dataType, byte[] valBytes) {
+        Map<String, Object> properties =
+                Collections.singletonMap(name, new PropertyValue(dataType, valBytes));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> GraphWriter.parseRawProperties(vertexDef, properties));
+    }
+}
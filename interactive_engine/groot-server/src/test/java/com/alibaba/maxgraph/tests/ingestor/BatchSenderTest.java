@@ -30,13 +30,17 @@ import com.alibaba.graphscope.groot.operation.VertexId;
 import com.alibaba.graphscope.groot.operation.dml.OverwriteVertexOperation;
 import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.IngestorConfig;
+import com.alibaba.maxgraph.common.config.StoreConfig;
 
 import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 public class BatchSenderTest {
@@ -71,8 +75,9 @@ public class BatchSenderTest {
         CountDownLatch latch = new CountDownLatch(1);
         doAnswer(
                         invocationOnMock -> {
-                            StoreDataBatch storeBatch = invocationOnMock.getArgument(1);
-                            CompletionCallback callback = invocationOnMock.getArgument(2);
+                            List<StoreDataBatch> storeBatches = invocationOnMock.getArgument(1);
+                            StoreDataBatch storeBatch = storeBatches.get(0);
+                            CompletionCallback callback = invocationOnMock.getArgument(3);
                             assertAll(
                                     () -> assertEquals(storeBatch.getRequestId(), requestId),
                                     () -> assertEquals(storeBatch.getQueueId(), queueId),
@@ -99,7 +104,7 @@ public class BatchSenderTest {
                             return null;
                         })
                 .when(mockStoreWriter)
-                .write(anyInt(), any(), any());
+                .write(anyInt(), any(), any(), any());
 
         BatchSender batchSender =
                 new BatchSender(
@@ -111,4 +116,74 @@ public class BatchSenderTest {
 
         batchSender.stop();
     }
+
+    @Test
+    void testWindowRetry() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.STORE_NODE_COUNT.getKey(), "1")
+                        .put(StoreConfig.STORE_QUEUE_BUFFER_SIZE.getKey(), "1")
+                        .put(IngestorConfig.INGESTOR_SENDER_WINDOW_SIZE.getKey(), "2")
+                        .build();
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getPartitionCount()).thenReturn(1);
+        when(mockMetaService.getStoreIdByPartition(anyInt())).thenReturn(0);
+
+        BlockingQueue<Object[]> writes = new LinkedBlockingQueue<>();
+        StoreWriter mockStoreWriter = mock(StoreWriter.class);
+        doAnswer(
+                        invocationOnMock -> {
+                            writes.add(invocationOnMock.getArguments());
+                            return null;
+                        })
+                .when(mockStoreWriter)
+                .write(anyInt(), any(), any(), any());
+
+        BatchSender batchSender =
+                new BatchSender(
+                        configs, mockMetaService, mockStoreWriter, new MetricsCollector(configs));
+        batchSender.start();
+        LabelId labelId = new LabelId(0);
+        for (long offset = 1L; offset <= 3L; offset++) {
+            OperationBatch batch =
+                    OperationBatch.newBuilder()
+                            .addOperationBlob(
+                                    new OverwriteVertexOperation(
+                                                    new VertexId(offset),
+                                                    labelId,
+                                                    Collections.EMPTY_MAP)
+                                            .toBlob())
+                            .build();
+            batchSender.asyncSendWithRetry("test_window", 0, offset, offset, batch);
+        }
+
+        // Two sends in flight, the second one is ordered after the first
+        Object[] write1 = pollWrite(writes, 1L, Collections.emptyMap());
+        Object[] write2 = pollWrite(writes, 2L, Collections.singletonMap(0, 1L));
+        assertNull(writes.poll(200L, TimeUnit.MILLISECONDS));
+
+        // The first send fails after the second one is acked, only the first one is resent
+        ((CompletionCallback) write2[3]).onCompleted(0);
+        ((CompletionCallback) write1[3]).onError(new RuntimeException("test failure"));
+        write1 = pollWrite(writes, 1L, Collections.emptyMap());
+        assertNull(writes.poll(200L, TimeUnit.MILLISECONDS));
+
+        ((CompletionCallback) write1[3]).onCompleted(0);
+        Object[] write3 = pollWrite(writes, 3L, Collections.emptyMap());
+        ((CompletionCallback) write3[3]).onCompleted(0);
+
+        batchSender.stop();
+    }
+
+    private Object[] pollWrite(
+            BlockingQueue<Object[]> writes, long offset, Map<Integer, Long> queuePrevOffsets)
+            throws InterruptedException {
+        Object[] write = writes.poll(5L, TimeUnit.SECONDS);
+        assertNotNull(write);
+        List<StoreDataBatch> storeBatches = (List<StoreDataBatch>) write[1];
+        assertEquals(1, storeBatches.size());
+        assertEquals(offset, storeBatches.get(0).getOffset());
+        assertEquals(queuePrevOffsets, write[2]);
+        return write;
+    }
 }
@@ -25,10 +25,12 @@ import com.alibaba.graphscope.groot.wal.LogService;
 import com.alibaba.graphscope.groot.wal.LogWriter;
 import com.alibaba.graphscope.groot.wal.ReadLogEntry;
 import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.IngestorConfig;
 
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class IngestProcessorTest {
@@ -91,4 +93,63 @@ public class IngestProcessorTest {
         ingestProcessor.stop();
         verify(mockLogWriter, timeout(5000L)).close();
     }
+
+    @Test
+    void testIngestProcessorGroupCommit() throws IOException {
+        long tailOffset = 50L;
+        int queueId = 0;
+
+        Configs configs =
+                Configs.newBuilder()
+                        .put(IngestorConfig.INGESTOR_WAL_GROUP_COMMIT_WINDOW.getKey(), "4")
+                        .build();
+        LogService mockLogService = mock(LogService.class);
+
+        LogReader mockLogReader = mock(LogReader.class);
+        when(mockLogService.createReader(queueId, tailOffset + 1)).thenReturn(mockLogReader);
+        when(mockLogReader.readNext()).thenReturn(null);
+
+        LogWriter mockLogWriter = mock(LogWriter.class);
+        when(mockLogService.createWriter(queueId)).thenReturn(mockLogWriter);
+        CompletableFuture<Long> future1 = new CompletableFuture<>();
+        CompletableFuture<Long> future2 = new CompletableFuture<>();
+        when(mockLogWriter.appendAsync(any())).thenReturn(future1).thenReturn(future2);
+
+        BatchSender mockBatchSender = mock(BatchSender.class);
+        AtomicLong ingestSnapshotId = new AtomicLong(10L);
+
+        IngestProcessor ingestProcessor =
+                new IngestProcessor(
+                        configs,
+                        mockLogService,
+                        mockBatchSender,
+                        queueId,
+                        ingestSnapshotId,
+                        new MetricsCollector(configs));
+        ingestProcessor.setTailOffset(tailOffset);
+        ingestProcessor.start();
+        verify(mockLogReader, timeout(5000L)).close();
+
+        OperationBatch emptyBatch = OperationBatch.newBuilder().build();
+        IngestCallback mockIngestCallback1 = mock(IngestCallback.class);
+        IngestCallback mockIngestCallback2 = mock(IngestCallback.class);
+        ingestProcessor.ingestBatch("req_1", emptyBatch, mockIngestCallback1);
+        ingestProcessor.ingestBatch("req_2", emptyBatch, mockIngestCallback2);
+
+        // Both appends are in flight before any of them completes
+        verify(mockLogWriter, timeout(5000L).times(2)).appendAsync(any());
+        future2.complete(tailOffset + 2);
+        verify(mockIngestCallback2, after(200L).never()).onSuccess(anyLong());
+
+        future1.complete(tailOffset + 1);
+        verify(mockBatchSender, timeout(5000L))
+                .asyncSendWithRetry("req_1", queueId, 10L, tailOffset + 1, emptyBatch);
+        verify(mockBatchSender, timeout(5000L))
+                .asyncSendWithRetry("req_2", queueId, 10L, tailOffset + 2, emptyBatch);
+        verify(mockIngestCallback1, timeout(5000L)).onSuccess(10L);
+        verify(mockIngestCallback2, timeout(5000L)).onSuccess(10L);
+
+        ingestProcessor.stop();
+        verify(mockLogWriter, timeout(5000L)).close();
+    }
 }
@@ -25,22 +25,30 @@ import com.alibaba.graphscope.groot.ingestor.IngestService;
 import com.alibaba.graphscope.groot.ingestor.IngestorSnapshotService;
 import com.alibaba.graphscope.groot.ingestor.IngestorWriteService;
 import com.alibaba.graphscope.groot.ingestor.StoreWriteClient;
+import com.alibaba.graphscope.groot.operation.CompressionType;
 import com.alibaba.graphscope.groot.operation.OperationBatch;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
+import com.alibaba.graphscope.groot.store.StoreWriteService;
+import com.alibaba.graphscope.groot.store.WriterAgent;
 import com.alibaba.maxgraph.proto.groot.AdvanceIngestSnapshotIdRequest;
 import com.alibaba.maxgraph.proto.groot.AdvanceIngestSnapshotIdResponse;
+import com.alibaba.maxgraph.proto.groot.CompressionTypePb;
 import com.alibaba.maxgraph.proto.groot.GetTailOffsetsResponse;
 import com.alibaba.maxgraph.proto.groot.IngestProgressGrpc;
 import com.alibaba.maxgraph.proto.groot.StoreWriteGrpc;
 import com.alibaba.maxgraph.proto.groot.WriteIngestorRequest;
 import com.alibaba.maxgraph.proto.groot.WriteIngestorResponse;
+import com.alibaba.maxgraph.proto.groot.WriteStoreRequest;
 import com.alibaba.maxgraph.proto.groot.WriteStoreResponse;
 
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class IngestorRpcTest {
@@ -126,4 +134,98 @@ public class IngestorRpcTest {
                 Arrays.asList(StoreDataBatch.newBuilder().requestId("test_req").build()), callback);
         verify(callback).onCompleted(10);
     }
+
+    @Test
+    void testStoreWriteClientCompressionRoundTrip() throws InterruptedException {
+        WriterAgent writerAgent = mock(WriterAgent.class);
+        List<StoreDataBatch> written = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            written.addAll(invocation.getArgument(0));
+                            return WriterAgent.WriteResult.SUCCESS;
+                        })
+                .when(writerAgent)
+                .writeStore2(any(), any());
+        StoreWriteService storeWriteService = new StoreWriteService(writerAgent);
+        StoreWriteGrpc.StoreWriteStub stub = mock(StoreWriteGrpc.StoreWriteStub.class);
+        doAnswer(
+                        invocation -> {
+                            WriteStoreRequest req = invocation.getArgument(0);
+                            assertEquals(CompressionTypePb.COMPRESSION_ZSTD, req.getCompression());
+                            assertEquals(0, req.getDataBatchesCount());
+                            storeWriteService.writeStoreCompressed(req, invocation.getArgument(1));
+                            return null;
+                        })
+                .when(stub)
+                .writeStoreCompressed(any(), any());
+
+        List<StoreDataBatch> batches = new ArrayList<>();
+        for (long offset = 0L; offset < 20L; offset++) {
+            batches.add(
+                    StoreDataBatch.newBuilder()
+                            .requestId("test_compression_req")
+                            .queueId(0)
+                            .snapshotId(1L)
+                            .offset(offset)
+                            .build());
+        }
+        StoreWriteClient client = new StoreWriteClient(stub, CompressionType.ZSTD);
+        CompletionCallback callback = mock(CompletionCallback.class);
+        client.writeStore(batches, Collections.singletonMap(0, 5L), callback);
+
+        verify(callback).onCompleted(any());
+        verify(writerAgent).writeStore2(any(), eq(Collections.singletonMap(0, 5L)));
+        verify(stub, never()).writeStore(any(), any());
+        assertEquals(batches.size(), written.size());
+        for (int i = 0; i < batches.size(); i++) {
+            assertEquals(batches.get(i).toProto(), written.get(i).toProto());
+        }
+    }
+
+    @Test
+    void testStoreWriteClientCompressionFallback() {
+        StoreWriteGrpc.StoreWriteStub stub = mock(StoreWriteGrpc.StoreWriteStub.class);
+        doAnswer(
+                        invocation -> {
+                            StreamObserver<WriteStoreResponse> observer = invocation.getArgument(1);
+                            observer.onError(Status.UNIMPLEMENTED.asRuntimeException());
+                            return null;
+                        })
+                .when(stub)
+                .writeStoreCompressed(any(), any());
+        List<WriteStoreRequest> requests = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            requests.add(invocation.getArgument(0));
+                            StreamObserver<WriteStoreResponse> observer = invocation.getArgument(1);
+                            observer.onNext(
+                                    WriteStoreResponse.newBuilder().setSuccess(true).build());
+                            return null;
+                        })
+                .when(stub)
+                .writeStore(any(), any());
+
+        List<StoreDataBatch> batches = new ArrayList<>();
+        for (long offset = 0L; offset < 20L; offset++) {
+            batches.add(
+                    StoreDataBatch.newBuilder()
+                            .requestId("test_compression_req")
+                            .offset(offset)
+                            .build());
+        }
+        StoreWriteClient client = new StoreWriteClient(stub, CompressionType.LZ4);
+        CompletionCallback callback = mock(CompletionCallback.class);
+        client.writeStore(batches, callback);
+        client.writeStore(batches, callback);
+
+        // An old store rejects the compressed call, the batches are resent uncompressed
+        verify(stub, times(1)).writeStoreCompressed(any(), any());
+        verify(callback, times(2)).onCompleted(any());
+        verify(callback, never()).onError(any());
+        assertEquals(2, requests.size());
+        for (WriteStoreRequest req : requests) {
+            assertEquals(CompressionTypePb.COMPRESSION_NONE, req.getCompression());
+            assertEquals(batches.size(), req.getDataBatchesCount());
+        }
+    }
 }
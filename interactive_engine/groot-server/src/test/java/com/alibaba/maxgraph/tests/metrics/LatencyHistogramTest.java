@@ -0,0 +1,78 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.tests.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alibaba.graphscope.groot.metrics.MetricsCollector;
+import com.alibaba.graphscope.groot.metrics.MetricsHttpServer;
+import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.sdkcommon.util.LatencyHistogram;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void testPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getValueAtPercentile(99.0));
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(10000L, histogram.getCount());
+        assertEquals(10000L * 1000L, histogram.getMaxNano());
+        assertPercentile(5000L * 1000L, histogram.getValueAtPercentile(50.0));
+        assertPercentile(9900L * 1000L, histogram.getValueAtPercentile(99.0));
+        assertEquals(10000L * 1000L, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    void testSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1L);
+        histogram.record(3L);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0L, histogram.getValueAtPercentile(10.0));
+        assertEquals(3L, histogram.getValueAtPercentile(50.0));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    void testExposition() {
+        MetricsCollector metricsCollector = new MetricsCollector(Configs.newBuilder().build());
+        metricsCollector.histogram("store.write.latency").record(2_000_000L);
+        metricsCollector.labeledCounter("store.partition.operations", "partition").add(3, 10L);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> metricsCollector.labeledCounter("store.partition.operations", "queue"));
+
+        Map<String, String> metrics = metricsCollector.collectMetrics();
+        assertEquals("1", metrics.get("store.write.latency.count"));
+        assertEquals("{3=10}", metrics.get("store.partition.operations"));
+
+        String text = MetricsHttpServer.toPrometheusText(metricsCollector);
+        assertTrue(text.contains("# TYPE groot_store_write_latency_seconds summary\n"));
+        assertTrue(text.contains("groot_store_write_latency_seconds_count 1\n"));
+        assertTrue(text.contains("groot_store_partition_operations_total{partition=\"3\"} 10\n"));
+    }
+
+    private static void assertPercentile(long expected, long actual) {
+        assertTrue(
+                Math.abs(actual - expected) <= expected / 16,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
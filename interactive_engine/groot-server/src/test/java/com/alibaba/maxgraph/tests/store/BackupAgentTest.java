@@ -13,9 +13,11 @@
  */
 package com.alibaba.maxgraph.tests.store;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 import com.alibaba.graphscope.groot.CompletionCallback;
+import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.store.BackupAgent;
 import com.alibaba.graphscope.groot.store.GraphPartition;
 import com.alibaba.graphscope.groot.store.StoreBackupId;
@@ -27,13 +29,16 @@ import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BackupAgentTest {
 
@@ -57,7 +62,8 @@ public class BackupAgentTest {
         when(mockJnaStore0.openBackupEngine()).thenReturn(mockJnaBackupEngine0);
         when(mockJnaStore1.openBackupEngine()).thenReturn(mockJnaBackupEngine1);
 
-        BackupAgent backupAgent = new BackupAgent(configs, mockStoreService);
+        BackupAgent backupAgent =
+                new BackupAgent(configs, mockStoreService, new MetricsCollector(configs));
         backupAgent.start();
 
         StoreBackupId storeBackupId = new StoreBackupId(5);
@@ -95,4 +101,77 @@ public class BackupAgentTest {
 
         backupAgent.stop();
     }
+
+    @Test
+    void testBackupKeptWhenCopiedBytesUnknown() throws IOException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(BackupConfig.BACKUP_ENABLE.getKey(), "true")
+                        .build();
+        StoreService mockStoreService = mock(StoreService.class);
+        JnaGraphStore mockJnaStore = mock(JnaGraphStore.class);
+        JnaGraphBackupEngine mockJnaBackupEngine = mock(JnaGraphBackupEngine.class);
+        Map<Integer, GraphPartition> idToPartition = Collections.singletonMap(0, mockJnaStore);
+        when(mockStoreService.getIdToPartition()).thenReturn(idToPartition);
+        when(mockJnaStore.openBackupEngine()).thenReturn(mockJnaBackupEngine);
+        when(mockJnaBackupEngine.createNewPartitionBackup()).thenReturn(3);
+        when(mockJnaBackupEngine.getCopiedBytes(3)).thenThrow(new IOException("no backup info"));
+
+        BackupAgent backupAgent =
+                new BackupAgent(configs, mockStoreService, new MetricsCollector(configs));
+        backupAgent.start();
+        StoreBackupId storeBackupId = new StoreBackupId(1);
+        storeBackupId.addPartitionBackupId(0, 3);
+        CompletionCallback<StoreBackupId> createCallback = mock(CompletionCallback.class);
+        backupAgent.createNewStoreBackup(1, createCallback);
+        verify(createCallback, timeout(5000L)).onCompleted(storeBackupId);
+        verify(createCallback, never()).onError(any());
+        backupAgent.stop();
+    }
+
+    @Test
+    void testPartitionEngineCallsSerialized() throws Exception {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(BackupConfig.BACKUP_ENABLE.getKey(), "true")
+                        .build();
+        StoreService mockStoreService = mock(StoreService.class);
+        JnaGraphStore mockJnaStore = mock(JnaGraphStore.class);
+        JnaGraphBackupEngine mockJnaBackupEngine = mock(JnaGraphBackupEngine.class);
+        Map<Integer, GraphPartition> idToPartition = Collections.singletonMap(0, mockJnaStore);
+        when(mockStoreService.getIdToPartition()).thenReturn(idToPartition);
+        when(mockJnaStore.openBackupEngine()).thenReturn(mockJnaBackupEngine);
+        AtomicInteger activeCalls = new AtomicInteger(0);
+        AtomicInteger maxActiveCalls = new AtomicInteger(0);
+        Answer<Integer> slowCall =
+                invocation -> {
+                    int active = activeCalls.incrementAndGet();
+                    maxActiveCalls.updateAndGet(x -> Math.max(x, active));
+                    Thread.sleep(200L);
+                    activeCalls.decrementAndGet();
+                    return 3;
+                };
+        doAnswer(slowCall).when(mockJnaBackupEngine).createNewPartitionBackup();
+        doAnswer(slowCall).when(mockJnaBackupEngine).verifyPartitionBackup(anyInt());
+        doAnswer(slowCall).when(mockJnaBackupEngine).restoreFromPartitionBackup(anyInt(), any());
+
+        BackupAgent backupAgent =
+                new BackupAgent(configs, mockStoreService, new MetricsCollector(configs));
+        backupAgent.start();
+        StoreBackupId storeBackupId = new StoreBackupId(1);
+        storeBackupId.addPartitionBackupId(0, 3);
+        CompletionCallback<StoreBackupId> createCallback = mock(CompletionCallback.class);
+        CompletionCallback<Void> verifyCallback = mock(CompletionCallback.class);
+        CompletionCallback<Void> restoreCallback = mock(CompletionCallback.class);
+        backupAgent.createNewStoreBackup(1, createCallback);
+        backupAgent.verifyStoreBackup(storeBackupId, verifyCallback);
+        backupAgent.restoreFromStoreBackup(storeBackupId, "restore_root", restoreCallback);
+        verify(createCallback, timeout(5000L)).onCompleted(storeBackupId);
+        verify(verifyCallback, timeout(5000L)).onCompleted(null);
+        verify(restoreCallback, timeout(5000L)).onCompleted(null);
+        assertEquals(1, maxActiveCalls.get());
+        backupAgent.stop();
+    }
 }
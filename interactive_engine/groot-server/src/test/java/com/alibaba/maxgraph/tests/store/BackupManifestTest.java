@@ -0,0 +1,90 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.tests.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alibaba.graphscope.groot.store.BackupManifest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+public class BackupManifestTest {
+
+    private void writeMeta(Path root, String name, String... files) throws IOException {
+        StringBuilder sb = new StringBuilder("1650000000\n100\n").append(files.length);
+        for (String file : files) {
+            sb.append('\n')
+                    .append(file)
+                    .append(" crc32 ")
+                    .append(BackupManifest.checksum(root.resolve(file)));
+        }
+        Files.createDirectories(root.resolve("meta"));
+        Path metaPath = root.resolve("meta").resolve(name);
+        Files.write(metaPath, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testChecksumIsCrc32c(@TempDir Path root) throws IOException {
+        // The check value of CRC32C, as RocksDB writes it into backup meta files
+        Files.write(root.resolve("1.sst"), "123456789".getBytes(StandardCharsets.UTF_8));
+        assertEquals(0xE3069283L, BackupManifest.checksum(root.resolve("1.sst")));
+    }
+
+    @Test
+    void testFromBackupMetaAndDiff(@TempDir Path root) throws IOException {
+        Files.createDirectories(root.resolve("shared"));
+        Files.write(root.resolve("shared/1.sst"), "aaa".getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("shared/2.sst"), "bbbb".getBytes(StandardCharsets.UTF_8));
+        writeMeta(root, "1", "shared/1.sst", "shared/2.sst");
+        BackupManifest first = BackupManifest.fromBackupMeta(root, root.resolve("meta/1"));
+        assertEquals(2, first.getFileCount());
+        assertEquals(3L, first.getFileChecksum("shared/1.sst").getSize());
+
+        Files.write(root.resolve("shared/3.sst"), "cc".getBytes(StandardCharsets.UTF_8));
+        writeMeta(root, "2", "shared/2.sst", "shared/3.sst");
+        BackupManifest second = BackupManifest.fromBackupMeta(root, root.resolve("meta/2"));
+        assertEquals(
+                first.getFileChecksum("shared/2.sst"), second.getFileChecksum("shared/2.sst"));
+        assertEquals(Collections.singletonList("shared/3.sst"), second.diff(first));
+        assertEquals(2, second.diff(new BackupManifest()).size());
+    }
+
+    @Test
+    void testWriteAndRead(@TempDir Path root) throws IOException {
+        Files.write(root.resolve("1.sst"), "abc".getBytes(StandardCharsets.UTF_8));
+        writeMeta(root, "1", "1.sst");
+        BackupManifest manifest = BackupManifest.fromBackupMeta(root, root.resolve("meta/1"));
+        Path manifestPath = root.resolve("manifest");
+        manifest.write(manifestPath);
+        BackupManifest readManifest = BackupManifest.read(manifestPath);
+        assertEquals(manifest.getFileChecksum("1.sst"), readManifest.getFileChecksum("1.sst"));
+        assertTrue(readManifest.diff(manifest).isEmpty());
+
+        Files.write(root.resolve("1.sst"), "abd".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(
+                readManifest.getFileChecksum("1.sst").getChecksum(),
+                BackupManifest.checksum(root.resolve("1.sst")));
+
+        Files.delete(root.resolve("1.sst"));
+        readManifest.retainExisting(root);
+        assertEquals(0, readManifest.getFileCount());
+    }
+}
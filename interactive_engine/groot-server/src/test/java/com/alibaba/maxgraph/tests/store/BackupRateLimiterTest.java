@@ -0,0 +1,49 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.tests.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alibaba.graphscope.groot.store.BackupRateLimiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class BackupRateLimiterTest {
+
+    @Test
+    void testNoLimit() throws InterruptedException {
+        BackupRateLimiter rateLimiter = new BackupRateLimiter(0L);
+        assertEquals(0L, rateLimiter.pay(1L << 30, System.nanoTime()));
+    }
+
+    @Test
+    void testPayAfterCopy() throws InterruptedException {
+        BackupRateLimiter rateLimiter = new BackupRateLimiter(1000L);
+        long startNano = System.nanoTime();
+        // 100 bytes at 1000 bytes/s costs 100ms from startNano
+        rateLimiter.pay(100L, startNano);
+        assertTrue(System.nanoTime() - startNano >= TimeUnit.MILLISECONDS.toNanos(100L));
+        // The next 100 bytes have to wait for the previous ones
+        assertTrue(rateLimiter.pay(100L, System.nanoTime()) > 0L);
+    }
+
+    @Test
+    void testSlowCopyNotThrottled() throws InterruptedException {
+        BackupRateLimiter rateLimiter = new BackupRateLimiter(1000L);
+        long startNano = System.nanoTime() - TimeUnit.SECONDS.toNanos(1L);
+        assertEquals(0L, rateLimiter.pay(100L, startNano));
+    }
+}
@@ -14,6 +14,7 @@
 package com.alibaba.maxgraph.tests.store;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -21,6 +22,7 @@ import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import com.alibaba.graphscope.groot.store.SnapshotSortQueue;
 import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.StoreConfig;
 
 import org.junit.jupiter.api.Test;
 
@@ -90,4 +92,48 @@ public class SnapshotSortQueueTest {
         assertEquals(entry.getQueueId(), 0);
         assertEquals(entry.getSnapshotId(), 7L);
     }
+
+    @Test
+    void testPollWakeup() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder().put(StoreConfig.STORE_QUEUE_WAIT_MS.getKey(), "200").build();
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getQueueCount()).thenReturn(2);
+
+        SnapshotSortQueue snapshotSortQueue = new SnapshotSortQueue(configs, mockMetaService);
+        snapshotSortQueue.offerQueue(
+                1, StoreDataBatch.newBuilder().snapshotId(4L).queueId(1).build());
+        // Q0 has not been seen yet, nothing is ready
+        assertNull(snapshotSortQueue.poll());
+
+        Thread producer =
+                new Thread(
+                        () -> {
+                            try {
+                                Thread.sleep(50L);
+                                snapshotSortQueue.offerQueue(
+                                        0,
+                                        StoreDataBatch.newBuilder()
+                                                .snapshotId(5L)
+                                                .queueId(0)
+                                                .build());
+                            } catch (InterruptedException e) {
+                                throw new RuntimeException(e);
+                            }
+                        });
+        producer.start();
+        StoreDataBatch entry = snapshotSortQueue.poll();
+        assertEquals(entry.getQueueId(), 1);
+        assertEquals(entry.getSnapshotId(), 4L);
+        producer.join();
+
+        // (Q0, 5) waits for Q1 to reach snapshot 5
+        assertNull(snapshotSortQueue.poll());
+        snapshotSortQueue.offerQueue(
+                1, StoreDataBatch.newBuilder().snapshotId(6L).queueId(1).build());
+        entry = snapshotSortQueue.poll();
+        assertEquals(entry.getQueueId(), 0);
+        assertEquals(entry.getSnapshotId(), 5L);
+        assertEquals(snapshotSortQueue.size(), 1);
+    }
 }
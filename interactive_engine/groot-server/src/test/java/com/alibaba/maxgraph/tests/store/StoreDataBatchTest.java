@@ -0,0 +1,80 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.tests.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
+import com.alibaba.graphscope.groot.operation.OperationType;
+import com.alibaba.graphscope.groot.operation.StoreDataBatch;
+import com.alibaba.maxgraph.proto.groot.OperationBatchPb;
+import com.alibaba.maxgraph.proto.groot.WriteStoreRequest;
+import com.google.protobuf.ByteString;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class StoreDataBatchTest {
+
+    @Test
+    void testRoundTripKeepsWireBytes() throws IOException {
+        OperationBlob vertexBlob =
+                new OperationBlob(
+                        10L, OperationType.OVERWRITE_VERTEX, ByteString.copyFromUtf8("vertex"));
+        OperationBlob edgeBlob =
+                new OperationBlob(
+                        11L, OperationType.OVERWRITE_EDGE, ByteString.copyFromUtf8("edge"));
+        StoreDataBatch storeDataBatch =
+                StoreDataBatch.newBuilder()
+                        .requestId("test")
+                        .queueId(1)
+                        .snapshotId(20L)
+                        .offset(30L)
+                        .addOperation(0, vertexBlob)
+                        .addOperation(1, edgeBlob)
+                        .addOperation(0, edgeBlob)
+                        .build();
+
+        byte[] wire =
+                WriteStoreRequest.newBuilder()
+                        .addDataBatches(storeDataBatch.toProto())
+                        .build()
+                        .toByteArray();
+        StoreDataBatch received =
+                StoreDataBatch.parseProto(WriteStoreRequest.parseFrom(wire).getDataBatches(0));
+
+        assertEquals("test", received.getRequestId());
+        assertEquals(1, received.getQueueId());
+        assertEquals(20L, received.getSnapshotId());
+        assertEquals(30L, received.getOffset());
+        assertEquals(3, received.getSize());
+        Map<Integer, OperationBatch> sent = storeDataBatch.getDataBatch().get(0);
+        for (Map.Entry<Integer, OperationBatch> e : received.getDataBatch().get(0).entrySet()) {
+            OperationBatch operationBatch = e.getValue();
+            assertEquals(sent.get(e.getKey()), operationBatch);
+            // the received bytes are passed on as they are, and decode to the sent batch
+            ByteString bytes = operationBatch.toByteString();
+            assertSame(bytes, operationBatch.toByteString());
+            assertEquals(sent.get(e.getKey()).toByteString(), bytes);
+            assertEquals(sent.get(e.getKey()).toProto(), OperationBatchPb.parseFrom(bytes));
+        }
+        assertEquals(
+                storeDataBatch.toProto(),
+                received.toProto(),
+                "re-sending a received batch yields the same wire form");
+    }
+}
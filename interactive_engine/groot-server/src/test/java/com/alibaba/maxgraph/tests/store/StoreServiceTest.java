@@ -14,8 +14,10 @@
 package com.alibaba.maxgraph.tests.store;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.Mockito.*;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.operation.OperationBatch;
@@ -25,12 +27,19 @@ import com.alibaba.graphscope.groot.store.GraphPartition;
 import com.alibaba.graphscope.groot.store.StoreService;
 import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.StoreConfig;
 
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class StoreServiceTest {
 
@@ -66,4 +75,118 @@ public class StoreServiceTest {
         spyStoreService.stop();
         verify(mockGraphPartition).close();
     }
+
+    @Test
+    void testRetryFailedPartitionOnly()
+            throws IOException, InterruptedException, ExecutionException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_WRITE_RETRY_BACKOFF_INIT_MS.getKey(), "10")
+                        .put(StoreConfig.STORE_WRITE_RETRY_BACKOFF_MAX_MS.getKey(), "50")
+                        .build();
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getPartitionsByStoreId(0)).thenReturn(Arrays.asList(0, 1));
+
+        StoreService spyStoreService =
+                spy(new StoreService(configs, mockMetaService, new MetricsCollector(configs)));
+
+        GraphPartition healthyPartition = mock(GraphPartition.class);
+        GraphPartition flakyPartition = mock(GraphPartition.class);
+        when(flakyPartition.writeBatch(anyLong(), any()))
+                .thenThrow(new IOException("compaction stall"))
+                .thenThrow(new IOException("compaction stall"))
+                .thenReturn(false);
+        doReturn(healthyPartition).when(spyStoreService).makeGraphPartition(any(), eq(0));
+        doReturn(flakyPartition).when(spyStoreService).makeGraphPartition(any(), eq(1));
+
+        spyStoreService.start();
+        StoreDataBatch storeDataBatch =
+                StoreDataBatch.newBuilder()
+                        .snapshotId(20L)
+                        .addOperation(0, OperationBlob.MARKER_OPERATION_BLOB)
+                        .addOperation(1, OperationBlob.MARKER_OPERATION_BLOB)
+                        .build();
+        spyStoreService.batchWrite(storeDataBatch);
+
+        verify(healthyPartition, times(1)).writeBatch(eq(20L), any());
+        verify(flakyPartition, times(3)).writeBatch(eq(20L), any());
+        assertEquals("[0:0, 1:2]", spyStoreService.getMetrics().get("partition.write.failures"));
+        spyStoreService.stop();
+    }
+
+    @Test
+    void testIsolatedPartitionIsNotAcked()
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_WRITE_RETRY_BACKOFF_INIT_MS.getKey(), "1")
+                        .put(StoreConfig.STORE_WRITE_RETRY_BACKOFF_MAX_MS.getKey(), "5")
+                        .put(StoreConfig.STORE_WRITE_MAX_RETRIES.getKey(), "3")
+                        .build();
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getPartitionsByStoreId(0)).thenReturn(Arrays.asList(0, 1));
+
+        StoreService spyStoreService =
+                spy(new StoreService(configs, mockMetaService, new MetricsCollector(configs)));
+
+        GraphPartition healthyPartition = mock(GraphPartition.class);
+        GraphPartition brokenPartition = mock(GraphPartition.class);
+        AtomicBoolean broken = new AtomicBoolean(true);
+        when(brokenPartition.writeBatch(anyLong(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            if (broken.get()) {
+                                throw new IOException("broken");
+                            }
+                            return false;
+                        });
+        doReturn(healthyPartition).when(spyStoreService).makeGraphPartition(any(), eq(0));
+        doReturn(brokenPartition).when(spyStoreService).makeGraphPartition(any(), eq(1));
+
+        spyStoreService.start();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (long snapshotId = 20L; snapshotId < 22L; snapshotId++) {
+            StoreDataBatch storeDataBatch =
+                    StoreDataBatch.newBuilder()
+                            .snapshotId(snapshotId)
+                            .addOperation(0, OperationBlob.MARKER_OPERATION_BLOB)
+                            .addOperation(1, OperationBlob.MARKER_OPERATION_BLOB)
+                            .build();
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            spyStoreService.asyncBatchWrite(
+                    storeDataBatch,
+                    new CompletionCallback<Boolean>() {
+                        @Override
+                        public void onCompleted(Boolean hasDdl) {
+                            future.complete(hasDdl);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            future.completeExceptionally(t);
+                        }
+                    });
+            futures.add(future);
+        }
+
+        // the healthy partition goes on, the isolated one keeps retrying the first batch
+        verify(healthyPartition, timeout(5000L)).writeBatch(eq(21L), any());
+        verify(brokenPartition, timeout(5000L).atLeast(5)).writeBatch(eq(20L), any());
+        assertEquals("[1]", spyStoreService.getMetrics().get("partition.isolated"));
+        assertEquals("[1]", spyStoreService.getMetrics().get("partition.unhealthy"));
+        assertFalse(futures.get(0).isDone());
+        assertFalse(futures.get(1).isDone());
+        verify(brokenPartition, never()).writeBatch(eq(21L), any());
+
+        broken.set(false);
+        futures.get(0).get(5000L, TimeUnit.MILLISECONDS);
+        futures.get(1).get(5000L, TimeUnit.MILLISECONDS);
+        verify(brokenPartition, times(1)).writeBatch(eq(21L), any());
+        assertEquals("[]", spyStoreService.getMetrics().get("partition.isolated"));
+        spyStoreService.stop();
+    }
 }
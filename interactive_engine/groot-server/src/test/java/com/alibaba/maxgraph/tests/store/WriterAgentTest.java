@@ -13,8 +13,10 @@
  */
 package com.alibaba.maxgraph.tests.store;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
@@ -27,8 +29,12 @@ import com.alibaba.maxgraph.common.config.StoreConfig;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class WriterAgentTest {
 
@@ -67,4 +73,173 @@ public class WriterAgentTest {
 
         writerAgent.stop();
     }
+
+    @Test
+    void testWriterAgentPipelined() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_COMMIT_INTERVAL_MS.getKey(), "10")
+                        .put(StoreConfig.STORE_WRITE_PIPELINE_ENABLE.getKey(), "true")
+                        .build();
+        StoreService mockStoreService = mock(StoreService.class);
+        List<CompletionCallback<Boolean>> callbacks =
+                Collections.synchronizedList(new ArrayList<>());
+        doAnswer(
+                        invocation -> {
+                            callbacks.add(invocation.getArgument(1));
+                            return null;
+                        })
+                .when(mockStoreService)
+                .asyncBatchWrite(any(), any());
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getQueueCount()).thenReturn(1);
+
+        SnapshotCommitter mockSnapshotCommitter = mock(SnapshotCommitter.class);
+
+        WriterAgent writerAgent =
+                new WriterAgent(
+                        configs,
+                        mockStoreService,
+                        mockMetaService,
+                        mockSnapshotCommitter,
+                        new MetricsCollector(configs));
+        writerAgent.init(0L);
+        writerAgent.start();
+
+        StoreDataBatch batch1 =
+                StoreDataBatch.newBuilder().snapshotId(2L).queueId(0).offset(10L).build();
+        StoreDataBatch batch2 =
+                StoreDataBatch.newBuilder().snapshotId(3L).queueId(0).offset(11L).build();
+        writerAgent.writeStore(batch1);
+        writerAgent.writeStore(batch2);
+
+        // The second batch is submitted before the first one is applied
+        verify(mockStoreService, timeout(5000L)).asyncBatchWrite(eq(batch2), any());
+
+        // Applying batch2 first must not advance the snapshot past batch1
+        callbacks.get(1).onCompleted(false);
+        verify(mockSnapshotCommitter, after(200L).never())
+                .commitSnapshotId(anyInt(), anyLong(), anyLong(), any());
+
+        callbacks.get(0).onCompleted(false);
+        verify(mockSnapshotCommitter, timeout(5000L))
+                .commitSnapshotId(0, 2L, 0L, Collections.singletonList(11L));
+
+        writerAgent.stop();
+    }
+
+    @Test
+    void testWriterAgentPipelinedRetryKeepsOrder() throws InterruptedException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_COMMIT_INTERVAL_MS.getKey(), "10")
+                        .put(StoreConfig.STORE_WRITE_PIPELINE_ENABLE.getKey(), "true")
+                        .build();
+        StoreDataBatch batch1 =
+                StoreDataBatch.newBuilder().snapshotId(2L).queueId(0).offset(10L).build();
+        StoreDataBatch batch2 =
+                StoreDataBatch.newBuilder().snapshotId(3L).queueId(0).offset(11L).build();
+
+        StoreService mockStoreService = mock(StoreService.class);
+        AtomicBoolean rejectedOnce = new AtomicBoolean(false);
+        List<StoreDataBatch> submitted = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(
+                        invocation -> {
+                            StoreDataBatch batch = invocation.getArgument(0);
+                            CompletionCallback<Boolean> callback = invocation.getArgument(1);
+                            if (batch == batch1 && rejectedOnce.compareAndSet(false, true)) {
+                                callback.onError(new IllegalStateException("rejected"));
+                                return null;
+                            }
+                            submitted.add(batch);
+                            callback.onCompleted(false);
+                            return null;
+                        })
+                .when(mockStoreService)
+                .asyncBatchWrite(any(), any());
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getQueueCount()).thenReturn(1);
+
+        SnapshotCommitter mockSnapshotCommitter = mock(SnapshotCommitter.class);
+
+        WriterAgent writerAgent =
+                new WriterAgent(
+                        configs,
+                        mockStoreService,
+                        mockMetaService,
+                        mockSnapshotCommitter,
+                        new MetricsCollector(configs));
+        writerAgent.init(0L);
+        writerAgent.start();
+
+        writerAgent.writeStore(batch1);
+        writerAgent.writeStore(batch2);
+
+        // batch2 is held back until the rejected batch1 is resubmitted
+        verify(mockSnapshotCommitter, timeout(5000L))
+                .commitSnapshotId(0, 2L, 0L, Collections.singletonList(11L));
+        assertEquals(Arrays.asList(batch1, batch2), submitted);
+        verify(mockStoreService, times(2)).asyncBatchWrite(eq(batch1), any());
+        verify(mockStoreService, times(1)).asyncBatchWrite(eq(batch2), any());
+
+        writerAgent.stop();
+    }
+
+    @Test
+    void testWriteStore2OrderAndDuplicates() throws InterruptedException, ExecutionException {
+        Configs configs =
+                Configs.newBuilder()
+                        .put(CommonConfig.NODE_IDX.getKey(), "0")
+                        .put(StoreConfig.STORE_COMMIT_INTERVAL_MS.getKey(), "10")
+                        .build();
+        StoreService mockStoreService = mock(StoreService.class);
+
+        MetaService mockMetaService = mock(MetaService.class);
+        when(mockMetaService.getQueueCount()).thenReturn(1);
+
+        WriterAgent writerAgent =
+                new WriterAgent(
+                        configs,
+                        mockStoreService,
+                        mockMetaService,
+                        mock(SnapshotCommitter.class),
+                        new MetricsCollector(configs));
+        writerAgent.init(0L);
+        writerAgent.start();
+
+        StoreDataBatch batch1 =
+                StoreDataBatch.newBuilder().snapshotId(2L).queueId(0).offset(10L).build();
+        StoreDataBatch batch2 =
+                StoreDataBatch.newBuilder().snapshotId(2L).queueId(0).offset(11L).build();
+        StoreDataBatch batch3 =
+                StoreDataBatch.newBuilder().snapshotId(3L).queueId(0).offset(12L).build();
+        assertEquals(
+                WriterAgent.WriteResult.SUCCESS,
+                writerAgent.writeStore2(Collections.singletonList(batch1)));
+
+        // batch2 is not buffered yet, so batch3 must wait for it
+        assertEquals(
+                WriterAgent.WriteResult.OUT_OF_ORDER,
+                writerAgent.writeStore2(
+                        Collections.singletonList(batch3), Collections.singletonMap(0, 11L)));
+
+        // A resend of batch1 together with batch2 only buffers batch2
+        assertEquals(
+                WriterAgent.WriteResult.SUCCESS,
+                writerAgent.writeStore2(Arrays.asList(batch1, batch2)));
+        assertEquals(
+                WriterAgent.WriteResult.SUCCESS,
+                writerAgent.writeStore2(
+                        Collections.singletonList(batch3), Collections.singletonMap(0, 11L)));
+
+        verify(mockStoreService, timeout(5000L)).batchWrite(batch3);
+        verify(mockStoreService, times(1)).batchWrite(batch1);
+        verify(mockStoreService, times(1)).batchWrite(batch2);
+
+        writerAgent.stop();
+    }
 }
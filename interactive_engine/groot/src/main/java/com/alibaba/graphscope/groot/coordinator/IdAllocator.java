@@ -1,23 +1,40 @@
 package com.alibaba.graphscope.groot.coordinator;
 
 import com.alibaba.graphscope.groot.meta.MetaStore;
+import com.alibaba.maxgraph.common.config.CommonConfig;
+import com.alibaba.maxgraph.common.config.Configs;
 import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Allocates edge id ranges for frontends. A range [startId, startId + allocateSize) is handed out
+ * only after a tail id covering it has been persisted. Concurrent requests are batched, while one
+ * thread persists the tail the others queue up, and the next persist covers all of them.
+ */
 public class IdAllocator {
 
     public static final String ID_ALLOCATE_INFO_PATH = "id_allocate_info";
 
     private MetaStore metaStore;
     private ObjectMapper objectMapper;
+    private long recoverGap;
     private volatile long tailId;
 
-    public IdAllocator(MetaStore metaStore) {
+    private final Object persistLock = new Object();
+    private List<AllocateRequest> pendingRequests = new ArrayList<>();
+
+    public IdAllocator(Configs configs, MetaStore metaStore) {
         this.metaStore = metaStore;
         this.objectMapper = new ObjectMapper();
+        this.recoverGap =
+                Math.max(
+                        CommonConfig.ID_ALLOCATE_SIZE.get(configs),
+                        CommonConfig.ID_ALLOCATE_MAX_SIZE.get(configs));
     }
 
     public void start() {
@@ -38,18 +55,73 @@ public class IdAllocator {
         }
         byte[] b = this.metaStore.read(ID_ALLOCATE_INFO_PATH);
         long tailId = this.objectMapper.readValue(b, Long.class);
-        this.tailId = tailId;
+        // Earlier versions handed out the range starting at the persisted tail, skip over it so
+        // that a range in use before the restart is never handed out again.
+        this.tailId = tailId + this.recoverGap;
     }
 
-    public synchronized long allocate(int allocateSize) throws IOException {
-        long newTailId = this.tailId + allocateSize;
-        persistTailId(newTailId);
-        this.tailId = newTailId;
-        return newTailId;
+    /**
+     * @param allocateSize
+     * @return The start id of the allocated range [startId, startId + allocateSize)
+     * @throws IOException
+     */
+    public long allocate(int allocateSize) throws IOException {
+        if (allocateSize <= 0) {
+            throw new IllegalArgumentException("invalid allocate size [" + allocateSize + "]");
+        }
+        AllocateRequest request = new AllocateRequest(allocateSize);
+        synchronized (this) {
+            this.pendingRequests.add(request);
+        }
+        synchronized (this.persistLock) {
+            if (!request.done) {
+                persistPendingRequests();
+            }
+        }
+        if (request.error != null) {
+            throw new IOException("allocate id failed", request.error);
+        }
+        return request.startId;
+    }
+
+    private void persistPendingRequests() {
+        List<AllocateRequest> requests;
+        synchronized (this) {
+            requests = this.pendingRequests;
+            this.pendingRequests = new ArrayList<>();
+        }
+        long newTailId = this.tailId;
+        for (AllocateRequest request : requests) {
+            request.startId = newTailId;
+            newTailId += request.allocateSize;
+        }
+        IOException error = null;
+        try {
+            persistTailId(newTailId);
+            this.tailId = newTailId;
+        } catch (IOException e) {
+            error = e;
+        }
+        for (AllocateRequest request : requests) {
+            request.error = error;
+            request.done = true;
+        }
     }
 
     private void persistTailId(long tailId) throws IOException {
         byte[] b = this.objectMapper.writeValueAsBytes(tailId);
         this.metaStore.write(ID_ALLOCATE_INFO_PATH, b);
     }
+
+    /** Fields are written by the thread holding persistLock and read after acquiring it */
+    private static class AllocateRequest {
+        private final int allocateSize;
+        private long startId;
+        private IOException error;
+        private boolean done;
+
+        AllocateRequest(int allocateSize) {
+            this.allocateSize = allocateSize;
+        }
+    }
 }
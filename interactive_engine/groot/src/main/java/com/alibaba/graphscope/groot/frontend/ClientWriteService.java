@@ -7,17 +7,22 @@ import com.alibaba.graphscope.proto.write.*;
 import com.alibaba.maxgraph.common.util.UuidUtils;
 
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 public class ClientWriteService extends ClientWriteGrpc.ClientWriteImplBase {
     private static final Logger logger = LoggerFactory.getLogger(ClientWriteService.class);
 
+    private static final int STREAM_MAX_PENDING_BATCHES = 64;
+
     private WriteSessionGenerator writeSessionGenerator;
     private GraphWriter graphWriter;
 
@@ -38,32 +43,166 @@ public class ClientWriteService extends ClientWriteGrpc.ClientWriteImplBase {
     @Override
     public void batchWrite(
             BatchWriteRequest request, StreamObserver<BatchWriteResponse> responseObserver) {
+        writeBatch(
+                request,
+                new CompletionCallback<Long>() {
+                    @Override
+                    public void onCompleted(Long res) {
+                        responseObserver.onNext(
+                                BatchWriteResponse.newBuilder().setSnapshotId(res).build());
+                        responseObserver.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        responseObserver.onError(
+                                Status.INTERNAL
+                                        .withDescription(t.getMessage())
+                                        .asRuntimeException());
+                    }
+                });
+    }
+
+    /**
+     * Requests of one stream are written as they arrive, without waiting for the earlier ones to
+     * complete. They go to the ingestors over ordered streams, so writes of a session keep their
+     * order in every queue, and responses are sent in request order. Up to
+     * STREAM_MAX_PENDING_BATCHES requests are in flight; further requests are held back by gRPC
+     * flow control instead of queueing in the frontend.
+     */
+    @Override
+    public StreamObserver<BatchWriteRequest> batchWriteStream(
+            StreamObserver<BatchWriteResponse> responseObserver) {
+        ServerCallStreamObserver<BatchWriteResponse> serverObserver =
+                (ServerCallStreamObserver<BatchWriteResponse>) responseObserver;
+        serverObserver.disableAutoRequest();
+        serverObserver.request(STREAM_MAX_PENDING_BATCHES);
+        GraphWriter.SessionStream sessionStream = graphWriter.openSessionStream();
+        return new StreamObserver<BatchWriteRequest>() {
+            private final Deque<PendingBatch> pending = new ArrayDeque<>();
+            private boolean halfClosed = false;
+            private boolean finished = false;
+
+            @Override
+            public void onNext(BatchWriteRequest request) {
+                PendingBatch pendingBatch = new PendingBatch(request.getRequestSeq());
+                synchronized (this) {
+                    if (finished) {
+                        return;
+                    }
+                    pending.add(pendingBatch);
+                }
+                writeBatch(
+                        request,
+                        sessionStream,
+                        new CompletionCallback<Long>() {
+                            @Override
+                            public void onCompleted(Long res) {
+                                onBatchFinished(pendingBatch, res, null);
+                            }
+
+                            @Override
+                            public void onError(Throwable t) {
+                                onBatchFinished(pendingBatch, 0L, t);
+                            }
+                        });
+            }
+
+            private synchronized void onBatchFinished(
+                    PendingBatch pendingBatch, long snapshotId, Throwable t) {
+                pendingBatch.snapshotId = snapshotId;
+                pendingBatch.error = t;
+                pendingBatch.done = true;
+                while (!finished) {
+                    PendingBatch head = pending.peek();
+                    if (head == null || !head.done) {
+                        break;
+                    }
+                    pending.poll();
+                    if (head.error != null) {
+                        finish();
+                        serverObserver.onError(
+                                Status.INTERNAL
+                                        .withDescription(head.error.getMessage())
+                                        .asRuntimeException());
+                        return;
+                    }
+                    serverObserver.onNext(
+                            BatchWriteResponse.newBuilder()
+                                    .setSnapshotId(head.snapshotId)
+                                    .setRequestSeq(head.requestSeq)
+                                    .build());
+                    serverObserver.request(1);
+                }
+                completeIfDrained();
+            }
+
+            private void completeIfDrained() {
+                if (!finished && halfClosed && pending.isEmpty()) {
+                    finish();
+                    serverObserver.onCompleted();
+                }
+            }
+
+            private void finish() {
+                finished = true;
+                pending.clear();
+                sessionStream.close();
+            }
+
+            @Override
+            public synchronized void onError(Throwable t) {
+                logger.warn("batchWriteStream aborted by client", t);
+                if (!finished) {
+                    finish();
+                }
+            }
+
+            @Override
+            public synchronized void onCompleted() {
+                halfClosed = true;
+                completeIfDrained();
+            }
+        };
+    }
+
+    private static class PendingBatch {
+        private final long requestSeq;
+        private long snapshotId;
+        private Throwable error;
+        private boolean done = false;
+
+        private PendingBatch(long requestSeq) {
+            this.requestSeq = requestSeq;
+        }
+    }
+
+    private void writeBatch(BatchWriteRequest request, CompletionCallback<Long> callback) {
+        writeBatch(request, null, callback);
+    }
+
+    private void writeBatch(
+            BatchWriteRequest request,
+            GraphWriter.SessionStream sessionStream,
+            CompletionCallback<Long> callback) {
         String requestId = UuidUtils.getBase64UUIDString();
         String writeSession = request.getClientId();
         int writeRequestsCount = request.getWriteRequestsCount();
-        List<WriteRequest> writeRequests = new ArrayList<>(writeRequestsCount);
-        logger.info(
-                "received batchWrite request. requestId ["
-                        + requestId
-                        + "] writeSession ["
-                        + writeSession
-                        + "] batchSize ["
-                        + writeRequestsCount
-                        + "]");
+        logger.debug(
+                "received batchWrite request. requestId [{}] writeSession [{}] batchSize [{}]",
+                requestId,
+                writeSession,
+                writeRequestsCount);
         try {
+            List<WriteRequest> writeRequests = new ArrayList<>(writeRequestsCount);
             for (WriteRequestPb writeRequestPb : request.getWriteRequestsList()) {
                 writeRequests.add(WriteRequest.parseProto(writeRequestPb));
             }
-            graphWriter.writeBatch(
-                    requestId,
-                    writeSession,
-                    writeRequests,
+            CompletionCallback<Long> writeCallback =
                     new CompletionCallback<Long>() {
                         @Override
                         public void onCompleted(Long res) {
-                            responseObserver.onNext(
-                                    BatchWriteResponse.newBuilder().setSnapshotId(res).build());
-                            responseObserver.onCompleted();
+                            callback.onCompleted(res);
                         }
 
                         @Override
@@ -75,19 +214,19 @@ public class ClientWriteService extends ClientWriteGrpc.ClientWriteImplBase {
                                             + writeSession
                                             + "]",
                                     t);
-                            responseObserver.onError(
-                                    Status.INTERNAL
-                                            .withDescription(t.getMessage())
-                                            .asRuntimeException());
+                            callback.onError(t);
                         }
-                    });
-
+                    };
+            if (sessionStream == null) {
+                graphWriter.writeBatch(requestId, writeSession, writeRequests, writeCallback);
+            } else {
+                sessionStream.writeBatch(requestId, writeSession, writeRequests, writeCallback);
+            }
         } catch (Exception e) {
             logger.error(
                     "batchWrite failed. request [" + requestId + "] session [" + writeSession + "]",
                     e);
-            responseObserver.onError(
-                    Status.INTERNAL.withDescription(e.getMessage()).asRuntimeException());
+            callback.onError(e);
         }
     }
 
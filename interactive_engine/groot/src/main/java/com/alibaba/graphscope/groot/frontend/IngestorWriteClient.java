@@ -24,6 +24,11 @@ import com.alibaba.maxgraph.proto.groot.WriteIngestorResponse;
 import io.grpc.ManagedChannel;
 import io.grpc.stub.StreamObserver;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
 public class IngestorWriteClient extends RpcClient {
 
     private IngestorWriteGrpc.IngestorWriteBlockingStub stub;
@@ -40,6 +45,11 @@ public class IngestorWriteClient extends RpcClient {
         this.stub = stub;
     }
 
+    public IngestorWriteClient(IngestorWriteGrpc.IngestorWriteStub asyncStub) {
+        super((ManagedChannel) asyncStub.getChannel());
+        this.asyncStub = asyncStub;
+    }
+
     public BatchId writeIngestor(String requestId, int queueId, OperationBatch operationBatch) {
         WriteIngestorRequest request =
                 WriteIngestorRequest.newBuilder()
@@ -79,4 +89,96 @@ public class IngestorWriteClient extends RpcClient {
                     public void onCompleted() {}
                 });
     }
+
+    /** Open a stream that ingests its batches in the order they are written. */
+    public WriteStream openWriteStream() {
+        WriteStream writeStream = new WriteStream();
+        writeStream.requestObserver = this.asyncStub.writeIngestorStream(writeStream);
+        return writeStream;
+    }
+
+    /**
+     * Batches are sent without waiting for the earlier ones to complete, the callbacks are called
+     * in the order the batches are written. Once a batch fails, the batches after it fail too.
+     */
+    public static class WriteStream implements StreamObserver<WriteIngestorResponse> {
+        private StreamObserver<WriteIngestorRequest> requestObserver;
+        private final Deque<CompletionCallback<Long>> callbacks = new ArrayDeque<>();
+        private Throwable error;
+        private boolean closed = false;
+
+        private WriteStream() {}
+
+        public void write(
+                String requestId,
+                int queueId,
+                OperationBatch operationBatch,
+                CompletionCallback<Long> callback) {
+            WriteIngestorRequest request =
+                    WriteIngestorRequest.newBuilder()
+                            .setRequestId(requestId)
+                            .setQueueId(queueId)
+                            .setOperationBatch(operationBatch.toProto())
+                            .build();
+            Throwable t;
+            synchronized (this) {
+                t = this.error;
+                if (t == null && this.closed) {
+                    t = new IllegalStateException("write stream is closed");
+                }
+                if (t == null) {
+                    this.callbacks.add(callback);
+                    this.requestObserver.onNext(request);
+                    return;
+                }
+            }
+            callback.onError(t);
+        }
+
+        /** Half-close the stream, batches already written are still answered */
+        public synchronized void close() {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            if (this.error == null) {
+                this.requestObserver.onCompleted();
+            }
+        }
+
+        @Override
+        public void onNext(WriteIngestorResponse response) {
+            CompletionCallback<Long> callback;
+            synchronized (this) {
+                callback = this.callbacks.poll();
+            }
+            if (callback != null) {
+                callback.onCompleted(response.getSnapshotId());
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            failAll(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            failAll(new IllegalStateException("write stream completed with batches unanswered"));
+        }
+
+        private void failAll(Throwable t) {
+            List<CompletionCallback<Long>> failed;
+            synchronized (this) {
+                if (this.error == null) {
+                    this.error = t;
+                }
+                failed = new ArrayList<>(this.callbacks);
+                this.callbacks.clear();
+            }
+            for (CompletionCallback<Long> callback : failed) {
+                callback.onError(t);
+            }
+        }
+    }
 }
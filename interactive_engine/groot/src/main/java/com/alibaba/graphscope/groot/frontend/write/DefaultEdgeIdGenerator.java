@@ -5,39 +5,129 @@ import com.alibaba.graphscope.groot.rpc.RoleClients;
 import com.alibaba.maxgraph.common.RoleType;
 import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.util.ThreadFactoryUtils;
+import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Hands out edge ids from ranges allocated by the coordinator. Once half of the current range is
+ * used, the next range is allocated in the background, so writers only wait for the coordinator
+ * if a range is used up before the next one arrives. The size of the next range follows the rate
+ * the current one is used at, so that a range lasts about ID_ALLOCATE_TARGET_INTERVAL_MS.
+ */
 public class DefaultEdgeIdGenerator extends RoleClients<IdAllocateClient>
         implements EdgeIdGenerator {
 
-    private int idAllocateSize;
-    private AtomicLong currentId = new AtomicLong(0);
-    private volatile long upper = 0L;
+    private static final Logger logger = LoggerFactory.getLogger(DefaultEdgeIdGenerator.class);
+
+    private static final double PREFETCH_RATIO = 0.5;
+
+    private int minAllocateSize;
+    private int maxAllocateSize;
+    private long targetIntervalNano;
+    private ExecutorService prefetchExecutor;
+
+    private volatile int allocateSize;
+    private volatile IdRange currentRange = new IdRange(0L, 0);
+    private AtomicReference<CompletableFuture<IdRange>> nextRange = new AtomicReference<>();
 
     public DefaultEdgeIdGenerator(Configs configs, ChannelManager channelManager) {
         super(channelManager, RoleType.COORDINATOR, IdAllocateClient::new);
-        this.idAllocateSize = CommonConfig.ID_ALLOCATE_SIZE.get(configs);
+        this.minAllocateSize = CommonConfig.ID_ALLOCATE_SIZE.get(configs);
+        this.maxAllocateSize =
+                Math.max(CommonConfig.ID_ALLOCATE_MAX_SIZE.get(configs), this.minAllocateSize);
+        this.targetIntervalNano =
+                TimeUnit.MILLISECONDS.toNanos(
+                        CommonConfig.ID_ALLOCATE_TARGET_INTERVAL_MS.get(configs));
+        this.allocateSize = this.minAllocateSize;
+        this.prefetchExecutor =
+                Executors.newSingleThreadExecutor(
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "edge-id-prefetch", logger));
     }
 
     @Override
     public long getNextId() {
-        long newId = currentId.getAndIncrement();
-        long currentUpper = this.upper;
-        if (newId < currentUpper) {
+        IdRange range = this.currentRange;
+        long newId = range.nextId.getAndIncrement();
+        if (newId < range.upper) {
+            if (newId == range.prefetchId) {
+                prefetchNextRange(range);
+            }
             return newId;
         }
         synchronized (this) {
-            if (currentUpper == this.upper) {
-                allocateNewIds();
+            if (range == this.currentRange) {
+                switchRange();
             }
         }
         return getNextId();
     }
 
-    private void allocateNewIds() {
-        long startId = getClient(0).allocateId(this.idAllocateSize);
-        this.currentId.set(startId);
-        this.upper = startId + this.idAllocateSize;
+    /** Called exactly once per range, by the thread that gets the range's prefetchId */
+    private void prefetchNextRange(IdRange range) {
+        long elapsedNano = Math.max(System.nanoTime() - range.activeNano, 1L);
+        double expectedIds =
+                (range.prefetchId - range.startId + 1) * (double) this.targetIntervalNano
+                        / elapsedNano;
+        int allocateSize =
+                (int) Math.max(this.minAllocateSize, Math.min(this.maxAllocateSize, expectedIds));
+        this.allocateSize = allocateSize;
+        this.nextRange.set(
+                CompletableFuture.supplyAsync(
+                        () -> allocateRange(allocateSize), this.prefetchExecutor));
+    }
+
+    private void switchRange() {
+        IdRange range = null;
+        CompletableFuture<IdRange> future = this.nextRange.getAndSet(null);
+        if (future != null) {
+            try {
+                range = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MaxGraphException(e);
+            } catch (ExecutionException e) {
+                logger.warn("prefetch edge id range failed, allocate again", e.getCause());
+            }
+        }
+        if (range == null) {
+            range = allocateRange(this.allocateSize);
+        }
+        range.activeNano = System.nanoTime();
+        this.currentRange = range;
+    }
+
+    private IdRange allocateRange(int allocateSize) {
+        long startId = getClient(0).allocateId(allocateSize);
+        return new IdRange(startId, allocateSize);
+    }
+
+    private static class IdRange {
+        private final long startId;
+        private final long upper;
+        private final long prefetchId;
+        // Every range counts on its own, so a thread that read a used up range can never take an
+        // id from the range that replaced it
+        private final AtomicLong nextId;
+        // Written before the range is published through the volatile currentRange
+        private long activeNano;
+
+        IdRange(long startId, int size) {
+            this.startId = startId;
+            this.upper = startId + size;
+            this.prefetchId = startId + (long) (size * PREFETCH_RATIO);
+            this.nextId = new AtomicLong(startId);
+        }
     }
 }
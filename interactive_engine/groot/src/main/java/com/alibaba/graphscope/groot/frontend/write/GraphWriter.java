@@ -9,12 +9,17 @@ import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.operation.EdgeId;
 import com.alibaba.graphscope.groot.operation.LabelId;
 import com.alibaba.graphscope.groot.operation.OperationBatch;
+import com.alibaba.graphscope.groot.operation.OperationBlob;
 import com.alibaba.graphscope.groot.operation.OperationType;
 import com.alibaba.graphscope.groot.operation.VertexId;
 import com.alibaba.graphscope.groot.operation.dml.*;
 import com.alibaba.graphscope.groot.rpc.RoleClients;
 import com.alibaba.graphscope.groot.schema.EdgeKind;
 import com.alibaba.graphscope.groot.schema.PropertyValue;
+import com.alibaba.graphscope.groot.schema.SerdeUtils;
+import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.FrontendConfig;
+import com.alibaba.maxgraph.common.util.PartitionUtils;
 import com.alibaba.maxgraph.common.util.PkHashUtils;
 import com.alibaba.maxgraph.common.util.WriteSessionUtil;
 import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
@@ -23,8 +28,10 @@ import com.alibaba.maxgraph.compiler.api.schema.DataType;
 import com.alibaba.maxgraph.compiler.api.schema.GraphElement;
 import com.alibaba.maxgraph.compiler.api.schema.GraphProperty;
 import com.alibaba.maxgraph.compiler.api.schema.GraphSchema;
+import com.alibaba.maxgraph.sdkcommon.util.LatencyHistogram;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +39,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -57,8 +65,11 @@ public class GraphWriter implements MetricsAgent {
     private MetaService metaService;
     private RoleClients<IngestorWriteClient> ingestWriteClients;
     private AtomicLong lastWrittenSnapshotId = new AtomicLong(0L);
+    private boolean routeByPartition;
+    private LatencyHistogram writeLatencyHistogram;
 
     public GraphWriter(
+            Configs configs,
             SnapshotCache snapshotCache,
             EdgeIdGenerator edgeIdGenerator,
             MetaService metaService,
@@ -68,6 +79,15 @@ public class GraphWriter implements MetricsAgent {
         this.edgeIdGenerator = edgeIdGenerator;
         this.metaService = metaService;
         this.ingestWriteClients = ingestWriteClients;
+        String routing = FrontendConfig.WRITE_QUEUE_ROUTING.get(configs);
+        if (routing.equalsIgnoreCase("partition")) {
+            this.routeByPartition = true;
+        } else if (routing.equalsIgnoreCase("session")) {
+            this.routeByPartition = false;
+        } else {
+            throw new IllegalArgumentException("invalid write queue routing [" + routing + "]");
+        }
+        this.writeLatencyHistogram = metricsCollector.histogram("frontend.write.latency");
         initMetrics();
         metricsCollector.register(this, () -> updateMetrics());
     }
@@ -102,6 +122,21 @@ public class GraphWriter implements MetricsAgent {
             String writeSession,
             List<WriteRequest> writeRequests,
             CompletionCallback<Long> callback) {
+        writeBatch(requestId, writeSession, writeRequests, null, callback);
+    }
+
+    /** Open a stream for the batches of one session that are written without waiting */
+    public SessionStream openSessionStream() {
+        return new SessionStream();
+    }
+
+    private void writeBatch(
+            String requestId,
+            String writeSession,
+            List<WriteRequest> writeRequests,
+            SessionStream sessionStream,
+            CompletionCallback<Long> callback) {
+        long writeStartTimeNano = System.nanoTime();
         this.pendingWriteCount.incrementAndGet();
         GraphSchema schema = snapshotCache.getSnapshotWithSchema().getGraphDef();
         OperationBatch.Builder batchBuilder = OperationBatch.newBuilder();
@@ -133,39 +168,183 @@ public class GraphWriter implements MetricsAgent {
             }
         }
         OperationBatch operationBatch = batchBuilder.build();
-        int writeQueueId = getWriteQueueId(writeSession);
-        int ingestorId = this.metaService.getIngestorIdForQueue(writeQueueId);
+        Map<Integer, OperationBatch> queueToBatch;
+        if (this.routeByPartition && operationBatch.getOperationCount() > 0) {
+            queueToBatch =
+                    splitByPartition(
+                            operationBatch,
+                            this.metaService.getQueueCount(),
+                            this.metaService.getPartitionCount());
+        } else {
+            queueToBatch = Collections.singletonMap(getWriteQueueId(writeSession), operationBatch);
+        }
         long startTimeNano = System.nanoTime();
+        CompletionCallback<Long> batchCallback =
+                new CompletionCallback<Long>() {
+                    @Override
+                    public void onCompleted(Long res) {
+                        long writeSnapshotId = res;
+                        lastWrittenSnapshotId.updateAndGet(
+                                x -> x < writeSnapshotId ? writeSnapshotId : x);
+                        writeRequestsTotal.addAndGet(writeRequests.size());
+                        finish();
+                        callback.onCompleted(res);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        finish();
+                        callback.onError(t);
+                    }
+
+                    void finish() {
+                        long ingestorCompleteTimeNano = System.nanoTime();
+                        ingestorBlockTimeNano.addAndGet(ingestorCompleteTimeNano - startTimeNano);
+                        writeLatencyHistogram.record(ingestorCompleteTimeNano - writeStartTimeNano);
+                        pendingWriteCount.decrementAndGet();
+                    }
+                };
+        writeQueues(requestId, queueToBatch, sessionStream, batchCallback);
+    }
+
+    /**
+     * Write the batch of every queue. The callback gets the max snapshot id of the sub batches,
+     * or the first error if any of them fails.
+     */
+    public void writeQueues(
+            String requestId,
+            Map<Integer, OperationBatch> queueToBatch,
+            CompletionCallback<Long> batchCallback) {
+        writeQueues(requestId, queueToBatch, null, batchCallback);
+    }
+
+    private void writeQueues(
+            String requestId,
+            Map<Integer, OperationBatch> queueToBatch,
+            SessionStream sessionStream,
+            CompletionCallback<Long> batchCallback) {
+        if (queueToBatch.size() == 1) {
+            Map.Entry<Integer, OperationBatch> entry = queueToBatch.entrySet().iterator().next();
+            writeQueue(requestId, entry.getKey(), entry.getValue(), sessionStream, batchCallback);
+            return;
+        }
+        // Every sub batch gets its own snapshot id, the batch is visible after the max of them
+        AtomicInteger remaining = new AtomicInteger(queueToBatch.size());
+        AtomicLong maxSnapshotId = new AtomicLong(0L);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        queueToBatch.forEach(
+                (queueId, subBatch) ->
+                        writeQueue(
+                                requestId,
+                                queueId,
+                                subBatch,
+                                sessionStream,
+                                new CompletionCallback<Long>() {
+                                    @Override
+                                    public void onCompleted(Long res) {
+                                        maxSnapshotId.updateAndGet(x -> x < res ? res : x);
+                                        if (remaining.decrementAndGet() == 0
+                                                && !failed.get()) {
+                                            batchCallback.onCompleted(maxSnapshotId.get());
+                                        }
+                                    }
+
+                                    @Override
+                                    public void onError(Throwable t) {
+                                        remaining.decrementAndGet();
+                                        if (failed.compareAndSet(false, true)) {
+                                            batchCallback.onError(t);
+                                        }
+                                    }
+                                }));
+    }
+
+    private void writeQueue(
+            String requestId,
+            int queueId,
+            OperationBatch operationBatch,
+            SessionStream sessionStream,
+            CompletionCallback<Long> callback) {
+        int ingestorId = this.metaService.getIngestorIdForQueue(queueId);
+        if (sessionStream != null) {
+            sessionStream
+                    .getWriteStream(ingestorId)
+                    .write(requestId, queueId, operationBatch, callback);
+            return;
+        }
         this.ingestWriteClients
                 .getClient(ingestorId)
-                .writeIngestorAsync(
-                        requestId,
-                        writeQueueId,
-                        operationBatch,
-                        new CompletionCallback<Long>() {
-                            @Override
-                            public void onCompleted(Long res) {
-                                long writeSnapshotId = res;
-                                lastWrittenSnapshotId.updateAndGet(
-                                        x -> x < writeSnapshotId ? writeSnapshotId : x);
-                                writeRequestsTotal.addAndGet(writeRequests.size());
-                                finish();
-                                callback.onCompleted(res);
-                            }
-
-                            @Override
-                            public void onError(Throwable t) {
-                                finish();
-                                callback.onError(t);
-                            }
-
-                            void finish() {
-                                long ingestorCompleteTimeNano = System.nanoTime();
-                                ingestorBlockTimeNano.addAndGet(
-                                        ingestorCompleteTimeNano - startTimeNano);
-                                pendingWriteCount.decrementAndGet();
-                            }
-                        });
+                .writeIngestorAsync(requestId, queueId, operationBatch, callback);
+    }
+
+    /**
+     * Batches written to a session stream reach each ingestor over one ordered stream, so a batch
+     * is written without waiting for the earlier ones and the writes of the session still keep
+     * their order in every queue. A batch split across queues completes when all of its sub
+     * batches complete, so callbacks of different batches may complete out of order.
+     */
+    public class SessionStream implements AutoCloseable {
+        private final Map<Integer, IngestorWriteClient.WriteStream> ingestorToStream =
+                new HashMap<>();
+        private boolean closed = false;
+
+        private SessionStream() {}
+
+        public void writeBatch(
+                String requestId,
+                String writeSession,
+                List<WriteRequest> writeRequests,
+                CompletionCallback<Long> callback) {
+            if (isClosed()) {
+                callback.onError(new IllegalStateException("session stream is closed"));
+                return;
+            }
+            GraphWriter.this.writeBatch(requestId, writeSession, writeRequests, this, callback);
+        }
+
+        private synchronized boolean isClosed() {
+            return this.closed;
+        }
+
+        private synchronized IngestorWriteClient.WriteStream getWriteStream(int ingestorId) {
+            if (this.closed) {
+                throw new IllegalStateException("session stream is closed");
+            }
+            return this.ingestorToStream.computeIfAbsent(
+                    ingestorId, id -> ingestWriteClients.getClient(id).openWriteStream());
+        }
+
+        @Override
+        public synchronized void close() {
+            this.closed = true;
+            for (IngestorWriteClient.WriteStream writeStream : this.ingestorToStream.values()) {
+                writeStream.close();
+            }
+        }
+    }
+
+    /**
+     * Split the batch by the partition of each operation. Operations of the same partition keep
+     * their order and always go to the same queue, so the updates of a vertex are not reordered.
+     */
+    public static Map<Integer, OperationBatch> splitByPartition(
+            OperationBatch operationBatch, int queueCount, int partitionCount) {
+        if (queueCount <= 1) {
+            throw new IllegalStateException("expect queueCount > 1, but was [" + queueCount + "]");
+        }
+        Map<Integer, OperationBatch.Builder> queueToBuilder = new HashMap<>();
+        for (OperationBlob operationBlob : operationBatch) {
+            int partitionId =
+                    PartitionUtils.getPartitionIdFromKey(
+                            operationBlob.getPartitionKey(), partitionCount);
+            int queueId = partitionId % (queueCount - 1) + 1;
+            queueToBuilder
+                    .computeIfAbsent(queueId, k -> OperationBatch.newBuilder())
+                    .addOperationBlob(operationBlob);
+        }
+        Map<Integer, OperationBatch> queueToBatch = new HashMap<>(queueToBuilder.size() * 2);
+        queueToBuilder.forEach((queueId, builder) -> queueToBatch.put(queueId, builder.build()));
+        return queueToBatch;
     }
 
     public boolean flushSnapshot(long snapshotId, long waitTimeMs) throws InterruptedException {
@@ -372,28 +551,66 @@ public class GraphWriter implements MetricsAgent {
 
     public static Map<Integer, PropertyValue> parseRawProperties(
             GraphElement graphElement, Map<String, Object> properties) {
-        Map<Integer, PropertyValue> res = new HashMap<>();
-        if (properties != null) {
-            properties.forEach(
-                    (propertyName, valString) -> {
-                        GraphProperty propertyDef = graphElement.getProperty(propertyName);
-                        if (propertyDef == null) {
-                            throw new PropertyDefNotFoundException(
-                                    "property ["
-                                            + propertyName
-                                            + "] not found in ["
-                                            + graphElement.getLabel()
-                                            + "]");
-                        }
-                        int id = propertyDef.getId();
-                        DataType dataType = propertyDef.getDataType();
-                        PropertyValue propertyValue = new PropertyValue(dataType, valString);
-                        res.put(id, propertyValue);
-                    });
+        if (properties == null) {
+            return new HashMap<>();
         }
+        Map<Integer, PropertyValue> res = new HashMap<>(properties.size() * 2);
+        properties.forEach(
+                (propertyName, val) -> {
+                    GraphProperty propertyDef = graphElement.getProperty(propertyName);
+                    if (propertyDef == null) {
+                        throw new PropertyDefNotFoundException(
+                                "property ["
+                                        + propertyName
+                                        + "] not found in ["
+                                        + graphElement.getLabel()
+                                        + "]");
+                    }
+                    int id = propertyDef.getId();
+                    DataType dataType = propertyDef.getDataType();
+                    PropertyValue propertyValue;
+                    if (val instanceof PropertyValue) {
+                        propertyValue = (PropertyValue) val;
+                        checkEncodedValue(graphElement, propertyName, dataType, propertyValue);
+                    } else {
+                        propertyValue = new PropertyValue(dataType, val);
+                    }
+                    res.put(id, propertyValue);
+                });
         return res;
     }
 
+    private static void checkEncodedValue(
+            GraphElement graphElement,
+            String propertyName,
+            DataType dataType,
+            PropertyValue propertyValue) {
+        if (propertyValue.getDataType() != dataType) {
+            throw new IllegalArgumentException(
+                    "property ["
+                            + propertyName
+                            + "] of ["
+                            + graphElement.getLabel()
+                            + "] is ["
+                            + dataType
+                            + "], but got ["
+                            + propertyValue.getDataType()
+                            + "]");
+        }
+        try {
+            SerdeUtils.checkEncodedBytes(dataType, propertyValue.getValBytes());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "invalid value of property ["
+                            + propertyName
+                            + "] of ["
+                            + graphElement.getLabel()
+                            + "]: "
+                            + e.getMessage(),
+                    e);
+        }
+    }
+
     public static long getHashId(
             int labelId, Map<Integer, PropertyValue> pkVals, GraphElement graphElement) {
         List<Integer> pkIdxs = graphElement.getPkPropertyIndices();
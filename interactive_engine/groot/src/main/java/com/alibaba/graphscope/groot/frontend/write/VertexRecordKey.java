@@ -1,5 +1,6 @@
 package com.alibaba.graphscope.groot.frontend.write;
 
+import com.alibaba.graphscope.groot.schema.PropertyValue;
 import com.alibaba.graphscope.proto.write.VertexRecordKeyPb;
 
 import java.util.Collections;
@@ -29,14 +30,22 @@ public class VertexRecordKey {
     public static VertexRecordKey parseProto(VertexRecordKeyPb proto) {
         String label = proto.getLabel();
         Map<String, Object> pkPropertiesMap =
-                Collections.unmodifiableMap(proto.getPkPropertiesMap());
+                WriteRequest.parseProperties(
+                        proto.getPkPropertiesMap(), proto.getTypedPkPropertiesMap());
         return new VertexRecordKey(label, pkPropertiesMap);
     }
 
     public VertexRecordKeyPb toProto() {
         VertexRecordKeyPb.Builder builder = VertexRecordKeyPb.newBuilder();
         builder.setLabel(label);
-        properties.forEach((k, v) -> builder.putPkProperties(k, v.toString()));
+        properties.forEach(
+                (k, v) -> {
+                    if (v instanceof PropertyValue) {
+                        builder.putTypedPkProperties(k, ((PropertyValue) v).toTypedProto());
+                    } else {
+                        builder.putPkProperties(k, v.toString());
+                    }
+                });
         return builder.build();
     }
 }
@@ -1,11 +1,14 @@
 package com.alibaba.graphscope.groot.frontend.write;
 
 import com.alibaba.graphscope.groot.operation.OperationType;
+import com.alibaba.graphscope.groot.schema.PropertyValue;
 import com.alibaba.graphscope.proto.write.DataRecordPb;
+import com.alibaba.graphscope.proto.write.TypedValuePb;
 import com.alibaba.graphscope.proto.write.WriteRequestPb;
 import com.alibaba.graphscope.proto.write.WriteTypePb;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 public class WriteRequest {
@@ -30,7 +33,8 @@ public class WriteRequest {
         WriteTypePb writeTypePb = proto.getWriteType();
         DataRecordPb dataRecordPb = proto.getDataRecord();
         Map<String, Object> properties =
-                Collections.unmodifiableMap(dataRecordPb.getPropertiesMap());
+                parseProperties(
+                        dataRecordPb.getPropertiesMap(), dataRecordPb.getTypedPropertiesMap());
         DataRecordPb.RecordKeyCase recordKeyCase = dataRecordPb.getRecordKeyCase();
         switch (recordKeyCase) {
             case VERTEX_RECORD_KEY:
@@ -49,6 +53,20 @@ public class WriteRequest {
         }
     }
 
+    /**
+     * Properties sent as strings are parsed by GraphWriter with the schema, typed ones are kept
+     * as PropertyValue.
+     */
+    public static Map<String, Object> parseProperties(
+            Map<String, String> properties, Map<String, TypedValuePb> typedProperties) {
+        if (typedProperties.isEmpty()) {
+            return Collections.unmodifiableMap(properties);
+        }
+        Map<String, Object> res = new HashMap<>(properties);
+        typedProperties.forEach((k, v) -> res.put(k, PropertyValue.parseTypedProto(v)));
+        return res;
+    }
+
     private static WriteRequest buildWriteVertexRequest(WriteTypePb typePb, DataRecord dataRecord) {
         switch (typePb) {
             case INSERT:
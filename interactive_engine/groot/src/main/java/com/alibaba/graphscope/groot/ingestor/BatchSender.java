@@ -18,13 +18,16 @@ import com.alibaba.maxgraph.common.util.PartitionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Semaphore;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -38,6 +41,7 @@ public class BatchSender implements MetricsAgent {
     public static final String SEND_BUFFER_BATCH_COUNT = "send.buffer.batch.count";
     public static final String SEND_CALLBACK_LATENCY_PER_SECOND_MS =
             "send.callback.latency.per.second.ms";
+    public static final String SEND_WINDOW_INFLIGHT = "send.window.inflight";
 
     private MetaService metaService;
     private StoreWriter storeWriter;
@@ -46,8 +50,12 @@ public class BatchSender implements MetricsAgent {
     private int storeCount;
     private int sendOperationLimit;
 
+    private int windowSize;
+
     private List<BlockingQueue<StoreDataBatch>> storeSendBuffer;
-    private BlockingQueue<SendTask> sendTasks;
+    private List<SendWindow> sendWindows;
+    // Released whenever a send buffer gets data or a send finishes
+    private Semaphore sendSignal;
 
     private Thread sendThread;
     private volatile boolean shouldStop = true;
@@ -71,16 +79,18 @@ public class BatchSender implements MetricsAgent {
         this.bufferSize = IngestorConfig.INGESTOR_SENDER_BUFFER_MAX_COUNT.get(configs);
         this.sendOperationLimit = IngestorConfig.INGESTOR_SENDER_OPERATION_MAX_COUNT.get(configs);
         this.receiverQueueSize = StoreConfig.STORE_QUEUE_BUFFER_SIZE.get(configs);
+        this.windowSize = IngestorConfig.INGESTOR_SENDER_WINDOW_SIZE.get(configs);
         initMetrics();
         metricsCollector.register(this, () -> updateMetrics());
     }
 
     public void start() {
         this.storeSendBuffer = new ArrayList<>(this.storeCount);
-        this.sendTasks = new ArrayBlockingQueue<>(this.storeCount);
+        this.sendWindows = new ArrayList<>(this.storeCount);
+        this.sendSignal = new Semaphore(0);
         for (int i = 0; i < this.storeCount; i++) {
             this.storeSendBuffer.add(new ArrayBlockingQueue<>(this.bufferSize));
-            this.sendTasks.add(new SendTask(i, null));
+            this.sendWindows.add(new SendWindow());
         }
 
         this.shouldStop = false;
@@ -89,7 +99,7 @@ public class BatchSender implements MetricsAgent {
                         () -> {
                             while (!shouldStop) {
                                 try {
-                                    sendBatch();
+                                    sendBatches();
                                 } catch (Exception e) {
                                     logger.warn("error occurred in send process", e);
                                 }
@@ -118,6 +128,41 @@ public class BatchSender implements MetricsAgent {
             long snapshotId,
             long offset,
             OperationBatch operationBatch) {
+        Map<Integer, StoreDataBatch> storeToBatch =
+                splitByStore(
+                        this.metaService,
+                        this.storeCount,
+                        requestId,
+                        queueId,
+                        snapshotId,
+                        offset,
+                        operationBatch);
+        storeToBatch.forEach(
+                (storeId, batch) -> {
+                    while (!shouldStop) {
+                        try {
+                            storeSendBuffer.get(storeId).put(batch);
+                            sendSignal.release();
+                            break;
+                        } catch (InterruptedException e) {
+                            logger.warn("send buffer interrupted", e);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Split an ingested batch by the store that owns the partition of each operation. Operations
+     * without a partition (partition key -1) are replicated to every store.
+     */
+    public static Map<Integer, StoreDataBatch> splitByStore(
+            MetaService metaService,
+            int storeCount,
+            String requestId,
+            int queueId,
+            long snapshotId,
+            long offset,
+            OperationBatch operationBatch) {
         int partitionCount = metaService.getPartitionCount();
         Map<Integer, Builder> storeToBatchBuilder = new HashMap<>();
         Function<Integer, Builder> storeDataBatchBuilderFunc =
@@ -131,7 +176,7 @@ public class BatchSender implements MetricsAgent {
             long partitionKey = operationBlob.getPartitionKey();
             if (partitionKey == -1L) {
                 // replicate to all store node
-                for (int i = 0; i < this.storeCount; i++) {
+                for (int i = 0; i < storeCount; i++) {
                     StoreDataBatch.Builder batchBuilder =
                             storeToBatchBuilder.computeIfAbsent(i, storeDataBatchBuilderFunc);
                     batchBuilder.addOperation(-1, operationBlob);
@@ -145,46 +190,77 @@ public class BatchSender implements MetricsAgent {
                 batchBuilder.addOperation(partitionId, operationBlob);
             }
         }
+        Map<Integer, StoreDataBatch> storeToBatch = new HashMap<>(storeToBatchBuilder.size() * 2);
         storeToBatchBuilder.forEach(
-                (storeId, batchBuilder) -> {
-                    while (!shouldStop) {
-                        try {
-                            storeSendBuffer.get(storeId).put(batchBuilder.build());
-                            break;
-                        } catch (InterruptedException e) {
-                            logger.warn("send buffer interrupted", e);
-                        }
-                    }
-                });
+                (storeId, batchBuilder) -> storeToBatch.put(storeId, batchBuilder.build()));
+        return storeToBatch;
     }
 
-    class SendTask {
-        int storeId;
-        List<StoreDataBatch> dataToRetry;
+    /** One list of batches sent to a store, acknowledged in the order it was sent. */
+    static class InFlightSend {
+        List<StoreDataBatch> dataBatches;
+        Map<Integer, Long> queuePrevOffsets;
+        boolean acked;
 
-        public SendTask(int storeId, List<StoreDataBatch> dataToRetry) {
-            this.storeId = storeId;
-            this.dataToRetry = dataToRetry;
+        InFlightSend(List<StoreDataBatch> dataBatches, Map<Integer, Long> queuePrevOffsets) {
+            this.dataBatches = dataBatches;
+            this.queuePrevOffsets = queuePrevOffsets;
         }
     }
 
-    private void sendBatch() {
-        SendTask sendTask;
+    /**
+     * Sends of one store that are not acknowledged yet. Guarded by its own monitor, since the
+     * callbacks of the store writer update it concurrently with the send thread.
+     */
+    static class SendWindow {
+        Deque<InFlightSend> inFlight = new ArrayDeque<>();
+        // queueId -> offset of the last batch put into this window
+        Map<Integer, Long> lastQueueOffsets = new HashMap<>();
+        int sendingCount;
+        boolean hasFailure;
+    }
+
+    private void sendBatches() {
         try {
-            sendTask = this.sendTasks.poll(1000L, TimeUnit.MILLISECONDS);
+            this.sendSignal.acquire();
         } catch (InterruptedException e) {
-            logger.warn("polling send task interrupted", e);
+            logger.warn("waiting send signal interrupted", e);
             return;
         }
-        if (sendTask == null) {
-            return;
+        this.sendSignal.drainPermits();
+        for (int storeId = 0; storeId < this.storeCount; storeId++) {
+            SendWindow window = this.sendWindows.get(storeId);
+            synchronized (window) {
+                fillWindow(storeId, window);
+            }
         }
+    }
 
-        int storeId = sendTask.storeId;
-        List<StoreDataBatch> dataToSend = sendTask.dataToRetry;
-        if (dataToSend == null) {
-            dataToSend = new ArrayList<>();
-            BlockingQueue<StoreDataBatch> buffer = this.storeSendBuffer.get(storeId);
+    /**
+     * Send new data until the window is full. After a failure nothing new is sent: once the sends
+     * in progress have finished, the unacked sends of the window are resent in their original
+     * order. Acked sends are kept in the window until everything before them is acked, but are
+     * never resent, and the store skips any batch it has already buffered.
+     */
+    private void fillWindow(int storeId, SendWindow window) {
+        if (window.hasFailure) {
+            if (window.sendingCount > 0) {
+                return;
+            }
+            window.hasFailure = false;
+            boolean head = true;
+            for (InFlightSend send : new ArrayList<>(window.inFlight)) {
+                if (send.acked) {
+                    continue;
+                }
+                doSend(storeId, window, send, head);
+                head = false;
+            }
+            return;
+        }
+        BlockingQueue<StoreDataBatch> buffer = this.storeSendBuffer.get(storeId);
+        while (!window.hasFailure && window.inFlight.size() < this.windowSize) {
+            List<StoreDataBatch> dataToSend = new ArrayList<>();
             StoreDataBatch dataBatch;
             int operationCount = 0;
             int batchCount = 0;
@@ -195,55 +271,71 @@ public class BatchSender implements MetricsAgent {
                 operationCount += dataBatch.getSize();
                 batchCount++;
             }
+            if (dataToSend.isEmpty()) {
+                return;
+            }
+            Map<Integer, Long> queuePrevOffsets = new HashMap<>();
+            for (StoreDataBatch batch : dataToSend) {
+                int queueId = batch.getQueueId();
+                Long prevOffset = window.lastQueueOffsets.put(queueId, batch.getOffset());
+                if (prevOffset != null) {
+                    queuePrevOffsets.putIfAbsent(queueId, prevOffset);
+                }
+            }
+            InFlightSend send = new InFlightSend(dataToSend, queuePrevOffsets);
+            boolean head = window.inFlight.isEmpty();
+            window.inFlight.add(send);
+            doSend(storeId, window, send, head);
         }
+    }
 
-        if (dataToSend.size() > 0) {
-            List<StoreDataBatch> finalDataToSend = dataToSend;
-            long beforeWriteTime = System.nanoTime();
-            this.storeWriter.write(
-                    storeId,
-                    dataToSend,
-                    new CompletionCallback<Integer>() {
-                        @Override
-                        public void onCompleted(Integer res) {
-                            sendBytesMetric.add(res);
-                            sendRecordsMetric.add(
-                                    finalDataToSend.stream()
-                                            .collect(
-                                                    Collectors.summingInt(
-                                                            batch -> batch.getSize())));
-                            finish(true);
-                        }
+    /**
+     * Everything before the head of the window has been acknowledged, so the head is sent without
+     * ordering info. That also lets a restarted store accept the resent data.
+     */
+    private void doSend(int storeId, SendWindow window, InFlightSend send, boolean head) {
+        window.sendingCount++;
+        Map<Integer, Long> queuePrevOffsets =
+                head ? Collections.emptyMap() : send.queuePrevOffsets;
+        long beforeWriteTime = System.nanoTime();
+        this.storeWriter.write(
+                storeId,
+                send.dataBatches,
+                queuePrevOffsets,
+                new CompletionCallback<Integer>() {
+                    @Override
+                    public void onCompleted(Integer res) {
+                        sendBytesMetric.add(res);
+                        sendRecordsMetric.add(
+                                send.dataBatches.stream()
+                                        .collect(Collectors.summingInt(batch -> batch.getSize())));
+                        finish(true);
+                    }
 
-                        @Override
-                        public void onError(Throwable t) {
-                            logger.warn(
-                                    "send to store [" + storeId + "] failed. will retry later", t);
-                            finish(false);
-                        }
+                    @Override
+                    public void onError(Throwable t) {
+                        logger.warn("send to store [" + storeId + "] failed. will retry later", t);
+                        finish(false);
+                    }
 
-                        private void finish(boolean suc) {
-                            long finishTime = System.nanoTime();
-                            callbackLatencyMetrics.get(storeId).add(finishTime - beforeWriteTime);
+                    private void finish(boolean suc) {
+                        long finishTime = System.nanoTime();
+                        callbackLatencyMetrics.get(storeId).add(finishTime - beforeWriteTime);
+                        synchronized (window) {
+                            window.sendingCount--;
                             if (suc) {
-                                addTask(storeId, null);
+                                send.acked = true;
+                                while (!window.inFlight.isEmpty()
+                                        && window.inFlight.peekFirst().acked) {
+                                    window.inFlight.pollFirst();
+                                }
                             } else {
-                                addTask(storeId, finalDataToSend);
+                                window.hasFailure = true;
                             }
                         }
-                    });
-        } else {
-            addTask(storeId, null);
-        }
-    }
-
-    private void addTask(int storeId, List<StoreDataBatch> dataToRetry) {
-        if (!sendTasks.offer(new SendTask(storeId, dataToRetry))) {
-            logger.error(
-                    "Unexpected error, failed to add send task to queue. storeId ["
-                            + storeId
-                            + "]");
-        }
+                        sendSignal.release();
+                    }
+                });
     }
 
     @Override
@@ -292,6 +384,12 @@ public class BatchSender implements MetricsAgent {
                                 callbackLatencyMetrics.stream()
                                         .map(m -> (int) (1000 * m.getAvg()))
                                         .collect(Collectors.toList())));
+                put(
+                        SEND_WINDOW_INFLIGHT,
+                        String.valueOf(
+                                sendWindows.stream()
+                                        .map(w -> w.inFlight.size())
+                                        .collect(Collectors.toList())));
             }
         };
     }
@@ -304,7 +402,8 @@ public class BatchSender implements MetricsAgent {
             SEND_RECORDS_PER_SECOND,
             SEND_RECORDS_TOTAL,
             SEND_BUFFER_BATCH_COUNT,
-            SEND_CALLBACK_LATENCY_PER_SECOND_MS
+            SEND_CALLBACK_LATENCY_PER_SECOND_MS,
+            SEND_WINDOW_INFLIGHT
         };
     }
 }
@@ -13,6 +13,7 @@
  */
 package com.alibaba.graphscope.groot.ingestor;
 
+import com.alibaba.graphscope.groot.metrics.LabeledCounter;
 import com.alibaba.graphscope.groot.metrics.MetricsAgent;
 import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.operation.OperationBatch;
@@ -24,15 +25,20 @@ import com.alibaba.graphscope.groot.wal.ReadLogEntry;
 import com.alibaba.maxgraph.common.config.Configs;
 import com.alibaba.maxgraph.common.config.IngestorConfig;
 import com.alibaba.maxgraph.compiler.api.exception.IngestRejectException;
+import com.alibaba.maxgraph.sdkcommon.util.LatencyHistogram;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -52,7 +58,10 @@ public class IngestProcessor implements MetricsAgent {
 
     private int queueId;
     private int bufferSize;
+    private int groupCommitWindow;
     private BlockingQueue<IngestTask> ingestBuffer;
+    // Tasks whose WAL append is in flight, only accessed by ingestThread
+    private Deque<PendingAppend> pendingAppends;
     private Thread ingestThread;
     private AtomicLong ingestSnapshotId;
 
@@ -72,6 +81,8 @@ public class IngestProcessor implements MetricsAgent {
     private volatile long walBlockPerSecondMs;
     private volatile long lastUpdateStoreBlockTimeNano;
     private volatile long storeBlockPerSecondMs;
+    private LatencyHistogram walAppendHistogram;
+    private LabeledCounter queueOperationsCounter;
 
     public IngestProcessor(
             Configs configs,
@@ -86,6 +97,10 @@ public class IngestProcessor implements MetricsAgent {
         this.ingestSnapshotId = ingestSnapshotId;
 
         this.bufferSize = IngestorConfig.INGESTOR_QUEUE_BUFFER_MAX_COUNT.get(configs);
+        this.groupCommitWindow = IngestorConfig.INGESTOR_WAL_GROUP_COMMIT_WINDOW.get(configs);
+        this.walAppendHistogram = metricsCollector.histogram("wal.append.latency");
+        this.queueOperationsCounter =
+                metricsCollector.labeledCounter("ingest.queue.operations", "queue");
         initMetrics();
         metricsCollector.register(this, () -> updateMetrics());
     }
@@ -93,6 +108,7 @@ public class IngestProcessor implements MetricsAgent {
     public void start() {
         logger.info("staring ingestProcessor queue#[" + queueId + "]");
         this.ingestBuffer = new ArrayBlockingQueue<>(this.bufferSize);
+        this.pendingAppends = new ArrayDeque<>(Math.max(this.groupCommitWindow, 1));
 
         this.shouldStop = false;
         this.batchSender.start();
@@ -119,11 +135,16 @@ public class IngestProcessor implements MetricsAgent {
                             }
                             while (!shouldStop) {
                                 try {
-                                    process(logWriter);
+                                    if (this.groupCommitWindow > 1) {
+                                        processGroupCommit(logWriter);
+                                    } else {
+                                        process(logWriter);
+                                    }
                                 } catch (Exception e) {
                                     logger.warn("error occurred in ingest process", e);
                                 }
                             }
+                            failPendingAppends();
                             try {
                                 logWriter.close();
                             } catch (IOException e) {
@@ -196,7 +217,88 @@ public class IngestProcessor implements MetricsAgent {
         logger.debug("batch ingested. requestId [" + task.requestId + "]");
     }
 
-    private long processTask(LogWriter logWriter, IngestTask task) throws IOException {
+    /**
+     * Group commit mode. Keeps up to {@link #groupCommitWindow} WAL appends in flight, and completes
+     * the tasks strictly in the order they were polled from the ingestBuffer.
+     */
+    private void processGroupCommit(LogWriter logWriter) {
+        while (this.pendingAppends.size() < this.groupCommitWindow) {
+            PendingAppend head = this.pendingAppends.peekFirst();
+            IngestTask task;
+            try {
+                if (head == null) {
+                    task = this.ingestBuffer.poll(1000L, TimeUnit.MILLISECONDS);
+                } else if (head.isDone()) {
+                    task = this.ingestBuffer.poll();
+                } else {
+                    // Head append still in flight, let newly arrived tasks join the group
+                    task = this.ingestBuffer.poll(1L, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                logger.warn("polling ingestBuffer interrupted", e);
+                return;
+            }
+            if (task == null) {
+                if (head == null || head.isDone() || shouldStop) {
+                    break;
+                }
+                continue;
+            }
+            try {
+                long batchSnapshotId = getBatchSnapshotId(task);
+                long startTimeNano = System.nanoTime();
+                Future<Long> future =
+                        logWriter.appendAsync(new LogEntry(batchSnapshotId, task.operationBatch));
+                this.pendingAppends.addLast(
+                        new PendingAppend(task, batchSnapshotId, future, startTimeNano));
+            } catch (Exception e) {
+                if (this.pendingAppends.isEmpty()) {
+                    task.callback.onFailure(e);
+                    logger.debug("batch ingest failed. requestId [" + task.requestId + "]");
+                } else {
+                    // Keep callbacks in order, fail this task after the preceding ones complete
+                    this.pendingAppends.addLast(new PendingAppend(task, e));
+                }
+            }
+        }
+        PendingAppend pending = this.pendingAppends.pollFirst();
+        if (pending == null) {
+            return;
+        }
+        IngestTask task = pending.task;
+        try {
+            long walOffset = pending.awaitOffset();
+            long walCompleteTimeNano = System.nanoTime();
+            if (shouldStop) {
+                throw new IllegalStateException(
+                        "ingestProcessor queue#[" + this.queueId + "] stopped");
+            }
+            sendToStore(
+                    task,
+                    pending.snapshotId,
+                    walOffset,
+                    pending.startTimeNano,
+                    walCompleteTimeNano);
+            task.callback.onSuccess(pending.snapshotId);
+        } catch (Exception e) {
+            task.callback.onFailure(e);
+        }
+        logger.debug("batch ingested. requestId [" + task.requestId + "]");
+    }
+
+    private void failPendingAppends() {
+        if (this.pendingAppends == null) {
+            return;
+        }
+        PendingAppend pending;
+        while ((pending = this.pendingAppends.pollFirst()) != null) {
+            pending.task.callback.onFailure(
+                    new IllegalStateException(
+                            "ingestProcessor queue#[" + this.queueId + "] stopped"));
+        }
+    }
+
+    private long getBatchSnapshotId(IngestTask task) {
         long batchSnapshotId = this.ingestSnapshotId.get();
         if (batchSnapshotId == -1L) {
             throw new IllegalStateException("invalid ingestSnapshotId [" + batchSnapshotId + "]");
@@ -216,6 +318,11 @@ public class IngestProcessor implements MetricsAgent {
                             + batchSnapshotId
                             + "]");
         }
+        return batchSnapshotId;
+    }
+
+    private long processTask(LogWriter logWriter, IngestTask task) throws IOException {
+        long batchSnapshotId = getBatchSnapshotId(task);
         long startTimeNano = System.nanoTime();
         long walOffset = -1L;
         while (!shouldStop) {
@@ -232,6 +339,16 @@ public class IngestProcessor implements MetricsAgent {
         if (shouldStop) {
             throw new IllegalStateException("ingestProcessor queue#[" + this.queueId + "] stopped");
         }
+        sendToStore(task, batchSnapshotId, walOffset, startTimeNano, walCompleteTimeNano);
+        return batchSnapshotId;
+    }
+
+    private void sendToStore(
+            IngestTask task,
+            long batchSnapshotId,
+            long walOffset,
+            long startTimeNano,
+            long walCompleteTimeNano) {
         this.batchSender.asyncSendWithRetry(
                 task.requestId, this.queueId, batchSnapshotId, walOffset, task.operationBatch);
         long storeCompleteTimeNano = System.nanoTime();
@@ -239,8 +356,10 @@ public class IngestProcessor implements MetricsAgent {
             this.walBlockTimeNano += (walCompleteTimeNano - startTimeNano);
             this.storeBlockTimeNano += (storeCompleteTimeNano - walCompleteTimeNano);
             this.totalProcessed += task.operationBatch.getOperationCount();
+            this.walAppendHistogram.record(walCompleteTimeNano - startTimeNano);
+            this.queueOperationsCounter.add(
+                    this.queueId, task.operationBatch.getOperationCount());
         }
-        return batchSnapshotId;
     }
 
     @Override
@@ -315,6 +434,44 @@ public class IngestProcessor implements MetricsAgent {
         }
     }
 
+    class PendingAppend {
+        IngestTask task;
+        long snapshotId;
+        Future<Long> future;
+        long startTimeNano;
+        Exception error;
+
+        public PendingAppend(
+                IngestTask task, long snapshotId, Future<Long> future, long startTimeNano) {
+            this.task = task;
+            this.snapshotId = snapshotId;
+            this.future = future;
+            this.startTimeNano = startTimeNano;
+        }
+
+        public PendingAppend(IngestTask task, Exception error) {
+            this.task = task;
+            this.error = error;
+        }
+
+        boolean isDone() {
+            return this.error != null || this.future.isDone();
+        }
+
+        long awaitOffset() throws Exception {
+            if (this.error != null) {
+                throw this.error;
+            }
+            try {
+                return this.future.get();
+            } catch (ExecutionException e) {
+                logger.error("write WAL failed. requestId [" + task.requestId + "]", e);
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+    }
+
     public void setTailOffset(long offset) {
         logger.info(
                 "IngestProcessor of queue #["
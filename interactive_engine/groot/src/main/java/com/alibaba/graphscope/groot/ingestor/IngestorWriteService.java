@@ -20,7 +20,14 @@ import com.alibaba.maxgraph.proto.groot.WriteIngestorResponse;
 
 import io.grpc.stub.StreamObserver;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 public class IngestorWriteService extends IngestorWriteGrpc.IngestorWriteImplBase {
+    private static final Logger logger = LoggerFactory.getLogger(IngestorWriteService.class);
 
     private IngestService ingestService;
 
@@ -59,4 +66,101 @@ public class IngestorWriteService extends IngestorWriteGrpc.IngestorWriteImplBas
             responseObserver.onError(e);
         }
     }
+
+    /**
+     * Requests are put into the ingest buffer as they arrive, so they are ingested in stream order.
+     * Responses are held back until the earlier requests of the stream are answered.
+     */
+    @Override
+    public StreamObserver<WriteIngestorRequest> writeIngestorStream(
+            StreamObserver<WriteIngestorResponse> responseObserver) {
+        return new StreamObserver<WriteIngestorRequest>() {
+            private final Deque<PendingIngest> pending = new ArrayDeque<>();
+            private boolean halfClosed = false;
+            private boolean finished = false;
+
+            @Override
+            public void onNext(WriteIngestorRequest request) {
+                PendingIngest pendingIngest = new PendingIngest();
+                synchronized (this) {
+                    if (finished) {
+                        return;
+                    }
+                    pending.add(pendingIngest);
+                }
+                try {
+                    OperationBatch operationBatch =
+                            OperationBatch.parseProto(request.getOperationBatch());
+                    ingestService.ingestBatch(
+                            request.getRequestId(),
+                            request.getQueueId(),
+                            operationBatch,
+                            new IngestCallback() {
+                                @Override
+                                public void onSuccess(long snapshotId) {
+                                    pendingIngest.snapshotId = snapshotId;
+                                    complete(pendingIngest);
+                                }
+
+                                @Override
+                                public void onFailure(Exception e) {
+                                    pendingIngest.error = e;
+                                    complete(pendingIngest);
+                                }
+                            });
+                } catch (Exception e) {
+                    pendingIngest.error = e;
+                    complete(pendingIngest);
+                }
+            }
+
+            private synchronized void complete(PendingIngest pendingIngest) {
+                pendingIngest.done = true;
+                while (!finished) {
+                    PendingIngest head = pending.peek();
+                    if (head == null || !head.done) {
+                        break;
+                    }
+                    pending.poll();
+                    if (head.error != null) {
+                        finished = true;
+                        pending.clear();
+                        responseObserver.onError(head.error);
+                        return;
+                    }
+                    responseObserver.onNext(
+                            WriteIngestorResponse.newBuilder()
+                                    .setSnapshotId(head.snapshotId)
+                                    .build());
+                }
+                completeIfDrained();
+            }
+
+            private void completeIfDrained() {
+                if (!finished && halfClosed && pending.isEmpty()) {
+                    finished = true;
+                    responseObserver.onCompleted();
+                }
+            }
+
+            @Override
+            public synchronized void onError(Throwable t) {
+                logger.warn("writeIngestorStream aborted by client", t);
+                finished = true;
+                pending.clear();
+            }
+
+            @Override
+            public synchronized void onCompleted() {
+                halfClosed = true;
+                completeIfDrained();
+            }
+        };
+    }
+
+    private static class PendingIngest {
+        private long snapshotId;
+        private Exception error;
+        private boolean done = false;
+    }
 }
@@ -14,46 +14,84 @@
 package com.alibaba.graphscope.groot.ingestor;
 
 import com.alibaba.graphscope.groot.CompletionCallback;
+import com.alibaba.graphscope.groot.operation.CompressionType;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import com.alibaba.graphscope.groot.rpc.RpcClient;
+import com.alibaba.maxgraph.proto.groot.CompressionTypePb;
 import com.alibaba.maxgraph.proto.groot.StoreWriteGrpc;
+import com.alibaba.maxgraph.proto.groot.WriteStoreErrorPb;
 import com.alibaba.maxgraph.proto.groot.WriteStoreRequest;
 import com.alibaba.maxgraph.proto.groot.WriteStoreRequest.Builder;
 import com.alibaba.maxgraph.proto.groot.WriteStoreResponse;
+import com.google.protobuf.UnsafeByteOperations;
 
 import io.grpc.ManagedChannel;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /** ingestor -> store */
 public class StoreWriteClient extends RpcClient {
     private static final Logger logger = LoggerFactory.getLogger(StoreWriteClient.class);
 
     private StoreWriteGrpc.StoreWriteStub stub;
+    // Falls back to NONE once the store turns out not to support compressed writes
+    private volatile CompressionType compression;
 
     public StoreWriteClient(ManagedChannel channel) {
+        this(channel, CompressionType.NONE);
+    }
+
+    public StoreWriteClient(ManagedChannel channel, CompressionType compression) {
         super(channel);
         this.stub = StoreWriteGrpc.newStub(channel);
+        this.compression = compression;
     }
 
     public StoreWriteClient(StoreWriteGrpc.StoreWriteStub stub) {
+        this(stub, CompressionType.NONE);
+    }
+
+    public StoreWriteClient(StoreWriteGrpc.StoreWriteStub stub, CompressionType compression) {
         super((ManagedChannel) stub.getChannel());
         this.stub = stub;
+        this.compression = compression;
     }
 
     public void writeStore(
             List<StoreDataBatch> storeDataBatches, CompletionCallback<Integer> callback) {
+        writeStore(storeDataBatches, Collections.emptyMap(), callback);
+    }
+
+    public void writeStore(
+            List<StoreDataBatch> storeDataBatches,
+            Map<Integer, Long> queuePrevOffsets,
+            CompletionCallback<Integer> callback) {
         Builder builder = WriteStoreRequest.newBuilder();
         for (StoreDataBatch storeDataBatch : storeDataBatches) {
             builder.addDataBatches(storeDataBatch.toProto());
         }
-        WriteStoreRequest req = builder.build();
-        stub.writeStore(
-                req,
+        CompressionType compression = this.compression;
+        if (compression != CompressionType.NONE) {
+            byte[] raw = builder.build().toByteArray();
+            byte[] compressed = compression.compress(raw);
+            if (compressed.length < raw.length) {
+                builder =
+                        WriteStoreRequest.newBuilder()
+                                .setCompression(compression.toProto())
+                                .setCompressedBatches(UnsafeByteOperations.unsafeWrap(compressed))
+                                .setRawSize(raw.length);
+            }
+        }
+        WriteStoreRequest req = builder.putAllQueuePrevOffsets(queuePrevOffsets).build();
+        boolean sendCompressed = req.getCompression() != CompressionTypePb.COMPRESSION_NONE;
+        StreamObserver<WriteStoreResponse> responseObserver =
                 new StreamObserver<WriteStoreResponse>() {
                     @Override
                     public void onNext(WriteStoreResponse writeStoreResponse) {
@@ -61,17 +99,44 @@ public class StoreWriteClient extends RpcClient {
                         if (success) {
                             callback.onCompleted(req.getSerializedSize());
                         } else {
-                            onError(new RuntimeException("store buffer is full"));
+                            String reason = rejectReason(writeStoreResponse.getError());
+                            logger.warn("write store rejected: {}", reason);
+                            onError(new RuntimeException("write store rejected: " + reason));
                         }
                     }
 
                     @Override
                     public void onError(Throwable throwable) {
+                        if (sendCompressed
+                                && Status.fromThrowable(throwable).getCode()
+                                        == Status.Code.UNIMPLEMENTED) {
+                            logger.warn(
+                                    "store does not support compressed writes, send uncompressed");
+                            StoreWriteClient.this.compression = CompressionType.NONE;
+                            writeStore(storeDataBatches, queuePrevOffsets, callback);
+                            return;
+                        }
                         callback.onError(throwable);
                     }
 
                     @Override
                     public void onCompleted() {}
-                });
+                };
+        if (sendCompressed) {
+            stub.writeStoreCompressed(req, responseObserver);
+        } else {
+            stub.writeStore(req, responseObserver);
+        }
+    }
+
+    private static String rejectReason(WriteStoreErrorPb error) {
+        switch (error) {
+            case WRITE_STORE_BUFFER_FULL:
+                return "store buffer is full";
+            case WRITE_STORE_OUT_OF_ORDER:
+                return "previous batch of the queue is not buffered yet";
+            default:
+                return "unknown error [" + error + "]";
+        }
     }
 }
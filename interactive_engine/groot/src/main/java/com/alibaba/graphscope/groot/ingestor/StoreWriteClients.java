@@ -22,6 +22,7 @@ import com.alibaba.maxgraph.common.RoleType;
 import io.grpc.ManagedChannel;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 public class StoreWriteClients extends RoleClients<StoreWriteClient> implements StoreWriter {
@@ -40,4 +41,13 @@ public class StoreWriteClients extends RoleClients<StoreWriteClient> implements
             CompletionCallback<Integer> callback) {
         this.getClient(storeId).writeStore(storeDataBatches, callback);
     }
+
+    @Override
+    public void write(
+            int storeId,
+            List<StoreDataBatch> storeDataBatches,
+            Map<Integer, Long> queuePrevOffsets,
+            CompletionCallback<Integer> callback) {
+        this.getClient(storeId).writeStore(storeDataBatches, queuePrevOffsets, callback);
+    }
 }
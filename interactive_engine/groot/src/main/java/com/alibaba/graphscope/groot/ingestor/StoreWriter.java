@@ -17,8 +17,21 @@ import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 
 import java.util.List;
+import java.util.Map;
 
 public interface StoreWriter {
     void write(
             int storeId, List<StoreDataBatch> storeDataBatch, CompletionCallback<Integer> callback);
+
+    /**
+     * Write with ordering info. For each queue in queuePrevOffsets, the store rejects the request
+     * until it has buffered the batch at that offset, so pipelined writes cannot be reordered.
+     */
+    default void write(
+            int storeId,
+            List<StoreDataBatch> storeDataBatch,
+            Map<Integer, Long> queuePrevOffsets,
+            CompletionCallback<Integer> callback) {
+        write(storeId, storeDataBatch, callback);
+    }
 }
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Monotonic counter split by an integer label, e.g. partition id or queue id. */
+public class LabeledCounter {
+
+    private String labelName;
+    private Map<Integer, LongAdder> labelToCount = new ConcurrentHashMap<>();
+
+    public LabeledCounter(String labelName) {
+        this.labelName = labelName;
+    }
+
+    public void add(int label, long delta) {
+        this.labelToCount.computeIfAbsent(label, k -> new LongAdder()).add(delta);
+    }
+
+    public String getLabelName() {
+        return labelName;
+    }
+
+    public Map<Integer, Long> snapshot() {
+        Map<Integer, Long> res = new TreeMap<>();
+        this.labelToCount.forEach((label, count) -> res.put(label, count.sum()));
+        return res;
+    }
+}
@@ -17,8 +17,10 @@ package com.alibaba.graphscope.groot.metrics;
 
 import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.sdkcommon.util.LatencyHistogram;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -28,6 +30,8 @@ public class MetricsCollector {
 
     private Set<String> registeredMetricKeys = new HashSet<>();
     private List<MetricsAgent> metricsAgents = new CopyOnWriteArrayList<>();
+    private Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private Map<String, LabeledCounter> labeledCounters = new ConcurrentHashMap<>();
     private ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
 
     private long updateIntervalMs;
@@ -50,11 +54,53 @@ public class MetricsCollector {
         }
     }
 
+    /** Get or create the histogram of the given name, it is shared by all callers of the role. */
+    public LatencyHistogram histogram(String name) {
+        return this.histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    /** Get or create the counter of the given name, it is shared by all callers of the role. */
+    public LabeledCounter labeledCounter(String name, String labelName) {
+        LabeledCounter counter =
+                this.labeledCounters.computeIfAbsent(name, k -> new LabeledCounter(labelName));
+        if (!counter.getLabelName().equals(labelName)) {
+            throw new IllegalArgumentException(
+                    "counter [" + name + "] already labeled by [" + counter.getLabelName() + "]");
+        }
+        return counter;
+    }
+
+    public Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(this.histograms);
+    }
+
+    public Map<String, LabeledCounter> getLabeledCounters() {
+        return new TreeMap<>(this.labeledCounters);
+    }
+
     public Map<String, String> collectMetrics() {
         Map<String, String> metrics = new HashMap<>();
+        collectAgentMetrics(metrics);
+        this.histograms.forEach(
+                (name, histogram) -> {
+                    metrics.put(name + ".count", String.valueOf(histogram.getCount()));
+                    metrics.put(name + ".p50.us", String.valueOf(toMicros(histogram, 50.0)));
+                    metrics.put(name + ".p99.us", String.valueOf(toMicros(histogram, 99.0)));
+                    metrics.put(name + ".p999.us", String.valueOf(toMicros(histogram, 99.9)));
+                    metrics.put(name + ".max.us", String.valueOf(histogram.getMaxNano() / 1000));
+                });
+        this.labeledCounters.forEach(
+                (name, counter) -> metrics.put(name, String.valueOf(counter.snapshot())));
+        return metrics;
+    }
+
+    public void collectAgentMetrics(Map<String, String> metrics) {
         for (MetricsAgent metricsAgent : this.metricsAgents) {
             metrics.putAll(metricsAgent.getMetrics());
         }
-        return metrics;
+    }
+
+    private static long toMicros(LatencyHistogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000;
     }
 }
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.metrics;
+
+import com.alibaba.maxgraph.common.config.CommonConfig;
+import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.sdkcommon.util.LatencyHistogram;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the metrics of the local role in the Prometheus text exposition format on {@code
+ * /metrics}. Disabled unless {@link CommonConfig#METRIC_HTTP_PORT} is set.
+ */
+public class MetricsHttpServer {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    private static final String PREFIX = "groot_";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private MetricsCollector metricsCollector;
+    private int port;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MetricsHttpServer(Configs configs, MetricsCollector metricsCollector) {
+        this.metricsCollector = metricsCollector;
+        this.port = CommonConfig.METRIC_HTTP_PORT.get(configs);
+    }
+
+    public void start() throws IOException {
+        if (this.port < 0) {
+            return;
+        }
+        this.server = HttpServer.create(new InetSocketAddress(this.port), 0);
+        this.server.createContext("/metrics", this::handle);
+        this.executor = Executors.newSingleThreadExecutor();
+        this.server.setExecutor(this.executor);
+        this.server.start();
+        logger.info("metrics http server started on port [" + getPort() + "]");
+    }
+
+    public void stop() {
+        if (this.server != null) {
+            this.server.stop(0);
+            this.server = null;
+        }
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+
+    public int getPort() {
+        return this.server == null ? -1 : this.server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try {
+            body = toPrometheusText(this.metricsCollector).getBytes(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            logger.error("render metrics failed", e);
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    public static String toPrometheusText(MetricsCollector metricsCollector) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, LatencyHistogram> e :
+                metricsCollector.getHistograms().entrySet()) {
+            String name = PREFIX + sanitize(e.getKey()) + "_seconds";
+            LatencyHistogram histogram = e.getValue();
+            sb.append("# TYPE ").append(name).append(" summary\n");
+            for (double quantile : QUANTILES) {
+                sb.append(name)
+                        .append("{quantile=\"")
+                        .append(quantile)
+                        .append("\"} ")
+                        .append(toSeconds(histogram.getValueAtPercentile(quantile * 100.0)))
+                        .append('\n');
+            }
+            sb.append(name).append("_sum ").append(toSeconds(histogram.getTotalNano()));
+            sb.append('\n');
+            sb.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+        for (Map.Entry<String, LabeledCounter> e :
+                metricsCollector.getLabeledCounters().entrySet()) {
+            String name = PREFIX + sanitize(e.getKey()) + "_total";
+            LabeledCounter counter = e.getValue();
+            sb.append("# TYPE ").append(name).append(" counter\n");
+            counter.snapshot()
+                    .forEach(
+                            (label, count) ->
+                                    sb.append(name)
+                                            .append('{')
+                                            .append(sanitize(counter.getLabelName()))
+                                            .append("=\"")
+                                            .append(label)
+                                            .append("\"} ")
+                                            .append(count)
+                                            .append('\n'));
+        }
+        // Values reported by MetricsAgent, only the numeric ones can be exposed as gauges
+        Map<String, String> agentMetrics = new TreeMap<>();
+        metricsCollector.collectAgentMetrics(agentMetrics);
+        for (Map.Entry<String, String> e : agentMetrics.entrySet()) {
+            double value;
+            try {
+                value = Double.parseDouble(e.getValue());
+            } catch (NumberFormatException | NullPointerException ex) {
+                continue;
+            }
+            String name = PREFIX + sanitize(e.getKey());
+            sb.append("# TYPE ").append(name).append(" gauge\n");
+            sb.append(name).append(' ').append(value).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static double toSeconds(long nano) {
+        return nano / 1_000_000_000.0;
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.operation;
+
+import com.alibaba.maxgraph.proto.groot.CompressionTypePb;
+import com.github.luben.zstd.Zstd;
+
+import net.jpountz.lz4.LZ4Factory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Block compression of serialized operations, used for WAL entries and store write requests.
+ * {@link #compress(byte[])} produces a bare block, callers keep the codec and raw length next to
+ * it, as store write requests do. {@link #encodeBlock(byte[])} produces a self-describing block
+ * that records both in a header, as WAL entries do.
+ */
+public enum CompressionType {
+    NONE(0) {
+        @Override
+        public byte[] compress(byte[] raw) {
+            return raw;
+        }
+
+        @Override
+        public byte[] decompress(byte[] block, int offset, int length, int rawLength) {
+            return Arrays.copyOfRange(block, offset, offset + length);
+        }
+    },
+
+    LZ4(1) {
+        @Override
+        public byte[] compress(byte[] raw) {
+            return LZ4_FACTORY.fastCompressor().compress(raw);
+        }
+
+        @Override
+        public byte[] decompress(byte[] block, int offset, int length, int rawLength) {
+            byte[] raw = new byte[rawLength];
+            LZ4_FACTORY.fastDecompressor().decompress(block, offset, raw, 0, rawLength);
+            return raw;
+        }
+    },
+
+    ZSTD(2) {
+        @Override
+        public byte[] compress(byte[] raw) {
+            return Zstd.compress(raw, ZSTD_LEVEL);
+        }
+
+        @Override
+        public byte[] decompress(byte[] block, int offset, int length, int rawLength) {
+            byte[] raw = new byte[rawLength];
+            long size = Zstd.decompressByteArray(raw, 0, rawLength, block, offset, length);
+            if (Zstd.isError(size) || size != rawLength) {
+                throw new IllegalStateException(
+                        "zstd decompress failed: " + Zstd.getErrorName(size));
+            }
+            return raw;
+        }
+    };
+
+    private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+    private static final int ZSTD_LEVEL = 3;
+
+    // Protobuf messages never start with a zero byte, so it marks a block with a header
+    private static final byte BLOCK_MAGIC = 0;
+    private static final int BLOCK_HEADER_SIZE = 6;
+
+    private final byte b;
+
+    CompressionType(int b) {
+        this.b = (byte) b;
+    }
+
+    public abstract byte[] compress(byte[] raw);
+
+    public abstract byte[] decompress(byte[] block, int offset, int length, int rawLength);
+
+    public byte[] decompress(byte[] block, int rawLength) {
+        return decompress(block, 0, block.length, rawLength);
+    }
+
+    /**
+     * Compress a serialized protobuf message into a self-describing block: [0][codec][raw length]
+     * followed by the compressed bytes. With NONE, or when compression does not pay off, the
+     * message is returned as it is, which {@link #decodeBlock(byte[])} also accepts.
+     */
+    public byte[] encodeBlock(byte[] raw) {
+        if (this == NONE) {
+            return raw;
+        }
+        byte[] compressed = compress(raw);
+        if (compressed.length + BLOCK_HEADER_SIZE >= raw.length) {
+            return raw;
+        }
+        return ByteBuffer.allocate(BLOCK_HEADER_SIZE + compressed.length)
+                .put(BLOCK_MAGIC)
+                .put(b)
+                .putInt(raw.length)
+                .put(compressed)
+                .array();
+    }
+
+    public static byte[] decodeBlock(byte[] data) {
+        if (data.length == 0 || data[0] != BLOCK_MAGIC) {
+            return data;
+        }
+        if (data.length < BLOCK_HEADER_SIZE) {
+            throw new IllegalArgumentException("invalid compressed block, size " + data.length);
+        }
+        ByteBuffer header = ByteBuffer.wrap(data, 1, BLOCK_HEADER_SIZE - 1);
+        CompressionType type = fromId(header.get());
+        int rawLength = header.getInt();
+        return type.decompress(
+                data, BLOCK_HEADER_SIZE, data.length - BLOCK_HEADER_SIZE, rawLength);
+    }
+
+    public byte getId() {
+        return b;
+    }
+
+    public static CompressionType fromId(byte id) {
+        if (id < 0 || id >= TYPES.length) {
+            throw new IllegalArgumentException("Unknown CompressionType: [" + id + "]");
+        }
+        return TYPES[id];
+    }
+
+    public static CompressionType fromName(String name) {
+        return valueOf(name.toUpperCase());
+    }
+
+    public static CompressionType parseProto(CompressionTypePb pb) {
+        return fromId((byte) pb.getNumber());
+    }
+
+    public CompressionTypePb toProto() {
+        return CompressionTypePb.forNumber(b);
+    }
+
+    private static final CompressionType[] TYPES = CompressionType.values();
+}
@@ -15,6 +15,8 @@ package com.alibaba.graphscope.groot.operation;
 
 import com.alibaba.maxgraph.proto.groot.OperationBatchPb;
 import com.alibaba.maxgraph.proto.groot.OperationPb;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -24,10 +26,20 @@ public class OperationBatch implements Iterable<OperationBlob> {
 
     private long latestSnapshotId;
     private List<OperationBlob> operationBlobs;
+    // The wire form of this batch, kept so that it is not rebuilt on every hop of the write path
+    private volatile OperationBatchPb proto;
+    // The serialized form of proto, as received or as encoded once
+    private volatile ByteString bytes;
 
     private OperationBatch(long latestSnapshotId, List<OperationBlob> operationBlobs) {
+        this(latestSnapshotId, operationBlobs, null);
+    }
+
+    private OperationBatch(
+            long latestSnapshotId, List<OperationBlob> operationBlobs, OperationBatchPb proto) {
         this.latestSnapshotId = latestSnapshotId;
         this.operationBlobs = operationBlobs;
+        this.proto = proto;
     }
 
     public static OperationBatch parseProto(OperationBatchPb proto) {
@@ -37,7 +49,15 @@ public class OperationBatch implements Iterable<OperationBlob> {
         for (OperationPb operationPb : operationPbs) {
             operationBlobs.add(OperationBlob.parseProto(operationPb));
         }
-        return new OperationBatch(latestSnapshotId, operationBlobs);
+        return new OperationBatch(latestSnapshotId, operationBlobs, proto);
+    }
+
+    /** Parse a serialized OperationBatchPb, keeping the bytes to be passed on as they are */
+    public static OperationBatch parseBytes(ByteString bytes)
+            throws InvalidProtocolBufferException {
+        OperationBatch operationBatch = parseProto(OperationBatchPb.parseFrom(bytes));
+        operationBatch.bytes = bytes;
+        return operationBatch;
     }
 
     public int getOperationCount() {
@@ -58,12 +78,26 @@ public class OperationBatch implements Iterable<OperationBlob> {
     }
 
     public OperationBatchPb toProto() {
-        OperationBatchPb.Builder builder = OperationBatchPb.newBuilder();
-        builder.setLatestSnapshotId(latestSnapshotId);
-        for (OperationBlob operationBlob : operationBlobs) {
-            builder.addOperations(operationBlob.toProto());
+        OperationBatchPb proto = this.proto;
+        if (proto == null) {
+            OperationBatchPb.Builder builder = OperationBatchPb.newBuilder();
+            builder.setLatestSnapshotId(latestSnapshotId);
+            for (OperationBlob operationBlob : operationBlobs) {
+                builder.addOperations(operationBlob.toProto());
+            }
+            proto = builder.build();
+            this.proto = proto;
+        }
+        return proto;
+    }
+
+    public ByteString toByteString() {
+        ByteString bytes = this.bytes;
+        if (bytes == null) {
+            bytes = toProto().toByteString();
+            this.bytes = bytes;
         }
-        return builder.build();
+        return bytes;
     }
 
     public static Builder newBuilder() {
@@ -15,6 +15,8 @@ package com.alibaba.graphscope.groot.operation;
 
 import com.alibaba.maxgraph.proto.groot.PartitionToBatchPb;
 import com.alibaba.maxgraph.proto.groot.StoreDataBatchPb;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -56,7 +58,8 @@ public class StoreDataBatch {
         this.size = size;
     }
 
-    public static StoreDataBatch parseProto(StoreDataBatchPb proto) {
+    public static StoreDataBatch parseProto(StoreDataBatchPb proto)
+            throws InvalidProtocolBufferException {
         String requestId = proto.getRequestId();
         int queueId = proto.getQueueId();
         long snapshotId = proto.getSnapshotId();
@@ -65,8 +68,9 @@ public class StoreDataBatch {
         List<Map<Integer, OperationBatch>> dataBatch = new ArrayList<>(batchPbList.size());
         for (PartitionToBatchPb batchPb : batchPbList) {
             Map<Integer, OperationBatch> batch = new HashMap<>();
-            batchPb.getPartitionToBatchMap()
-                    .forEach((pid, pb) -> batch.put(pid, OperationBatch.parseProto(pb)));
+            for (Map.Entry<Integer, ByteString> e : batchPb.getPartitionToBatchMap().entrySet()) {
+                batch.put(e.getKey(), OperationBatch.parseBytes(e.getValue()));
+            }
             dataBatch.add(batch);
         }
         return new StoreDataBatch(requestId, queueId, snapshotId, offset, dataBatch);
@@ -117,7 +121,7 @@ public class StoreDataBatch {
                 .setOffset(offset);
         for (Map<Integer, OperationBatch> batch : dataBatch) {
             PartitionToBatchPb.Builder batchBuilder = PartitionToBatchPb.newBuilder();
-            batch.forEach((pid, ops) -> batchBuilder.putPartitionToBatch(pid, ops.toProto()));
+            batch.forEach((pid, ops) -> batchBuilder.putPartitionToBatch(pid, ops.toByteString()));
             builder.addDataBatch(batchBuilder);
         }
         return builder.build();
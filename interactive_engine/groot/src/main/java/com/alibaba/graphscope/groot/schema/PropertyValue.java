@@ -15,6 +15,7 @@
  */
 package com.alibaba.graphscope.groot.schema;
 
+import com.alibaba.graphscope.proto.write.TypedValuePb;
 import com.alibaba.maxgraph.compiler.api.schema.DataType;
 import com.alibaba.maxgraph.proto.groot.PropertyValuePb;
 import com.google.protobuf.ByteString;
@@ -89,6 +90,19 @@ public class PropertyValue {
         }
     }
 
+    /** The value is kept in the encoding sent by the client, it is validated in GraphWriter. */
+    public static PropertyValue parseTypedProto(TypedValuePb proto) {
+        DataType dataType = DataType.fromId((byte) proto.getDataType());
+        return new PropertyValue(dataType, proto.getVal().toByteArray());
+    }
+
+    public TypedValuePb toTypedProto() {
+        return TypedValuePb.newBuilder()
+                .setDataType(dataType.toProto().getNumber())
+                .setVal(ByteString.copyFrom(valBytes))
+                .build();
+    }
+
     public PropertyValuePb toProto() {
         return PropertyValuePb.newBuilder()
                 .setDataType(dataType.toProto())
@@ -23,6 +23,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -165,6 +166,128 @@ public class SerdeUtils {
         }
     }
 
+    /**
+     * Check that valBytes is a complete encoding of dataType as written by {@link
+     * #objectToBytes(DataType, Object)}: the length of fixed length values, the element count of
+     * lists and the string offsets of string lists must match the length of valBytes, and strings
+     * must be valid UTF-8.
+     *
+     * @throws IllegalArgumentException if valBytes is not a valid encoding
+     */
+    public static void checkEncodedBytes(DataType dataType, byte[] valBytes) {
+        switch (dataType) {
+            case STRING:
+                checkUtf8(valBytes, 0, valBytes.length);
+                return;
+            case BYTES:
+                return;
+            case INT_LIST:
+                checkFixedLengthList(valBytes, Integer.BYTES);
+                return;
+            case LONG_LIST:
+                checkFixedLengthList(valBytes, Long.BYTES);
+                return;
+            case FLOAT_LIST:
+                checkFixedLengthList(valBytes, Float.BYTES);
+                return;
+            case DOUBLE_LIST:
+                checkFixedLengthList(valBytes, Double.BYTES);
+                return;
+            case STRING_LIST:
+                checkStringList(valBytes);
+                return;
+            default:
+                if (!dataType.isFixedLength()) {
+                    throw new IllegalArgumentException(
+                            "encoded value of [" + dataType + "] is not supported");
+                }
+                if (valBytes.length != dataType.getTypeLength()) {
+                    throw new IllegalArgumentException(
+                            "expect ["
+                                    + dataType.getTypeLength()
+                                    + "] bytes, but got ["
+                                    + valBytes.length
+                                    + "]");
+                }
+        }
+    }
+
+    private static int readListSize(ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES) {
+            throw new IllegalArgumentException(
+                    "list has no element count, got [" + buffer.remaining() + "] bytes");
+        }
+        int size = buffer.getInt();
+        if (size < 0) {
+            throw new IllegalArgumentException("invalid list element count [" + size + "]");
+        }
+        return size;
+    }
+
+    private static void checkFixedLengthList(byte[] valBytes, int elementBytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(valBytes);
+        int size = readListSize(buffer);
+        if ((long) size * elementBytes != buffer.remaining()) {
+            throw new IllegalArgumentException(
+                    "list of ["
+                            + size
+                            + "] elements expects ["
+                            + (Integer.BYTES + (long) size * elementBytes)
+                            + "] bytes, but got ["
+                            + valBytes.length
+                            + "]");
+        }
+    }
+
+    private static void checkStringList(byte[] valBytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(valBytes);
+        int size = readListSize(buffer);
+        if ((long) size * Integer.BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException(
+                    "string list of ["
+                            + size
+                            + "] elements has only ["
+                            + buffer.remaining()
+                            + "] bytes for offsets and data");
+        }
+        int dataStart = Integer.BYTES * (size + 1);
+        int dataLength = valBytes.length - dataStart;
+        int start = 0;
+        for (int i = 0; i < size; i++) {
+            int end = buffer.getInt();
+            if (end < start || end > dataLength) {
+                throw new IllegalArgumentException(
+                        "invalid offset ["
+                                + end
+                                + "] of string #["
+                                + i
+                                + "], previous offset ["
+                                + start
+                                + "], data length ["
+                                + dataLength
+                                + "]");
+            }
+            checkUtf8(valBytes, dataStart + start, end - start);
+            start = end;
+        }
+        if (start != dataLength) {
+            throw new IllegalArgumentException(
+                    "string list data has ["
+                            + dataLength
+                            + "] bytes, but offsets end at ["
+                            + start
+                            + "]");
+        }
+    }
+
+    private static void checkUtf8(byte[] valBytes, int offset, int length) {
+        try {
+            StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(valBytes, offset, length));
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("invalid UTF-8 string", e);
+        }
+    }
+
     public static Object bytesToObject(DataType dataType, byte[] valBytes) {
         try {
             Object valObject;
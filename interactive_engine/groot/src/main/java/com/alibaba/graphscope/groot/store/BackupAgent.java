@@ -14,11 +14,14 @@
 package com.alibaba.graphscope.groot.store;
 
 import com.alibaba.graphscope.groot.CompletionCallback;
+import com.alibaba.graphscope.groot.metrics.MetricsAgent;
+import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.maxgraph.common.config.BackupConfig;
 import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
 import com.alibaba.maxgraph.common.util.ThreadFactoryUtils;
 import com.alibaba.maxgraph.compiler.api.exception.BackupException;
+import com.alibaba.maxgraph.sdkcommon.util.LatencyHistogram;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,22 +36,53 @@ import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class BackupAgent {
+/**
+ * Backups are created and collected on backupExecutor, verified and restored on restoreExecutor.
+ * The native backup engine of a partition is not thread-safe, so every call to a partition backup
+ * engine holds the lock of that engine, and the executors only run different partitions in
+ * parallel.
+ */
+public class BackupAgent implements MetricsAgent {
     private static final Logger logger = LoggerFactory.getLogger(BackupAgent.class);
 
+    public static final String BACKUP_PARTITIONS_TOTAL = "backup.partitions.total";
+    public static final String BACKUP_PARTITIONS_DONE = "backup.partitions.done";
+    public static final String BACKUP_LAST_BYTES_COPIED = "backup.last.bytes.copied";
+    public static final String BACKUP_BYTES_COPIED_TOTAL = "backup.bytes.copied.total";
+    public static final String BACKUP_THROTTLE_MS_TOTAL = "backup.throttle.ms.total";
+
     private int storeId;
     private boolean backupEnable;
     private int backupThreadCount;
+    private int restoreThreadCount;
     private StoreService storeService;
     private Map<Integer, GraphPartitionBackup> idToPartitionBackup;
     private ExecutorService backupExecutor;
+    private ExecutorService restoreExecutor;
+    private BackupRateLimiter rateLimiter;
+
+    // For metrics
+    private LatencyHistogram partitionBackupHistogram;
+    private AtomicInteger partitionsTotal;
+    private AtomicInteger partitionsDone;
+    private AtomicLong lastBytesCopied;
+    private AtomicLong bytesCopiedTotal;
+    private AtomicLong throttleNanoTotal;
 
-    public BackupAgent(Configs configs, StoreService storeService) {
+    public BackupAgent(
+            Configs configs, StoreService storeService, MetricsCollector metricsCollector) {
         this.storeId = CommonConfig.NODE_IDX.get(configs);
         this.backupEnable = BackupConfig.BACKUP_ENABLE.get(configs);
         this.backupThreadCount = BackupConfig.STORE_BACKUP_THREAD_COUNT.get(configs);
+        this.restoreThreadCount = BackupConfig.STORE_RESTORE_THREAD_COUNT.get(configs);
+        long rateLimitMbPerSecond = BackupConfig.STORE_BACKUP_RATE_LIMIT_MB_PER_SECOND.get(configs);
+        this.rateLimiter = new BackupRateLimiter(rateLimitMbPerSecond * 1024 * 1024);
         this.storeService = storeService;
+        this.partitionBackupHistogram = metricsCollector.histogram("partition.backup.latency");
+        initMetrics();
+        metricsCollector.register(this);
     }
 
     public void start() {
@@ -65,6 +99,15 @@ public class BackupAgent {
                         new LinkedBlockingQueue<>(),
                         ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
                                 "store-backup", logger));
+        this.restoreExecutor =
+                new ThreadPoolExecutor(
+                        this.restoreThreadCount,
+                        this.restoreThreadCount,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(),
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "store-restore", logger));
         Map<Integer, GraphPartition> idToPartition = storeService.getIdToPartition();
         this.idToPartitionBackup = new HashMap<>(idToPartition.size());
         for (Map.Entry<Integer, GraphPartition> entry : idToPartition.entrySet()) {
@@ -80,7 +123,9 @@ public class BackupAgent {
                 this.backupExecutor.execute(
                         () -> {
                             try {
-                                partitionBackup.close();
+                                synchronized (partitionBackup) {
+                                    partitionBackup.close();
+                                }
                                 logger.info(
                                         "partition backup engine #["
                                                 + partitionBackup.getId()
@@ -118,6 +163,15 @@ public class BackupAgent {
             }
             this.backupExecutor = null;
         }
+        if (this.restoreExecutor != null) {
+            this.restoreExecutor.shutdown();
+            try {
+                this.restoreExecutor.awaitTermination(3000L, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Ignore
+            }
+            this.restoreExecutor = null;
+        }
     }
 
     public void createNewStoreBackup(
@@ -131,6 +185,9 @@ public class BackupAgent {
         StoreBackupId storeBackupId = new StoreBackupId(globalBackupId);
         AtomicInteger counter = new AtomicInteger(this.idToPartitionBackup.size());
         AtomicBoolean finished = new AtomicBoolean(false);
+        this.partitionsTotal.set(this.idToPartitionBackup.size());
+        this.partitionsDone.set(0);
+        this.lastBytesCopied.set(0L);
         for (Map.Entry<Integer, GraphPartitionBackup> entry : this.idToPartitionBackup.entrySet()) {
             this.backupExecutor.execute(
                     () -> {
@@ -139,7 +196,7 @@ public class BackupAgent {
                         }
                         try {
                             int partitionId = entry.getKey();
-                            int partitionBackupId = entry.getValue().createNewPartitionBackup();
+                            int partitionBackupId = createPartitionBackup(entry.getValue());
                             storeBackupId.addPartitionBackupId(partitionId, partitionBackupId);
                             if (counter.decrementAndGet() == 0) {
                                 callback.onCompleted(storeBackupId);
@@ -154,6 +211,47 @@ public class BackupAgent {
         }
     }
 
+    /**
+     * Backups share the table files, so only the files changed since the last backup are copied.
+     * The copied bytes are paid to the rate limiter before this thread backs up another partition.
+     * If the copied bytes are unknown, the backup is kept and nothing is paid.
+     */
+    private int createPartitionBackup(GraphPartitionBackup partitionBackup)
+            throws IOException, InterruptedException {
+        long startNano = System.nanoTime();
+        int partitionBackupId;
+        long bytesCopied;
+        synchronized (partitionBackup) {
+            partitionBackupId = partitionBackup.createNewPartitionBackup();
+            try {
+                bytesCopied = partitionBackup.getCopiedBytes(partitionBackupId);
+            } catch (IOException e) {
+                logger.warn(
+                        "get copied bytes of partition backup #["
+                                + partitionBackupId
+                                + "] of partition ["
+                                + partitionBackup.getId()
+                                + "] failed, backup is not throttled",
+                        e);
+                bytesCopied = 0L;
+            }
+        }
+        this.partitionBackupHistogram.recordSince(startNano);
+        this.lastBytesCopied.addAndGet(bytesCopied);
+        this.bytesCopiedTotal.addAndGet(bytesCopied);
+        this.partitionsDone.incrementAndGet();
+        logger.info(
+                "partition backup #["
+                        + partitionBackupId
+                        + "] of partition ["
+                        + partitionBackup.getId()
+                        + "] created, copied ["
+                        + bytesCopied
+                        + "] bytes");
+        this.throttleNanoTotal.addAndGet(this.rateLimiter.pay(bytesCopied, startNano));
+        return partitionBackupId;
+    }
+
     public void verifyStoreBackup(StoreBackupId storeBackupId, CompletionCallback<Void> callback) {
         try {
             checkEnable();
@@ -174,18 +272,18 @@ public class BackupAgent {
         AtomicInteger counter = new AtomicInteger(this.idToPartitionBackup.size());
         AtomicBoolean finished = new AtomicBoolean(false);
         for (Map.Entry<Integer, GraphPartitionBackup> entry : this.idToPartitionBackup.entrySet()) {
-            this.backupExecutor.execute(
+            this.restoreExecutor.execute(
                     () -> {
                         if (finished.get()) {
                             return;
                         }
                         try {
                             int partitionId = entry.getKey();
-                            entry.getValue()
-                                    .verifyPartitionBackup(
-                                            storeBackupId
-                                                    .getPartitionToBackupId()
-                                                    .get(partitionId));
+                            GraphPartitionBackup partitionBackup = entry.getValue();
+                            synchronized (partitionBackup) {
+                                partitionBackup.verifyPartitionBackup(
+                                        storeBackupId.getPartitionToBackupId().get(partitionId));
+                            }
                             if (counter.decrementAndGet() == 0) {
                                 callback.onCompleted(null);
                             }
@@ -225,8 +323,11 @@ public class BackupAgent {
                         }
                         try {
                             int partitionId = entry.getKey();
-                            entry.getValue()
-                                    .partitionBackupGc(readyPartitionBackupIds.get(partitionId));
+                            GraphPartitionBackup partitionBackup = entry.getValue();
+                            synchronized (partitionBackup) {
+                                partitionBackup.partitionBackupGc(
+                                        readyPartitionBackupIds.get(partitionId));
+                            }
                             if (counter.decrementAndGet() == 0) {
                                 callback.onCompleted(null);
                             }
@@ -265,7 +366,7 @@ public class BackupAgent {
         AtomicInteger counter = new AtomicInteger(this.idToPartitionBackup.size());
         AtomicBoolean finished = new AtomicBoolean(false);
         for (Map.Entry<Integer, GraphPartitionBackup> entry : this.idToPartitionBackup.entrySet()) {
-            this.backupExecutor.execute(
+            this.restoreExecutor.execute(
                     () -> {
                         if (finished.get()) {
                             return;
@@ -277,10 +378,12 @@ public class BackupAgent {
                             if (!Files.isDirectory(partitionRestorePath)) {
                                 Files.createDirectories(partitionRestorePath);
                             }
-                            entry.getValue()
-                                    .restoreFromPartitionBackup(
-                                            storeBackupId.getPartitionToBackupId().get(partitionId),
-                                            partitionRestorePath.toString());
+                            GraphPartitionBackup partitionBackup = entry.getValue();
+                            synchronized (partitionBackup) {
+                                partitionBackup.restoreFromPartitionBackup(
+                                        storeBackupId.getPartitionToBackupId().get(partitionId),
+                                        partitionRestorePath.toString());
+                            }
                             if (counter.decrementAndGet() == 0) {
                                 callback.onCompleted(null);
                             }
@@ -294,6 +397,41 @@ public class BackupAgent {
         }
     }
 
+    @Override
+    public void initMetrics() {
+        this.partitionsTotal = new AtomicInteger(0);
+        this.partitionsDone = new AtomicInteger(0);
+        this.lastBytesCopied = new AtomicLong(0L);
+        this.bytesCopiedTotal = new AtomicLong(0L);
+        this.throttleNanoTotal = new AtomicLong(0L);
+    }
+
+    @Override
+    public Map<String, String> getMetrics() {
+        return new HashMap<String, String>() {
+            {
+                put(BACKUP_PARTITIONS_TOTAL, String.valueOf(partitionsTotal.get()));
+                put(BACKUP_PARTITIONS_DONE, String.valueOf(partitionsDone.get()));
+                put(BACKUP_LAST_BYTES_COPIED, String.valueOf(lastBytesCopied.get()));
+                put(BACKUP_BYTES_COPIED_TOTAL, String.valueOf(bytesCopiedTotal.get()));
+                put(
+                        BACKUP_THROTTLE_MS_TOTAL,
+                        String.valueOf(TimeUnit.NANOSECONDS.toMillis(throttleNanoTotal.get())));
+            }
+        };
+    }
+
+    @Override
+    public String[] getMetricKeys() {
+        return new String[] {
+            BACKUP_PARTITIONS_TOTAL,
+            BACKUP_PARTITIONS_DONE,
+            BACKUP_LAST_BYTES_COPIED,
+            BACKUP_BYTES_COPIED_TOTAL,
+            BACKUP_THROTTLE_MS_TOTAL
+        };
+    }
+
     private void checkEnable() throws BackupException {
         if (!this.backupEnable) {
             throw new BackupException(
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.store;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * The size and CRC32C checksum of every file a partition backup consists of. The checksums come
+ * from the RocksDB backup meta file, where they are computed on the source files while copying,
+ * so building a manifest does not read the backup files. Table files are immutable and shared by
+ * backups, so verification only needs to read the files whose entries differ from the ones
+ * already verified.
+ */
+public class BackupManifest {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Map<String, FileChecksum> fileToChecksum;
+
+    public BackupManifest() {
+        this.fileToChecksum = new TreeMap<>();
+    }
+
+    /**
+     * Lines of a backup meta file listing files look like "shared/000010.sst crc32 123456", where
+     * the value is the CRC32C checksum of the file as an unsigned integer.
+     *
+     * @param root the backup directory the files are relative to
+     * @param metaPath the meta file of the backup
+     */
+    public static BackupManifest fromBackupMeta(Path root, Path metaPath) throws IOException {
+        BackupManifest manifest = new BackupManifest();
+        try {
+            for (String line : Files.readAllLines(metaPath, StandardCharsets.UTF_8)) {
+                String[] items = line.split(" ");
+                if (items.length >= 3 && items[1].equals("crc32")) {
+                    long size = Files.size(root.resolve(items[0]));
+                    manifest.put(items[0], new FileChecksum(size, Long.parseLong(items[2])));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("invalid backup meta " + metaPath, e);
+        }
+        return manifest;
+    }
+
+    /** CRC32C of the file, comparable with the checksums of a backup meta file */
+    public static long checksum(Path path) throws IOException {
+        Hasher hasher = Hashing.crc32c().newHasher();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(path)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                hasher.putBytes(buffer, 0, n);
+            }
+        }
+        return Integer.toUnsignedLong(hasher.hash().asInt());
+    }
+
+    public static BackupManifest read(Path path) throws IOException {
+        BackupManifest manifest = new BackupManifest();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] items = line.split(" ");
+                if (items.length != 3) {
+                    throw new IOException("invalid manifest line [" + line + "] in " + path);
+                }
+                manifest.put(
+                        items[0],
+                        new FileChecksum(Long.parseLong(items[1]), Long.parseLong(items[2])));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("invalid manifest " + path, e);
+        }
+        return manifest;
+    }
+
+    /** Writes to a temporary file first, so a manifest is either complete or absent. */
+    public void write(Path path) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, FileChecksum> entry : this.fileToChecksum.entrySet()) {
+            FileChecksum fileChecksum = entry.getValue();
+            sb.append(entry.getKey())
+                    .append(' ')
+                    .append(fileChecksum.getSize())
+                    .append(' ')
+                    .append(fileChecksum.getChecksum())
+                    .append('\n');
+        }
+        Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmpPath, sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Files of this manifest that are not in the verified one with the same size and checksum */
+    public List<String> diff(BackupManifest verified) {
+        List<String> files = new ArrayList<>();
+        for (Map.Entry<String, FileChecksum> entry : this.fileToChecksum.entrySet()) {
+            if (!entry.getValue().equals(verified.getFileChecksum(entry.getKey()))) {
+                files.add(entry.getKey());
+            }
+        }
+        return files;
+    }
+
+    /** Drop the entries of files that no longer exist under root */
+    public void retainExisting(Path root) {
+        this.fileToChecksum.keySet().removeIf(file -> !Files.exists(root.resolve(file)));
+    }
+
+    public void put(String file, FileChecksum fileChecksum) {
+        this.fileToChecksum.put(file, fileChecksum);
+    }
+
+    public FileChecksum getFileChecksum(String file) {
+        return this.fileToChecksum.get(file);
+    }
+
+    public int getFileCount() {
+        return this.fileToChecksum.size();
+    }
+
+    public static class FileChecksum {
+        private final long size;
+        private final long checksum;
+
+        public FileChecksum(long size, long checksum) {
+            this.size = size;
+            this.checksum = checksum;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FileChecksum that = (FileChecksum) o;
+            return size == that.size && checksum == that.checksum;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, checksum);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.store;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the average IO rate of backups. The copy of a partition backup is done natively, and the
+ * rust-rocksdb version the store is built with does not expose the rate limiter of the backup
+ * engine options, so the copy itself cannot be slowed down. The bytes are paid after the copy
+ * instead: the caller sleeps until the bytes copied by all callers fit into the rate, which
+ * delays its next partition. A single partition is still copied at full speed, so the rate only
+ * holds over several partitions.
+ */
+public class BackupRateLimiter {
+
+    private long bytesPerSecond;
+    private long nextFreeNano;
+
+    /** @param bytesPerSecond the average rate, no limit if <= 0 */
+    public BackupRateLimiter(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.nextFreeNano = Long.MIN_VALUE;
+    }
+
+    /**
+     * Pay for the bytes copied since startNano.
+     *
+     * @return the time waited in nanoseconds
+     */
+    public long pay(long bytes, long startNano) throws InterruptedException {
+        if (this.bytesPerSecond <= 0 || bytes <= 0) {
+            return 0L;
+        }
+        long costNano = (long) (bytes * (double) TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+        long waitUntil;
+        synchronized (this) {
+            this.nextFreeNano = Math.max(this.nextFreeNano, startNano) + costNano;
+            waitUntil = this.nextFreeNano;
+        }
+        long waitNano = waitUntil - System.nanoTime();
+        if (waitNano > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNano);
+            return waitNano;
+        }
+        return 0L;
+    }
+}
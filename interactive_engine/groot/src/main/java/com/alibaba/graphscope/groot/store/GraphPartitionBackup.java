@@ -28,5 +28,11 @@ public interface GraphPartitionBackup extends Closeable {
 
     void partitionBackupGc(List<Integer> readyPartitionBackupIds) throws IOException;
 
+    /**
+     * Size of the files the given backup copied. Table files are shared by all backups, so these
+     * are the files of the backup that the previous backup of this partition does not have.
+     */
+    long getCopiedBytes(int partitionBackupId) throws IOException;
+
     int getId();
 }
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks write failures of one partition and decides how long to wait before the next retry. The
+ * backoff grows exponentially with the consecutive failure count, with jitter in [backoff / 2,
+ * backoff]. A partition that keeps failing is marked unhealthy until it succeeds again. Once it has
+ * failed more than maxRetries times in a row it is isolated: it is reported as such and retried at
+ * the max backoff only, until a write succeeds again.
+ */
+public class PartitionHealth {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionHealth.class);
+
+    private int partitionId;
+    private long initBackoffMs;
+    private long maxBackoffMs;
+    private int unhealthyFailureCount;
+    private int maxRetries;
+
+    private volatile boolean isolated;
+    private AtomicInteger consecutiveFailures;
+    private AtomicLong totalFailures;
+
+    public PartitionHealth(
+            int partitionId,
+            long initBackoffMs,
+            long maxBackoffMs,
+            int unhealthyFailureCount,
+            int maxRetries) {
+        this.partitionId = partitionId;
+        this.initBackoffMs = initBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.unhealthyFailureCount = unhealthyFailureCount;
+        this.maxRetries = maxRetries;
+        this.isolated = false;
+        this.consecutiveFailures = new AtomicInteger(0);
+        this.totalFailures = new AtomicLong(0L);
+    }
+
+    public void onSuccess() {
+        int failures = this.consecutiveFailures.getAndSet(0);
+        this.isolated = false;
+        if (failures >= this.unhealthyFailureCount) {
+            logger.info(
+                    "partition ["
+                            + this.partitionId
+                            + "] recovered after ["
+                            + failures
+                            + "] failures");
+        }
+    }
+
+    /**
+     * Record a failure.
+     *
+     * @return backoff in milliseconds before the next retry
+     */
+    public long onFailure() {
+        int failures = this.consecutiveFailures.incrementAndGet();
+        this.totalFailures.incrementAndGet();
+        if (failures > this.maxRetries) {
+            if (!this.isolated) {
+                this.isolated = true;
+                logger.error(
+                        "partition ["
+                                + this.partitionId
+                                + "] is isolated, failed ["
+                                + failures
+                                + "] times in a row. it is retried every ["
+                                + this.maxBackoffMs
+                                + "] ms until a write succeeds");
+            }
+            return this.maxBackoffMs;
+        }
+        if (failures == this.unhealthyFailureCount) {
+            logger.warn(
+                    "partition ["
+                            + this.partitionId
+                            + "] is unhealthy, failed ["
+                            + failures
+                            + "] times in a row");
+        }
+        int shift = Math.min(failures - 1, 30);
+        long backoffMs = Math.min(this.maxBackoffMs, this.initBackoffMs << shift);
+        if (backoffMs <= 0) {
+            backoffMs = this.maxBackoffMs;
+        }
+        return ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1);
+    }
+
+    public boolean isHealthy() {
+        return !this.isolated && this.consecutiveFailures.get() < this.unhealthyFailureCount;
+    }
+
+    public boolean isIsolated() {
+        return this.isolated;
+    }
+
+    public int getConsecutiveFailures() {
+        return this.consecutiveFailures.get();
+    }
+
+    public long getTotalFailures() {
+        return this.totalFailures.get();
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An ordered lane of write tasks for one partition. Tasks run one at a time in submission order on
+ * a shared executor, so a slow partition only holds back its own lane. A task may finish
+ * asynchronously, e.g. after a scheduled retry, the next task starts only when it calls done.
+ */
+public class PartitionWriteLane {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionWriteLane.class);
+
+    public interface Task {
+        void run(Runnable done);
+    }
+
+    private int partitionId;
+    private Executor executor;
+    private Queue<Task> tasks;
+    private AtomicBoolean scheduled;
+    private AtomicInteger pendingCount;
+
+    public PartitionWriteLane(int partitionId, Executor executor) {
+        this.partitionId = partitionId;
+        this.executor = executor;
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean(false);
+        this.pendingCount = new AtomicInteger(0);
+    }
+
+    public void submit(Task task) {
+        this.pendingCount.incrementAndGet();
+        this.tasks.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.executor.execute(() -> runNext());
+        }
+    }
+
+    /** Run one task per round, so that lanes sharing the executor take turns */
+    private void runNext() {
+        Task task = this.tasks.poll();
+        if (task == null) {
+            finishRound();
+            return;
+        }
+        AtomicBoolean finished = new AtomicBoolean(false);
+        Runnable done =
+                () -> {
+                    if (finished.compareAndSet(false, true)) {
+                        this.pendingCount.decrementAndGet();
+                        finishRound();
+                    }
+                };
+        try {
+            task.run(done);
+        } catch (Exception e) {
+            logger.error("unexpected error in write lane of partition [" + partitionId + "]", e);
+            done.run();
+        }
+    }
+
+    private void finishRound() {
+        this.scheduled.set(false);
+        if (!this.tasks.isEmpty()) {
+            schedule();
+        }
+    }
+
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    /** Number of write tasks submitted to this lane but not finished yet */
+    public int getPendingCount() {
+        return this.pendingCount.get();
+    }
+}
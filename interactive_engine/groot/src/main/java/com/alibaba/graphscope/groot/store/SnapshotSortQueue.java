@@ -23,13 +23,21 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
-/** sort by (snapshotId, queueId) */
+/**
+ * sort by (snapshotId, queueId)
+ *
+ * <p>Each queue is a bounded ring buffer. The consumer keeps the head entry of every queue and the
+ * largest snapshotId it has seen from each queue. Since snapshotIds in one queue never decrease, an
+ * entry can be polled once every queue has been seen at its snapshotId or later. Among the ready
+ * entries the one with the smallest snapshotId is polled first, larger queueId first for equal
+ * snapshotIds. When nothing is ready the consumer parks until a producer signals it, instead of
+ * waiting on one specific queue.
+ */
 public class SnapshotSortQueue {
 
     private static final Logger logger = LoggerFactory.getLogger(SnapshotSortQueue.class);
@@ -37,12 +45,15 @@ public class SnapshotSortQueue {
     private long queueWaitMs;
     private int queueCount;
 
-    private List<BlockingQueue<StoreDataBatch>> innerQueues;
-    private List<StoreDataBatch> queueHeads;
+    private List<BatchRing> innerQueues;
 
-    private int currentPollQueueIdx;
+    // Consumer states, only accessed by the polling thread
+    private StoreDataBatch[] queueHeads;
+    private long[] queueSeenSnapshotIds;
     private long currentPollSnapshotId;
+
     private AtomicInteger size;
+    private volatile Thread waitingConsumer;
 
     public SnapshotSortQueue(Configs configs, MetaService metaService) {
         this.currentPollSnapshotId = -1L;
@@ -51,87 +62,133 @@ public class SnapshotSortQueue {
         int queueSize = StoreConfig.STORE_QUEUE_BUFFER_SIZE.get(configs);
 
         this.innerQueues = new ArrayList<>(this.queueCount);
-        this.queueHeads = new ArrayList<>(this.queueCount);
+        this.queueHeads = new StoreDataBatch[this.queueCount];
+        this.queueSeenSnapshotIds = new long[this.queueCount];
         for (int i = 0; i < this.queueCount; i++) {
-            this.innerQueues.add(new ArrayBlockingQueue<>(queueSize));
-            this.queueHeads.add(null);
+            this.innerQueues.add(new BatchRing(queueSize));
+            this.queueSeenSnapshotIds[i] = -1L;
         }
-        this.currentPollQueueIdx = this.queueCount - 1;
 
         this.queueWaitMs = StoreConfig.STORE_QUEUE_WAIT_MS.get(configs);
         this.size = new AtomicInteger(0);
     }
 
     public boolean offerQueue(int queueId, StoreDataBatch entry) throws InterruptedException {
-        BlockingQueue<StoreDataBatch> innerQueue = this.innerQueues.get(queueId);
-        if (innerQueue == null) {
+        if (queueId < 0 || queueId >= this.queueCount) {
             throw new IllegalArgumentException("invalid queueId [" + queueId + "]");
         }
-        boolean res = innerQueue.offer(entry, this.queueWaitMs, TimeUnit.MILLISECONDS);
+        BatchRing innerQueue = this.innerQueues.get(queueId);
+        this.size.incrementAndGet();
+        boolean res = innerQueue.offer(entry, this.queueWaitMs);
         if (res) {
-            this.size.incrementAndGet();
+            Thread consumer = this.waitingConsumer;
+            if (consumer != null) {
+                LockSupport.unpark(consumer);
+            }
+        } else {
+            this.size.decrementAndGet();
         }
         return res;
     }
 
+    /**
+     * Poll the next entry in (snapshotId, queueId) order.
+     *
+     * @return the next entry, or null if no entry is ready within queueWaitMs
+     */
     public StoreDataBatch poll() throws InterruptedException {
-        if (this.currentPollSnapshotId == -1L) {
-            // We need to wait for all queues each has at least 1 entry to decide initial
-            // pollSnapshotId
-            long minSnapshotId = Long.MAX_VALUE;
-            for (int i = 0; i < this.innerQueues.size(); i++) {
-                StoreDataBatch entry = this.queueHeads.get(i);
-                if (entry == null) {
-                    entry = this.innerQueues.get(i).poll(this.queueWaitMs, TimeUnit.MILLISECONDS);
-                    if (entry == null) {
-                        return null;
-                    }
-                    this.queueHeads.set(i, entry);
-                }
-                long entrySnapshotId = entry.getSnapshotId();
-                if (entrySnapshotId < minSnapshotId) {
-                    minSnapshotId = entrySnapshotId;
-                }
-            }
-            this.currentPollSnapshotId = minSnapshotId;
-            logger.info("currentPollSnapshotId initialize to [" + this.currentPollSnapshotId + "]");
+        StoreDataBatch entry = pollReady();
+        if (entry != null) {
+            return entry;
         }
-        while (true) {
-            StoreDataBatch entry = this.queueHeads.get(this.currentPollQueueIdx);
-            this.queueHeads.set(this.currentPollQueueIdx, null);
-            if (entry == null) {
-                entry =
-                        this.innerQueues
-                                .get(this.currentPollQueueIdx)
-                                .poll(this.queueWaitMs, TimeUnit.MILLISECONDS);
-                if (entry == null) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.queueWaitMs);
+        this.waitingConsumer = Thread.currentThread();
+        try {
+            while (true) {
+                // Check again after registered as waiting consumer, so no signal is lost
+                entry = pollReady();
+                if (entry != null) {
+                    return entry;
+                }
+                long remainingNano = deadline - System.nanoTime();
+                if (remainingNano <= 0) {
                     return null;
                 }
+                LockSupport.parkNanos(this, remainingNano);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
             }
+        } finally {
+            this.waitingConsumer = null;
+        }
+    }
 
-            long snapshotId = entry.getSnapshotId();
-            if (snapshotId == this.currentPollSnapshotId) {
-                this.size.decrementAndGet();
-                return entry;
+    private StoreDataBatch pollReady() {
+        // The smallest snapshotId that every queue has reached
+        long readySnapshotId = Long.MAX_VALUE;
+        for (int i = 0; i < this.queueCount; i++) {
+            StoreDataBatch head = fillHead(i);
+            if (head == null && this.queueSeenSnapshotIds[i] == -1L) {
+                // We need to wait for all queues each has at least 1 entry to decide initial
+                // pollSnapshotId
+                return null;
             }
-            if (snapshotId > this.currentPollSnapshotId) {
-                this.queueHeads.set(this.currentPollQueueIdx, entry);
-                this.currentPollQueueIdx--;
-                if (this.currentPollQueueIdx == -1) {
-                    this.currentPollQueueIdx = this.queueCount - 1;
-                    this.currentPollSnapshotId++;
-                }
-            } else {
+            readySnapshotId = Math.min(readySnapshotId, this.queueSeenSnapshotIds[i]);
+        }
+        int pollQueueIdx = -1;
+        long pollSnapshotId = Long.MAX_VALUE;
+        for (int i = this.queueCount - 1; i >= 0; i--) {
+            StoreDataBatch head = this.queueHeads[i];
+            if (head == null) {
+                continue;
+            }
+            long snapshotId = head.getSnapshotId();
+            if (snapshotId < this.currentPollSnapshotId) {
                 logger.warn(
                         "Illegal entry polled from queue ["
-                                + this.currentPollQueueIdx
+                                + i
                                 + "]. entrySnapshotId ["
                                 + snapshotId
                                 + "] < currentSnapshotId ["
                                 + this.currentPollSnapshotId
                                 + "]. Ignored entry.");
+                this.queueHeads[i] = null;
+                this.size.decrementAndGet();
+                return pollReady();
+            }
+            if (snapshotId <= readySnapshotId && snapshotId < pollSnapshotId) {
+                pollQueueIdx = i;
+                pollSnapshotId = snapshotId;
+            }
+        }
+        if (pollQueueIdx == -1) {
+            return null;
+        }
+        if (this.currentPollSnapshotId == -1L) {
+            logger.info("currentPollSnapshotId initialize to [" + pollSnapshotId + "]");
+        }
+        this.currentPollSnapshotId = pollSnapshotId;
+        StoreDataBatch entry = this.queueHeads[pollQueueIdx];
+        this.queueHeads[pollQueueIdx] = null;
+        fillHead(pollQueueIdx);
+        this.size.decrementAndGet();
+        return entry;
+    }
+
+    private StoreDataBatch fillHead(int queueIdx) {
+        StoreDataBatch head = this.queueHeads[queueIdx];
+        if (head == null) {
+            head = this.innerQueues.get(queueIdx).poll();
+            if (head != null) {
+                this.queueHeads[queueIdx] = head;
+                long snapshotId = head.getSnapshotId();
+                if (snapshotId > this.queueSeenSnapshotIds[queueIdx]) {
+                    this.queueSeenSnapshotIds[queueIdx] = snapshotId;
+                }
             }
         }
+        return head;
     }
 
     public int size() {
@@ -139,6 +196,72 @@ public class SnapshotSortQueue {
     }
 
     public List<Integer> innerQueueSizes() {
-        return this.innerQueues.stream().map(q -> q.size()).collect(Collectors.toList());
+        List<Integer> sizes = new ArrayList<>(this.queueCount);
+        for (BatchRing innerQueue : this.innerQueues) {
+            sizes.add(innerQueue.size());
+        }
+        return sizes;
+    }
+
+    /**
+     * Bounded ring buffer of one queue. Entries of a queue come from a single ingestor sender, the
+     * producer side is still serialized so that a retried write racing with the original one cannot
+     * corrupt the ring. The consumer side is lock-free.
+     */
+    static class BatchRing {
+        private StoreDataBatch[] buffer;
+        private AtomicLong head;
+        private AtomicLong tail;
+        private volatile Thread waitingProducer;
+
+        BatchRing(int capacity) {
+            this.buffer = new StoreDataBatch[capacity];
+            this.head = new AtomicLong(0L);
+            this.tail = new AtomicLong(0L);
+        }
+
+        synchronized boolean offer(StoreDataBatch entry, long waitMs) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+            while (true) {
+                long t = this.tail.get();
+                if (t - this.head.get() < this.buffer.length) {
+                    this.buffer[(int) (t % this.buffer.length)] = entry;
+                    this.tail.set(t + 1);
+                    return true;
+                }
+                long remainingNano = deadline - System.nanoTime();
+                if (remainingNano <= 0) {
+                    return false;
+                }
+                this.waitingProducer = Thread.currentThread();
+                if (this.tail.get() - this.head.get() >= this.buffer.length) {
+                    LockSupport.parkNanos(this, remainingNano);
+                }
+                this.waitingProducer = null;
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+
+        StoreDataBatch poll() {
+            long h = this.head.get();
+            if (h == this.tail.get()) {
+                return null;
+            }
+            int idx = (int) (h % this.buffer.length);
+            StoreDataBatch entry = this.buffer[idx];
+            this.buffer[idx] = null;
+            this.head.set(h + 1);
+            Thread producer = this.waitingProducer;
+            if (producer != null) {
+                LockSupport.unpark(producer);
+            }
+            return entry;
+        }
+
+        int size() {
+            return (int) (this.tail.get() - this.head.get());
+        }
     }
 }
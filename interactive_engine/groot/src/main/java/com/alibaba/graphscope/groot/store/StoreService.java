@@ -16,6 +16,7 @@ package com.alibaba.graphscope.groot.store;
 import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.metrics.AvgMetric;
+import com.alibaba.graphscope.groot.metrics.LabeledCounter;
 import com.alibaba.graphscope.groot.metrics.MetricsAgent;
 import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.operation.OperationBatch;
@@ -28,6 +29,7 @@ import com.alibaba.maxgraph.common.config.StoreConfig;
 import com.alibaba.maxgraph.common.util.ThreadFactoryUtils;
 import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
 import com.alibaba.maxgraph.proto.groot.GraphDefPb;
+import com.alibaba.maxgraph.sdkcommon.util.LatencyHistogram;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,13 +39,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -53,24 +58,44 @@ public class StoreService implements MetricsAgent {
     private static final Logger logger = LoggerFactory.getLogger(StoreService.class);
 
     private static final String PARTITION_WRITE_PER_SECOND_MS = "partition.write.per.second.ms";
+    private static final String PARTITION_WRITE_LAG = "partition.write.lag";
+    private static final String PARTITION_WRITE_FAILURES = "partition.write.failures";
+    private static final String PARTITION_UNHEALTHY = "partition.unhealthy";
+    private static final String PARTITION_ISOLATED = "partition.isolated";
 
     private Configs configs;
     private int storeId;
     private int writeThreadCount;
     private MetaService metaService;
     private Map<Integer, GraphPartition> idToPartition;
+    private Map<Integer, PartitionWriteLane> idToLane;
+    private Map<Integer, PartitionHealth> idToHealth;
     private ExecutorService writeExecutor, ingestExecutor;
+    private ScheduledExecutorService retryScheduler;
+    private long retryBackoffInitMs;
+    private long retryBackoffMaxMs;
+    private int unhealthyFailureCount;
+    private int maxRetries;
     private volatile boolean shouldStop = true;
 
     private volatile long lastUpdateTime;
     private Map<Integer, AvgMetric> partitionToMetric;
+    private LatencyHistogram storeWriteHistogram;
+    private LabeledCounter partitionOperationsCounter;
 
     public StoreService(
             Configs configs, MetaService metaService, MetricsCollector metricsCollector) {
         this.configs = configs;
         this.storeId = CommonConfig.NODE_IDX.get(configs);
         this.writeThreadCount = StoreConfig.STORE_WRITE_THREAD_COUNT.get(configs);
+        this.retryBackoffInitMs = StoreConfig.STORE_WRITE_RETRY_BACKOFF_INIT_MS.get(configs);
+        this.retryBackoffMaxMs = StoreConfig.STORE_WRITE_RETRY_BACKOFF_MAX_MS.get(configs);
+        this.unhealthyFailureCount = StoreConfig.STORE_WRITE_UNHEALTHY_FAILURE_COUNT.get(configs);
+        this.maxRetries = StoreConfig.STORE_WRITE_MAX_RETRIES.get(configs);
         this.metaService = metaService;
+        this.storeWriteHistogram = metricsCollector.histogram("store.write.latency");
+        this.partitionOperationsCounter =
+                metricsCollector.labeledCounter("store.partition.operations", "partition");
         metricsCollector.register(this, () -> updateMetrics());
     }
 
@@ -97,6 +122,24 @@ public class StoreService implements MetricsAgent {
                         new LinkedBlockingQueue<>(),
                         ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
                                 "store-write", logger));
+        this.retryScheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "store-write-retry", logger));
+        this.idToLane = new HashMap<>(partitionIds.size());
+        this.idToHealth = new HashMap<>(partitionIds.size());
+        for (int partitionId : partitionIds) {
+            this.idToLane.put(
+                    partitionId, new PartitionWriteLane(partitionId, this.writeExecutor));
+            this.idToHealth.put(
+                    partitionId,
+                    new PartitionHealth(
+                            partitionId,
+                            this.retryBackoffInitMs,
+                            this.retryBackoffMaxMs,
+                            this.unhealthyFailureCount,
+                            this.maxRetries));
+        }
         this.ingestExecutor =
                 new ThreadPoolExecutor(
                         1,
@@ -119,6 +162,10 @@ public class StoreService implements MetricsAgent {
 
     public void stop() {
         this.shouldStop = true;
+        if (this.retryScheduler != null) {
+            this.retryScheduler.shutdownNow();
+            this.retryScheduler = null;
+        }
         if (this.idToPartition != null) {
             CountDownLatch latch = new CountDownLatch(this.idToPartition.size());
             for (GraphPartition partition : this.idToPartition.values()) {
@@ -188,75 +235,182 @@ public class StoreService implements MetricsAgent {
         return recoveredSnapshotId;
     }
 
+    /**
+     * Write the batch and wait until every partition has applied it. The writes go through the
+     * same partition lanes as {@link #asyncBatchWrite(StoreDataBatch, CompletionCallback)}, so a
+     * failed partition is retried alone by the retry scheduler and no thread sleeps in between.
+     */
     public boolean batchWrite(StoreDataBatch storeDataBatch)
             throws ExecutionException, InterruptedException {
-        long snapshotId = storeDataBatch.getSnapshotId();
-        List<Map<Integer, OperationBatch>> dataBatch = storeDataBatch.getDataBatch();
-        AtomicBoolean hasDdl = new AtomicBoolean(false);
-        for (Map<Integer, OperationBatch> partitionToBatch : dataBatch) {
-            while (!shouldStop && partitionToBatch.size() != 0) {
-                partitionToBatch = writeStore(snapshotId, partitionToBatch, hasDdl);
+        long startTimeNano = System.nanoTime();
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        asyncBatchWrite(
+                storeDataBatch,
+                new CompletionCallback<Boolean>() {
+                    @Override
+                    public void onCompleted(Boolean hasDdl) {
+                        future.complete(hasDdl);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+        while (true) {
+            try {
+                boolean hasDdl = future.get(1000L, TimeUnit.MILLISECONDS);
+                this.storeWriteHistogram.recordSince(startTimeNano);
+                return hasDdl;
+            } catch (TimeoutException e) {
+                if (shouldStop) {
+                    throw new IllegalStateException("StoreService stopped");
+                }
             }
         }
-        return hasDdl.get();
     }
 
-    private Map<Integer, OperationBatch> writeStore(
-            long snapshotId, Map<Integer, OperationBatch> partitionToBatch, AtomicBoolean hasDdl)
-            throws ExecutionException, InterruptedException {
-        Map<Integer, OperationBatch> batchNeedRetry = new ConcurrentHashMap<>();
-        AtomicInteger counter = new AtomicInteger(partitionToBatch.size());
-        CompletableFuture<Object> future = new CompletableFuture<>();
-        for (Map.Entry<Integer, OperationBatch> e : partitionToBatch.entrySet()) {
-            int partitionId = e.getKey();
-            OperationBatch batch = e.getValue();
-            logger.debug("writeStore partition [" + partitionId + "]");
-            this.writeExecutor.execute(
-                    () -> {
-                        try {
-                            if (partitionId != -1) {
-                                // Ignore Marker
-                                // Only support partition operation for now
-                                long beforeWriteTime = System.nanoTime();
-                                GraphPartition partition = this.idToPartition.get(partitionId);
-                                if (partition == null) {
-                                    throw new IllegalStateException(
-                                            "partition ["
-                                                    + partitionId
-                                                    + "] is not initialized / exists");
-                                }
-                                if (partition.writeBatch(snapshotId, batch)) {
-                                    hasDdl.set(true);
-                                }
-                                long afterWriteTime = System.nanoTime();
-                                this.partitionToMetric
-                                        .get(partitionId)
-                                        .add(afterWriteTime - beforeWriteTime);
-                            }
-                        } catch (Exception ex) {
-                            logger.error(
-                                    "write to partition ["
-                                            + partitionId
-                                            + "] failed, snapshotId ["
-                                            + snapshotId
-                                            + "]. will retry",
-                                    ex);
-                            batchNeedRetry.put(partitionId, batch);
-                        }
-                        if (counter.decrementAndGet() == 0) {
-                            future.complete(null);
-                        }
-                    });
+    private boolean writePartition(int partitionId, long snapshotId, OperationBatch batch)
+            throws IOException {
+        long beforeWriteTime = System.nanoTime();
+        GraphPartition partition = this.idToPartition.get(partitionId);
+        if (partition == null) {
+            throw new IllegalStateException(
+                    "partition [" + partitionId + "] is not initialized / exists");
         }
-        future.get();
-        if (batchNeedRetry.size() > 0) {
+        boolean hasDdl = partition.writeBatch(snapshotId, batch);
+        long afterWriteTime = System.nanoTime();
+        this.partitionToMetric.get(partitionId).add(afterWriteTime - beforeWriteTime);
+        this.partitionOperationsCounter.add(partitionId, batch.getOperationCount());
+        return hasDdl;
+    }
+
+    /**
+     * Write the batch to the partition. On failure the write is rescheduled after the backoff given
+     * by the {@link PartitionHealth} of the partition, without holding any thread in the meantime.
+     * The callback only completes once the batch is applied, and fails only when the service is
+     * stopping. An isolated partition keeps being retried, so its lane, and with it the avail
+     * snapshotId and the queue offsets, never move past a batch that was not applied.
+     */
+    private void asyncWritePartition(
+            int partitionId,
+            long snapshotId,
+            OperationBatch batch,
+            AtomicBoolean hasDdl,
+            CompletionCallback<Void> callback) {
+        PartitionHealth health = this.idToHealth.get(partitionId);
+        try {
+            if (writePartition(partitionId, snapshotId, batch)) {
+                hasDdl.set(true);
+            }
+        } catch (Exception ex) {
+            if (shouldStop || health == null) {
+                callback.onError(ex);
+                return;
+            }
+            long backoffMs = health.onFailure();
+            logger.error(
+                    "write to partition ["
+                            + partitionId
+                            + "] failed, snapshotId ["
+                            + snapshotId
+                            + "]. will retry after ["
+                            + backoffMs
+                            + "] ms",
+                    ex);
             try {
-                Thread.sleep(1000L);
-            } catch (InterruptedException e) {
-                // Ignore
+                this.retryScheduler.schedule(
+                        () ->
+                                this.writeExecutor.execute(
+                                        () ->
+                                                asyncWritePartition(
+                                                        partitionId,
+                                                        snapshotId,
+                                                        batch,
+                                                        hasDdl,
+                                                        callback)),
+                        backoffMs,
+                        TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                callback.onError(ex);
+            }
+            return;
+        }
+        health.onSuccess();
+        callback.onCompleted(null);
+    }
+
+    /**
+     * Pipelined version of {@link #batchWrite(StoreDataBatch)}. Operations are appended to the
+     * ordered lane of their partition and this method returns without waiting for them. The
+     * callback is invoked once every partition of the batch has applied it, with whether the batch
+     * contains DDL. It fails without anything submitted if a partition does not exist, otherwise
+     * only when the service is stopping.
+     *
+     * @param storeDataBatch
+     * @param callback
+     */
+    public void asyncBatchWrite(
+            StoreDataBatch storeDataBatch, CompletionCallback<Boolean> callback) {
+        long snapshotId = storeDataBatch.getSnapshotId();
+        List<Map<Integer, OperationBatch>> dataBatch = storeDataBatch.getDataBatch();
+        int taskCount = 0;
+        for (Map<Integer, OperationBatch> partitionToBatch : dataBatch) {
+            for (int partitionId : partitionToBatch.keySet()) {
+                if (partitionId == -1) {
+                    // Ignore Marker
+                    continue;
+                }
+                if (!this.idToLane.containsKey(partitionId)) {
+                    callback.onError(
+                            new IllegalStateException(
+                                    "partition [" + partitionId + "] is not initialized / exists"));
+                    return;
+                }
+                taskCount++;
+            }
+        }
+        if (taskCount == 0) {
+            callback.onCompleted(false);
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger(taskCount);
+        AtomicBoolean hasDdl = new AtomicBoolean(false);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        for (Map<Integer, OperationBatch> partitionToBatch : dataBatch) {
+            for (Map.Entry<Integer, OperationBatch> e : partitionToBatch.entrySet()) {
+                int partitionId = e.getKey();
+                if (partitionId == -1) {
+                    continue;
+                }
+                OperationBatch batch = e.getValue();
+                PartitionWriteLane lane = this.idToLane.get(partitionId);
+                lane.submit(
+                        done ->
+                                asyncWritePartition(
+                                        partitionId,
+                                        snapshotId,
+                                        batch,
+                                        hasDdl,
+                                        new CompletionCallback<Void>() {
+                                            @Override
+                                            public void onCompleted(Void res) {
+                                                done.run();
+                                                if (counter.decrementAndGet() == 0) {
+                                                    callback.onCompleted(hasDdl.get());
+                                                }
+                                            }
+
+                                            @Override
+                                            public void onError(Throwable t) {
+                                                done.run();
+                                                if (!failed.getAndSet(true)) {
+                                                    callback.onError(t);
+                                                }
+                                            }
+                                        }));
             }
         }
-        return batchNeedRetry;
     }
 
     public GraphDefPb getGraphDefBlob() throws IOException {
@@ -322,15 +476,53 @@ public class StoreService implements MetricsAgent {
                                                 entry.getKey(),
                                                 (int) (1000 * entry.getValue().getAvg())))
                         .collect(Collectors.toList());
+        List<String> partitionWriteLag =
+                idToLane.entrySet().stream()
+                        .map(
+                                entry ->
+                                        String.format(
+                                                "%s:%s",
+                                                entry.getKey(),
+                                                entry.getValue().getPendingCount()))
+                        .collect(Collectors.toList());
+        List<String> partitionWriteFailures =
+                idToHealth.entrySet().stream()
+                        .map(
+                                entry ->
+                                        String.format(
+                                                "%s:%s",
+                                                entry.getKey(),
+                                                entry.getValue().getTotalFailures()))
+                        .collect(Collectors.toList());
+        List<Integer> isolatedPartitions =
+                idToHealth.entrySet().stream()
+                        .filter(entry -> entry.getValue().isIsolated())
+                        .map(entry -> entry.getKey())
+                        .collect(Collectors.toList());
+        List<Integer> unhealthyPartitions =
+                idToHealth.entrySet().stream()
+                        .filter(entry -> !entry.getValue().isHealthy())
+                        .map(entry -> entry.getKey())
+                        .collect(Collectors.toList());
         return new HashMap<String, String>() {
             {
                 put(PARTITION_WRITE_PER_SECOND_MS, String.valueOf(partitionWritePerSecondMs));
+                put(PARTITION_WRITE_LAG, String.valueOf(partitionWriteLag));
+                put(PARTITION_WRITE_FAILURES, String.valueOf(partitionWriteFailures));
+                put(PARTITION_UNHEALTHY, String.valueOf(unhealthyPartitions));
+                put(PARTITION_ISOLATED, String.valueOf(isolatedPartitions));
             }
         };
     }
 
     @Override
     public String[] getMetricKeys() {
-        return new String[] {PARTITION_WRITE_PER_SECOND_MS};
+        return new String[] {
+            PARTITION_WRITE_PER_SECOND_MS,
+            PARTITION_WRITE_LAG,
+            PARTITION_WRITE_FAILURES,
+            PARTITION_UNHEALTHY,
+            PARTITION_ISOLATED
+        };
     }
 }
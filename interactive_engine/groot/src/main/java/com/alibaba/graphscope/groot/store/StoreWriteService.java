@@ -13,9 +13,12 @@
  */
 package com.alibaba.graphscope.groot.store;
 
+import com.alibaba.graphscope.groot.operation.CompressionType;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
+import com.alibaba.maxgraph.proto.groot.CompressionTypePb;
 import com.alibaba.maxgraph.proto.groot.StoreDataBatchPb;
 import com.alibaba.maxgraph.proto.groot.StoreWriteGrpc;
+import com.alibaba.maxgraph.proto.groot.WriteStoreErrorPb;
 import com.alibaba.maxgraph.proto.groot.WriteStoreRequest;
 import com.alibaba.maxgraph.proto.groot.WriteStoreResponse;
 
@@ -35,15 +38,48 @@ public class StoreWriteService extends StoreWriteGrpc.StoreWriteImplBase {
     @Override
     public void writeStore(
             WriteStoreRequest request, StreamObserver<WriteStoreResponse> responseObserver) {
-        List<StoreDataBatchPb> dataBatchesList = request.getDataBatchesList();
-        List<StoreDataBatch> batches = new ArrayList<>(dataBatchesList.size());
+        write(request, responseObserver);
+    }
+
+    @Override
+    public void writeStoreCompressed(
+            WriteStoreRequest request, StreamObserver<WriteStoreResponse> responseObserver) {
+        write(request, responseObserver);
+    }
+
+    private void write(
+            WriteStoreRequest request, StreamObserver<WriteStoreResponse> responseObserver) {
         try {
+            List<StoreDataBatchPb> dataBatchesList = request.getDataBatchesList();
+            if (request.getCompression() != CompressionTypePb.COMPRESSION_NONE) {
+                byte[] raw =
+                        CompressionType.parseProto(request.getCompression())
+                                .decompress(
+                                        request.getCompressedBatches().toByteArray(),
+                                        request.getRawSize());
+                dataBatchesList = WriteStoreRequest.parseFrom(raw).getDataBatchesList();
+            }
+            List<StoreDataBatch> batches = new ArrayList<>(dataBatchesList.size());
             for (StoreDataBatchPb pb : dataBatchesList) {
                 batches.add(StoreDataBatch.parseProto(pb));
             }
-            boolean success = writerAgent.writeStore2(batches);
-            WriteStoreResponse response =
-                    WriteStoreResponse.newBuilder().setSuccess(success).build();
+            WriterAgent.WriteResult result =
+                    writerAgent.writeStore2(batches, request.getQueuePrevOffsetsMap());
+            WriteStoreResponse.Builder builder = WriteStoreResponse.newBuilder();
+            switch (result) {
+                case SUCCESS:
+                    builder.setSuccess(true);
+                    break;
+                case BUFFER_FULL:
+                    builder.setSuccess(false).setError(WriteStoreErrorPb.WRITE_STORE_BUFFER_FULL);
+                    break;
+                case OUT_OF_ORDER:
+                    builder.setSuccess(false).setError(WriteStoreErrorPb.WRITE_STORE_OUT_OF_ORDER);
+                    break;
+                default:
+                    throw new IllegalStateException("unknown write result [" + result + "]");
+            }
+            WriteStoreResponse response = builder.build();
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Exception e) {
@@ -13,6 +13,7 @@
  */
 package com.alibaba.graphscope.groot.store;
 
+import com.alibaba.graphscope.groot.CompletionCallback;
 import com.alibaba.graphscope.groot.coordinator.SnapshotInfo;
 import com.alibaba.graphscope.groot.meta.MetaService;
 import com.alibaba.graphscope.groot.metrics.AvgMetric;
@@ -21,19 +22,31 @@ import com.alibaba.graphscope.groot.metrics.MetricsCollector;
 import com.alibaba.graphscope.groot.operation.StoreDataBatch;
 import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.StoreConfig;
 import com.alibaba.maxgraph.common.util.ThreadFactoryUtils;
+import com.alibaba.maxgraph.sdkcommon.util.LatencyHistogram;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -45,6 +58,8 @@ import java.util.concurrent.atomic.AtomicReference;
 public class WriterAgent implements MetricsAgent {
     private static final Logger logger = LoggerFactory.getLogger(WriterAgent.class);
 
+    private static final long WRITE_RETRY_DELAY_MS = 1000L;
+
     public static final String POLL_LATENCY_MAX_MS = "poll.latency.max.ms";
     public static final String POLL_LATENCY_PER_SECOND_MS = "poll.latency.per.second.ms";
     public static final String STORE_BUFFER_BATCH_COUNT = "store.buffer.batch.count";
@@ -68,8 +83,21 @@ public class WriterAgent implements MetricsAgent {
     private AtomicReference<SnapshotInfo> availSnapshotInfoRef;
     private ExecutorService commitExecutor;
     private List<Long> consumedQueueOffsets;
+    // Offset of the last batch put into bufferQueue, per queue. Guarded by queueLocks
+    private long[] bufferedQueueOffsets;
+    private Object[] queueLocks;
     private Thread consumeThread;
 
+    private boolean pipelineEnable;
+    private int pipelineDepth;
+    // Batches submitted in pipeline mode, in poll order
+    private Deque<PendingBatch> pendingBatches;
+    // Batches held back while an earlier batch waits to be resubmitted. Guarded by pendingBatches
+    private Deque<PendingBatch> deferredBatches;
+    private boolean submitBlocked;
+    private Semaphore pipelineSlots;
+    private ScheduledExecutorService retryScheduler;
+
     private volatile long lastUpdateTime;
     private volatile long totalWrite;
     private volatile long writePerSecond;
@@ -80,6 +108,7 @@ public class WriterAgent implements MetricsAgent {
     private volatile long totalPollLatencyNano;
     private volatile long pollLatencyPerSecondMs;
     private AvgMetric bufferWritePerSecondMetric;
+    private LatencyHistogram snapshotCommitHistogram;
 
     public WriterAgent(
             Configs configs,
@@ -94,6 +123,9 @@ public class WriterAgent implements MetricsAgent {
         this.metaService = metaService;
         this.snapshotCommitter = snapshotCommitter;
         this.availSnapshotInfoRef = new AtomicReference<>();
+        this.pipelineEnable = StoreConfig.STORE_WRITE_PIPELINE_ENABLE.get(configs);
+        this.pipelineDepth = StoreConfig.STORE_WRITE_PIPELINE_DEPTH.get(configs);
+        this.snapshotCommitHistogram = metricsCollector.histogram("snapshot.commit.latency");
         initMetrics();
         metricsCollector.register(this, () -> updateMetrics());
     }
@@ -114,6 +146,20 @@ public class WriterAgent implements MetricsAgent {
         for (int i = 0; i < this.queueCount; i++) {
             this.consumedQueueOffsets.add(-1L);
         }
+        this.bufferedQueueOffsets = new long[this.queueCount];
+        Arrays.fill(this.bufferedQueueOffsets, -1L);
+        this.queueLocks = new Object[this.queueCount];
+        for (int i = 0; i < this.queueCount; i++) {
+            this.queueLocks[i] = new Object();
+        }
+        this.pendingBatches = new ArrayDeque<>();
+        this.deferredBatches = new ArrayDeque<>();
+        this.submitBlocked = false;
+        this.pipelineSlots = new Semaphore(this.pipelineDepth);
+        this.retryScheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "writer-agent-retry", logger));
 
         this.consumeThread = new Thread(() -> processBatches());
         this.consumeThread.setName("store-consume");
@@ -143,6 +189,10 @@ public class WriterAgent implements MetricsAgent {
             }
             this.consumeThread = null;
         }
+        if (this.retryScheduler != null) {
+            this.retryScheduler.shutdownNow();
+            this.retryScheduler = null;
+        }
         if (this.commitExecutor != null) {
             this.commitExecutor.shutdown();
             try {
@@ -171,17 +221,81 @@ public class WriterAgent implements MetricsAgent {
         return suc;
     }
 
-    public boolean writeStore2(List<StoreDataBatch> storeDataBatches) throws InterruptedException {
-        long beforeOfferTime = System.nanoTime();
+    public WriteResult writeStore2(List<StoreDataBatch> storeDataBatches)
+            throws InterruptedException {
+        return writeStore2(storeDataBatches, Collections.emptyMap());
+    }
+
+    /**
+     * Write a list of batches that an ingestor may have pipelined behind earlier, still in flight
+     * requests. For every queue in queuePrevOffsets, the batches are only accepted after the batch
+     * at the given offset has been buffered, otherwise the request is rejected and the sender
+     * retries it in order. Batches at or before the last buffered offset of their queue are
+     * skipped, so that a resent request is never buffered twice.
+     *
+     * <p>Queues are checked and written independently under their own lock, so a full queue only
+     * holds back the writers of that queue.
+     *
+     * @param storeDataBatches
+     * @param queuePrevOffsets queueId -> offset of the previous batch of that queue
+     * @return SUCCESS if all batches are buffered, otherwise the reason of the rejection
+     */
+    public WriteResult writeStore2(
+            List<StoreDataBatch> storeDataBatches, Map<Integer, Long> queuePrevOffsets)
+            throws InterruptedException {
+        Map<Integer, List<StoreDataBatch>> queueToBatches = new LinkedHashMap<>();
         for (StoreDataBatch storeDataBatch : storeDataBatches) {
-            int queueId = storeDataBatch.getQueueId();
-            if (!this.bufferQueue.offerQueue(queueId, storeDataBatch)) {
-                return false;
+            queueToBatches
+                    .computeIfAbsent(storeDataBatch.getQueueId(), k -> new ArrayList<>())
+                    .add(storeDataBatch);
+        }
+        long beforeOfferTime = System.nanoTime();
+        for (Map.Entry<Integer, List<StoreDataBatch>> e : queueToBatches.entrySet()) {
+            WriteResult result = writeQueue(e.getKey(), e.getValue(), queuePrevOffsets);
+            if (result != WriteResult.SUCCESS) {
+                return result;
             }
         }
         long afterOfferTime = System.nanoTime();
         this.bufferWritePerSecondMetric.add(afterOfferTime - beforeOfferTime);
-        return true;
+        return WriteResult.SUCCESS;
+    }
+
+    private WriteResult writeQueue(
+            int queueId, List<StoreDataBatch> batches, Map<Integer, Long> queuePrevOffsets)
+            throws InterruptedException {
+        if (queueId < 0 || queueId >= this.queueCount) {
+            throw new IllegalArgumentException("invalid queueId [" + queueId + "]");
+        }
+        synchronized (this.queueLocks[queueId]) {
+            Long prevOffset = queuePrevOffsets.get(queueId);
+            if (prevOffset != null && prevOffset > this.bufferedQueueOffsets[queueId]) {
+                logger.debug(
+                        "queue [{}] prev offset [{}] not buffered yet, reject out of order write",
+                        queueId,
+                        prevOffset);
+                return WriteResult.OUT_OF_ORDER;
+            }
+            for (StoreDataBatch storeDataBatch : batches) {
+                long offset = storeDataBatch.getOffset();
+                if (offset <= this.bufferedQueueOffsets[queueId]) {
+                    logger.debug(
+                            "queue [{}] offset [{}] already buffered, skip", queueId, offset);
+                    continue;
+                }
+                if (!this.bufferQueue.offerQueue(queueId, storeDataBatch)) {
+                    return WriteResult.BUFFER_FULL;
+                }
+                this.bufferedQueueOffsets[queueId] = offset;
+            }
+        }
+        return WriteResult.SUCCESS;
+    }
+
+    public enum WriteResult {
+        SUCCESS,
+        BUFFER_FULL,
+        OUT_OF_ORDER
     }
 
     private void processBatches() {
@@ -197,41 +311,156 @@ public class WriterAgent implements MetricsAgent {
                 if (storeDataBatch == null) {
                     continue;
                 }
-                long batchSnapshotId = storeDataBatch.getSnapshotId();
-                logger.debug("polled one batch [" + batchSnapshotId + "]");
-                boolean hasDdl = writeEngineWithRetry(storeDataBatch);
-                int writeCount = storeDataBatch.getSize();
-                this.totalWrite += writeCount;
-                if (this.consumeSnapshotId < batchSnapshotId) {
-                    SnapshotInfo availSnapshotInfo = this.availSnapshotInfoRef.get();
-                    long availDdlSnapshotId = availSnapshotInfo.getDdlSnapshotId();
-                    if (availDdlSnapshotId < this.consumeDdlSnapshotId) {
-                        availDdlSnapshotId = this.consumeDdlSnapshotId;
+                logger.debug("polled one batch [" + storeDataBatch.getSnapshotId() + "]");
+                if (this.pipelineEnable) {
+                    submitPipelined(storeDataBatch);
+                } else {
+                    boolean hasDdl = writeEngineWithRetry(storeDataBatch);
+                    onBatchApplied(storeDataBatch, hasDdl);
+                }
+            } catch (Exception e) {
+                logger.error("error in processBatches, ignore", e);
+            }
+        }
+    }
+
+    private void onBatchApplied(StoreDataBatch storeDataBatch, boolean hasDdl) {
+        long batchSnapshotId = storeDataBatch.getSnapshotId();
+        int writeCount = storeDataBatch.getSize();
+        this.totalWrite += writeCount;
+        if (this.consumeSnapshotId < batchSnapshotId) {
+            SnapshotInfo availSnapshotInfo = this.availSnapshotInfoRef.get();
+            long availDdlSnapshotId = availSnapshotInfo.getDdlSnapshotId();
+            if (availDdlSnapshotId < this.consumeDdlSnapshotId) {
+                availDdlSnapshotId = this.consumeDdlSnapshotId;
+            }
+            long prevSnapshotId = batchSnapshotId - 1;
+            long availSnapshotId = availSnapshotInfo.getSnapshotId();
+            if (availSnapshotId < prevSnapshotId) {
+                availSnapshotId = prevSnapshotId;
+            }
+            this.consumeSnapshotId = batchSnapshotId;
+            this.availSnapshotInfoRef.set(new SnapshotInfo(availSnapshotId, availDdlSnapshotId));
+            this.commitExecutor.execute(() -> asyncCommit());
+        }
+
+        if (hasDdl) {
+            this.consumeDdlSnapshotId = batchSnapshotId;
+        }
+
+        int queueId = storeDataBatch.getQueueId();
+        long offset = storeDataBatch.getOffset();
+        this.consumedQueueOffsets.set(queueId, offset);
+    }
+
+    /**
+     * Hand the batch to the partition lanes of StoreService without waiting for it to be applied.
+     * At most pipelineDepth batches are in flight, and they are acknowledged in poll order, so the
+     * avail snapshotId only passes a snapshot after all partitions have applied it.
+     */
+    private void submitPipelined(StoreDataBatch storeDataBatch) throws InterruptedException {
+        this.pipelineSlots.acquire();
+        PendingBatch pendingBatch = new PendingBatch(storeDataBatch);
+        synchronized (this.pendingBatches) {
+            this.pendingBatches.addLast(pendingBatch);
+            if (this.submitBlocked) {
+                this.deferredBatches.addLast(pendingBatch);
+                return;
+            }
+        }
+        submitBatch(pendingBatch);
+    }
+
+    /**
+     * StoreService retries failed partitions in their own lanes, so a batch only fails here when
+     * StoreService rejects it as a whole, before any partition has applied it, or when stopping.
+     * A rejected batch is resubmitted after a delay, and the batches polled after it are held back
+     * until then, so that no lane gets them ahead of it.
+     *
+     * @return false if the batch is rejected
+     */
+    private boolean submitBatch(PendingBatch pendingBatch) {
+        StoreDataBatch storeDataBatch = pendingBatch.storeDataBatch;
+        AtomicBoolean rejected = new AtomicBoolean(false);
+        this.storeService.asyncBatchWrite(
+                storeDataBatch,
+                new CompletionCallback<Boolean>() {
+                    @Override
+                    public void onCompleted(Boolean hasDdl) {
+                        pendingBatch.hasDdl = hasDdl;
+                        pendingBatch.applied = true;
+                        drainAppliedBatches();
                     }
-                    long prevSnapshotId = batchSnapshotId - 1;
-                    long availSnapshotId = availSnapshotInfo.getSnapshotId();
-                    if (availSnapshotId < prevSnapshotId) {
-                        availSnapshotId = prevSnapshotId;
+
+                    @Override
+                    public void onError(Throwable t) {
+                        rejected.set(true);
+                        logger.error(
+                                "writeEngine failed. queueId ["
+                                        + storeDataBatch.getQueueId()
+                                        + "], snapshotId ["
+                                        + storeDataBatch.getSnapshotId()
+                                        + "], offset ["
+                                        + storeDataBatch.getOffset()
+                                        + "]. will retry",
+                                t);
+                        if (shouldStop) {
+                            return;
+                        }
+                        synchronized (pendingBatches) {
+                            submitBlocked = true;
+                        }
+                        try {
+                            retryScheduler.schedule(
+                                    () -> resubmit(pendingBatch),
+                                    WRITE_RETRY_DELAY_MS,
+                                    TimeUnit.MILLISECONDS);
+                        } catch (RejectedExecutionException e) {
+                            logger.warn("retry scheduler stopped, drop retry", e);
+                        }
                     }
-                    this.consumeSnapshotId = batchSnapshotId;
-                    this.availSnapshotInfoRef.set(
-                            new SnapshotInfo(availSnapshotId, availDdlSnapshotId));
-                    this.commitExecutor.execute(() -> asyncCommit());
-                }
+                });
+        return !rejected.get();
+    }
 
-                if (hasDdl) {
-                    this.consumeDdlSnapshotId = batchSnapshotId;
+    /** Resubmit a rejected batch, then the batches held back behind it, in poll order */
+    private void resubmit(PendingBatch pendingBatch) {
+        PendingBatch next = pendingBatch;
+        while (submitBatch(next)) {
+            synchronized (this.pendingBatches) {
+                next = this.deferredBatches.pollFirst();
+                if (next == null) {
+                    this.submitBlocked = false;
+                    return;
                 }
+            }
+        }
+    }
 
-                int queueId = storeDataBatch.getQueueId();
-                long offset = storeDataBatch.getOffset();
-                this.consumedQueueOffsets.set(queueId, offset);
-            } catch (Exception e) {
-                logger.error("error in processBatches, ignore", e);
+    private void drainAppliedBatches() {
+        synchronized (this.pendingBatches) {
+            if (this.shouldStop) {
+                return;
+            }
+            PendingBatch head;
+            while ((head = this.pendingBatches.peekFirst()) != null && head.applied) {
+                this.pendingBatches.pollFirst();
+                onBatchApplied(head.storeDataBatch, head.hasDdl);
+                this.pipelineSlots.release();
             }
         }
     }
 
+    static class PendingBatch {
+        StoreDataBatch storeDataBatch;
+        volatile boolean applied;
+        volatile boolean hasDdl;
+
+        PendingBatch(StoreDataBatch storeDataBatch) {
+            this.storeDataBatch = storeDataBatch;
+        }
+    }
+
     private void asyncCommit() {
         SnapshotInfo snapshotInfo = this.availSnapshotInfoRef.get();
         long availSnapshotId = snapshotInfo.getSnapshotId();
@@ -245,8 +474,10 @@ public class WriterAgent implements MetricsAgent {
                                 + "], last DDL snapshotId ["
                                 + ddlSnapshotId
                                 + "]");
+                long startTimeNano = System.nanoTime();
                 this.snapshotCommitter.commitSnapshotId(
                         this.storeId, availSnapshotId, ddlSnapshotId, queueOffsets);
+                this.snapshotCommitHistogram.recordSince(startTimeNano);
                 this.lastCommitSnapshotId = availSnapshotId;
             } catch (Exception e) {
                 logger.warn(
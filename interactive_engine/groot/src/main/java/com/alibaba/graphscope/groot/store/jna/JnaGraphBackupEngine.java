@@ -13,6 +13,7 @@
  */
 package com.alibaba.graphscope.groot.store.jna;
 
+import com.alibaba.graphscope.groot.store.BackupManifest;
 import com.alibaba.graphscope.groot.store.GraphPartitionBackup;
 import com.sun.jna.Pointer;
 
@@ -23,15 +24,26 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class JnaGraphBackupEngine implements GraphPartitionBackup {
     private static final Logger logger = LoggerFactory.getLogger(JnaGraphBackupEngine.class);
 
+    private static final String META_DIR = "meta";
+    private static final String MANIFEST_DIR = "checksum_manifests";
+    private static final String VERIFIED_MANIFEST = "verified";
+
     private Pointer bePointer;
     private int partitionId;
     private String backupPath;
 
+    // Checksums of the files verified so far, persisted under MANIFEST_DIR. Loaded lazily
+    private BackupManifest verifiedManifest;
+
     public JnaGraphBackupEngine(Pointer storePointer, int partitionId, String backupPath) {
         this.bePointer = GraphLibrary.INSTANCE.openGraphBackupEngine(storePointer, backupPath);
         this.partitionId = partitionId;
@@ -90,6 +102,7 @@ public class JnaGraphBackupEngine implements GraphPartitionBackup {
                 throw new IOException(errMsg);
             }
         }
+        verifyChecksums(partitionBackupId);
     }
 
     public void partitionBackupGc(List<Integer> readyPartitionBackupIds) throws IOException {
@@ -127,6 +140,110 @@ public class JnaGraphBackupEngine implements GraphPartitionBackup {
         }
     }
 
+    /** Only reads the meta files of the backup and the one before it, not the backup directory */
+    @Override
+    public long getCopiedBytes(int partitionBackupId) throws IOException {
+        int prevBackupId = -1;
+        try (Stream<Path> paths = Files.list(Paths.get(this.backupPath, META_DIR))) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                try {
+                    int id = Integer.parseInt(path.getFileName().toString());
+                    if (id < partitionBackupId) {
+                        prevBackupId = Math.max(prevBackupId, id);
+                    }
+                } catch (NumberFormatException e) {
+                    // Meta file being written
+                }
+            }
+        }
+        Path root = Paths.get(this.backupPath);
+        BackupManifest prevManifest =
+                prevBackupId < 0
+                        ? new BackupManifest()
+                        : BackupManifest.fromBackupMeta(root, getMetaPath(prevBackupId));
+        BackupManifest manifest =
+                BackupManifest.fromBackupMeta(root, getMetaPath(partitionBackupId));
+        long total = 0L;
+        for (String file : manifest.diff(prevManifest)) {
+            total += manifest.getFileChecksum(file).getSize();
+        }
+        return total;
+    }
+
+    /**
+     * The native verification only checks that the files of the backup exist with the right size.
+     * Files are read to compare with the checksums RocksDB recorded when copying them only if they
+     * are not verified before, which are the files added since the last verified backup. The
+     * verified checksums are persisted, so this also holds across restarts.
+     */
+    private synchronized void verifyChecksums(int partitionBackupId) throws IOException {
+        Path root = Paths.get(this.backupPath);
+        BackupManifest manifest =
+                BackupManifest.fromBackupMeta(root, getMetaPath(partitionBackupId));
+        BackupManifest verified = getVerifiedManifest();
+        List<String> files = manifest.diff(verified);
+        for (String file : files) {
+            BackupManifest.FileChecksum expected = manifest.getFileChecksum(file);
+            if (BackupManifest.checksum(root.resolve(file)) != expected.getChecksum()) {
+                throw new IOException(
+                        "checksum mismatch of file ["
+                                + file
+                                + "] in backup ["
+                                + partitionBackupId
+                                + "], partition ["
+                                + this.partitionId
+                                + "]");
+            }
+            verified.put(file, expected);
+        }
+        if (!files.isEmpty()) {
+            saveVerifiedManifest(verified);
+        }
+        logger.info(
+                "backup ["
+                        + partitionBackupId
+                        + "] of partition ["
+                        + this.partitionId
+                        + "] verified, read ["
+                        + files.size()
+                        + "/"
+                        + manifest.getFileCount()
+                        + "] files");
+    }
+
+    private BackupManifest getVerifiedManifest() {
+        if (this.verifiedManifest == null) {
+            Path path = Paths.get(this.backupPath, MANIFEST_DIR, VERIFIED_MANIFEST);
+            this.verifiedManifest = new BackupManifest();
+            if (Files.exists(path)) {
+                try {
+                    this.verifiedManifest = BackupManifest.read(path);
+                } catch (IOException e) {
+                    logger.warn("fail to read verified checksums, verify all files again", e);
+                }
+            }
+        }
+        return this.verifiedManifest;
+    }
+
+    /** Losing the verified checksums only costs reading the files again, so failures are logged */
+    private void saveVerifiedManifest(BackupManifest verified) {
+        Path root = Paths.get(this.backupPath);
+        verified.retainExisting(root);
+        try {
+            Path manifestDir = root.resolve(MANIFEST_DIR);
+            Files.createDirectories(manifestDir);
+            verified.write(manifestDir.resolve(VERIFIED_MANIFEST));
+        } catch (IOException e) {
+            logger.warn(
+                    "fail to save verified checksums of partition [" + this.partitionId + "]", e);
+        }
+    }
+
+    private Path getMetaPath(int partitionBackupId) {
+        return Paths.get(this.backupPath, META_DIR, String.valueOf(partitionBackupId));
+    }
+
     @Override
     public int getId() {
         return this.partitionId;
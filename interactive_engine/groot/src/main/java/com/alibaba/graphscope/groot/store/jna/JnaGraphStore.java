@@ -20,18 +20,28 @@ import com.alibaba.graphscope.groot.store.external.ExternalStorage;
 import com.alibaba.maxgraph.common.config.Configs;
 import com.alibaba.maxgraph.common.config.StoreConfig;
 import com.alibaba.maxgraph.proto.groot.GraphDefPb;
+import com.google.protobuf.ByteString;
 import com.sun.jna.Pointer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 public class JnaGraphStore implements GraphPartition {
     private static final Logger logger = LoggerFactory.getLogger(JnaGraphStore.class);
+    private static final int INIT_WRITE_BUFFER_SIZE = 64 * 1024;
+    // Batches larger than this are not written through the reused direct buffer, so that a single
+    // huge batch can't grow it for the lifetime of the store
+    private static final int MAX_WRITE_BUFFER_SIZE = 4 * 1024 * 1024;
+    // Direct buffer that native store reads write batches from, one per write thread so that
+    // partitions written by different threads don't contend for it
+    private static final ThreadLocal<ByteBuffer> WRITE_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(INIT_WRITE_BUFFER_SIZE));
 
     private Pointer pointer;
     private int partitionId;
@@ -73,10 +83,24 @@ public class JnaGraphStore implements GraphPartition {
 
     @Override
     public boolean writeBatch(long snapshotId, OperationBatch operationBatch) throws IOException {
-        byte[] dataBytes = operationBatch.toProto().toByteArray();
-        try (JnaResponse response =
-                GraphLibrary.INSTANCE.writeBatch(
-                        this.pointer, snapshotId, dataBytes, dataBytes.length)) {
+        ByteString bytes = operationBatch.toByteString();
+        int size = bytes.size();
+        if (size > MAX_WRITE_BUFFER_SIZE) {
+            // Don't pin the off-heap memory of an oversized batch, JNA copies the array into
+            // native memory that is released right after the call
+            return handleWriteResponse(
+                    GraphLibrary.INSTANCE.writeBatch(
+                            this.pointer, snapshotId, bytes.toByteArray(), size));
+        }
+        ByteBuffer buffer = getWriteBuffer(size);
+        bytes.copyTo(buffer);
+        buffer.flip();
+        return handleWriteResponse(
+                GraphLibrary.INSTANCE.writeBatch(this.pointer, snapshotId, buffer, size));
+    }
+
+    private boolean handleWriteResponse(JnaResponse jnaResponse) throws IOException {
+        try (JnaResponse response = jnaResponse) {
             if (!response.success()) {
                 String errMsg = response.getErrMsg();
                 throw new IOException(errMsg);
@@ -85,6 +109,20 @@ public class JnaGraphStore implements GraphPartition {
         }
     }
 
+    private static ByteBuffer getWriteBuffer(int size) {
+        ByteBuffer buffer = WRITE_BUFFER.get();
+        if (buffer.capacity() < size) {
+            int capacity = buffer.capacity();
+            while (capacity < size) {
+                capacity = Math.min(capacity * 2, MAX_WRITE_BUFFER_SIZE);
+            }
+            buffer = ByteBuffer.allocateDirect(capacity);
+            WRITE_BUFFER.set(buffer);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
     @Override
     public long recover() {
         return 0L;
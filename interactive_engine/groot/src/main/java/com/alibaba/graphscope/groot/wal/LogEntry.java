@@ -13,8 +13,10 @@
  */
 package com.alibaba.graphscope.groot.wal;
 
+import com.alibaba.graphscope.groot.operation.CompressionType;
 import com.alibaba.graphscope.groot.operation.OperationBatch;
 import com.alibaba.maxgraph.proto.groot.LogEntryPb;
+import com.google.protobuf.InvalidProtocolBufferException;
 
 public class LogEntry {
     private long snapshotId;
@@ -31,6 +33,11 @@ public class LogEntry {
         return new LogEntry(snapshotId, operationBatch);
     }
 
+    /** Parse an entry written by {@link #toBytes(CompressionType)} with any compression. */
+    public static LogEntry parseBytes(byte[] data) throws InvalidProtocolBufferException {
+        return parseProto(LogEntryPb.parseFrom(CompressionType.decodeBlock(data)));
+    }
+
     public long getSnapshotId() {
         return snapshotId;
     }
@@ -46,6 +53,10 @@ public class LogEntry {
                 .build();
     }
 
+    public byte[] toBytes(CompressionType compression) {
+        return compression.encodeBlock(toProto().toByteArray());
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
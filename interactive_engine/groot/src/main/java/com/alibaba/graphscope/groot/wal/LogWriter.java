@@ -16,6 +16,8 @@
 package com.alibaba.graphscope.groot.wal;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 /**
  * A LogWriter can append data to a queue in the LogService.
@@ -29,5 +31,21 @@ public interface LogWriter extends AutoCloseable {
      */
     long append(LogEntry logEntry) throws IOException;
 
+    /**
+     * Append {@link LogEntry} to the queue without waiting for it to be persisted. Entries appended
+     * through the same writer are persisted in submission order.
+     * @param logEntry
+     * @return future of the offset of the appended entry
+     */
+    default Future<Long> appendAsync(LogEntry logEntry) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        try {
+            future.complete(append(logEntry));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     void close() throws IOException;
 }
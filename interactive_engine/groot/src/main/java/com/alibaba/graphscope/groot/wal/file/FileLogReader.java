@@ -0,0 +1,121 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.wal.file;
+
+import com.alibaba.graphscope.groot.wal.LogEntry;
+import com.alibaba.graphscope.groot.wal.LogReader;
+import com.alibaba.graphscope.groot.wal.ReadLogEntry;
+import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Sequentially reads a queue through memory-mapped segments. Only the entries that exist when
+ * the reader is created are visible.
+ */
+public class FileLogReader implements LogReader {
+    private static final Logger logger = LoggerFactory.getLogger(FileLogReader.class);
+
+    private File queueDir;
+    private List<Long> baseOffsets;
+    private int segmentIdx;
+    private LogSegment segment;
+
+    public FileLogReader(File queueDir, long offset) throws IOException {
+        this.queueDir = queueDir;
+        this.baseOffsets = FileLogService.listSegments(queueDir);
+        long earliestOffset = this.baseOffsets.isEmpty() ? 0L : this.baseOffsets.get(0);
+        if (offset < earliestOffset) {
+            throw new IllegalArgumentException(
+                    "cannot read from ["
+                            + offset
+                            + "], earliest offset is ["
+                            + earliestOffset
+                            + "]");
+        }
+        if (this.baseOffsets.isEmpty()) {
+            if (offset > 0L) {
+                throw new IllegalArgumentException(
+                        "cannot read from [" + offset + "], latest offset is [0]");
+            }
+            return;
+        }
+        this.segmentIdx = 0;
+        while (this.segmentIdx + 1 < this.baseOffsets.size()
+                && this.baseOffsets.get(this.segmentIdx + 1) <= offset) {
+            this.segmentIdx++;
+        }
+        this.segment = openSegment(this.segmentIdx);
+        while (this.segment.getNextOffset() < offset) {
+            if (this.segment.next() == null) {
+                throw new IllegalArgumentException(
+                        "cannot read from ["
+                                + offset
+                                + "], latest offset is ["
+                                + this.segment.getNextOffset()
+                                + "]");
+            }
+        }
+        logger.info(
+                "reader created. earliest wal offset is ["
+                        + earliestOffset
+                        + "], read from ["
+                        + offset
+                        + "]");
+    }
+
+    private LogSegment openSegment(int idx) throws IOException {
+        long baseOffset = this.baseOffsets.get(idx);
+        return new LogSegment(new File(this.queueDir, LogSegment.fileName(baseOffset)), baseOffset);
+    }
+
+    @Override
+    public ReadLogEntry readNext() {
+        if (this.segment == null) {
+            return null;
+        }
+        while (true) {
+            long offset = this.segment.getNextOffset();
+            byte[] payload = this.segment.next();
+            if (payload != null) {
+                try {
+                    LogEntry logEntry = LogEntry.parseBytes(payload);
+                    return new ReadLogEntry(offset, logEntry);
+                } catch (InvalidProtocolBufferException e) {
+                    throw new MaxGraphException(e);
+                }
+            }
+            if (this.segmentIdx + 1 >= this.baseOffsets.size()) {
+                return null;
+            }
+            this.segmentIdx++;
+            try {
+                this.segment = openSegment(this.segmentIdx);
+            } catch (IOException e) {
+                throw new MaxGraphException(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.segment = null;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.wal.file;
+
+import com.alibaba.graphscope.groot.operation.CompressionType;
+import com.alibaba.graphscope.groot.wal.LogReader;
+import com.alibaba.graphscope.groot.wal.LogService;
+import com.alibaba.graphscope.groot.wal.LogWriter;
+import com.alibaba.maxgraph.common.config.CommonConfig;
+import com.alibaba.maxgraph.common.config.Configs;
+import com.alibaba.maxgraph.common.config.WalConfig;
+import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A LogService that stores each queue as append-only segment files in a local directory. It is
+ * meant for deployments where the coordinator and ingestors share the same disk, so that no
+ * external Kafka is needed for the WAL.
+ */
+public class FileLogService implements LogService {
+    private static final Logger logger = LoggerFactory.getLogger(FileLogService.class);
+
+    private File walDir;
+    private int queueCount;
+    private long segmentBytes;
+    private boolean fsync;
+    private CompressionType compression;
+
+    public FileLogService(Configs configs) {
+        this.walDir = new File(WalConfig.FILE_WAL_DIR.get(configs));
+        this.queueCount = CommonConfig.INGESTOR_QUEUE_COUNT.get(configs);
+        this.segmentBytes = WalConfig.FILE_WAL_SEGMENT_BYTES.get(configs);
+        this.fsync = WalConfig.FILE_WAL_FSYNC.get(configs);
+        this.compression = CompressionType.fromName(WalConfig.WAL_COMPRESSION.get(configs));
+        if (this.segmentBytes <= 0 || this.segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "invalid segment bytes [" + this.segmentBytes + "]");
+        }
+    }
+
+    @Override
+    public void init() {
+        if (initialized()) {
+            throw new MaxGraphException("wal dir [" + this.walDir + "] already initialized");
+        }
+        for (int i = 0; i < this.queueCount; i++) {
+            File queueDir = getQueueDir(i);
+            if (!queueDir.mkdirs()) {
+                throw new MaxGraphException("create wal dir [" + queueDir + "] failed");
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (!initialized()) {
+            throw new MaxGraphException("wal dir [" + this.walDir + "] not initialized");
+        }
+        try (Stream<Path> paths = Files.walk(this.walDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(p -> p.toFile()).forEach(File::delete);
+        } catch (IOException e) {
+            throw new MaxGraphException("delete wal dir [" + this.walDir + "] failed", e);
+        }
+    }
+
+    @Override
+    public boolean initialized() {
+        return this.walDir.isDirectory();
+    }
+
+    @Override
+    public LogWriter createWriter(int queueId) {
+        try {
+            return new FileLogWriter(
+                    getQueueDir(queueId), this.segmentBytes, this.fsync, this.compression);
+        } catch (IOException e) {
+            throw new MaxGraphException("create writer of queue [" + queueId + "] failed", e);
+        }
+    }
+
+    @Override
+    public LogReader createReader(int queueId, long offset) throws IOException {
+        return new FileLogReader(getQueueDir(queueId), offset);
+    }
+
+    /**
+     * Segments are deleted as a whole, so entries before offset that share a segment with
+     * entries after offset are kept. The active segment is never deleted.
+     */
+    @Override
+    public void deleteBeforeOffset(int queueId, long offset) throws IOException {
+        File queueDir = getQueueDir(queueId);
+        List<Long> baseOffsets = listSegments(queueDir);
+        for (int i = 0; i < baseOffsets.size() - 1; i++) {
+            if (baseOffsets.get(i + 1) > offset) {
+                break;
+            }
+            File segmentFile = new File(queueDir, LogSegment.fileName(baseOffsets.get(i)));
+            Files.delete(segmentFile.toPath());
+            logger.debug("deleted wal segment [" + segmentFile + "]");
+        }
+    }
+
+    private File getQueueDir(int queueId) {
+        return new File(this.walDir, "queue_" + queueId);
+    }
+
+    /**
+     * List base offsets of all segments in the queue dir, in ascending order.
+     *
+     * @param queueDir
+     * @return
+     */
+    static List<Long> listSegments(File queueDir) throws IOException {
+        File[] files = queueDir.listFiles();
+        if (files == null) {
+            throw new IOException("cannot list wal dir [" + queueDir + "]");
+        }
+        List<Long> baseOffsets = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(LogSegment.SUFFIX)) {
+                baseOffsets.add(
+                        Long.parseLong(
+                                name.substring(0, name.length() - LogSegment.SUFFIX.length())));
+            }
+        }
+        Collections.sort(baseOffsets);
+        return baseOffsets;
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.wal.file;
+
+import com.alibaba.graphscope.groot.operation.CompressionType;
+import com.alibaba.graphscope.groot.wal.LogEntry;
+import com.alibaba.graphscope.groot.wal.LogWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Appends entries to the last segment of a queue dir, and rolls to a new segment once the active
+ * one exceeds the segment size. When fsync is enabled, a background thread forces all entries
+ * appended since the last sync in one call, and completes their futures afterwards.
+ */
+public class FileLogWriter implements LogWriter {
+    private static final Logger logger = LoggerFactory.getLogger(FileLogWriter.class);
+
+    private File queueDir;
+    private long segmentBytes;
+    private boolean fsync;
+    private CompressionType compression;
+
+    private FileChannel channel;
+    private long nextOffset;
+    private List<PendingSync> pendingSyncs;
+    private boolean syncing;
+    private volatile boolean closed;
+    private Thread syncThread;
+
+    public FileLogWriter(File queueDir, long segmentBytes, boolean fsync) throws IOException {
+        this(queueDir, segmentBytes, fsync, CompressionType.NONE);
+    }
+
+    public FileLogWriter(
+            File queueDir, long segmentBytes, boolean fsync, CompressionType compression)
+            throws IOException {
+        this.queueDir = queueDir;
+        this.compression = compression;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.pendingSyncs = new ArrayList<>();
+        this.closed = false;
+
+        List<Long> baseOffsets = FileLogService.listSegments(queueDir);
+        if (baseOffsets.isEmpty()) {
+            openSegment(0L);
+        } else {
+            recoverSegment(baseOffsets.get(baseOffsets.size() - 1));
+        }
+        if (this.fsync) {
+            this.syncThread = new Thread(() -> syncLoop());
+            this.syncThread.setName("file-wal-sync-" + queueDir.getName());
+            this.syncThread.setDaemon(true);
+            this.syncThread.start();
+        }
+    }
+
+    private void openSegment(long baseOffset) throws IOException {
+        File segmentFile = new File(this.queueDir, LogSegment.fileName(baseOffset));
+        this.channel =
+                FileChannel.open(
+                        segmentFile.toPath(),
+                        StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+        this.nextOffset = baseOffset;
+        logger.info("opened wal segment [" + segmentFile + "]");
+    }
+
+    /** Reopen the last segment, and truncate the torn or corrupted tail left by a crash */
+    private void recoverSegment(long baseOffset) throws IOException {
+        File segmentFile = new File(this.queueDir, LogSegment.fileName(baseOffset));
+        LogSegment segment = new LogSegment(segmentFile, baseOffset);
+        while (segment.next() != null) {}
+        int validPosition = segment.getValidPosition();
+        this.channel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.WRITE);
+        if (this.channel.size() > validPosition) {
+            logger.warn(
+                    "truncate wal segment ["
+                            + segmentFile
+                            + "] from ["
+                            + this.channel.size()
+                            + "] to ["
+                            + validPosition
+                            + "] bytes");
+            this.channel.truncate(validPosition);
+        }
+        this.channel.position(validPosition);
+        this.nextOffset = segment.getNextOffset();
+        logger.info(
+                "recovered wal segment [" + segmentFile + "], next offset [" + nextOffset + "]");
+    }
+
+    @Override
+    public long append(LogEntry logEntry) throws IOException {
+        try {
+            return appendAsync(logEntry).get();
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @Override
+    public synchronized Future<Long> appendAsync(LogEntry logEntry) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        if (this.closed) {
+            future.completeExceptionally(new IllegalStateException("writer already closed"));
+            return future;
+        }
+        long offset = this.nextOffset;
+        ByteBuffer buf = LogSegment.encode(offset, logEntry.toBytes(this.compression));
+        long startPosition = -1L;
+        try {
+            startPosition = this.channel.position();
+            while (buf.hasRemaining()) {
+                this.channel.write(buf);
+            }
+        } catch (IOException e) {
+            logger.error("append wal failed, offset [" + offset + "]", e);
+            discardPartialWrite(startPosition);
+            future.completeExceptionally(e);
+            return future;
+        }
+        this.nextOffset++;
+        if (this.fsync) {
+            this.pendingSyncs.add(new PendingSync(offset, future));
+            this.notifyAll();
+        } else {
+            future.complete(offset);
+        }
+        try {
+            if (this.channel.position() >= this.segmentBytes) {
+                rollSegment();
+            }
+        } catch (IOException e) {
+            // The entry is written, a failed roll will be retried on the next append
+            logger.error("roll wal segment failed", e);
+        }
+        return future;
+    }
+
+    private void discardPartialWrite(long startPosition) {
+        if (startPosition < 0) {
+            return;
+        }
+        try {
+            this.channel.truncate(startPosition);
+            this.channel.position(startPosition);
+        } catch (IOException e) {
+            logger.error("discard partial write failed", e);
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        while (this.syncing) {
+            try {
+                this.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("roll segment interrupted", e);
+            }
+        }
+        this.channel.force(false);
+        completePendingSyncs(this.pendingSyncs, null);
+        this.pendingSyncs = new ArrayList<>();
+        this.channel.close();
+        openSegment(this.nextOffset);
+    }
+
+    private void syncLoop() {
+        while (true) {
+            List<PendingSync> toSync;
+            FileChannel syncChannel;
+            synchronized (this) {
+                while (this.pendingSyncs.isEmpty() && !this.closed) {
+                    try {
+                        this.wait();
+                    } catch (InterruptedException e) {
+                        // Ignore
+                    }
+                }
+                if (this.pendingSyncs.isEmpty()) {
+                    return;
+                }
+                toSync = this.pendingSyncs;
+                this.pendingSyncs = new ArrayList<>();
+                syncChannel = this.channel;
+                this.syncing = true;
+            }
+            IOException error = null;
+            try {
+                syncChannel.force(false);
+            } catch (IOException e) {
+                logger.error("sync wal failed", e);
+                error = e;
+            }
+            synchronized (this) {
+                this.syncing = false;
+                this.notifyAll();
+            }
+            completePendingSyncs(toSync, error);
+        }
+    }
+
+    private static void completePendingSyncs(List<PendingSync> pendingSyncs, IOException error) {
+        for (PendingSync pendingSync : pendingSyncs) {
+            if (error == null) {
+                pendingSync.future.complete(pendingSync.offset);
+            } else {
+                pendingSync.future.completeExceptionally(error);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.notifyAll();
+        }
+        if (this.syncThread != null) {
+            try {
+                this.syncThread.join();
+            } catch (InterruptedException e) {
+                logger.warn("wait sync thread interrupted");
+            }
+        }
+        synchronized (this) {
+            this.channel.force(false);
+            this.channel.close();
+        }
+    }
+
+    static class PendingSync {
+        long offset;
+        CompletableFuture<Long> future;
+
+        PendingSync(long offset, CompletableFuture<Long> future) {
+            this.offset = offset;
+            this.future = future;
+        }
+    }
+}
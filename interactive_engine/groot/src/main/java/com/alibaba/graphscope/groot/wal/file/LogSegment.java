@@ -0,0 +1,110 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.wal.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A read-only, memory-mapped view of one segment file of {@link FileLogService}.
+ *
+ * <p>A segment is a sequence of records, each record is framed as [length:int][crc:int]
+ * [offset:long][payload], the crc covers the offset and the payload. Scanning stops at the first
+ * record that is torn, corrupted or out of sequence.
+ */
+class LogSegment {
+    static final int HEADER_SIZE = 16;
+    static final String SUFFIX = ".log";
+
+    private long baseOffset;
+    private MappedByteBuffer buffer;
+    private long nextOffset;
+
+    LogSegment(File file, long baseOffset) throws IOException {
+        this.baseOffset = baseOffset;
+        this.nextOffset = baseOffset;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Read the payload of the next valid record.
+     *
+     * @return payload of the record, or null if no more valid record in this segment
+     */
+    byte[] next() {
+        if (this.buffer.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        int startPos = this.buffer.position();
+        int length = this.buffer.getInt();
+        int crc = this.buffer.getInt();
+        long offset = this.buffer.getLong();
+        if (length < 0 || length > this.buffer.remaining() || offset != this.nextOffset) {
+            this.buffer.position(startPos);
+            return null;
+        }
+        byte[] payload = new byte[length];
+        this.buffer.get(payload);
+        if (checksum(offset, payload) != crc) {
+            this.buffer.position(startPos);
+            return null;
+        }
+        this.nextOffset++;
+        return payload;
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    /** Offset of the record that will be returned by the next call of {@link #next()} */
+    long getNextOffset() {
+        return nextOffset;
+    }
+
+    /** Byte position right after the last valid record read */
+    int getValidPosition() {
+        return this.buffer.position();
+    }
+
+    static ByteBuffer encode(long offset, byte[] payload) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buf.putInt(payload.length);
+        buf.putInt(checksum(offset, payload));
+        buf.putLong(offset);
+        buf.put(payload);
+        buf.flip();
+        return buf;
+    }
+
+    static int checksum(long offset, byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        ByteBuffer offsetBuf = ByteBuffer.allocate(Long.BYTES);
+        offsetBuf.putLong(offset);
+        crc32.update(offsetBuf.array());
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d", baseOffset) + SUFFIX;
+    }
+}
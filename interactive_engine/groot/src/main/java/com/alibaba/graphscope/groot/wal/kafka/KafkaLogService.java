@@ -13,12 +13,14 @@
  */
 package com.alibaba.graphscope.groot.wal.kafka;
 
+import com.alibaba.graphscope.groot.operation.CompressionType;
 import com.alibaba.graphscope.groot.wal.LogReader;
 import com.alibaba.graphscope.groot.wal.LogService;
 import com.alibaba.graphscope.groot.wal.LogWriter;
 import com.alibaba.maxgraph.common.config.CommonConfig;
 import com.alibaba.maxgraph.common.config.Configs;
 import com.alibaba.maxgraph.common.config.KafkaConfig;
+import com.alibaba.maxgraph.common.config.WalConfig;
 import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
 
 import org.apache.kafka.clients.admin.AdminClient;
@@ -45,6 +47,7 @@ public class KafkaLogService implements LogService {
     private int queueCount;
     private short replicationFactor;
     private int maxMessageMb;
+    private CompressionType compression;
 
     private volatile AdminClient adminClient;
 
@@ -55,6 +58,7 @@ public class KafkaLogService implements LogService {
         this.queueCount = CommonConfig.INGESTOR_QUEUE_COUNT.get(configs);
         this.replicationFactor = KafkaConfig.KAFKA_REPLICATION_FACTOR.get(configs);
         this.maxMessageMb = KafkaConfig.KAFKA_MAX_MESSEAGE_MB.get(configs);
+        this.compression = CompressionType.fromName(WalConfig.WAL_COMPRESSION.get(configs));
     }
 
     @Override
@@ -107,7 +111,7 @@ public class KafkaLogService implements LogService {
                 customConfigs.put(kv[0], kv[1]);
             }
         }
-        return new KafkaLogWriter(servers, topic, queueId, customConfigs);
+        return new KafkaLogWriter(servers, topic, queueId, customConfigs, compression);
     }
 
     @Override
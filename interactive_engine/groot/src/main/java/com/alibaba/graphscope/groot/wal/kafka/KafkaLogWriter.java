@@ -15,6 +15,7 @@
  */
 package com.alibaba.graphscope.groot.wal.kafka;
 
+import com.alibaba.graphscope.groot.operation.CompressionType;
 import com.alibaba.graphscope.groot.wal.LogEntry;
 import com.alibaba.graphscope.groot.wal.LogWriter;
 import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
@@ -29,19 +30,28 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 public class KafkaLogWriter implements LogWriter {
     private static final Logger logger = LoggerFactory.getLogger(KafkaLogWriter.class);
 
-    private static final LogEntrySerializer ser = new LogEntrySerializer();
     private Producer<LogEntry, LogEntry> producer;
     private String topicName;
     private int partitionId;
 
     public KafkaLogWriter(
             String servers, String topicName, int partitionId, Map<String, String> customConfigs) {
+        this(servers, topicName, partitionId, customConfigs, CompressionType.NONE);
+    }
+
+    public KafkaLogWriter(
+            String servers,
+            String topicName,
+            int partitionId,
+            Map<String, String> customConfigs,
+            CompressionType compression) {
         this.topicName = topicName;
         this.partitionId = partitionId;
 
@@ -53,6 +63,7 @@ public class KafkaLogWriter implements LogWriter {
                 (k, v) -> {
                     producerConfig.put(k, v);
                 });
+        LogEntrySerializer ser = new LogEntrySerializer(compression);
         this.producer = new KafkaProducer<>(producerConfig, ser, ser);
     }
 
@@ -71,6 +82,21 @@ public class KafkaLogWriter implements LogWriter {
         return recordMetadata.offset();
     }
 
+    @Override
+    public Future<Long> appendAsync(LogEntry logEntry) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        producer.send(
+                new ProducerRecord<>(this.topicName, this.partitionId, null, logEntry),
+                (recordMetadata, e) -> {
+                    if (e != null) {
+                        future.completeExceptionally(e);
+                    } else {
+                        future.complete(recordMetadata.offset());
+                    }
+                });
+        return future;
+    }
+
     @Override
     public void close() throws IOException {
         this.producer.close();
@@ -17,7 +17,6 @@ package com.alibaba.graphscope.groot.wal.kafka;
 
 import com.alibaba.graphscope.groot.wal.LogEntry;
 import com.alibaba.maxgraph.compiler.api.exception.MaxGraphException;
-import com.alibaba.maxgraph.proto.groot.LogEntryPb;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import org.apache.kafka.common.serialization.Deserializer;
@@ -34,7 +33,7 @@ public class LogEntryDeserializer implements Deserializer<LogEntry> {
             return null;
         }
         try {
-            return LogEntry.parseProto(LogEntryPb.parseFrom(data));
+            return LogEntry.parseBytes(data);
         } catch (InvalidProtocolBufferException e) {
             throw new MaxGraphException(e);
         }
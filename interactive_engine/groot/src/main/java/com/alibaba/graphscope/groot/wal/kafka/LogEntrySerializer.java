@@ -15,6 +15,7 @@
  */
 package com.alibaba.graphscope.groot.wal.kafka;
 
+import com.alibaba.graphscope.groot.operation.CompressionType;
 import com.alibaba.graphscope.groot.wal.LogEntry;
 
 import org.apache.kafka.common.serialization.Serializer;
@@ -23,6 +24,16 @@ import java.util.Map;
 
 public class LogEntrySerializer implements Serializer<LogEntry> {
 
+    private CompressionType compression;
+
+    public LogEntrySerializer() {
+        this(CompressionType.NONE);
+    }
+
+    public LogEntrySerializer(CompressionType compression) {
+        this.compression = compression;
+    }
+
     @Override
     public void configure(Map<String, ?> configs, boolean isKey) {}
 
@@ -31,7 +42,7 @@ public class LogEntrySerializer implements Serializer<LogEntry> {
         if (data == null) {
             return null;
         }
-        return data.toProto().toByteArray();
+        return data.toBytes(this.compression);
     }
 
     @Override
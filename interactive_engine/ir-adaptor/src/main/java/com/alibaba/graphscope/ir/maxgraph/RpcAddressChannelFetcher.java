@@ -17,6 +17,7 @@
 package com.alibaba.graphscope.ir.maxgraph;
 
 import com.alibaba.graphscope.common.client.RpcChannelFetcher;
+import com.alibaba.graphscope.common.client.RpcChannelPool;
 import com.alibaba.maxgraph.common.rpc.RpcAddressFetcher;
 import com.alibaba.maxgraph.sdkcommon.client.Endpoint;
 import com.alibaba.pegasus.RpcChannel;
@@ -24,23 +25,36 @@ import com.alibaba.pegasus.RpcChannel;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class RpcAddressChannelFetcher implements RpcChannelFetcher {
+public class RpcAddressChannelFetcher implements RpcChannelFetcher, AutoCloseable {
     private RpcAddressFetcher addressFetcher;
+    private RpcChannelPool channelPool;
 
     public RpcAddressChannelFetcher(RpcAddressFetcher addressFetcher) {
         this.addressFetcher = addressFetcher;
+        this.channelPool = new RpcChannelPool();
     }
 
     @Override
     public List<RpcChannel> fetch() {
         List<Endpoint> endpoints = addressFetcher.getServiceAddress();
-        return endpoints.stream()
-                .map(k -> new RpcChannel(k.getIp(), k.getRuntimeCtrlAndAsyncPort()))
-                .collect(Collectors.toList());
+        return channelPool.getChannels(
+                endpoints.stream()
+                        .map(k -> k.getIp() + ":" + k.getRuntimeCtrlAndAsyncPort())
+                        .collect(Collectors.toList()));
     }
 
     @Override
     public boolean isDynamic() {
         return true;
     }
+
+    @Override
+    public RpcChannelPool getChannelPool() {
+        return channelPool;
+    }
+
+    @Override
+    public void close() throws Exception {
+        channelPool.close();
+    }
 }
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.maxgraph.sdkcommon.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets in the style of HdrHistogram. Values are
+ * nanoseconds, every power of two range is split into {@link #SUB_BUCKET_HALF_COUNT} linear
+ * buckets, so the relative error of a percentile is below 1 / {@link #SUB_BUCKET_HALF_COUNT}.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int BUCKET_COUNT = 64 * SUB_BUCKET_HALF_COUNT;
+
+    private AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private LongAdder totalCount = new LongAdder();
+    private LongAdder totalNano = new LongAdder();
+    private AtomicLong maxNano = new AtomicLong(0L);
+
+    public void record(long valueNano) {
+        if (valueNano < 0L) {
+            valueNano = 0L;
+        }
+        this.counts.incrementAndGet(bucketIndex(valueNano));
+        this.totalCount.increment();
+        this.totalNano.add(valueNano);
+        long max = this.maxNano.get();
+        while (valueNano > max && !this.maxNano.compareAndSet(max, valueNano)) {
+            max = this.maxNano.get();
+        }
+    }
+
+    public void recordSince(long startTimeNano) {
+        record(System.nanoTime() - startTimeNano);
+    }
+
+    public long getCount() {
+        return this.totalCount.sum();
+    }
+
+    public long getTotalNano() {
+        return this.totalNano.sum();
+    }
+
+    public long getMaxNano() {
+        return this.maxNano.get();
+    }
+
+    /**
+     * Returns the upper bound of the bucket that holds the given percentile, or 0 if nothing was
+     * recorded. Concurrent records may or may not be reflected.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = this.counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(total * Math.min(percentile, 100.0) / 100.0);
+        rank = Math.max(rank, 1L);
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), getMaxNano());
+            }
+        }
+        return getMaxNano();
+    }
+
+    static int bucketIndex(long value) {
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = Math.max(0, msb - SUB_BUCKET_BITS + 1);
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKET_HALF_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index - shift * SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
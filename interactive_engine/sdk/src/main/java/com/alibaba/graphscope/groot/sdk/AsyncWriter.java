@@ -0,0 +1,273 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.sdk;
+
+import com.alibaba.graphscope.proto.write.BatchWriteRequest;
+import com.alibaba.graphscope.proto.write.BatchWriteResponse;
+import com.alibaba.graphscope.proto.write.ClientWriteGrpc;
+import com.alibaba.graphscope.proto.write.WriteRequestPb;
+import com.alibaba.maxgraph.common.util.ThreadFactoryUtils;
+
+import io.grpc.stub.StreamObserver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Writes records through the batchWriteStream RPC. Records are collected into batches that are
+ * sent when they reach batchSize records or are flushIntervalMs old. At most maxInflightBatches
+ * batches wait for a response, after that the methods adding records block. The frontend writes
+ * the batches in flight concurrently but keeps the order they are sent in, and answers them in
+ * that order. Every record gets the future of the snapshot id its batch is written in.
+ */
+public class AsyncWriter implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncWriter.class);
+
+    private String clientId;
+    private PropertyEncoder propertyEncoder;
+    private Supplier<PropertyEncoder> typedEncoderSupplier;
+    private int batchSize;
+    private long flushIntervalMs;
+    private int maxInflightBatches;
+
+    private StreamObserver<BatchWriteRequest> requestObserver;
+    private Semaphore inflightPermits;
+    private Map<Long, CompletableFuture<Long>> inflightBatches;
+    private ScheduledExecutorService flushScheduler;
+
+    private BatchWriteRequest.Builder batchBuilder;
+    private CompletableFuture<Long> batchFuture;
+    private long batchStartTime;
+    private long nextRequestSeq;
+    private volatile Throwable streamError;
+    private boolean closed;
+
+    AsyncWriter(
+            ClientWriteGrpc.ClientWriteStub stub,
+            String clientId,
+            PropertyEncoder propertyEncoder,
+            Supplier<PropertyEncoder> typedEncoderSupplier,
+            int batchSize,
+            long flushIntervalMs,
+            int maxInflightBatches) {
+        this.clientId = clientId;
+        this.propertyEncoder = propertyEncoder;
+        this.typedEncoderSupplier = typedEncoderSupplier;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxInflightBatches = maxInflightBatches;
+        this.inflightPermits = new Semaphore(maxInflightBatches);
+        this.inflightBatches = new ConcurrentHashMap<>();
+        this.nextRequestSeq = 0L;
+        this.closed = false;
+        newBatch();
+        this.requestObserver = stub.batchWriteStream(new ResponseObserver());
+        this.flushScheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        ThreadFactoryUtils.daemonThreadFactoryWithLogExceptionHandler(
+                                "async-writer-flush", logger));
+        this.flushScheduler.scheduleWithFixedDelay(
+                () -> flushIfExpired(), flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<Long> addVertex(String label, Map<String, String> properties) {
+        return add(Client.vertexWriteRequest(this.propertyEncoder, label, properties));
+    }
+
+    public CompletableFuture<Long> addEdge(
+            String label,
+            String srcLabel,
+            String dstLabel,
+            Map<String, String> srcPk,
+            Map<String, String> dstPk,
+            Map<String, String> properties) {
+        return add(
+                Client.edgeWriteRequest(
+                        this.propertyEncoder, label, srcLabel, dstLabel, srcPk, dstPk, properties));
+    }
+
+    /**
+     * Same as {@link #addVertex(String, Map)}, but takes property values as objects of the types
+     * of the properties. Enables typed properties if it is not enabled yet.
+     */
+    public CompletableFuture<Long> addTypedVertex(String label, Map<String, Object> properties) {
+        return add(Client.vertexWriteRequest(typedPropertyEncoder(), label, properties));
+    }
+
+    /** Typed version of {@link #addEdge(String, String, String, Map, Map, Map)} */
+    public CompletableFuture<Long> addTypedEdge(
+            String label,
+            String srcLabel,
+            String dstLabel,
+            Map<String, Object> srcPk,
+            Map<String, Object> dstPk,
+            Map<String, Object> properties) {
+        return add(
+                Client.edgeWriteRequest(
+                        typedPropertyEncoder(),
+                        label,
+                        srcLabel,
+                        dstLabel,
+                        srcPk,
+                        dstPk,
+                        properties));
+    }
+
+    private synchronized PropertyEncoder typedPropertyEncoder() {
+        if (this.propertyEncoder == null) {
+            this.propertyEncoder = this.typedEncoderSupplier.get();
+        }
+        return this.propertyEncoder;
+    }
+
+    /** Send the current batch now, returns the future of its snapshot id */
+    public synchronized CompletableFuture<Long> flush() {
+        CompletableFuture<Long> future = this.batchFuture;
+        if (this.batchBuilder.getWriteRequestsCount() == 0) {
+            future.complete(0L);
+        } else {
+            sendBatch();
+        }
+        newBatch();
+        return future;
+    }
+
+    private synchronized CompletableFuture<Long> add(WriteRequestPb writeRequest) {
+        checkState();
+        if (this.batchBuilder.getWriteRequestsCount() == 0) {
+            this.batchStartTime = System.currentTimeMillis();
+        }
+        this.batchBuilder.addWriteRequests(writeRequest);
+        CompletableFuture<Long> future = this.batchFuture;
+        if (this.batchBuilder.getWriteRequestsCount() >= this.batchSize) {
+            flush();
+        }
+        return future;
+    }
+
+    private synchronized void flushIfExpired() {
+        if (!this.closed
+                && this.batchBuilder.getWriteRequestsCount() > 0
+                && System.currentTimeMillis() - this.batchStartTime >= this.flushIntervalMs) {
+            flush();
+        }
+    }
+
+    private void sendBatch() {
+        long requestSeq = this.nextRequestSeq++;
+        CompletableFuture<Long> future = this.batchFuture;
+        try {
+            this.inflightPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return;
+        }
+        if (this.streamError != null) {
+            this.inflightPermits.release();
+            future.completeExceptionally(this.streamError);
+            return;
+        }
+        this.inflightBatches.put(requestSeq, future);
+        if (this.streamError != null) {
+            // The stream failed after the check above, the batch may have been missed
+            if (this.inflightBatches.remove(requestSeq) != null) {
+                this.inflightPermits.release();
+                future.completeExceptionally(this.streamError);
+            }
+            return;
+        }
+        this.requestObserver.onNext(
+                this.batchBuilder.setClientId(this.clientId).setRequestSeq(requestSeq).build());
+    }
+
+    private void newBatch() {
+        this.batchBuilder = BatchWriteRequest.newBuilder();
+        this.batchFuture = new CompletableFuture<>();
+    }
+
+    private void checkState() {
+        if (this.closed) {
+            throw new IllegalStateException("writer already closed");
+        }
+        if (this.streamError != null) {
+            throw new IllegalStateException("write stream failed", this.streamError);
+        }
+    }
+
+    /** Send the pending records, wait for all batches in flight and close the stream. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            flush();
+            this.closed = true;
+        }
+        this.flushScheduler.shutdown();
+        try {
+            this.inflightPermits.acquire(this.maxInflightBatches);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("interrupted when waiting batches in flight", e);
+        }
+        if (this.streamError == null) {
+            this.requestObserver.onCompleted();
+        }
+    }
+
+    private class ResponseObserver implements StreamObserver<BatchWriteResponse> {
+        @Override
+        public void onNext(BatchWriteResponse response) {
+            CompletableFuture<Long> future = inflightBatches.remove(response.getRequestSeq());
+            if (future != null) {
+                inflightPermits.release();
+                future.complete(response.getSnapshotId());
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.error("write stream failed", t);
+            failInflight(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            failInflight(new IllegalStateException("write stream completed by server"));
+        }
+
+        private void failInflight(Throwable t) {
+            streamError = t;
+            for (Long requestSeq : inflightBatches.keySet()) {
+                CompletableFuture<Long> future = inflightBatches.remove(requestSeq);
+                if (future != null) {
+                    future.completeExceptionally(t);
+                    inflightPermits.release();
+                }
+            }
+        }
+    }
+}
@@ -52,6 +52,7 @@ public class Client implements Closeable {
     private String clientId = "DEFAULT";
 
     private BatchWriteRequest.Builder batchWriteBuilder;
+    private PropertyEncoder propertyEncoder;
 
     public Client(String hosts) {
         List<SocketAddress> addrList = new ArrayList<>();
@@ -95,18 +96,17 @@ public class Client implements Closeable {
         this.reset();
     }
 
+    /**
+     * Encode property values with the data types of the current schema before sending them, so
+     * that the frontend does not need to parse them. Call it again after the schema changes.
+     */
+    public void enableTypedProperties() {
+        this.propertyEncoder = new PropertyEncoder(getSchema());
+    }
+
     public void addVertex(String label, Map<String, String> properties) {
-        VertexRecordKey vertexRecordKey = new VertexRecordKey(label);
-        WriteRequestPb writeRequest =
-                WriteRequestPb.newBuilder()
-                        .setWriteType(WriteTypePb.INSERT)
-                        .setDataRecord(
-                                DataRecordPb.newBuilder()
-                                        .setVertexRecordKey(vertexRecordKey.toProto())
-                                        .putAllProperties(properties)
-                                        .build())
-                        .build();
-        this.batchWriteBuilder.addWriteRequests(writeRequest);
+        this.batchWriteBuilder.addWriteRequests(
+                vertexWriteRequest(this.propertyEncoder, label, properties));
     }
 
     public void addEdge(
@@ -116,21 +116,98 @@ public class Client implements Closeable {
             Map<String, String> srcPk,
             Map<String, String> dstPk,
             Map<String, String> properties) {
-        VertexRecordKey srcVertexKey =
-                new VertexRecordKey(srcLabel, Collections.unmodifiableMap(srcPk));
-        VertexRecordKey dstVertexKey =
-                new VertexRecordKey(dstLabel, Collections.unmodifiableMap(dstPk));
+        this.batchWriteBuilder.addWriteRequests(
+                edgeWriteRequest(
+                        this.propertyEncoder, label, srcLabel, dstLabel, srcPk, dstPk, properties));
+    }
+
+    /**
+     * Same as {@link #addVertex(String, Map)}, but takes property values as objects of the types
+     * of the properties, e.g. Long or Double, which are encoded without going through strings.
+     * Enables typed properties if it is not enabled yet.
+     */
+    public void addTypedVertex(String label, Map<String, Object> properties) {
+        this.batchWriteBuilder.addWriteRequests(
+                vertexWriteRequest(typedPropertyEncoder(), label, properties));
+    }
+
+    /** Typed version of {@link #addEdge(String, String, String, Map, Map, Map)} */
+    public void addTypedEdge(
+            String label,
+            String srcLabel,
+            String dstLabel,
+            Map<String, Object> srcPk,
+            Map<String, Object> dstPk,
+            Map<String, Object> properties) {
+        this.batchWriteBuilder.addWriteRequests(
+                edgeWriteRequest(
+                        typedPropertyEncoder(),
+                        label,
+                        srcLabel,
+                        dstLabel,
+                        srcPk,
+                        dstPk,
+                        properties));
+    }
+
+    private PropertyEncoder typedPropertyEncoder() {
+        if (this.propertyEncoder == null) {
+            enableTypedProperties();
+        }
+        return this.propertyEncoder;
+    }
+
+    static WriteRequestPb vertexWriteRequest(
+            PropertyEncoder encoder, String label, Map<String, ?> properties) {
+        VertexRecordKey vertexRecordKey = new VertexRecordKey(label);
+        DataRecordPb.Builder dataRecordBuilder =
+                DataRecordPb.newBuilder().setVertexRecordKey(vertexRecordKey.toProto());
+        putProperties(dataRecordBuilder, encoder, label, properties);
+        return WriteRequestPb.newBuilder()
+                .setWriteType(WriteTypePb.INSERT)
+                .setDataRecord(dataRecordBuilder)
+                .build();
+    }
+
+    static WriteRequestPb edgeWriteRequest(
+            PropertyEncoder encoder,
+            String label,
+            String srcLabel,
+            String dstLabel,
+            Map<String, ?> srcPk,
+            Map<String, ?> dstPk,
+            Map<String, ?> properties) {
+        VertexRecordKey srcVertexKey = vertexRecordKey(encoder, srcLabel, srcPk);
+        VertexRecordKey dstVertexKey = vertexRecordKey(encoder, dstLabel, dstPk);
         EdgeRecordKey edgeRecordKey = new EdgeRecordKey(label, srcVertexKey, dstVertexKey);
-        WriteRequestPb writeRequest =
-                WriteRequestPb.newBuilder()
-                        .setWriteType(WriteTypePb.INSERT)
-                        .setDataRecord(
-                                DataRecordPb.newBuilder()
-                                        .setEdgeRecordKey(edgeRecordKey.toProto())
-                                        .putAllProperties(properties)
-                                        .build())
-                        .build();
-        this.batchWriteBuilder.addWriteRequests(writeRequest);
+        DataRecordPb.Builder dataRecordBuilder =
+                DataRecordPb.newBuilder().setEdgeRecordKey(edgeRecordKey.toProto());
+        putProperties(dataRecordBuilder, encoder, label, properties);
+        return WriteRequestPb.newBuilder()
+                .setWriteType(WriteTypePb.INSERT)
+                .setDataRecord(dataRecordBuilder)
+                .build();
+    }
+
+    private static VertexRecordKey vertexRecordKey(
+            PropertyEncoder encoder, String label, Map<String, ?> pk) {
+        if (encoder == null) {
+            return new VertexRecordKey(label, Collections.unmodifiableMap(pk));
+        }
+        return new VertexRecordKey(label, Collections.unmodifiableMap(encoder.encode(label, pk)));
+    }
+
+    private static void putProperties(
+            DataRecordPb.Builder dataRecordBuilder,
+            PropertyEncoder encoder,
+            String label,
+            Map<String, ?> properties) {
+        if (encoder == null) {
+            properties.forEach((k, v) -> dataRecordBuilder.putProperties(k, String.valueOf(v)));
+        } else {
+            encoder.encode(label, properties)
+                    .forEach((k, v) -> dataRecordBuilder.putTypedProperties(k, v.toTypedProto()));
+        }
     }
 
     public long commit() {
@@ -143,6 +220,23 @@ public class Client implements Closeable {
         return snapshotId;
     }
 
+    /**
+     * Open a writer that batches records by count or time and keeps up to maxInflightBatches
+     * batches in flight on one stream. Call {@link #initWriteSession()} first to write with a
+     * session of its own.
+     */
+    public AsyncWriter openAsyncWriter(
+            int batchSize, long flushIntervalMs, int maxInflightBatches) {
+        return new AsyncWriter(
+                ClientWriteGrpc.newStub(this.channel),
+                this.clientId,
+                this.propertyEncoder,
+                this::typedPropertyEncoder,
+                batchSize,
+                flushIntervalMs,
+                maxInflightBatches);
+    }
+
     public void remoteFlush(long snapshotId) {
         this.stub.remoteFlush(RemoteFlushRequest.newBuilder().setSnapshotId(snapshotId).build());
     }
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.graphscope.groot.sdk;
+
+import com.alibaba.graphscope.groot.schema.PropertyValue;
+import com.alibaba.maxgraph.compiler.api.exception.PropertyDefNotFoundException;
+import com.alibaba.maxgraph.compiler.api.schema.GraphElement;
+import com.alibaba.maxgraph.compiler.api.schema.GraphProperty;
+import com.alibaba.maxgraph.compiler.api.schema.GraphSchema;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes property values with the data types of a graph schema, so that the frontend receives
+ * them as typed values instead of strings to parse. Values can be strings or objects of the type
+ * of the property.
+ */
+public class PropertyEncoder {
+
+    private GraphSchema schema;
+
+    public PropertyEncoder(GraphSchema schema) {
+        this.schema = schema;
+    }
+
+    public Map<String, PropertyValue> encode(String label, Map<String, ?> properties) {
+        GraphElement graphElement = this.schema.getElement(label);
+        Map<String, PropertyValue> res = new HashMap<>(properties.size() * 2);
+        properties.forEach(
+                (propertyName, val) -> {
+                    GraphProperty propertyDef = graphElement.getProperty(propertyName);
+                    if (propertyDef == null) {
+                        throw new PropertyDefNotFoundException(
+                                "property [" + propertyName + "] not found in [" + label + "]");
+                    }
+                    res.put(propertyName, new PropertyValue(propertyDef.getDataType(), val));
+                });
+        return res;
+    }
+}
@@ -26,6 +26,7 @@ import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class ClientTest {
 
@@ -91,4 +92,42 @@ public class ClientTest {
                 Collections.singletonMap("creationDate", "20201111"));
         client.commit();
     }
+
+    @Test
+    void testAddTypedData() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("firstName", "carol");
+        properties.put("id", 54321L);
+        client.addTypedVertex("person", properties);
+        client.addTypedEdge(
+                "knows",
+                "person",
+                "person",
+                Collections.singletonMap("id", 54321L),
+                Collections.singletonMap("id", 12345L),
+                Collections.singletonMap("creationDate", "20201111"));
+        client.commit();
+    }
+
+    @Test
+    void testAsyncAddData() throws Exception {
+        CompletableFuture<Long> lastFuture;
+        try (AsyncWriter writer = client.openAsyncWriter(16, 100L, 4)) {
+            for (int i = 0; i < 100; i++) {
+                Map<String, String> properties = new HashMap<>();
+                properties.put("firstName", "async" + i);
+                properties.put("id", "" + (10000 + i));
+                writer.addVertex("person", properties);
+            }
+            lastFuture =
+                    writer.addEdge(
+                            "knows",
+                            "person",
+                            "person",
+                            Collections.singletonMap("id", "10000"),
+                            Collections.singletonMap("id", "10001"),
+                            Collections.singletonMap("creationDate", "20201111"));
+        }
+        client.remoteFlush(lastFuture.get());
+    }
 }
@@ -23,7 +23,8 @@ import com.alibaba.pegasus.service.protocol.PegasusClient.JobRequest;
 import com.alibaba.pegasus.service.protocol.PegasusClient.JobResponse;
 
 import io.grpc.Status;
-import io.grpc.stub.StreamObserver;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,15 +37,28 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class RpcClient {
     private static final Logger logger = LoggerFactory.getLogger(RpcClient.class);
 
+    // max number of responses buffered in the client before servers are paused
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
     private List<RpcChannel> channels;
+    private int bufferSize;
 
     public RpcClient(List<RpcChannel> channels) {
+        this(channels, DEFAULT_BUFFER_SIZE);
+    }
+
+    public RpcClient(List<RpcChannel> channels, int bufferSize) {
         this.channels = channels;
+        this.bufferSize = bufferSize;
     }
 
     public CloseableIterator<JobResponse> submit(JobRequest jobRequest)
             throws InterruptedException {
-        StreamIterator<JobResponse> responseIterator = new StreamIterator<>();
+        // each server gets an equal share of the buffer as the initial request credits, a credit is
+        // returned to the server once one of its responses is consumed
+        int credits = Math.max(1, this.bufferSize / this.channels.size());
+        StreamIterator<JobResponse> responseIterator =
+                new StreamIterator<>(credits * this.channels.size());
         AtomicInteger counter = new AtomicInteger(this.channels.size());
         AtomicBoolean finished = new AtomicBoolean(false);
         for (RpcChannel rpcChannel : channels) {
@@ -54,7 +68,8 @@ public class RpcClient {
                     .withDeadlineAfter(600000, TimeUnit.MILLISECONDS)
                     .submit(
                             jobRequest,
-                            new JobResponseObserver(responseIterator, finished, counter));
+                            new JobResponseObserver(
+                                    responseIterator, finished, counter, credits));
         }
         return responseIterator;
     }
@@ -65,18 +80,31 @@ public class RpcClient {
         }
     }
 
-    private static class JobResponseObserver implements StreamObserver<JobResponse> {
+    static class JobResponseObserver
+            implements ClientResponseObserver<JobRequest, JobResponse> {
         private final StreamIterator<JobResponse> iterator;
         private final AtomicBoolean finished;
         private final AtomicInteger counter;
+        private final int credits;
+        private ClientCallStreamObserver<JobRequest> requestStream;
 
         public JobResponseObserver(
                 StreamIterator<JobResponse> iterator,
                 AtomicBoolean finished,
-                AtomicInteger counter) {
+                AtomicInteger counter,
+                int credits) {
             this.iterator = iterator;
             this.finished = finished;
             this.counter = counter;
+            this.credits = credits;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<JobRequest> requestStream) {
+            this.requestStream = requestStream;
+            // responses are requested manually, so a slow consumer pauses the server by grpc flow
+            // control instead of piling up responses in the client
+            requestStream.disableAutoRequestWithInitial(this.credits);
         }
 
         @Override
@@ -84,8 +112,12 @@ public class RpcClient {
             if (finished.get()) {
                 return;
             }
+            if (this.iterator.isClosed()) {
+                this.requestStream.cancel("response iterator is closed", null);
+                return;
+            }
             try {
-                this.iterator.putData(jobResponse);
+                this.iterator.putData(jobResponse, () -> this.requestStream.request(1));
             } catch (InterruptedException e) {
                 onError(e);
             }
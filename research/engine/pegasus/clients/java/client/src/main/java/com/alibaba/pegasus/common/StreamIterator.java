@@ -20,7 +20,10 @@ import com.alibaba.pegasus.intf.CloseableIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicReference;
@@ -40,6 +43,18 @@ public class StreamIterator<T> implements CloseableIterator<T> {
         this.head = null;
     }
 
+    /**
+     * Create an iterator with a bounded buffer, producers block in {@link #putData(Object)} when
+     * the buffer is full, or use {@link #putData(Object, Runnable)} to be notified when the data is
+     * consumed.
+     */
+    public StreamIterator(int capacity) {
+        // one more slot for the PILL or the exception
+        this.buffer = new ArrayBlockingQueue<>(capacity + 1);
+
+        this.head = null;
+    }
+
     @Override
     public boolean hasNext() {
         Throwable t = this.exception.get();
@@ -52,6 +67,11 @@ public class StreamIterator<T> implements CloseableIterator<T> {
             } catch (InterruptedException ie) {
                 throw new RuntimeException(ie);
             }
+            if (head instanceof ConsumeListenedData) {
+                ConsumeListenedData data = (ConsumeListenedData) head;
+                head = data.data;
+                data.onConsumed.run();
+            }
             if (head == PILL) {
                 return false;
             }
@@ -80,6 +100,15 @@ public class StreamIterator<T> implements CloseableIterator<T> {
         this.buffer.put(data);
     }
 
+    // From common, onConsumed is called once the data is taken by the consumer or dropped by close
+    public void putData(T data, Runnable onConsumed) throws InterruptedException {
+        if (closed) {
+            onConsumed.run();
+            return;
+        }
+        this.buffer.put(new ConsumeListenedData(data, onConsumed));
+    }
+
     // From common
     public void fail(Throwable t) {
         if (closed) {
@@ -105,10 +134,30 @@ public class StreamIterator<T> implements CloseableIterator<T> {
         return this.buffer.size();
     }
 
+    public boolean isClosed() {
+        return this.closed;
+    }
+
     // From iterator consumer
     @Override
     public void close() {
         this.closed = true;
-        this.buffer.clear();
+        List<Object> dropped = new ArrayList<>();
+        this.buffer.drainTo(dropped);
+        for (Object o : dropped) {
+            if (o instanceof ConsumeListenedData) {
+                ((ConsumeListenedData) o).onConsumed.run();
+            }
+        }
+    }
+
+    private static class ConsumeListenedData {
+        private final Object data;
+        private final Runnable onConsumed;
+
+        private ConsumeListenedData(Object data, Runnable onConsumed) {
+            this.data = data;
+            this.onConsumed = onConsumed;
+        }
     }
 }
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2020 Alibaba Group Holding Limited.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.pegasus;
+
+import com.alibaba.pegasus.common.StreamIterator;
+import com.alibaba.pegasus.service.protocol.PegasusClient.JobRequest;
+import com.alibaba.pegasus.service.protocol.PegasusClient.JobResponse;
+
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RpcClientFlowControlTest {
+    private static final int CREDITS = 2;
+
+    @Test
+    public void testNoRequestUntilConsumed() throws Exception {
+        StreamIterator<JobResponse> iterator = new StreamIterator<>(CREDITS);
+        FakeRequestStream stream = new FakeRequestStream();
+        RpcClient.JobResponseObserver observer = newObserver(iterator, 1);
+        observer.beforeStart(stream);
+        Assert.assertEquals(CREDITS, stream.initialRequest);
+
+        // the server may only send the initial credits, none of them is returned before the
+        // consumer takes a response
+        observer.onNext(response(1));
+        observer.onNext(response(2));
+        Assert.assertEquals(0, stream.requested.get());
+        Assert.assertEquals(CREDITS, iterator.size());
+
+        Assert.assertEquals(1, iterator.next().getJobId());
+        Assert.assertEquals(1, stream.requested.get());
+
+        observer.onNext(response(3));
+        Assert.assertEquals(1, stream.requested.get());
+
+        Assert.assertEquals(2, iterator.next().getJobId());
+        Assert.assertEquals(3, iterator.next().getJobId());
+        Assert.assertEquals(3, stream.requested.get());
+
+        observer.onCompleted();
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertEquals(3, stream.requested.get());
+        Assert.assertFalse(stream.cancelled);
+    }
+
+    @Test
+    public void testErrorInTheMiddleOfStream() throws Exception {
+        StreamIterator<JobResponse> iterator = new StreamIterator<>(CREDITS);
+        FakeRequestStream stream = new FakeRequestStream();
+        RpcClient.JobResponseObserver observer = newObserver(iterator, 1);
+        observer.beforeStart(stream);
+
+        observer.onNext(response(1));
+        Assert.assertEquals(1, iterator.next().getJobId());
+        observer.onNext(response(2));
+        observer.onError(Status.UNAVAILABLE.withDescription("server down").asRuntimeException());
+
+        // the error is reported to the consumer at once, responses after it are dropped
+        try {
+            iterator.hasNext();
+            Assert.fail("expect the stream error");
+        } catch (RuntimeException e) {
+            Assert.assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(e).getCode());
+        }
+        observer.onNext(response(3));
+        Assert.assertEquals(2, iterator.size());
+
+        // closing the failed stream returns the credit of the undelivered response
+        iterator.close();
+        Assert.assertEquals(2, stream.requested.get());
+        Assert.assertEquals(0, iterator.size());
+    }
+
+    @Test
+    public void testCancelInTheMiddleOfStream() throws Exception {
+        StreamIterator<JobResponse> iterator = new StreamIterator<>(CREDITS);
+        FakeRequestStream stream = new FakeRequestStream();
+        RpcClient.JobResponseObserver observer = newObserver(iterator, 1);
+        observer.beforeStart(stream);
+
+        observer.onNext(response(1));
+        observer.onNext(response(2));
+        Assert.assertEquals(1, iterator.next().getJobId());
+        Assert.assertEquals(1, stream.requested.get());
+
+        // the consumer gives up, the buffered response is dropped and the server is cancelled on
+        // its next response instead of being asked for more
+        iterator.close();
+        Assert.assertEquals(2, stream.requested.get());
+        Assert.assertFalse(stream.cancelled);
+
+        observer.onNext(response(3));
+        Assert.assertTrue(stream.cancelled);
+        Assert.assertEquals(2, stream.requested.get());
+        Assert.assertEquals(0, iterator.size());
+    }
+
+    @Test
+    public void testFinishAfterAllServersComplete() throws Exception {
+        StreamIterator<JobResponse> iterator = new StreamIterator<>(CREDITS * 2);
+        AtomicBoolean finished = new AtomicBoolean(false);
+        AtomicInteger counter = new AtomicInteger(2);
+        RpcClient.JobResponseObserver first =
+                new RpcClient.JobResponseObserver(iterator, finished, counter, CREDITS);
+        RpcClient.JobResponseObserver second =
+                new RpcClient.JobResponseObserver(iterator, finished, counter, CREDITS);
+        first.beforeStart(new FakeRequestStream());
+        second.beforeStart(new FakeRequestStream());
+
+        first.onNext(response(1));
+        first.onCompleted();
+        Assert.assertEquals(1, iterator.next().getJobId());
+        Assert.assertEquals(0, iterator.size());
+
+        second.onNext(response(2));
+        second.onCompleted();
+        Assert.assertEquals(2, iterator.next().getJobId());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    private static RpcClient.JobResponseObserver newObserver(
+            StreamIterator<JobResponse> iterator, int servers) {
+        return new RpcClient.JobResponseObserver(
+                iterator, new AtomicBoolean(false), new AtomicInteger(servers), CREDITS);
+    }
+
+    private static JobResponse response(long id) {
+        return JobResponse.newBuilder().setJobId(id).build();
+    }
+
+    private static class FakeRequestStream extends ClientCallStreamObserver<JobRequest> {
+        private final AtomicInteger requested = new AtomicInteger(0);
+        private int initialRequest = -1;
+        private volatile boolean cancelled = false;
+
+        @Override
+        public void disableAutoRequestWithInitial(int request) {
+            this.initialRequest = request;
+        }
+
+        @Override
+        public void request(int count) {
+            this.requested.addAndGet(count);
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            this.cancelled = true;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {}
+
+        @Override
+        public void disableAutoInboundFlowControl() {}
+
+        @Override
+        public void setMessageCompression(boolean enable) {}
+
+        @Override
+        public void onNext(JobRequest value) {}
+
+        @Override
+        public void onError(Throwable t) {}
+
+        @Override
+        public void onCompleted() {}
+    }
+}
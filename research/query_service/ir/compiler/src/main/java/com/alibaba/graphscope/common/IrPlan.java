@@ -87,8 +87,6 @@ public class IrPlan implements Closeable {
                         irCoreLib.addScanIndexPredicate(scan, idsPredicate);
                     }
                 }
-                // todo: add other predicates
-                // todo: add limit
 
                 Optional<OpArg> aliasOpt = baseOp.getAlias();
                 if (aliasOpt.isPresent()) {
@@ -123,6 +121,16 @@ public class IrPlan implements Closeable {
                                 "setParamsPredicate returns " + error.msg);
                     }
                 }
+                // the upper bound of the scan on each partition, in the range of limit
+                Optional<OpArg> limit = op.getLimit();
+                if (limit.isPresent()) {
+                    int upper = (Integer) limit.get().applyArg();
+                    FfiError error = irCoreLib.setParamsRange(ptrParams, 1, upper);
+                    if (error.code != ResultCode.Success) {
+                        throw new InterOpIllegalArgException(
+                                op.getClass(), "limit", "setParamsRange returns " + error.msg);
+                    }
+                }
                 return ptrParams;
             }
         },
@@ -171,7 +179,6 @@ public class IrPlan implements Closeable {
                             op.getClass(), "params", "setEdgexpdParams returns " + e1.msg);
                 }
                 // todo: add properties
-                // todo: add predicates
                 // todo: add limit
                 Optional<OpArg> aliasOpt = baseOp.getAlias();
                 if (aliasOpt.isPresent() && ClassUtils.equalClass(baseOp, ExpandOp.class)) {
@@ -195,6 +202,18 @@ public class IrPlan implements Closeable {
                         }
                     }
                 }
+                // filter edges by predicate
+                Optional<OpArg> predicate = op.getPredicate();
+                if (predicate.isPresent()) {
+                    String expr = (String) predicate.get().applyArg();
+                    FfiError error = irCoreLib.setParamsPredicate(ptrParams, expr);
+                    if (error.code != ResultCode.Success) {
+                        throw new InterOpIllegalArgException(
+                                op.getClass(),
+                                "predicate",
+                                "setParamsPredicate returns " + error.msg);
+                    }
+                }
                 return ptrParams;
             }
         },
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common;
+
+import com.alibaba.graphscope.common.client.ResultParser;
+import com.alibaba.pegasus.service.protocol.PegasusClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache from the query script to its physical plan. The plan is built against the
+ * schema of the IR core, so all entries are dropped once the schema version changes.
+ *
+ * <p>Literals are not parameterized, a plan is only shared by scripts that are the same after
+ * {@link #normalize(String)}. So the cache pays off for workloads that repeat the same queries,
+ * e.g. dashboards or benchmarks, and not for queries built by concatenating different ids or
+ * values.
+ */
+public class IrPlanCache {
+    private final int capacity;
+    private final LinkedHashMap<String, Entry> cache;
+    private long schemaVersion;
+
+    private long hitCount;
+    private long missCount;
+    private long savedNanos;
+
+    public IrPlanCache(int capacity) {
+        this.capacity = capacity;
+        this.cache =
+                new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                        return size() > IrPlanCache.this.capacity;
+                    }
+                };
+        this.schemaVersion = -1L;
+    }
+
+    public synchronized Entry get(String script, long schemaVersion) {
+        checkSchemaVersion(schemaVersion);
+        Entry entry = this.cache.get(normalize(script));
+        if (entry == null) {
+            this.missCount++;
+        } else {
+            this.hitCount++;
+            this.savedNanos += entry.getBuildNanos();
+        }
+        return entry;
+    }
+
+    public synchronized void put(
+            String script,
+            long schemaVersion,
+            PegasusClient.JobRequest request,
+            ResultParser resultParser,
+            long buildNanos) {
+        checkSchemaVersion(schemaVersion);
+        if (schemaVersion == this.schemaVersion) {
+            this.cache.put(normalize(script), new Entry(request, resultParser, buildNanos));
+        }
+    }
+
+    private void checkSchemaVersion(long schemaVersion) {
+        if (schemaVersion > this.schemaVersion) {
+            this.cache.clear();
+            this.schemaVersion = schemaVersion;
+        }
+    }
+
+    public synchronized int size() {
+        return this.cache.size();
+    }
+
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+
+    public synchronized double getHitRatio() {
+        long total = this.hitCount + this.missCount;
+        return total == 0 ? 0.0 : (double) this.hitCount / total;
+    }
+
+    public synchronized long getSavedMillis() {
+        return this.savedNanos / 1000000;
+    }
+
+    /**
+     * Collapse whitespaces outside of string literals, so that scripts differing only in
+     * formatting share the same plan.
+     */
+    public static String normalize(String script) {
+        StringBuilder sb = new StringBuilder(script.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (quote != 0) {
+                sb.append(c);
+                if (c == '\\' && i + 1 < script.length()) {
+                    sb.append(script.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+            } else {
+                if (pendingSpace && sb.length() > 0 && isWordChar(c) && isWordChar(lastChar(sb))) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                if (c == '"' || c == '\'') {
+                    quote = c;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static char lastChar(StringBuilder sb) {
+        return sb.charAt(sb.length() - 1);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    public static class Entry {
+        // the job request without the job config, which is filled per query
+        private final PegasusClient.JobRequest request;
+        private final ResultParser resultParser;
+        private final long buildNanos;
+
+        public Entry(PegasusClient.JobRequest request, ResultParser resultParser, long buildNanos) {
+            this.request = request;
+            this.resultParser = resultParser;
+            this.buildNanos = buildNanos;
+        }
+
+        public PegasusClient.JobRequest getRequest() {
+            return request;
+        }
+
+        public ResultParser getResultParser() {
+            return resultParser;
+        }
+
+        public long getBuildNanos() {
+            return buildNanos;
+        }
+    }
+}
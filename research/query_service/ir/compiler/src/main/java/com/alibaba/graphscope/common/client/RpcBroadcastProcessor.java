@@ -16,38 +16,86 @@
 
 package com.alibaba.graphscope.common.client;
 
+import com.alibaba.pegasus.RpcChannel;
 import com.alibaba.pegasus.RpcClient;
 import com.alibaba.pegasus.intf.CloseableIterator;
 import com.alibaba.pegasus.intf.ResultProcessor;
 import com.alibaba.pegasus.service.protocol.PegasusClient;
 
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
 import io.grpc.Status;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RpcBroadcastProcessor implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(RpcBroadcastProcessor.class);
 
     protected RpcClient rpcClient;
     protected RpcChannelFetcher fetcher;
+    // the underlying channels of rpcClient
+    protected List<ManagedChannel> managedChannels;
+
+    private final AtomicLong clientReuseCount = new AtomicLong(0L);
+    private final AtomicLong clientCreateCount = new AtomicLong(0L);
 
     public RpcBroadcastProcessor(RpcChannelFetcher fetcher) {
         this.fetcher = fetcher;
         if (!fetcher.isDynamic()) {
-            this.rpcClient = new RpcClient(fetcher.fetch());
+            updateClient(fetcher.fetch());
         }
     }
 
+    // the channels of a dynamic fetcher are owned and reused by the fetcher, so the client is
+    // rebuilt only if the channels change
+    protected synchronized RpcClient getClient() {
+        if (fetcher.isDynamic()) {
+            List<RpcChannel> channels = fetcher.fetch();
+            List<ManagedChannel> fetched = new ArrayList<>(channels.size());
+            for (RpcChannel channel : channels) {
+                fetched.add(channel.getChannel());
+            }
+            if (this.rpcClient == null || !isSameChannels(fetched, this.managedChannels)) {
+                updateClient(channels);
+            } else {
+                this.clientReuseCount.incrementAndGet();
+            }
+        }
+        return this.rpcClient;
+    }
+
+    private void updateClient(List<RpcChannel> channels) {
+        List<ManagedChannel> managedChannels = new ArrayList<>(channels.size());
+        for (RpcChannel channel : channels) {
+            managedChannels.add(channel.getChannel());
+        }
+        this.rpcClient = new RpcClient(channels);
+        this.managedChannels = managedChannels;
+        this.clientCreateCount.incrementAndGet();
+    }
+
+    private static boolean isSameChannels(List<ManagedChannel> left, List<ManagedChannel> right) {
+        if (left.size() != right.size()) {
+            return false;
+        }
+        for (int i = 0; i < left.size(); i++) {
+            if (left.get(i) != right.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void broadcast(PegasusClient.JobRequest request, ResultProcessor processor) {
         CloseableIterator<PegasusClient.JobResponse> iterator = null;
         try {
-            if (fetcher.isDynamic()) {
-                this.rpcClient = new RpcClient(fetcher.fetch());
-            }
-            iterator = rpcClient.submit(request);
+            iterator = getClient().submit(request);
             // process response
             while (iterator.hasNext()) {
                 PegasusClient.JobResponse response = iterator.next();
@@ -68,8 +116,33 @@ public class RpcBroadcastProcessor implements AutoCloseable {
         }
     }
 
+    public long getClientReuseCount() {
+        return this.clientReuseCount.get();
+    }
+
+    public long getClientCreateCount() {
+        return this.clientCreateCount.get();
+    }
+
+    // number of channels used by the current client which are connected
+    public synchronized int getConnectionCount() {
+        int count = 0;
+        if (this.managedChannels != null) {
+            for (ManagedChannel channel : this.managedChannels) {
+                if (channel.getState(false) == ConnectivityState.READY) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     @Override
     public void close() throws Exception {
-        this.rpcClient.shutdown();
+        if (this.fetcher instanceof AutoCloseable) {
+            ((AutoCloseable) this.fetcher).close();
+        } else if (!this.fetcher.isDynamic() && this.rpcClient != null) {
+            this.rpcClient.shutdown();
+        }
     }
 }
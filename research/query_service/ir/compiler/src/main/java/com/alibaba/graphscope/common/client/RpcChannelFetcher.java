@@ -25,4 +25,9 @@ public interface RpcChannelFetcher {
 
     // dynamic channel need update with the changes of host access url
     boolean isDynamic();
+
+    // the pool that the channels are taken from, null if the channels are not pooled
+    default RpcChannelPool getChannelPool() {
+        return null;
+    }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.client;
+
+import com.alibaba.pegasus.RpcChannel;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ConnectivityState;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Channels keyed by the "host:port" endpoint, shared by all queries. Channels are created when an
+ * endpoint first shows up in the host list, and are shut down after they are not used for
+ * idleTimeoutMs, e.g. the endpoint is removed from the host list. A channel with calls in flight is
+ * never evicted. A background task checks the connectivity of pooled channels and replaces the ones
+ * that are shut down.
+ */
+public class RpcChannelPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RpcChannelPool.class);
+
+    // longer than the 600s deadline of job requests set by RpcClient
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 900000L;
+
+    private final Map<String, PooledChannel> endpointToChannel;
+    private final long idleTimeoutMs;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong createCount = new AtomicLong(0L);
+    private final AtomicLong reuseCount = new AtomicLong(0L);
+    private final AtomicLong evictCount = new AtomicLong(0L);
+
+    public RpcChannelPool() {
+        this(DEFAULT_IDLE_TIMEOUT_MS);
+    }
+
+    public RpcChannelPool(long idleTimeoutMs) {
+        this.endpointToChannel = new ConcurrentHashMap<>();
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder()
+                                .setDaemon(true)
+                                .setNameFormat("rpc-channel-pool")
+                                .build());
+        long checkIntervalMs = Math.max(1000L, idleTimeoutMs / 2);
+        this.scheduler.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        checkChannels();
+                    } catch (Exception e) {
+                        logger.error("check pooled channels failed", e);
+                    }
+                },
+                checkIntervalMs,
+                checkIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /** @param endpoints list of "host:port" */
+    public List<RpcChannel> getChannels(List<String> endpoints) {
+        List<RpcChannel> channels = new ArrayList<>(endpoints.size());
+        long now = System.currentTimeMillis();
+        for (String endpoint : endpoints) {
+            PooledChannel pooled =
+                    this.endpointToChannel.compute(
+                            endpoint,
+                            (k, v) -> {
+                                if (v == null || v.channel.getChannel().isShutdown()) {
+                                    this.createCount.incrementAndGet();
+                                    v = createChannel(k);
+                                } else {
+                                    this.reuseCount.incrementAndGet();
+                                }
+                                v.lastUsedTime = now;
+                                return v;
+                            });
+            channels.add(pooled.channel);
+        }
+        return channels;
+    }
+
+    private static PooledChannel createChannel(String endpoint) {
+        String[] host = endpoint.split(":");
+        logger.info("create channel to [" + endpoint + "]");
+        AtomicInteger inFlightCalls = new AtomicInteger(0);
+        ManagedChannel channel =
+                ManagedChannelBuilder.forAddress(host[0], Integer.valueOf(host[1]))
+                        .usePlaintext()
+                        .intercept(new InFlightCallCounter(inFlightCalls))
+                        .build();
+        return new PooledChannel(new RpcChannel(channel), inFlightCalls);
+    }
+
+    void checkChannels() {
+        for (String endpoint : new ArrayList<>(this.endpointToChannel.keySet())) {
+            List<PooledChannel> evicted = new ArrayList<>(1);
+            // evict in compute, so that a channel being returned by getChannels is never evicted
+            this.endpointToChannel.computeIfPresent(
+                    endpoint,
+                    (k, v) -> {
+                        if (v.inFlightCalls.get() == 0
+                                && System.currentTimeMillis() - v.lastUsedTime
+                                        > this.idleTimeoutMs) {
+                            evicted.add(v);
+                            return null;
+                        }
+                        return v;
+                    });
+            if (!evicted.isEmpty()) {
+                logger.info("evict idle channel to [" + endpoint + "]");
+                this.evictCount.incrementAndGet();
+                evicted.get(0).channel.getChannel().shutdown();
+                continue;
+            }
+            PooledChannel pooled = this.endpointToChannel.get(endpoint);
+            if (pooled == null) {
+                continue;
+            }
+            ManagedChannel channel = pooled.channel.getChannel();
+            // shutdown channels are replaced when they are used next time
+            if (!channel.isShutdown()
+                    && channel.getState(true) == ConnectivityState.TRANSIENT_FAILURE) {
+                logger.warn("channel to [" + endpoint + "] is unhealthy, reconnect now");
+                channel.resetConnectBackoff();
+            }
+        }
+    }
+
+    public long getCreateCount() {
+        return this.createCount.get();
+    }
+
+    public long getReuseCount() {
+        return this.reuseCount.get();
+    }
+
+    public long getEvictCount() {
+        return this.evictCount.get();
+    }
+
+    public int getConnectionCount() {
+        int count = 0;
+        for (PooledChannel pooled : this.endpointToChannel.values()) {
+            if (pooled.channel.getChannel().getState(false) == ConnectivityState.READY) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws Exception {
+        this.scheduler.shutdownNow();
+        for (PooledChannel pooled : this.endpointToChannel.values()) {
+            pooled.channel.shutdown();
+        }
+        this.endpointToChannel.clear();
+    }
+
+    private static class PooledChannel {
+        private final RpcChannel channel;
+        private final AtomicInteger inFlightCalls;
+        private volatile long lastUsedTime;
+
+        private PooledChannel(RpcChannel channel, AtomicInteger inFlightCalls) {
+            this.channel = channel;
+            this.inFlightCalls = inFlightCalls;
+        }
+    }
+
+    /** Counts the calls of a channel that are started but not closed yet */
+    private static class InFlightCallCounter implements ClientInterceptor {
+        private final AtomicInteger inFlightCalls;
+
+        private InFlightCallCounter(AtomicInteger inFlightCalls) {
+            this.inFlightCalls = inFlightCalls;
+        }
+
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+            return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
+                    next.newCall(method, callOptions)) {
+                @Override
+                public void start(Listener<RespT> responseListener, Metadata headers) {
+                    inFlightCalls.incrementAndGet();
+                    try {
+                        super.start(
+                                new ForwardingClientCallListener.SimpleForwardingClientCallListener<
+                                        RespT>(responseListener) {
+                                    @Override
+                                    public void onClose(Status status, Metadata trailers) {
+                                        inFlightCalls.decrementAndGet();
+                                        super.onClose(status, trailers);
+                                    }
+                                },
+                                headers);
+                    } catch (RuntimeException e) {
+                        inFlightCalls.decrementAndGet();
+                        throw e;
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.config;
+
+public class FrontendConfig {
+    // max number of physical plans cached by the query script, 0 means the cache is disabled.
+    // literals are not parameterized, so it is off by default and only pays off for workloads
+    // repeating the very same scripts
+    public static final Config<Integer> PLAN_CACHE_SIZE =
+            Config.intConfig("frontend.plan.cache.size", 0);
+
+    // a cache hit refetches the ir meta only if it is older than this, to check the cached plan
+    public static final Config<Long> PLAN_CACHE_META_CHECK_INTERVAL_MS =
+            Config.longConfig("frontend.plan.cache.meta.check.interval.ms", 1000L);
+}
@@ -23,7 +23,11 @@ import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
 import com.alibaba.graphscope.common.intermediate.operator.OpArg;
 import com.alibaba.graphscope.common.intermediate.process.InterOpProcessor;
 import com.alibaba.graphscope.common.intermediate.process.SinkOutputProcessor;
+import com.alibaba.graphscope.common.intermediate.strategy.DedupEliminationStrategy;
+import com.alibaba.graphscope.common.intermediate.strategy.ExpandGetVFusionStrategy;
 import com.alibaba.graphscope.common.intermediate.strategy.InterOpStrategy;
+import com.alibaba.graphscope.common.intermediate.strategy.LimitPushDownStrategy;
+import com.alibaba.graphscope.common.intermediate.strategy.PredicatePushDownStrategy;
 import com.alibaba.graphscope.common.intermediate.strategy.TopKStrategy;
 
 import org.apache.commons.collections.list.UnmodifiableList;
@@ -36,7 +40,14 @@ import java.util.Optional;
 // collection of intermediate operators
 public class InterOpCollection {
     private List<InterOpBase> opCollection;
-    private static List<InterOpStrategy> strategies = Arrays.asList(TopKStrategy.INSTANCE);
+    // in order, fusion first as only edges are filtered by the predicates of expand
+    private static List<InterOpStrategy> strategies =
+            Arrays.asList(
+                    ExpandGetVFusionStrategy.INSTANCE,
+                    PredicatePushDownStrategy.INSTANCE,
+                    LimitPushDownStrategy.INSTANCE,
+                    DedupEliminationStrategy.INSTANCE,
+                    TopKStrategy.INSTANCE);
     private static List<InterOpProcessor> processors = Arrays.asList(SinkOutputProcessor.INSTANCE);
 
     public InterOpCollection() {
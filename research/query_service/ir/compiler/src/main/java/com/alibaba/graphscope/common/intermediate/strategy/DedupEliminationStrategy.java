@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.intermediate.strategy;
+
+import com.alibaba.graphscope.common.intermediate.ArgUtils;
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.DedupOp;
+import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
+import com.alibaba.graphscope.common.intermediate.operator.OpArg;
+import com.alibaba.graphscope.common.intermediate.operator.ScanFusionOp;
+import com.alibaba.graphscope.common.jna.type.FfiVariable;
+import com.alibaba.graphscope.common.utils.ClassUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+// remove dedup on the output of the same dedup, or on the head of a scan which is unique already
+public class DedupEliminationStrategy implements InterOpStrategy {
+    public static DedupEliminationStrategy INSTANCE = new DedupEliminationStrategy();
+
+    private DedupEliminationStrategy() {}
+
+    @Override
+    public void apply(InterOpCollection opCollection) {
+        List<InterOpBase> original = opCollection.unmodifiableCollection();
+        for (int i = original.size() - 1; i >= 1; --i) {
+            InterOpBase cur = original.get(i);
+            InterOpBase prev = original.get(i - 1);
+            if (!(cur instanceof DedupOp)) {
+                continue;
+            }
+            Optional<OpArg> curAlias = cur.getAlias();
+            // the alias is moved to the previous op, which outputs the same records
+            if (curAlias.isPresent() && prev.getAlias().isPresent()) {
+                continue;
+            }
+            List<FfiVariable.ByValue> keys = dedupKeys((DedupOp) cur);
+            if (isDedupOn(prev, keys) || isUniqueScan(prev, keys)) {
+                if (curAlias.isPresent()) {
+                    prev.setAlias(curAlias.get());
+                }
+                opCollection.removeInterOp(i);
+            }
+        }
+    }
+
+    private boolean isDedupOn(InterOpBase prev, List<FfiVariable.ByValue> keys) {
+        return prev instanceof DedupOp && keys != null && keys.equals(dedupKeys((DedupOp) prev));
+    }
+
+    // a scan outputs each vertex or edge once, unless indexed by duplicate ids
+    private boolean isUniqueScan(InterOpBase prev, List<FfiVariable.ByValue> keys) {
+        if (!ClassUtils.equalClass(prev, ScanFusionOp.class)
+                || ((ScanFusionOp) prev).getIds().isPresent()
+                || keys == null
+                || keys.size() != 1) {
+            return false;
+        }
+        FfiVariable key = keys.get(0);
+        return ArgUtils.tagName(key.tag).isEmpty() && ArgUtils.propertyName(key.property).isEmpty();
+    }
+
+    private List<FfiVariable.ByValue> dedupKeys(DedupOp dedupOp) {
+        Optional<OpArg> keys = dedupOp.getDedupKeys();
+        return keys.isPresent() ? (List<FfiVariable.ByValue>) keys.get().applyArg() : null;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.intermediate.strategy;
+
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.ExpandOp;
+import com.alibaba.graphscope.common.intermediate.operator.GetVOp;
+import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
+import com.alibaba.graphscope.common.intermediate.operator.OpArg;
+import com.alibaba.graphscope.common.jna.type.FfiDirection;
+import com.alibaba.graphscope.common.jna.type.FfiVOpt;
+import com.alibaba.graphscope.common.utils.ClassUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+// fuse outE().inV(), inE().outV() and xE().otherV() into a single expand to vertices
+public class ExpandGetVFusionStrategy implements InterOpStrategy {
+    public static ExpandGetVFusionStrategy INSTANCE = new ExpandGetVFusionStrategy();
+
+    private ExpandGetVFusionStrategy() {}
+
+    @Override
+    public void apply(InterOpCollection opCollection) {
+        List<InterOpBase> original = opCollection.unmodifiableCollection();
+        for (int i = original.size() - 2; i >= 0; --i) {
+            InterOpBase cur = original.get(i);
+            InterOpBase next = original.get(i + 1);
+            if (ClassUtils.equalClass(cur, ExpandOp.class)
+                    && next instanceof GetVOp
+                    && canFuse((ExpandOp) cur, (GetVOp) next)) {
+                ExpandOp expandOp = (ExpandOp) cur;
+                expandOp.setEdgeOpt(new OpArg<>(Boolean.valueOf(false), Function.identity()));
+                Optional<OpArg> nextAlias = next.getAlias();
+                if (nextAlias.isPresent()) {
+                    expandOp.setAlias(nextAlias.get());
+                }
+                opCollection.removeInterOp(i + 1);
+            }
+        }
+    }
+
+    // the edges can not be referred any more, and the predicate of expand only filters edges
+    private boolean canFuse(ExpandOp expandOp, GetVOp getVOp) {
+        if (expandOp.getAlias().isPresent()
+                || expandOp.getPredicate().isPresent()
+                || !expandOp.getIsEdge().isPresent()
+                || !expandOp.getDirection().isPresent()
+                || !getVOp.getGetVOpt().isPresent()) {
+            return false;
+        }
+        Boolean isEdge = (Boolean) expandOp.getIsEdge().get().applyArg();
+        if (!isEdge) {
+            return false;
+        }
+        FfiDirection direction = (FfiDirection) expandOp.getDirection().get().applyArg();
+        FfiVOpt vOpt = (FfiVOpt) getVOp.getGetVOpt().get().applyArg();
+        return vOpt == FfiVOpt.Other
+                || direction == FfiDirection.Out && vOpt == FfiVOpt.End
+                || direction == FfiDirection.In && vOpt == FfiVOpt.Start;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.intermediate.strategy;
+
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
+import com.alibaba.graphscope.common.intermediate.operator.LimitOp;
+import com.alibaba.graphscope.common.intermediate.operator.ScanFusionOp;
+import com.alibaba.graphscope.common.utils.ClassUtils;
+
+import java.util.List;
+
+// bound the scan of each partition by the limit following it,
+// a limit is not moved before projections, which are not 1:1 in general,
+// i.e. values("name") drops the elements without the property
+public class LimitPushDownStrategy implements InterOpStrategy {
+    public static LimitPushDownStrategy INSTANCE = new LimitPushDownStrategy();
+
+    private LimitPushDownStrategy() {}
+
+    @Override
+    public void apply(InterOpCollection opCollection) {
+        List<InterOpBase> original = opCollection.unmodifiableCollection();
+        // the limit is kept, as the scan of each partition is bounded separately
+        for (int i = 0; i < original.size() - 1; ++i) {
+            InterOpBase cur = original.get(i);
+            InterOpBase next = original.get(i + 1);
+            if (ClassUtils.equalClass(cur, ScanFusionOp.class)
+                    && next instanceof LimitOp
+                    && ((LimitOp) next).getUpper().isPresent()) {
+                ScanFusionOp scanOp = (ScanFusionOp) cur;
+                if (!scanOp.getLimit().isPresent()) {
+                    scanOp.setLimit(((LimitOp) next).getUpper().get());
+                }
+            }
+        }
+    }
+}
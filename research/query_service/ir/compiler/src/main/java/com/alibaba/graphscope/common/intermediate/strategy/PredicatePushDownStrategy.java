@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.intermediate.strategy;
+
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.ExpandOp;
+import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
+import com.alibaba.graphscope.common.intermediate.operator.OpArg;
+import com.alibaba.graphscope.common.intermediate.operator.ScanFusionOp;
+import com.alibaba.graphscope.common.intermediate.operator.SelectOp;
+import com.alibaba.graphscope.common.utils.ClassUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// fuse select into the params of the preceding scan or edge expand
+public class PredicatePushDownStrategy implements InterOpStrategy {
+    public static PredicatePushDownStrategy INSTANCE = new PredicatePushDownStrategy();
+
+    // @a, @a.name refer to tagged entries, only @ and @.name refer to the head
+    private static Pattern TAG_PATTERN = Pattern.compile("@[^.\\s)]");
+
+    private PredicatePushDownStrategy() {}
+
+    @Override
+    public void apply(InterOpCollection opCollection) {
+        List<InterOpBase> original = opCollection.unmodifiableCollection();
+        int i = original.size() - 2;
+        while (i >= 0) {
+            // retry the same op, which may be followed by another select
+            if (i + 1 < original.size() && pushDown(opCollection, i)) {
+                continue;
+            }
+            --i;
+        }
+    }
+
+    // fuse the select at i + 1 into the op at i, return false if it can not be fused
+    private boolean pushDown(InterOpCollection opCollection, int i) {
+        List<InterOpBase> original = opCollection.unmodifiableCollection();
+        InterOpBase cur = original.get(i);
+        InterOpBase next = original.get(i + 1);
+        if (!(next instanceof SelectOp) || next.getAlias().isPresent()) {
+            return false;
+        }
+        Optional<String> predicate = headPredicate((SelectOp) next);
+        if (!predicate.isPresent()) {
+            return false;
+        }
+        if (ClassUtils.equalClass(cur, ScanFusionOp.class)) {
+            ScanFusionOp scanOp = (ScanFusionOp) cur;
+            // the predicate should be evaluated before the limit
+            if (scanOp.getLimit().isPresent()) {
+                return false;
+            }
+            scanOp.setPredicate(and(scanOp.getPredicate(), predicate.get()));
+        } else if (ClassUtils.equalClass(cur, ExpandOp.class) && isEdgeExpand((ExpandOp) cur)) {
+            ExpandOp expandOp = (ExpandOp) cur;
+            if (expandOp.getLimit().isPresent()) {
+                return false;
+            }
+            expandOp.setPredicate(and(expandOp.getPredicate(), predicate.get()));
+        } else {
+            return false;
+        }
+        opCollection.removeInterOp(i + 1);
+        return true;
+    }
+
+    private Optional<String> headPredicate(SelectOp selectOp) {
+        if (!selectOp.getPredicate().isPresent()) {
+            return Optional.empty();
+        }
+        String expr = (String) selectOp.getPredicate().get().applyArg();
+        return TAG_PATTERN.matcher(expr).find() ? Optional.empty() : Optional.of(expr);
+    }
+
+    // the predicate of expand is evaluated on the edges
+    private boolean isEdgeExpand(ExpandOp expandOp) {
+        Optional<OpArg> edgeOpt = expandOp.getIsEdge();
+        return edgeOpt.isPresent() && (Boolean) edgeOpt.get().applyArg();
+    }
+
+    private OpArg and(Optional<OpArg> original, String predicate) {
+        String expr =
+                original.isPresent()
+                        ? String.format("(%s) && (%s)", original.get().applyArg(), predicate)
+                        : predicate;
+        return new OpArg<>(expr, Function.identity());
+    }
+}
@@ -23,14 +23,75 @@ import java.util.Optional;
 public abstract class IrMetaFetcher {
     private static IrCoreLibrary irCoreLib = IrCoreLibrary.INSTANCE;
 
+    // the meta set to the ir core, replaced as a whole so readers need no lock
+    private volatile MetaState state = new MetaState(-1L, 0L, null);
+    // time of the last successful fetch
+    private volatile long lastFetchMillis = 0L;
+
     protected abstract Optional<String> getIrMeta();
 
+    /**
+     * @return the version of the meta returned by {@link #getIrMeta()}, which changes only if the
+     *     meta changes, or -1 if the meta is not versioned and has to be rebuilt to be compared
+     */
+    protected long getIrMetaVersion() {
+        return -1L;
+    }
+
     public void fetch() {
+        long fetchMillis = System.currentTimeMillis();
+        // read the version before building the meta, so a newer meta is never skipped
+        long metaVersion = getIrMetaVersion();
+        if (metaVersion < 0 || metaVersion != this.state.metaVersion) {
+            update(metaVersion);
+        }
+        this.lastFetchMillis = fetchMillis;
+    }
+
+    /**
+     * Same as {@link #fetch()}, but does nothing if the meta has been fetched within the last
+     * maxAgeMs milliseconds.
+     */
+    public void fetch(long maxAgeMs) {
+        if (System.currentTimeMillis() - this.lastFetchMillis < maxAgeMs) {
+            return;
+        }
+        fetch();
+    }
+
+    private synchronized void update(long metaVersion) {
+        MetaState current = this.state;
+        if (metaVersion >= 0 && metaVersion == current.metaVersion) {
+            return;
+        }
         Optional<String> irMetaOpt = getIrMeta();
         if (irMetaOpt.isPresent()) {
-            irCoreLib.setSchema(irMetaOpt.get());
+            String meta = irMetaOpt.get();
+            long schemaVersion = current.schemaVersion;
+            if (!meta.equals(current.irMeta)) {
+                irCoreLib.setSchema(meta);
+                schemaVersion++;
+            }
+            this.state = new MetaState(metaVersion, schemaVersion, meta);
         } else {
             throw new RuntimeException("ir meta is not ready, retry please");
         }
     }
+
+    // increased each time a different ir meta is set to the ir core
+    public long getSchemaVersion() {
+        return this.state.schemaVersion;
+    }
+
+    private static class MetaState {
+        private final long metaVersion;
+        private final long schemaVersion;
+        private final String irMeta;
+
+        private MetaState(long metaVersion, long schemaVersion, String irMeta) {
+            this.metaVersion = metaVersion;
+            this.schemaVersion = schemaVersion;
+            this.irMeta = irMeta;
+        }
+    }
 }
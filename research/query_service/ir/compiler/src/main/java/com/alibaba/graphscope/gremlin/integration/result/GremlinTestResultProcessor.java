@@ -60,6 +60,12 @@ public class GremlinTestResultProcessor extends GremlinResultProcessor {
         }
     }
 
+    @Override
+    protected boolean streamResult() {
+        // all results are formatted as test traversers in finish
+        return false;
+    }
+
     @Override
     protected void formatResultIfNeed() {
         super.formatResultIfNeed();
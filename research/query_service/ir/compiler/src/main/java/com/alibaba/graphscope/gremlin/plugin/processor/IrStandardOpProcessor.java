@@ -25,9 +25,13 @@
 
 package com.alibaba.graphscope.gremlin.plugin.processor;
 
+import static com.codahale.metrics.MetricRegistry.name;
+
 import com.alibaba.graphscope.common.IrPlan;
+import com.alibaba.graphscope.common.IrPlanCache;
 import com.alibaba.graphscope.common.client.*;
 import com.alibaba.graphscope.common.config.Configs;
+import com.alibaba.graphscope.common.config.FrontendConfig;
 import com.alibaba.graphscope.common.config.PegasusConfig;
 import com.alibaba.graphscope.common.intermediate.InterOpCollection;
 import com.alibaba.graphscope.common.store.IrMetaFetcher;
@@ -39,8 +43,10 @@ import com.alibaba.graphscope.gremlin.plugin.strategy.ScanFusionStepStrategy;
 import com.alibaba.graphscope.gremlin.result.GremlinResultAnalyzer;
 import com.alibaba.graphscope.gremlin.result.GremlinResultProcessor;
 import com.alibaba.pegasus.service.protocol.PegasusClient;
+import com.codahale.metrics.Gauge;
 import com.google.protobuf.InvalidProtocolBufferException;
 
+import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
@@ -52,10 +58,10 @@ import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
 import org.apache.tinkerpop.gremlin.server.Context;
-import org.apache.tinkerpop.gremlin.server.Settings;
 import org.apache.tinkerpop.gremlin.server.op.AbstractEvalOpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
 import org.apache.tinkerpop.gremlin.server.op.standard.StandardOpProcessor;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.codehaus.groovy.control.MultipleCompilationErrorsException;
 import org.slf4j.Logger;
@@ -64,7 +70,11 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
@@ -80,6 +90,9 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
     protected Configs configs;
     protected RpcBroadcastProcessor broadcastProcessor;
     protected IrMetaFetcher irMetaFetcher;
+    // null if the plan cache is disabled
+    protected IrPlanCache planCache;
+    protected long planCacheMetaCheckIntervalMs;
 
     public IrStandardOpProcessor(
             Configs configs,
@@ -92,6 +105,65 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
         this.configs = configs;
         this.irMetaFetcher = irMetaFetcher;
         this.broadcastProcessor = new RpcBroadcastProcessor(fetcher);
+        registerRpcMetrics(this.broadcastProcessor);
+        if (fetcher.getChannelPool() != null) {
+            registerChannelPoolMetrics(fetcher.getChannelPool());
+        }
+        int planCacheSize = FrontendConfig.PLAN_CACHE_SIZE.get(configs);
+        if (planCacheSize > 0) {
+            this.planCache = new IrPlanCache(planCacheSize);
+            this.planCacheMetaCheckIntervalMs =
+                    FrontendConfig.PLAN_CACHE_META_CHECK_INTERVAL_MS.get(configs);
+            registerPlanCacheMetrics(this.planCache);
+        }
+    }
+
+    private static void registerRpcMetrics(RpcBroadcastProcessor broadcastProcessor) {
+        MetricManager metricManager = MetricManager.INSTANCE;
+        metricManager.getGauge(
+                (Gauge<Long>) () -> broadcastProcessor.getClientReuseCount(),
+                name(IrStandardOpProcessor.class, "rpc", "client-reuse"));
+        metricManager.getGauge(
+                (Gauge<Long>) () -> broadcastProcessor.getClientCreateCount(),
+                name(IrStandardOpProcessor.class, "rpc", "client-create"));
+        metricManager.getGauge(
+                (Gauge<Integer>) () -> broadcastProcessor.getConnectionCount(),
+                name(IrStandardOpProcessor.class, "rpc", "connections"));
+    }
+
+    private static void registerChannelPoolMetrics(RpcChannelPool channelPool) {
+        MetricManager metricManager = MetricManager.INSTANCE;
+        metricManager.getGauge(
+                (Gauge<Long>) () -> channelPool.getCreateCount(),
+                name(IrStandardOpProcessor.class, "rpc", "channel-create"));
+        metricManager.getGauge(
+                (Gauge<Long>) () -> channelPool.getReuseCount(),
+                name(IrStandardOpProcessor.class, "rpc", "channel-reuse"));
+        metricManager.getGauge(
+                (Gauge<Long>) () -> channelPool.getEvictCount(),
+                name(IrStandardOpProcessor.class, "rpc", "channel-evict"));
+        metricManager.getGauge(
+                (Gauge<Integer>) () -> channelPool.getConnectionCount(),
+                name(IrStandardOpProcessor.class, "rpc", "channel-connections"));
+    }
+
+    private static void registerPlanCacheMetrics(IrPlanCache planCache) {
+        MetricManager metricManager = MetricManager.INSTANCE;
+        metricManager.getGauge(
+                (Gauge<Double>) () -> planCache.getHitRatio(),
+                name(IrStandardOpProcessor.class, "plan-cache", "hit-ratio"));
+        metricManager.getGauge(
+                (Gauge<Long>) () -> planCache.getHitCount(),
+                name(IrStandardOpProcessor.class, "plan-cache", "hit"));
+        metricManager.getGauge(
+                (Gauge<Long>) () -> planCache.getMissCount(),
+                name(IrStandardOpProcessor.class, "plan-cache", "miss"));
+        metricManager.getGauge(
+                (Gauge<Long>) () -> planCache.getSavedMillis(),
+                name(IrStandardOpProcessor.class, "plan-cache", "saved-ms"));
+        metricManager.getGauge(
+                (Gauge<Integer>) () -> planCache.size(),
+                name(IrStandardOpProcessor.class, "plan-cache", "size"));
     }
 
     @Override
@@ -112,8 +184,15 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                 createLifeCycle(ctx, gremlinExecutorSupplier, bindingsSupplier);
 
         try {
-            CompletableFuture<Object> evalFuture =
-                    gremlinExecutor.eval(script, language, bindings, lifeCycle);
+            CompletableFuture<Object> evalFuture;
+            IrPlanCache.Entry cachedPlan = getCachedPlan(msg, script);
+            if (cachedPlan != null) {
+                // skip parsing and planning, submit the cached physical plan directly
+                evalFuture =
+                        evalCachedPlan(ctx, gremlinExecutor, cachedPlan, getEvaluationTimeout(ctx));
+            } else {
+                evalFuture = gremlinExecutor.eval(script, language, bindings, lifeCycle);
+            }
             evalFuture.handle(
                     (v, t) -> {
                         long elapsed = timerContext.stop();
@@ -225,22 +304,94 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
         }
     }
 
+    private IrPlanCache.Entry getCachedPlan(RequestMessage msg, String script) {
+        if (planCache == null || script == null) {
+            return null;
+        }
+        // the plan is cached by the script only, which is wrong if it refers to bindings
+        Object requestBindings = msg.getArgs().get(Tokens.ARGS_BINDINGS);
+        if (requestBindings instanceof Map && !((Map) requestBindings).isEmpty()) {
+            return null;
+        }
+        try {
+            irMetaFetcher.fetch(planCacheMetaCheckIntervalMs);
+        } catch (Exception e) {
+            // fall back to the normal path which reports the error
+            return null;
+        }
+        return planCache.get(script, irMetaFetcher.getSchemaVersion());
+    }
+
+    /**
+     * Submit the cached plan on the executor of the gremlin executor, and cancel it once the
+     * evaluation timeout is exceeded, the same as {@link GremlinExecutor} does for a script.
+     */
+    private CompletableFuture<Object> evalCachedPlan(
+            Context ctx,
+            GremlinExecutor gremlinExecutor,
+            IrPlanCache.Entry cachedPlan,
+            long evaluationTimeout) {
+        CompletableFuture<Object> evalFuture = new CompletableFuture<>();
+        FutureTask<Void> evalTask =
+                new FutureTask<>(
+                        () -> {
+                            try {
+                                submitJob(
+                                        ctx,
+                                        cachedPlan.getRequest(),
+                                        cachedPlan.getResultParser());
+                                evalFuture.complete(null);
+                            } catch (Throwable t) {
+                                evalFuture.completeExceptionally(t);
+                            }
+                            return null;
+                        });
+        Future<?> executionFuture = gremlinExecutor.getExecutorService().submit(evalTask);
+        if (evaluationTimeout > 0) {
+            String timeoutMessage =
+                    String.format(
+                            "Evaluation exceeded the configured 'evaluationTimeout' threshold of %s"
+                                    + " ms for the cached plan of request [%s]",
+                            evaluationTimeout,
+                            ctx.getRequestMessage());
+            ScheduledFuture<?> timeoutFuture =
+                    gremlinExecutor
+                            .getScheduledExecutorService()
+                            .schedule(
+                                    () -> {
+                                        executionFuture.cancel(true);
+                                        evalFuture.completeExceptionally(
+                                                new TimeoutException(timeoutMessage));
+                                    },
+                                    evaluationTimeout,
+                                    TimeUnit.MILLISECONDS);
+            evalFuture.whenComplete((v, t) -> timeoutFuture.cancel(false));
+        }
+        return evalFuture;
+    }
+
+    private long getEvaluationTimeout(Context ctx) {
+        Map<String, Object> args = ctx.getRequestMessage().getArgs();
+        return args.containsKey("evaluationTimeout")
+                ? ((Number) args.get("evaluationTimeout")).longValue()
+                : ctx.getSettings().getEvaluationTimeout();
+    }
+
     protected GremlinExecutor.LifeCycle createLifeCycle(
             Context ctx,
             Supplier<GremlinExecutor> gremlinExecutorSupplier,
             BindingSupplier bindingsSupplier) {
         final RequestMessage msg = ctx.getRequestMessage();
-        final Settings settings = ctx.getSettings();
         final Map<String, Object> args = msg.getArgs();
-        long seto =
-                args.containsKey("evaluationTimeout")
-                        ? ((Number) args.get("evaluationTimeout")).longValue()
-                        : settings.getEvaluationTimeout();
+        final String script = (String) args.get("gremlin");
+        long seto = getEvaluationTimeout(ctx);
+        final AtomicLong evalStartNanos = new AtomicLong();
 
         return GremlinExecutor.LifeCycle.build()
                 .evaluationTimeoutOverride(seto)
                 .beforeEval(
                         b -> {
+                            evalStartNanos.set(System.nanoTime());
                             try {
                                 b.putAll(bindingsSupplier.get());
                                 b.put("graph", graph);
@@ -262,6 +413,7 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                                 if (o != null && o instanceof Traversal) {
                                     // update the schema before the query is submitted
                                     irMetaFetcher.fetch();
+                                    long schemaVersion = irMetaFetcher.getSchemaVersion();
 
                                     InterOpCollection opCollection =
                                             (new InterOpCollectionBuilder((Traversal) o)).build();
@@ -271,44 +423,19 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                                     byte[] physicalPlanBytes = irPlan.toPhysicalBytes(configs);
                                     irPlan.close();
 
-                                    int serverNum = PegasusConfig.PEGASUS_SERVER_NUM.get(configs);
-                                    List<Long> servers = new ArrayList<>();
-                                    for (long i = 0; i < serverNum; ++i) {
-                                        servers.add(i);
-                                    }
-
-                                    long jobId = JOB_ID_COUNTER.incrementAndGet();
-                                    String jobName = "ir_plan_" + jobId;
-
                                     PegasusClient.JobRequest request =
                                             PegasusClient.JobRequest.parseFrom(physicalPlanBytes);
-                                    PegasusClient.JobConfig jobConfig =
-                                            PegasusClient.JobConfig.newBuilder()
-                                                    .setJobId(jobId)
-                                                    .setJobName(jobName)
-                                                    .setWorkers(
-                                                            PegasusConfig.PEGASUS_WORKER_NUM.get(
-                                                                    configs))
-                                                    .setBatchSize(
-                                                            PegasusConfig.PEGASUS_BATCH_SIZE.get(
-                                                                    configs))
-                                                    .setMemoryLimit(
-                                                            PegasusConfig.PEGASUS_MEMORY_LIMIT.get(
-                                                                    configs))
-                                                    .setOutputCapacity(
-                                                            PegasusConfig.PEGASUS_OUTPUT_CAPACITY
-                                                                    .get(configs))
-                                                    .setTimeLimit(
-                                                            PegasusConfig.PEGASUS_TIMEOUT.get(
-                                                                    configs))
-                                                    .addAllServers(servers)
-                                                    .build();
-                                    request = request.toBuilder().setConf(jobConfig).build();
-
                                     ResultParser resultParser =
                                             GremlinResultAnalyzer.analyze((Traversal) o);
-                                    broadcastProcessor.broadcast(
-                                            request, new GremlinResultProcessor(ctx, resultParser));
+                                    if (planCache != null && script != null) {
+                                        planCache.put(
+                                                script,
+                                                schemaVersion,
+                                                request,
+                                                resultParser,
+                                                System.nanoTime() - evalStartNanos.get());
+                                    }
+                                    submitJob(ctx, request, resultParser);
                                 }
                             } catch (InvalidProtocolBufferException e) {
                                 throw new RuntimeException(e);
@@ -319,6 +446,33 @@ public class IrStandardOpProcessor extends StandardOpProcessor {
                 .create();
     }
 
+    protected void submitJob(
+            Context ctx, PegasusClient.JobRequest request, ResultParser resultParser) {
+        int serverNum = PegasusConfig.PEGASUS_SERVER_NUM.get(configs);
+        List<Long> servers = new ArrayList<>();
+        for (long i = 0; i < serverNum; ++i) {
+            servers.add(i);
+        }
+
+        long jobId = JOB_ID_COUNTER.incrementAndGet();
+        String jobName = "ir_plan_" + jobId;
+
+        PegasusClient.JobConfig jobConfig =
+                PegasusClient.JobConfig.newBuilder()
+                        .setJobId(jobId)
+                        .setJobName(jobName)
+                        .setWorkers(PegasusConfig.PEGASUS_WORKER_NUM.get(configs))
+                        .setBatchSize(PegasusConfig.PEGASUS_BATCH_SIZE.get(configs))
+                        .setMemoryLimit(PegasusConfig.PEGASUS_MEMORY_LIMIT.get(configs))
+                        .setOutputCapacity(PegasusConfig.PEGASUS_OUTPUT_CAPACITY.get(configs))
+                        .setTimeLimit(PegasusConfig.PEGASUS_TIMEOUT.get(configs))
+                        .addAllServers(servers)
+                        .build();
+        request = request.toBuilder().setConf(jobConfig).build();
+
+        broadcastProcessor.broadcast(request, new GremlinResultProcessor(ctx, resultParser));
+    }
+
     public static void applyStrategies(Traversal traversal) {
         TraversalStrategies traversalStrategies = traversal.asAdmin().getStrategies();
         Set<TraversalStrategy<?>> strategies =
@@ -24,6 +24,7 @@ import io.grpc.Status;
 import io.netty.channel.ChannelHandlerContext;
 
 import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
@@ -43,10 +44,25 @@ public class GremlinResultProcessor extends StandardOpProcessor implements Resul
     protected List<Object> resultCollectors = new ArrayList<>();
     protected boolean locked = false;
     protected ResultParser resultParser;
+    protected int resultBatchSize;
+    protected long evaluationTimeoutMs;
+    protected long startNanos;
 
     public GremlinResultProcessor(Context writeResult, ResultParser resultParser) {
         this.writeResult = writeResult;
         this.resultParser = resultParser;
+        this.startNanos = System.nanoTime();
+        Map<String, Object> args = writeResult.getRequestMessage().getArgs();
+        this.evaluationTimeoutMs =
+                args.containsKey("evaluationTimeout")
+                        ? ((Number) args.get("evaluationTimeout")).longValue()
+                        : writeResult.getSettings().getEvaluationTimeout();
+        this.resultBatchSize =
+                (Integer)
+                        writeResult
+                                .getRequestMessage()
+                                .optionalArgs(Tokens.ARGS_BATCH_SIZE)
+                                .orElse(writeResult.getSettings().resultIterationBatchSize);
     }
 
     @Override
@@ -55,6 +71,9 @@ public class GremlinResultProcessor extends StandardOpProcessor implements Resul
             try {
                 if (!locked) {
                     resultCollectors.addAll(resultParser.parseFrom(response));
+                    if (streamResult()) {
+                        writePartialResult();
+                    }
                 }
             } catch (Exception e) {
                 writeResultList(
@@ -79,6 +98,21 @@ public class GremlinResultProcessor extends StandardOpProcessor implements Resul
         }
     }
 
+    // whether results can be written before all responses arrive, group result need to be merged
+    protected boolean streamResult() {
+        return resultParser != GremlinResultParserFactory.GROUP;
+    }
+
+    // write full batches as partial content, the rest is left to finish
+    protected void writePartialResult() {
+        while (resultBatchSize > 0 && resultCollectors.size() >= resultBatchSize) {
+            List<Object> batch = resultCollectors.subList(0, resultBatchSize);
+            writeResultList(
+                    writeResult, new ArrayList<>(batch), ResponseStatusCode.PARTIAL_CONTENT);
+            batch.clear();
+        }
+    }
+
     // format group result as a single map
     protected void formatResultIfNeed() {
         if (resultParser == GremlinResultParserFactory.GROUP) {
@@ -124,56 +158,71 @@ public class GremlinResultProcessor extends StandardOpProcessor implements Resul
             return;
         }
 
-        boolean retryOnce = false;
-        while (true) {
-            if (ctx.channel().isWritable()) {
-                Frame frame = null;
-                try {
-                    frame =
-                            makeFrame(
-                                    context,
-                                    msg,
-                                    serializer,
-                                    useBinary,
-                                    resultList,
-                                    statusCode,
-                                    Collections.emptyMap(),
-                                    Collections.emptyMap());
-                    ctx.writeAndFlush(frame).get();
-                    break;
-                } catch (Exception e) {
-                    if (frame != null) {
-                        frame.tryRelease();
-                    }
-                    logger.error(
-                            "write "
-                                    + resultList.size()
-                                    + " result to context "
-                                    + context
-                                    + " status code=>"
-                                    + statusCode
-                                    + " fail",
-                            e);
-                    throw new RuntimeException(e);
-                }
-            } else {
-                if (retryOnce) {
-                    String message =
-                            "write result to context fail for context " + msg + " is too busy";
-                    logger.error(message);
-                    throw new RuntimeException(message);
-                } else {
-                    logger.warn(
-                            "Pausing response writing as writeBufferHighWaterMark exceeded on "
-                                    + msg
-                                    + " - writing will continue once client has caught up");
-                    retryOnce = true;
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(10L);
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
+        waitForWritable(ctx, msg);
+        Frame frame = null;
+        try {
+            frame =
+                    makeFrame(
+                            context,
+                            msg,
+                            serializer,
+                            useBinary,
+                            resultList,
+                            statusCode,
+                            Collections.emptyMap(),
+                            Collections.emptyMap());
+            ctx.writeAndFlush(frame).get();
+        } catch (Exception e) {
+            if (frame != null) {
+                frame.tryRelease();
+            }
+            logger.error(
+                    "write "
+                            + resultList.size()
+                            + " result to context "
+                            + context
+                            + " status code=>"
+                            + statusCode
+                            + " fail",
+                    e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Block until the client has caught up and the channel is writable again, which holds back the
+     * responses of the query instead of failing it. Fails only if the channel is closed or the
+     * evaluation timeout of the query is exceeded.
+     */
+    protected void waitForWritable(ChannelHandlerContext ctx, RequestMessage msg) {
+        boolean warned = false;
+        while (!ctx.channel().isWritable()) {
+            if (!ctx.channel().isActive()) {
+                throw new RuntimeException("channel is closed before writing result of " + msg);
+            }
+            if (evaluationTimeoutMs > 0
+                    && System.nanoTime() - startNanos
+                            > TimeUnit.MILLISECONDS.toNanos(evaluationTimeoutMs)) {
+                String message =
+                        "client did not catch up within the evaluation timeout of "
+                                + evaluationTimeoutMs
+                                + " ms for "
+                                + msg;
+                logger.error(message);
+                throw new RuntimeException(message);
+            }
+            if (!warned) {
+                logger.warn(
+                        "Pausing response writing as writeBufferHighWaterMark exceeded on "
+                                + msg
+                                + " - writing will continue once client has caught up");
+                warned = true;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(10L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
             }
         }
     }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common;
+
+import com.alibaba.graphscope.gremlin.result.GremlinResultParserFactory;
+import com.alibaba.pegasus.service.protocol.PegasusClient;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IrPlanCacheTest {
+    private PegasusClient.JobRequest request = PegasusClient.JobRequest.newBuilder().build();
+
+    @Test
+    public void normalizeTest() {
+        Assert.assertEquals(
+                IrPlanCache.normalize("g.V().has('name', 'marko').out()"),
+                IrPlanCache.normalize(" g.V() .has( 'name' ,'marko')\n.out() "));
+        Assert.assertNotEquals(
+                IrPlanCache.normalize("g.V().has('name', 'marko')"),
+                IrPlanCache.normalize("g.V().has('name', 'mar ko')"));
+    }
+
+    @Test
+    public void hitAndEvictTest() {
+        IrPlanCache cache = new IrPlanCache(2);
+        Assert.assertNull(cache.get("g.V()", 1L));
+        cache.put("g.V()", 1L, request, GremlinResultParserFactory.GRAPH_ELEMENT, 1000000L);
+        cache.put("g.E()", 1L, request, GremlinResultParserFactory.GRAPH_ELEMENT, 1000000L);
+        Assert.assertNotNull(cache.get("g.V() ", 1L));
+        // g.E() is the least recently used one
+        cache.put("g.V().count()", 1L, request, GremlinResultParserFactory.SINGLE_VALUE, 0L);
+        Assert.assertNull(cache.get("g.E()", 1L));
+        Assert.assertNotNull(cache.get("g.V()", 1L));
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(0.5, cache.getHitRatio(), 0.0001);
+        Assert.assertEquals(2, cache.getSavedMillis());
+    }
+
+    @Test
+    public void schemaVersionTest() {
+        IrPlanCache cache = new IrPlanCache(2);
+        cache.put("g.V()", 1L, request, GremlinResultParserFactory.GRAPH_ELEMENT, 0L);
+        Assert.assertNull(cache.get("g.V()", 2L));
+        // plans built with an outdated schema are not cached
+        cache.put("g.V()", 1L, request, GremlinResultParserFactory.GRAPH_ELEMENT, 0L);
+        Assert.assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.client;
+
+import com.alibaba.pegasus.RpcChannel;
+import com.alibaba.pegasus.service.protocol.JobServiceGrpc;
+import com.alibaba.pegasus.service.protocol.PegasusClient;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class RpcChannelPoolTest {
+    // nothing listens on the port, channels connect lazily so the pool works without a server
+    private static final List<String> ENDPOINTS = Collections.singletonList("localhost:1");
+    private static final long IDLE_TIMEOUT_MS = 50L;
+
+    @Test
+    public void reuseTest() throws Exception {
+        try (RpcChannelPool pool = new RpcChannelPool(IDLE_TIMEOUT_MS)) {
+            RpcChannel channel = pool.getChannels(ENDPOINTS).get(0);
+            Assert.assertSame(channel, pool.getChannels(ENDPOINTS).get(0));
+            Assert.assertEquals(1, pool.getCreateCount());
+            Assert.assertEquals(1, pool.getReuseCount());
+        }
+    }
+
+    @Test
+    public void evictIdleTest() throws Exception {
+        try (RpcChannelPool pool = new RpcChannelPool(IDLE_TIMEOUT_MS)) {
+            RpcChannel channel = pool.getChannels(ENDPOINTS).get(0);
+            pool.checkChannels();
+            // used recently
+            Assert.assertEquals(0, pool.getEvictCount());
+
+            Thread.sleep(IDLE_TIMEOUT_MS * 2);
+            pool.checkChannels();
+            Assert.assertEquals(1, pool.getEvictCount());
+            Assert.assertTrue(channel.getChannel().isShutdown());
+
+            // the endpoint gets a new channel after eviction
+            RpcChannel recreated = pool.getChannels(ENDPOINTS).get(0);
+            Assert.assertNotSame(channel, recreated);
+            Assert.assertFalse(recreated.getChannel().isShutdown());
+            Assert.assertEquals(2, pool.getCreateCount());
+        }
+    }
+
+    @Test
+    public void keepInFlightTest() throws Exception {
+        try (RpcChannelPool pool = new RpcChannelPool(IDLE_TIMEOUT_MS)) {
+            RpcChannel channel = pool.getChannels(ENDPOINTS).get(0);
+            // wait for ready, so the call stays in flight while the server is unreachable
+            ClientCall<PegasusClient.JobRequest, PegasusClient.JobResponse> call =
+                    channel.getChannel()
+                            .newCall(
+                                    JobServiceGrpc.getSubmitMethod(),
+                                    CallOptions.DEFAULT.withWaitForReady());
+            call.start(new ClientCall.Listener<PegasusClient.JobResponse>() {}, new Metadata());
+
+            Thread.sleep(IDLE_TIMEOUT_MS * 2);
+            pool.checkChannels();
+            Assert.assertEquals(0, pool.getEvictCount());
+            Assert.assertFalse(channel.getChannel().isShutdown());
+
+            // the channel is idle once the call is closed
+            call.cancel("test", null);
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (pool.getEvictCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(IDLE_TIMEOUT_MS);
+                pool.checkChannels();
+            }
+            Assert.assertEquals(1, pool.getEvictCount());
+            Assert.assertTrue(channel.getChannel().isShutdown());
+        }
+    }
+
+    @Test
+    public void replaceShutdownTest() throws Exception {
+        try (RpcChannelPool pool = new RpcChannelPool(IDLE_TIMEOUT_MS)) {
+            RpcChannel broken = pool.getChannels(ENDPOINTS).get(0);
+            broken.getChannel().shutdownNow();
+
+            RpcChannel recreated = pool.getChannels(ENDPOINTS).get(0);
+            Assert.assertNotSame(broken, recreated);
+            Assert.assertFalse(recreated.getChannel().isShutdown());
+            Assert.assertEquals(2, pool.getCreateCount());
+            Assert.assertEquals(0, pool.getReuseCount());
+            Assert.assertSame(recreated, pool.getChannels(ENDPOINTS).get(0));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.intermediate.strategy;
+
+import com.alibaba.graphscope.common.intermediate.ArgUtils;
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.DedupOp;
+import com.alibaba.graphscope.common.intermediate.operator.ExpandOp;
+import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
+import com.alibaba.graphscope.common.intermediate.operator.OpArg;
+import com.alibaba.graphscope.common.intermediate.operator.ScanFusionOp;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public class DedupEliminationStrategyTest {
+    private DedupOp dedupHead() {
+        DedupOp dedupOp = new DedupOp();
+        dedupOp.setDedupKeys(
+                new OpArg<>(
+                        Collections.singletonList(ArgUtils.asFfiNoneVar()), Function.identity()));
+        return dedupOp;
+    }
+
+    // out().dedup().dedup()
+    @Test
+    public void dedupDedupTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        DedupOp dedupOp = dedupHead();
+        opCollection.appendInterOp(new ExpandOp());
+        opCollection.appendInterOp(dedupOp);
+        opCollection.appendInterOp(dedupHead());
+
+        DedupEliminationStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertEquals(2, ops.size());
+        Assert.assertSame(dedupOp, ops.get(1));
+    }
+
+    // dedup().dedup("a")
+    @Test
+    public void dedupDifferentKeysTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        DedupOp dedupTag = new DedupOp();
+        dedupTag.setDedupKeys(
+                new OpArg<>(
+                        Collections.singletonList(ArgUtils.asFfiVar("a", "")),
+                        Function.identity()));
+        opCollection.appendInterOp(dedupHead());
+        opCollection.appendInterOp(dedupTag);
+
+        DedupEliminationStrategy.INSTANCE.apply(opCollection);
+
+        Assert.assertEquals(2, opCollection.unmodifiableCollection().size());
+    }
+
+    // g.V().dedup().as("a")
+    @Test
+    public void scanDedupTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        ScanFusionOp scanOp = new ScanFusionOp();
+        DedupOp dedupOp = dedupHead();
+        dedupOp.setAlias(new OpArg<>("a", Function.identity()));
+        opCollection.appendInterOp(scanOp);
+        opCollection.appendInterOp(dedupOp);
+
+        DedupEliminationStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertEquals(1, ops.size());
+        Assert.assertEquals("a", scanOp.getAlias().get().applyArg());
+    }
+
+    // g.V(1, 1).dedup()
+    @Test
+    public void scanIdsDedupTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        ScanFusionOp scanOp = new ScanFusionOp();
+        scanOp.setIds(
+                new OpArg<>(
+                        Arrays.asList(ArgUtils.asFfiConst(1L), ArgUtils.asFfiConst(1L)),
+                        Function.identity()));
+        opCollection.appendInterOp(scanOp);
+        opCollection.appendInterOp(dedupHead());
+
+        DedupEliminationStrategy.INSTANCE.apply(opCollection);
+
+        Assert.assertEquals(2, opCollection.unmodifiableCollection().size());
+    }
+
+    // out().dedup(), the neighbors may be duplicate
+    @Test
+    public void expandDedupTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(new ExpandOp());
+        opCollection.appendInterOp(dedupHead());
+
+        DedupEliminationStrategy.INSTANCE.apply(opCollection);
+
+        Assert.assertEquals(2, opCollection.unmodifiableCollection().size());
+    }
+}
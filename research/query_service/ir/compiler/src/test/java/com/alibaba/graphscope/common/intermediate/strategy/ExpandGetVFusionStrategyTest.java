@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.intermediate.strategy;
+
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.ExpandOp;
+import com.alibaba.graphscope.common.intermediate.operator.GetVOp;
+import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
+import com.alibaba.graphscope.common.intermediate.operator.OpArg;
+import com.alibaba.graphscope.common.jna.type.FfiDirection;
+import com.alibaba.graphscope.common.jna.type.FfiVOpt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class ExpandGetVFusionStrategyTest {
+    private ExpandOp expandEdge(FfiDirection direction) {
+        ExpandOp expandOp = new ExpandOp();
+        expandOp.setDirection(new OpArg<>(direction, Function.identity()));
+        expandOp.setEdgeOpt(new OpArg<>(Boolean.valueOf(true), Function.identity()));
+        return expandOp;
+    }
+
+    private GetVOp getV(FfiVOpt vOpt) {
+        GetVOp getVOp = new GetVOp();
+        getVOp.setGetVOpt(new OpArg<>(vOpt, Function.identity()));
+        return getVOp;
+    }
+
+    // outE().inV() -> out()
+    @Test
+    public void outEInVTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(expandEdge(FfiDirection.Out));
+        opCollection.appendInterOp(getV(FfiVOpt.End));
+
+        ExpandGetVFusionStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertEquals(1, ops.size());
+        ExpandOp expandOp = (ExpandOp) ops.get(0);
+        Assert.assertEquals(false, expandOp.getIsEdge().get().applyArg());
+        Assert.assertEquals(FfiDirection.Out, expandOp.getDirection().get().applyArg());
+    }
+
+    // bothE().otherV() -> both()
+    @Test
+    public void bothEOtherVTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(expandEdge(FfiDirection.Both));
+        opCollection.appendInterOp(getV(FfiVOpt.Other));
+
+        ExpandGetVFusionStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertEquals(1, ops.size());
+        ExpandOp expandOp = (ExpandOp) ops.get(0);
+        Assert.assertEquals(FfiDirection.Both, expandOp.getDirection().get().applyArg());
+    }
+
+    // inE().inV() returns the start vertices
+    @Test
+    public void inEInVTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(expandEdge(FfiDirection.In));
+        opCollection.appendInterOp(getV(FfiVOpt.End));
+
+        ExpandGetVFusionStrategy.INSTANCE.apply(opCollection);
+
+        Assert.assertEquals(2, opCollection.unmodifiableCollection().size());
+    }
+
+    // outE().as("a").inV(), the edges are referred by the tag
+    @Test
+    public void expandWithAliasTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        ExpandOp expandOp = expandEdge(FfiDirection.Out);
+        expandOp.setAlias(new OpArg<>("a", Function.identity()));
+        opCollection.appendInterOp(expandOp);
+        opCollection.appendInterOp(getV(FfiVOpt.End));
+
+        ExpandGetVFusionStrategy.INSTANCE.apply(opCollection);
+
+        Assert.assertEquals(2, opCollection.unmodifiableCollection().size());
+    }
+
+    // outE().inV().as("a")
+    @Test
+    public void getVWithAliasTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(expandEdge(FfiDirection.Out));
+        GetVOp getVOp = getV(FfiVOpt.End);
+        getVOp.setAlias(new OpArg<>("a", Function.identity()));
+        opCollection.appendInterOp(getVOp);
+
+        ExpandGetVFusionStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertEquals(1, ops.size());
+        Assert.assertEquals("a", ops.get(0).getAlias().get().applyArg());
+    }
+}
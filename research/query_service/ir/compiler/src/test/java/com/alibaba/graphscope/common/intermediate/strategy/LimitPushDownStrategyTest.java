@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.intermediate.strategy;
+
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
+import com.alibaba.graphscope.common.intermediate.operator.LimitOp;
+import com.alibaba.graphscope.common.intermediate.operator.OpArg;
+import com.alibaba.graphscope.common.intermediate.operator.ProjectOp;
+import com.alibaba.graphscope.common.intermediate.operator.ScanFusionOp;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class LimitPushDownStrategyTest {
+    private LimitOp limit(int lower, int upper) {
+        LimitOp limitOp = new LimitOp();
+        limitOp.setLower(new OpArg<>(Integer.valueOf(lower), Function.identity()));
+        limitOp.setUpper(new OpArg<>(Integer.valueOf(upper), Function.identity()));
+        return limitOp;
+    }
+
+    // g.V().values("name").limit(10)
+    @Test
+    public void scanProjectLimitTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        ScanFusionOp scanOp = new ScanFusionOp();
+        ProjectOp projectOp = new ProjectOp();
+        LimitOp limitOp = limit(1, 11);
+        opCollection.appendInterOp(scanOp);
+        opCollection.appendInterOp(projectOp);
+        opCollection.appendInterOp(limitOp);
+
+        LimitPushDownStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        // values() drops the vertices without the property, the plan is left unchanged
+        Assert.assertEquals(3, ops.size());
+        Assert.assertSame(scanOp, ops.get(0));
+        Assert.assertSame(projectOp, ops.get(1));
+        Assert.assertSame(limitOp, ops.get(2));
+        Assert.assertFalse(scanOp.getLimit().isPresent());
+    }
+
+    // g.V().limit(10)
+    @Test
+    public void scanLimitTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        ScanFusionOp scanOp = new ScanFusionOp();
+        LimitOp limitOp = limit(1, 11);
+        opCollection.appendInterOp(scanOp);
+        opCollection.appendInterOp(limitOp);
+
+        LimitPushDownStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertEquals(2, ops.size());
+        Assert.assertSame(limitOp, ops.get(1));
+        Assert.assertEquals(11, scanOp.getLimit().get().applyArg());
+    }
+
+    // values("name").limit(10).as("a"), the tag refers to the projected values
+    @Test
+    public void limitWithAliasTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        ProjectOp projectOp = new ProjectOp();
+        LimitOp limitOp = limit(1, 11);
+        limitOp.setAlias(new OpArg<>("a", Function.identity()));
+        opCollection.appendInterOp(projectOp);
+        opCollection.appendInterOp(limitOp);
+
+        LimitPushDownStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertSame(projectOp, ops.get(0));
+        Assert.assertSame(limitOp, ops.get(1));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.intermediate.strategy;
+
+import com.alibaba.graphscope.common.intermediate.InterOpCollection;
+import com.alibaba.graphscope.common.intermediate.operator.ExpandOp;
+import com.alibaba.graphscope.common.intermediate.operator.InterOpBase;
+import com.alibaba.graphscope.common.intermediate.operator.LimitOp;
+import com.alibaba.graphscope.common.intermediate.operator.OpArg;
+import com.alibaba.graphscope.common.intermediate.operator.ScanFusionOp;
+import com.alibaba.graphscope.common.intermediate.operator.SelectOp;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class PredicatePushDownStrategyTest {
+    private SelectOp select(String expr) {
+        SelectOp selectOp = new SelectOp();
+        selectOp.setPredicate(new OpArg<>(expr, Function.identity()));
+        return selectOp;
+    }
+
+    private ExpandOp expand(boolean isEdge) {
+        ExpandOp expandOp = new ExpandOp();
+        expandOp.setEdgeOpt(new OpArg<>(Boolean.valueOf(isEdge), Function.identity()));
+        return expandOp;
+    }
+
+    @Test
+    public void scanSelectTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(new ScanFusionOp());
+        opCollection.appendInterOp(select("@.name == \"marko\""));
+
+        PredicatePushDownStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertEquals(1, ops.size());
+        ScanFusionOp scanOp = (ScanFusionOp) ops.get(0);
+        Assert.assertEquals("@.name == \"marko\"", scanOp.getPredicate().get().applyArg());
+    }
+
+    @Test
+    public void scanPredicateSelectsTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        ScanFusionOp scanOp = new ScanFusionOp();
+        scanOp.setPredicate(new OpArg<>("@.~label == \"person\"", Function.identity()));
+        opCollection.appendInterOp(scanOp);
+        opCollection.appendInterOp(select("@.age > 1"));
+        opCollection.appendInterOp(select("@.name == \"marko\""));
+
+        PredicatePushDownStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertEquals(1, ops.size());
+        Assert.assertEquals(
+                "((@.~label == \"person\") && (@.age > 1)) && (@.name == \"marko\")",
+                scanOp.getPredicate().get().applyArg());
+    }
+
+    @Test
+    public void scanLimitSelectTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        ScanFusionOp scanOp = new ScanFusionOp();
+        scanOp.setLimit(new OpArg<>(Integer.valueOf(11), Function.identity()));
+        opCollection.appendInterOp(scanOp);
+        opCollection.appendInterOp(select("@.age > 1"));
+
+        PredicatePushDownStrategy.INSTANCE.apply(opCollection);
+
+        Assert.assertEquals(2, opCollection.unmodifiableCollection().size());
+    }
+
+    // the predicate refers to the tag instead of the head
+    @Test
+    public void selectTagTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(new ScanFusionOp());
+        opCollection.appendInterOp(select("@a.age > @.age"));
+
+        PredicatePushDownStrategy.INSTANCE.apply(opCollection);
+
+        Assert.assertEquals(2, opCollection.unmodifiableCollection().size());
+    }
+
+    @Test
+    public void expandEdgeSelectTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(expand(true));
+        opCollection.appendInterOp(select("@.weight > 0.5"));
+
+        PredicatePushDownStrategy.INSTANCE.apply(opCollection);
+        List<InterOpBase> ops = opCollection.unmodifiableCollection();
+
+        Assert.assertEquals(1, ops.size());
+        Assert.assertEquals(
+                "@.weight > 0.5", ((ExpandOp) ops.get(0)).getPredicate().get().applyArg());
+    }
+
+    // the predicate of expand only filters edges
+    @Test
+    public void expandVertexSelectTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(expand(false));
+        opCollection.appendInterOp(select("@.age > 1"));
+
+        PredicatePushDownStrategy.INSTANCE.apply(opCollection);
+
+        Assert.assertEquals(2, opCollection.unmodifiableCollection().size());
+    }
+
+    @Test
+    public void limitSelectTest() {
+        InterOpCollection opCollection = new InterOpCollection();
+        opCollection.appendInterOp(new LimitOp());
+        opCollection.appendInterOp(select("@.age > 1"));
+
+        PredicatePushDownStrategy.INSTANCE.apply(opCollection);
+
+        Assert.assertEquals(2, opCollection.unmodifiableCollection().size());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Alibaba Group Holding Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.graphscope.common.store;
+
+import com.alibaba.graphscope.gremlin.Utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public class IrMetaFetcherTest {
+    private static class VersionedMetaFetcher extends IrMetaFetcher {
+        private String meta;
+        private long version;
+        private int buildCount;
+
+        @Override
+        protected Optional<String> getIrMeta() {
+            ++buildCount;
+            return Optional.of(meta);
+        }
+
+        @Override
+        protected long getIrMetaVersion() {
+            return version;
+        }
+    }
+
+    @Test
+    public void rebuildOnVersionChangeTest() throws IOException {
+        VersionedMetaFetcher fetcher = new VersionedMetaFetcher();
+        fetcher.meta = Utils.readStringFromFile("../core/resource/modern_schema.json");
+        fetcher.version = 1L;
+
+        fetcher.fetch();
+        fetcher.fetch();
+        Assert.assertEquals(1, fetcher.buildCount);
+        long schemaVersion = fetcher.getSchemaVersion();
+
+        // the meta is rebuilt, but not set to the ir core if it is the same
+        fetcher.version = 2L;
+        fetcher.fetch();
+        Assert.assertEquals(2, fetcher.buildCount);
+        Assert.assertEquals(schemaVersion, fetcher.getSchemaVersion());
+    }
+
+    @Test
+    public void unversionedMetaTest() throws IOException {
+        VersionedMetaFetcher fetcher = new VersionedMetaFetcher();
+        fetcher.meta = Utils.readStringFromFile("../core/resource/modern_schema.json");
+        fetcher.version = -1L;
+
+        fetcher.fetch();
+        fetcher.fetch();
+        Assert.assertEquals(2, fetcher.buildCount);
+    }
+
+    @Test
+    public void fetchWithMaxAgeTest() throws IOException {
+        VersionedMetaFetcher fetcher = new VersionedMetaFetcher();
+        fetcher.meta = Utils.readStringFromFile("../core/resource/modern_schema.json");
+        fetcher.version = -1L;
+
+        fetcher.fetch(60000L);
+        // fetched just now, skipped
+        fetcher.fetch(60000L);
+        Assert.assertEquals(1, fetcher.buildCount);
+
+        fetcher.fetch(0L);
+        Assert.assertEquals(2, fetcher.buildCount);
+    }
+}